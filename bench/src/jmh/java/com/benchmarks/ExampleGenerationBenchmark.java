@@ -0,0 +1,60 @@
+package com.benchmarks;
+
+import com.controller.InputProcessor;
+import com.controller.business.ExampleLoader;
+import com.controller.generators.GenerationPlan;
+import com.controller.generators.MainGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End to end generation of every built in example of the {@link ExampleLoader}, reported per row.
+ * A generator only moves forward, so every invocation starts from a fresh cursor of the compiled example.
+ * One invocation generates {@link #ROWS} rows, which keeps the per invocation setup out of the measurement
+ * and stays below the 900 rows after which the number part of the license plates runs out.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ExampleGenerationBenchmark {
+    static final int ROWS = 500;
+
+    @Param({"simple_sequential", "business_ids", "euro_license_plate", "dutch_bsn"})
+    public String example;
+
+    private GenerationPlan plan;
+    private MainGenerator generator;
+
+    @Setup
+    public void compile() {
+        plan = InputProcessor.compile(new ExampleLoader().getExample(example).getConfiguration());
+    }
+
+    @Setup(Level.Invocation)
+    public void newGenerator() {
+        generator = plan.newCursor();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void generate(Blackhole blackhole) {
+        generator.generate().limit(ROWS).forEach(blackhole::consume);
+    }
+}
@@ -0,0 +1,87 @@
+package com.benchmarks;
+
+import com.controller.InputProcessor;
+import com.controller.business.DataExportManager;
+import com.controller.business.ExampleLoader;
+import com.controller.export.CompactExportWriter;
+import com.controller.export.FormatRowWriter;
+import com.controller.export.RowRenderer;
+import com.model.GeneratorConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Cost of every export format per row, the rows are generated up front and written to a writer that drops them,
+ * so only the rendering and the buffering of the format is measured.
+ * The compact format is measured from the configuration, since it encodes the template instead of the rows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ExportFormatBenchmark {
+    static final int ROWS = ExampleGenerationBenchmark.ROWS;
+
+    private GeneratorConfiguration configuration;
+    private List<String> rows;
+
+    /**
+     * The renderer of the measured format, only the benchmarks that take this state are repeated per format
+     */
+    @State(Scope.Thread)
+    public static class Format {
+        @Param({"CSV", "TXT", "JSON", "NDJSON", "SQL", "XML"})
+        public DataExportManager.ExportFormat format;
+        private RowRenderer renderer;
+
+        @Setup
+        public void setUp() {
+            renderer = new RowRenderer(format, true, "generated_data");
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        configuration = new ExampleLoader().getExample("euro_license_plate").getConfiguration();
+        rows = InputProcessor.fromConfiguration(configuration).getMainGenerator()
+                .generate().limit(ROWS).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long export(Format format) throws IOException {
+        try (FormatRowWriter writer = new FormatRowWriter(Writer.nullWriter(), format.renderer)) {
+            for (String row : rows) {
+                writer.write(row);
+            }
+            return writer.getRowCount();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long exportCompact() throws IOException {
+        try (CompactExportWriter writer = new CompactExportWriter(OutputStream.nullOutputStream())) {
+            return writer.write(writer.addTemplate(configuration), ROWS);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.benchmarks;
+
+import com.controller.InputProcessor;
+import com.controller.business.ExampleLoader;
+import com.controller.generators.GenerationPlan;
+import com.controller.generators.KeyPrefetcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of taking one key at a time from the Dutch BSN example, whose evaluator rejects most attempts,
+ * straight from a cursor and from a {@link KeyPrefetcher}. Sampled, so the percentiles show the spread.
+ * {@link #work} is the CPU a service spends between two keys, which gives the producer time to top the ring up.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class KeyIssuanceBenchmark {
+    @Param({"0", "2000"})
+    public long work;
+
+    private Iterator<String> direct;
+    private KeyPrefetcher prefetcher;
+
+    @Setup
+    public void start() {
+        GenerationPlan plan = InputProcessor.compile(new ExampleLoader().getExample("dutch_bsn").getConfiguration());
+        direct = plan.newCursor().generate().iterator();
+        prefetcher = KeyPrefetcher.start(plan.newCursor(), KeyPrefetcher.DEFAULT_CAPACITY);
+    }
+
+    @TearDown
+    public void stop() {
+        prefetcher.close();
+    }
+
+    @Benchmark
+    public String direct() {
+        Blackhole.consumeCPU(work);
+        return direct.next();
+    }
+
+    @Benchmark
+    public String prefetched() throws InterruptedException {
+        Blackhole.consumeCPU(work);
+        return prefetcher.take();
+    }
+}
@@ -0,0 +1,93 @@
+package com.benchmarks;
+
+import com.controller.formatters.Formatter;
+import com.controller.subgenerators.SequentialASCIIGenerator;
+import com.controller.subgenerators.SequentialNumberGenerator;
+import com.controller.subgenerators.tools.Tool;
+import com.model.patterns.SequentialASCIIPattern;
+import com.model.patterns.SequentialPattern;
+import com.model.patterns.ToolPattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the single steps that run for every generated row:
+ * the sub generators, the formula of a tool and the formatter of the template
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SubGeneratorBenchmark {
+    private SequentialNumberGenerator numberGenerator;
+    private SequentialASCIIGenerator asciiGenerator;
+    private Tool evaluation;
+    private Tool calculation;
+    private Formatter formatter;
+    private List<String> values;
+
+    static Map<String, String> properties(String... keysAndValues) {
+        Map<String, String> properties = new HashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            properties.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return properties;
+    }
+
+    @Setup
+    public void setUp() {
+        numberGenerator = new SequentialNumberGenerator(new SequentialPattern(
+                properties("input", "0", "start", "100000000", "step", "1", "length", "9")));
+        asciiGenerator = new SequentialASCIIGenerator(new SequentialASCIIPattern(
+                properties("input", "0", "list", "A,B,C,D,E,F,G,H,J,K", "start", "AAAA", "length", "4")));
+        evaluation = new Tool(new ToolPattern(
+                properties("input", "0", "formula", "(9*A + 8*B + 7*C + 6*D + 5*E + 4*F + 3*G + 2*H - I) % 11 == 0")));
+        calculation = new Tool(new ToolPattern(
+                properties("input", "0", "formula", "(A + B + C + D + E + F + G + H + I) % 10")));
+        Map<Integer, String> subFormats = new HashMap<>();
+        subFormats.put(1, "{1}{2}{3}-{4}{5}{6}");
+        formatter = new Formatter("{0}-{1}-{2}", subFormats);
+        values = Arrays.asList("BD", "123456", "7");
+    }
+
+    @Benchmark
+    public String sequentialNumberGenerate() {
+        return numberGenerator.generate("123456789");
+    }
+
+    @Benchmark
+    public String sequentialAsciiGenerate() {
+        return asciiGenerator.generate("CAKE");
+    }
+
+    @Benchmark
+    public int evaluationApplyFormula() {
+        return evaluation.applyFormula("123456789");
+    }
+
+    @Benchmark
+    public int calculationApplyFormula() {
+        return calculation.applyFormula("123456789");
+    }
+
+    @Benchmark
+    public String formatterFormat() {
+        return formatter.format(values);
+    }
+}
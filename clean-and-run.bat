@@ -24,6 +24,6 @@ echo Build successful!
 echo.
 
 echo 3. Running application...
-call gradlew.bat run
+call gradlew.bat :ui:run
 
 pause
@@ -0,0 +1,131 @@
+package com.cli;
+
+import com.controller.business.DataExportManager.ExportFormat;
+import com.controller.business.DataExportManager.ExportSettings;
+import com.controller.export.CompactExportReader;
+import com.controller.export.FormatRowWriter;
+import com.controller.export.RowRenderer;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * Command line decoder for compact export files.
+ * <pre>
+ *   info   &lt;file&gt;                                   shows the templates, runs and row count
+ *   expand &lt;file&gt; [output|-] [--format TXT|CSV|..]  writes all rows as text, to standard output by default
+ *   row    &lt;file&gt; &lt;index&gt;...                        prints single rows by their position
+ * </pre>
+ */
+public class CompactExportTool {
+    private static final String USAGE = "Usage: CompactExportTool info <file>\n"
+            + "       CompactExportTool expand <file> [output|-] [--format TXT|CSV|JSON|NDJSON|SQL|XML]\n"
+            + "       CompactExportTool row <file> <index>...";
+
+    private final PrintStream out;
+    private final PrintStream err;
+
+    /**
+     * @param out stream for the results
+     * @param err stream for errors and the usage
+     */
+    public CompactExportTool(PrintStream out, PrintStream err) {
+        this.out = out;
+        this.err = err;
+    }
+
+    public static void main(String[] args) {
+        int status = new CompactExportTool(System.out, System.err).run(args);
+        if (status != 0) {
+            System.exit(status);
+        }
+    }
+
+    /**
+     * Runs a single command
+     * @param args the command followed by its arguments
+     * @return the exit status, 0 on success, 1 on a failure and 2 on wrong usage
+     */
+    public int run(String[] args) {
+        if (args.length < 2) {
+            err.println(USAGE);
+            return 2;
+        }
+        try (CompactExportReader reader = CompactExportReader.open(Paths.get(args[1]))) {
+            switch (args[0]) {
+                case "info":
+                    info(reader);
+                    return 0;
+                case "expand":
+                    return expand(reader, args);
+                case "row":
+                    return rows(reader, args);
+                default:
+                    err.println(USAGE);
+                    return 2;
+            }
+        } catch (IOException | RuntimeException e) {
+            err.println("Error: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private void info(CompactExportReader reader) {
+        out.println("rows:      " + reader.getRowCount());
+        out.println("attempts:  " + reader.getAttemptCount());
+        out.println("runs:      " + reader.getRunCount());
+        for (int i = 0; i < reader.getTemplates().size(); i++) {
+            out.println("template " + i + ": " + reader.getTemplates().get(i).getTemplateFormat()
+                    + " (" + reader.getTemplates().get(i).getGenerators().size() + " generators)");
+        }
+    }
+
+    private int expand(CompactExportReader reader, String[] args) throws IOException {
+        String output = "-";
+        ExportFormat format = ExportFormat.TXT;
+        for (int i = 2; i < args.length; i++) {
+            if ("--format".equals(args[i]) && i + 1 < args.length) {
+                format = ExportFormat.valueOf(args[++i].toUpperCase(Locale.ROOT));
+            } else if (args[i].startsWith("--")) {
+                err.println(USAGE);
+                return 2;
+            } else {
+                output = args[i];
+            }
+        }
+
+        ExportSettings settings = new ExportSettings();
+        settings.setFormat(format);
+        FormatRowWriter writer;
+        if ("-".equals(output)) {
+            // closing the writer must not close the standard output
+            writer = new FormatRowWriter(ConsoleOutput.writer(out), RowRenderer.forSettings(settings));
+        } else {
+            settings.setFilePath(output);
+            writer = FormatRowWriter.open(settings);
+        }
+        long rows;
+        try {
+            rows = reader.expand(writer);
+        } finally {
+            writer.close();
+        }
+        if (!"-".equals(output)) {
+            out.println("Expanded " + rows + " rows to " + output);
+        }
+        return 0;
+    }
+
+    private int rows(CompactExportReader reader, String[] args) throws IOException {
+        if (args.length < 3) {
+            err.println(USAGE);
+            return 2;
+        }
+        for (int i = 2; i < args.length; i++) {
+            out.println(reader.row(Long.parseLong(args[i])));
+        }
+        return 0;
+    }
+}
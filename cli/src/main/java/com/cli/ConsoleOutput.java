@@ -0,0 +1,38 @@
+package com.cli;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writers on the standard output of the command line tools
+ */
+final class ConsoleOutput {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private ConsoleOutput() {
+    }
+
+    /**
+     * @param out the console stream
+     * @return a buffered UTF-8 writer whose {@code close()} only flushes, so it does not close the console
+     */
+    static Writer writer(OutputStream out) {
+        OutputStream console = new FilterOutputStream(out) {
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                out.write(bytes, offset, length);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+        return new BufferedWriter(new OutputStreamWriter(console, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+}
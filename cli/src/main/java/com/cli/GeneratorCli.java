@@ -0,0 +1,522 @@
+package com.cli;
+
+import com.controller.InputProcessor;
+import com.controller.business.DataExportManager.ExportFormat;
+import com.controller.business.DataExportManager.ExportSettings;
+import com.controller.export.AdaptiveParallelismController;
+import com.controller.export.FormatRowWriter;
+import com.controller.export.GenerationPipeline;
+import com.controller.export.PacedSink;
+import com.controller.export.ResumableExport;
+import com.controller.export.RowRenderer;
+import com.controller.export.RowSink;
+import com.controller.generators.GenerationPlan;
+import com.controller.generators.MainGenerator;
+import com.controller.generators.ShardSpec;
+import com.controller.metrics.Metrics;
+import com.controller.metrics.RowTracer;
+import com.controller.metrics.RunReport;
+import com.model.GeneratorConfiguration;
+import com.service.ConfigurationFileParser;
+import com.utils.Parsers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Headless command line runner that streams generated rows to a file or to standard output.
+ * The template is read from a saved configuration file or given inline with one {@code --generator} per slot.
+ * <pre>
+ *   GeneratorCli --config keys.txt --rows 1000000 --output keys.csv --format CSV
+ *   GeneratorCli --template "K-{0}" --generator "SEQUENTIALNUMBERGENERATOR:input=0;start=1000;step=1;length=4" --rows 10
+ * </pre>
+ * The row range is {@code --from} up to {@code --from + --rows}, {@code --shard i/n} takes the i-th of n equal parts
+ * of that range, split like a contiguous {@link ShardSpec}, so several processes can share a job. With
+ * {@code --interleave} the shard takes every n-th row of the range starting at row i instead. With {@code --threads} the rows are generated, rendered and
+ * written by separate stages of a {@link GenerationPipeline}, in the order of the template unless {@code --unordered}
+ * is given. With {@code --adaptive} the pipeline tunes the number of generator threads, up to {@code --threads}, and
+ * the chunk size while it runs, see {@link AdaptiveParallelismController}. Generating in chunks on several threads needs a template
+ * whose rows can be positioned directly: only sequential generators and no tools. Other templates are generated on
+ * a single thread and only rendered on several threads.
+ * <p>
+ * {@code --checkpoint n} writes a checkpoint every n rows and resumes a file from its checkpoint, see
+ * {@link ResumableExport}. {@code --workers n} runs the job in n worker JVMs, each writing one part file,
+ * see {@link JobCoordinator}. {@code --rate n} writes n rows per second instead of as fast as possible and reports
+ * the achieved rate, the jitter and the latencies at the end, see {@link PacedSink}.
+ * <p>
+ * Every run that writes a file leaves a JSON report of its throughput, slot costs, retries, garbage collection and
+ * output checksums next to it, see {@link RunReport}. {@code --report file} writes the report elsewhere, which also
+ * gives a report for rows written to standard output. {@code --trace n} traces every n-th attempt slot by slot and
+ * prints the latest traces on the error stream at the end, see {@link RowTracer}.
+ * <p>
+ * The runner never loads user interface classes.
+ */
+public class GeneratorCli {
+    static final int CHUNK_ROWS = 16 * 1024;
+    private static final String USAGE = "Usage: GeneratorCli (--config <file> | --template <format> --generator <TYPE:key=value;...>...)\n"
+            + "                   --rows <n> [--from <row>] [--shard <i>/<n> [--interleave]] [--threads <n> [--unordered] [--adaptive]]\n"
+            + "                   [--workers <n>] [--checkpoint <rows>] [--rate <rows/s>] [--report <file>] [--trace <n>]\n"
+            + "                   [--output <file>|-] [--format TXT|CSV|JSON|NDJSON|SQL|XML] [--no-headers] [--table <name>]";
+
+    private final PrintStream out;
+    private final PrintStream err;
+
+    /**
+     * @param out stream for the rows written to standard output and the summary
+     * @param err stream for errors, warnings and the usage
+     */
+    public GeneratorCli(PrintStream out, PrintStream err) {
+        this.out = out;
+        this.err = err;
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        int status = new GeneratorCli(System.out, System.err).run(args);
+        if (status != 0) {
+            System.exit(status);
+        }
+    }
+
+    /**
+     * Runs a generation job
+     * @param args the options of the job
+     * @return the exit status, 0 on success, 1 on a failure and 2 on wrong usage
+     */
+    public int run(String[] args) {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            err.println("Error: " + e.getMessage());
+            err.println(USAGE);
+            return 2;
+        }
+        RunReport report = RunReport.start(options.workers > 0 ? "cli-coordinator" : "cli");
+        RowTracer tracer = Metrics.tracer();
+        int tracingInterval = tracer.getTracingInterval();
+        if (options.trace > 0) {
+            tracer.clear();
+            tracer.setTracingInterval(options.trace);
+        }
+        try {
+            GeneratorConfiguration configuration = options.configuration();
+            options.describe(report, configuration);
+            if (options.workers > 0) {
+                Path output = Paths.get(options.output);
+                new JobCoordinator(out, err, JobCoordinator.MAX_RESTARTS).run(options.workerArgs(), options.workers,
+                        output, InputProcessor.compile(configuration).getFingerprint(), options.rows);
+                out.println("Generated " + options.rows + " rows in " + options.workers + " parts, see "
+                        + JobCoordinator.manifestPath(output));
+                for (int index = 0; index < options.workers; index++) {
+                    report.addOutput(JobCoordinator.partPath(output, index, options.workers));
+                }
+                writeReport(report, options.rows, options);
+                return 0;
+            }
+            long rows = generate(configuration, options, report);
+            if (!"-".equals(options.output)) {
+                out.println("Generated " + rows + " rows to " + options.output);
+                report.addOutput(Paths.get(options.output));
+            }
+            writeReport(report, rows, options);
+            return 0;
+        } catch (IOException | RuntimeException e) {
+            err.println("Error: " + e.getMessage());
+            return 1;
+        } finally {
+            report.cancel();
+            if (options.trace > 0) {
+                tracer.setTracingInterval(tracingInterval);
+                tracer.dump().forEach(err::println);
+            }
+        }
+    }
+
+    /**
+     * Writes the report of the run to {@code --report}, or next to the output file
+     */
+    private void writeReport(RunReport report, long rows, Options options) throws IOException {
+        report.finish(rows);
+        Path file = options.report != null ? Paths.get(options.report)
+                : "-".equals(options.output) ? null : RunReport.pathFor(Paths.get(options.output));
+        if (file != null) {
+            report.write(file);
+            ("-".equals(options.output) ? err : out).println("Report written to " + file);
+        }
+    }
+
+    private long generate(GeneratorConfiguration configuration, Options options, RunReport report) throws IOException {
+        ShardSpec shard = new ShardSpec(options.shard, options.shards, ShardSpec.Layout.CONTIGUOUS);
+        long first = shard.start(options.from, Math.addExact(options.from, options.rows));
+        long end = shard.stop(options.from, Math.addExact(options.from, options.rows));
+        GenerationPlan plan = InputProcessor.compile(configuration);
+        MainGenerator generator = plan.newCursor();
+        boolean positionable = generator.isPositionable();
+        if (options.threads > 1 && !positionable) {
+            err.println("Warning: the template has tools or generators that can not skip ahead, generating on a single thread");
+        }
+
+        if (options.checkpoint > 0) {
+            return writeResumable(plan, first, end - first, options);
+        }
+        if (options.interleave) {
+            return writeInterleaved(plan, options, report);
+        }
+        if (options.threads > 1) {
+            return writePipelined(plan, first, end - first, options, report);
+        }
+        try (FormatRowWriter writer = openWriter(options)) {
+            RowSink sink = paced(writer, options);
+            writeSequential(generator, positionable, first, end, sink);
+            report(sink, options, report);
+            return writer.getRowCount();
+        }
+    }
+
+    private static void writeSequential(MainGenerator generator, boolean positionable, long first, long end,
+                                        RowSink writer) throws IOException {
+        Iterator<String> rows = generator.generate().iterator();
+        if (positionable) {
+            generator.skipAttempts(first);
+        } else {
+            for (long row = 0; row < first; row++) {
+                rows.next();
+            }
+        }
+        for (long row = first; row < end; row++) {
+            writer.write(rows.next());
+        }
+    }
+
+    /**
+     * Writes the range with a checkpoint every {@code --checkpoint} rows and resumes from the checkpoint of an earlier
+     * run, see {@link ResumableExport}. The progress is reported on the standard output for the {@link JobCoordinator}.
+     */
+    private long writeResumable(GenerationPlan plan, long first, long rows, Options options) throws IOException {
+        ExportSettings settings = settings(options);
+        settings.setAppendMode(true);
+        ResumableExport export = new ResumableExport(plan, settings, options.checkpoint);
+        export.setProgressListener(written -> out.println(JobCoordinator.PROGRESS + written));
+        return export.run(first, rows);
+    }
+
+    /**
+     * Writes every n-th row of the range, starting at the shard index, see {@link ShardSpec.Layout#INTERLEAVED}
+     */
+    private long writeInterleaved(GenerationPlan plan, Options options, RunReport report) throws IOException {
+        if (!plan.isPositionable()) {
+            throw new IllegalArgumentException("Interleaved shards need a template of sequential generators without tools");
+        }
+        if (options.threads > 1) {
+            err.println("Warning: interleaved shards are generated on a single thread");
+        }
+        ShardSpec shard = new ShardSpec(options.shard, options.shards, ShardSpec.Layout.INTERLEAVED);
+        try (FormatRowWriter writer = openWriter(options)) {
+            RowSink sink = paced(writer, options);
+            Iterator<String> rows = shard.rows(plan, options.from, options.from + options.rows).iterator();
+            while (rows.hasNext()) {
+                sink.write(rows.next());
+            }
+            report(sink, options, report);
+            return writer.getRowCount();
+        }
+    }
+
+    /**
+     * @return the writer, paced to {@code --rate} rows per second when the option is given
+     */
+    private static RowSink paced(FormatRowWriter writer, Options options) {
+        return options.rate > 0 ? new PacedSink(writer, options.rate) : writer;
+    }
+
+    /**
+     * Prints the rates and latencies of a paced run, on the error stream when the rows go to standard output,
+     * and adds them to the report of the run
+     */
+    private void report(RowSink sink, Options options, RunReport report) {
+        if (sink instanceof PacedSink) {
+            PacedSink paced = (PacedSink) sink;
+            ("-".equals(options.output) ? err : out).println(paced.report());
+            report.put("achievedRate", paced.getAchievedRate());
+            report.put("jitterStdDeviationNanos", paced.getScheduleLag().getStdDeviation());
+            report.put("latencyP50Nanos", paced.getLatencies().getPercentile(50));
+            report.put("latencyP99Nanos", paced.getLatencies().getPercentile(99));
+            report.put("latencyP999Nanos", paced.getLatencies().getPercentile(99.9));
+            report.put("latencyMaxNanos", paced.getLatencies().getMax());
+        }
+    }
+
+    /**
+     * Generates, renders and writes the range in a {@link GenerationPipeline}, the rows of positionable templates
+     * are generated in chunks on all threads and written in order, or as the chunks are ready with --unordered.
+     */
+    private long writePipelined(GenerationPlan plan, long first, long rows, Options options, RunReport report)
+            throws IOException {
+        ExportSettings settings = settings(options);
+        GenerationPipeline pipeline = new GenerationPipeline(options.threads, options.threads, CHUNK_ROWS, true,
+                !options.unordered);
+        if (options.adaptive) {
+            pipeline.setController(new AdaptiveParallelismController(options.threads, CHUNK_ROWS,
+                    AdaptiveParallelismController.DEFAULT_MIN_BATCH_ROWS, AdaptiveParallelismController.DEFAULT_MAX_BATCH_ROWS,
+                    AdaptiveParallelismController.DEFAULT_INTERVAL_MILLIS));
+        }
+        RowRenderer renderer = RowRenderer.forSettings(settings);
+        long written;
+        if ("-".equals(options.output)) {
+            // the pipeline flushes the standard output but does not close it
+            written = pipeline.run(plan, first, rows, renderer, StandardCharsets.UTF_8, out, true);
+        } else {
+            boolean appending = FormatRowWriter.isAppending(settings);
+            try (OutputStream stream = FormatRowWriter.openStream(settings)) {
+                written = pipeline.run(plan, first, rows, renderer, Charset.forName(settings.getEncoding()), stream, !appending);
+            }
+        }
+        if (options.adaptive) {
+            AdaptiveParallelismController controller = pipeline.getController();
+            ("-".equals(options.output) ? err : out).println(controller.describe());
+            report.put("adaptiveWorkers", controller.getBestWorkers());
+            report.put("adaptiveBatchRows", controller.getBestBatchRows());
+            report.put("adaptiveMeasurements", controller.getSamples().size());
+        }
+        return written;
+    }
+
+    private static ExportSettings settings(Options options) {
+        ExportSettings settings = new ExportSettings();
+        settings.setFormat(options.format);
+        settings.setIncludeHeaders(options.headers);
+        settings.setTableName(options.table);
+        if (!"-".equals(options.output)) {
+            settings.setFilePath(options.output);
+        }
+        return settings;
+    }
+
+    private FormatRowWriter openWriter(Options options) throws IOException {
+        ExportSettings settings = settings(options);
+        if ("-".equals(options.output)) {
+            // closing the writer must not close the standard output
+            return new FormatRowWriter(ConsoleOutput.writer(out), RowRenderer.forSettings(settings));
+        }
+        return FormatRowWriter.open(settings);
+    }
+
+    /**
+     * The parsed command line
+     */
+    private static final class Options {
+        private String config;
+        private String template;
+        private final List<String> generators = new ArrayList<>();
+        private long rows = -1;
+        private long from;
+        private int shard;
+        private int shards = 1;
+        private int threads = 1;
+        private String output = "-";
+        private ExportFormat format = ExportFormat.TXT;
+        private boolean headers = true;
+        private boolean interleave;
+        private boolean unordered;
+        private boolean adaptive;
+        private int workers;
+        private long checkpoint;
+        private double rate;
+        private String report;
+        private int trace;
+        private final List<String> jobArgs = new ArrayList<>();
+        private String table = "generated_data";
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if ("--no-headers".equals(option)) {
+                    options.headers = false;
+                    continue;
+                }
+                if ("--interleave".equals(option)) {
+                    options.interleave = true;
+                    continue;
+                }
+                if ("--unordered".equals(option)) {
+                    options.unordered = true;
+                    continue;
+                }
+                if ("--adaptive".equals(option)) {
+                    options.adaptive = true;
+                    continue;
+                }
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + option);
+                }
+                String value = args[++i];
+                if (!"--workers".equals(option) && !"--output".equals(option) && !"--report".equals(option)) {
+                    options.jobArgs.add(option);
+                    options.jobArgs.add(value);
+                }
+                switch (option) {
+                    case "--config":
+                        options.config = value;
+                        break;
+                    case "--template":
+                        options.template = value;
+                        break;
+                    case "--generator":
+                        options.generators.add(value);
+                        break;
+                    case "--rows":
+                        options.rows = Parsers.parseAsLong("rows", value);
+                        break;
+                    case "--from":
+                        options.from = Parsers.parseAsLong("from", value);
+                        break;
+                    case "--shard":
+                        options.parseShard(value);
+                        break;
+                    case "--threads":
+                        options.threads = Parsers.parseAsInt("threads", value);
+                        break;
+                    case "--workers":
+                        options.workers = Parsers.parseAsInt("workers", value);
+                        break;
+                    case "--checkpoint":
+                        options.checkpoint = Parsers.parseAsLong("checkpoint", value);
+                        break;
+                    case "--rate":
+                        options.rate = Parsers.parseAsDouble("rate", value);
+                        break;
+                    case "--output":
+                        options.output = value;
+                        break;
+                    case "--report":
+                        options.report = value;
+                        break;
+                    case "--trace":
+                        options.trace = Parsers.parseAsInt("trace", value);
+                        break;
+                    case "--format":
+                        options.format = ExportFormat.valueOf(value.toUpperCase(Locale.ROOT));
+                        break;
+                    case "--table":
+                        options.table = value;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + option);
+                }
+            }
+            options.validate();
+            return options;
+        }
+
+        private void parseShard(String value) {
+            int slash = value.indexOf('/');
+            if (slash <= 0) {
+                throw new IllegalArgumentException("A shard is written as <index>/<count>, for example 0/4");
+            }
+            shard = Parsers.parseAsInt("shard", value.substring(0, slash));
+            shards = Parsers.parseAsInt("shard count", value.substring(slash + 1));
+        }
+
+        private void validate() {
+            if ((config == null) == (template == null)) {
+                throw new IllegalArgumentException("Give either --config or --template with its generators");
+            }
+            if (template != null && generators.isEmpty()) {
+                throw new IllegalArgumentException("An inline template needs at least one --generator");
+            }
+            if (config != null && !generators.isEmpty()) {
+                throw new IllegalArgumentException("--generator can not be combined with --config");
+            }
+            if (rows < 0) {
+                throw new IllegalArgumentException("The number of --rows is required");
+            }
+            if (from < 0 || threads < 1 || shards < 1 || shard < 0 || shard >= shards) {
+                throw new IllegalArgumentException("--from must not be negative, --threads must be positive "
+                        + "and the shard index must be below the shard count");
+            }
+            if (workers < 0 || checkpoint < 0 || trace < 0) {
+                throw new IllegalArgumentException("--workers, --checkpoint and --trace must not be negative");
+            }
+            if ((workers > 0 || checkpoint > 0) && ("-".equals(output) || interleave || threads > 1)) {
+                throw new IllegalArgumentException("--workers and --checkpoint need an --output file "
+                        + "and can not be combined with --interleave or --threads");
+            }
+            if (unordered && (threads < 2 || !new RowRenderer(format, headers, table).isLineOriented())) {
+                throw new IllegalArgumentException("--unordered needs more than one of --threads "
+                        + "and a line-oriented format: TXT, CSV, NDJSON or SQL");
+            }
+            if (adaptive && (threads < 2 || interleave)) {
+                throw new IllegalArgumentException("--adaptive tunes the threads of a pipelined run, give --threads "
+                        + "with the largest number of threads to use");
+            }
+            if (rate < 0 || Double.isNaN(rate) || Double.isInfinite(rate)) {
+                throw new IllegalArgumentException("--rate must be a positive number of rows per second");
+            }
+            if (rate > 0 && (threads > 1 || workers > 0 || checkpoint > 0)) {
+                throw new IllegalArgumentException("--rate paces a single writer and can not be combined with "
+                        + "--threads, --workers or --checkpoint");
+            }
+            if (workers > 0 && shards > 1) {
+                throw new IllegalArgumentException("--workers divides the rows over the workers itself, leave out --shard");
+            }
+        }
+
+        /**
+         * @return the options every worker of a coordinated job is started with, it adds its shard and part file
+         */
+        List<String> workerArgs() {
+            List<String> args = new ArrayList<>(jobArgs);
+            if (!headers) {
+                args.add("--no-headers");
+            }
+            if (checkpoint == 0) {
+                args.add("--checkpoint");
+                args.add(String.valueOf(ResumableExport.DEFAULT_CHECKPOINT_ROWS));
+            }
+            return args;
+        }
+
+        /**
+         * Adds the options of the run to its report
+         */
+        void describe(RunReport report, GeneratorConfiguration configuration) {
+            report.put("template", configuration.getTemplateFormat());
+            report.put("format", format.name());
+            report.put("from", from);
+            report.put("requestedRows", rows);
+            report.put("shard", shard + "/" + shards + (interleave ? " interleaved" : ""));
+            report.put("threads", threads);
+            report.put("ordered", !unordered);
+            report.put("adaptive", adaptive);
+            report.put("workers", workers);
+            report.put("checkpointRows", checkpoint);
+            report.put("rate", rate);
+            report.put("traceInterval", trace);
+        }
+
+        GeneratorConfiguration configuration() throws IOException {
+            if (config != null) {
+                return ConfigurationFileParser.load(Paths.get(config));
+            }
+            GeneratorConfiguration configuration = new GeneratorConfiguration();
+            configuration.setTemplateFormat(template);
+            List<GeneratorConfiguration.GeneratorConfig> configs = new ArrayList<>();
+            for (int i = 0; i < generators.size(); i++) {
+                configs.add(ConfigurationFileParser.parseGeneratorSpec(i, generators.get(i)));
+            }
+            configuration.setGenerators(configs);
+            return configuration;
+        }
+    }
+}
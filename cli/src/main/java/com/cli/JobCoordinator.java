@@ -0,0 +1,222 @@
+package com.cli;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs a job in several worker JVMs on the local machine, so one heap and one garbage collector are not the limit.
+ * <p>
+ * Every worker is a {@link GeneratorCli} process that generates one shard of the rows into its own part file and
+ * writes checkpoints. A worker reports its progress as {@code progress <rows>} lines on its standard output, the other
+ * lines are passed on to the error stream of the coordinator. A worker that fails is started again and resumes from
+ * its last checkpoint, a worker that failed before its first checkpoint has its part deleted and starts over. When all
+ * workers are done the coordinator writes a manifest that lists the parts.
+ */
+final class JobCoordinator {
+    static final int MAX_RESTARTS = 3;
+    static final String PROGRESS = "progress ";
+    private static final long REPORT_MILLIS = 1000;
+
+    private final PrintStream out;
+    private final PrintStream err;
+    private final int maxRestarts;
+
+    /**
+     * @param out         stream for the progress of the job
+     * @param err         stream for the output of the workers and their failures
+     * @param maxRestarts number of times a single worker may be started again
+     */
+    JobCoordinator(PrintStream out, PrintStream err, int maxRestarts) {
+        this.out = out;
+        this.err = err;
+        this.maxRestarts = maxRestarts;
+    }
+
+    /**
+     * @param output  the file the job would write on its own
+     * @param index   the worker
+     * @param workers number of workers
+     * @return the part file of a worker, {@code keys.csv} becomes {@code keys.part-1-of-4.csv}
+     */
+    static Path partPath(Path output, int index, int workers) {
+        String name = output.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String part = ".part-" + index + "-of-" + workers;
+        return output.resolveSibling(dot > 0 ? name.substring(0, dot) + part + name.substring(dot) : name + part);
+    }
+
+    /**
+     * @param output the file the job would write on its own
+     * @return the manifest of the job, next to the part files
+     */
+    static Path manifestPath(Path output) {
+        return Paths.get(output + ".manifest");
+    }
+
+    /**
+     * @param part the part file of a worker
+     * @return the checkpoint the worker resumes from, see {@link com.controller.export.ResumableExport#checkpointPath}
+     */
+    private static Path checkpointPath(Path part) {
+        return Paths.get(part + ".checkpoint");
+    }
+
+    /**
+     * Runs the workers until all of them are done
+     * @param jobArgs     the options of the job, without output, shard and worker options
+     * @param workers     number of worker processes
+     * @param output      the file the job would write on its own, it names the parts and the manifest
+     * @param fingerprint the fingerprint of the template, recorded in the manifest
+     * @param rows        total number of rows of the job
+     * @throws IOException if a worker could not be started or failed more often than it may be restarted
+     */
+    void run(List<String> jobArgs, int workers, Path output, String fingerprint, long rows) throws IOException {
+        List<Worker> running = new ArrayList<>();
+        try {
+            for (int index = 0; index < workers; index++) {
+                Path part = partPath(output, index, workers);
+                Files.deleteIfExists(part);
+                Files.deleteIfExists(checkpointPath(part));
+                List<String> args = new ArrayList<>(jobArgs);
+                args.add("--shard");
+                args.add(index + "/" + workers);
+                args.add("--output");
+                args.add(part.toString());
+                Worker worker = new Worker(index, part, args);
+                worker.start();
+                running.add(worker);
+            }
+            await(running, rows);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the workers", e);
+        } finally {
+            for (Worker worker : running) {
+                worker.process.destroyForcibly();
+            }
+        }
+        writeManifest(output, fingerprint, rows, running);
+    }
+
+    private void await(List<Worker> workers, long rows) throws IOException, InterruptedException {
+        long lastReport = 0;
+        int done = 0;
+        while (done < workers.size()) {
+            done = 0;
+            for (Worker worker : workers) {
+                if (worker.finished) {
+                    done++;
+                } else if (worker.process.waitFor(10, TimeUnit.MILLISECONDS)) {
+                    worker.reader.join();
+                    int status = worker.process.exitValue();
+                    if (status == 0) {
+                        worker.finished = true;
+                    } else if (worker.restarts < maxRestarts) {
+                        worker.restarts++;
+                        if (Files.exists(checkpointPath(worker.part))) {
+                            err.println("Worker " + worker.index + " failed with status " + status
+                                    + ", resuming it from its checkpoint (restart " + worker.restarts + ")");
+                        } else {
+                            // without a checkpoint nothing in the part is known to be complete
+                            Files.deleteIfExists(worker.part);
+                            worker.rows.set(0);
+                            err.println("Worker " + worker.index + " failed with status " + status
+                                    + " before its first checkpoint, starting it over (restart " + worker.restarts + ")");
+                        }
+                        worker.start();
+                    } else {
+                        throw new IOException("Worker " + worker.index + " failed " + (worker.restarts + 1) + " times");
+                    }
+                }
+            }
+            long now = System.currentTimeMillis();
+            if (now - lastReport >= REPORT_MILLIS || done == workers.size()) {
+                long generated = 0;
+                for (Worker worker : workers) {
+                    generated += worker.rows.get();
+                }
+                out.println("Progress: " + generated + " of " + rows + " rows, " + done + " of " + workers.size() + " workers done");
+                lastReport = now;
+            }
+        }
+    }
+
+    /**
+     * Writes the manifest to a temporary file and renames it, so a manifest is always complete
+     */
+    private static void writeManifest(Path output, String fingerprint, long rows, List<Worker> workers) throws IOException {
+        Path manifest = manifestPath(output);
+        Path temporary = Paths.get(manifest + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            writer.write("fingerprint=" + fingerprint + "\n");
+            writer.write("rows=" + rows + "\n");
+            writer.write("parts=" + workers.size() + "\n");
+            for (Worker worker : workers) {
+                String prefix = "part." + worker.index + ".";
+                writer.write(prefix + "file=" + worker.part.getFileName() + "\n");
+                writer.write(prefix + "rows=" + worker.rows.get() + "\n");
+                writer.write(prefix + "bytes=" + Files.size(worker.part) + "\n");
+                writer.write(prefix + "restarts=" + worker.restarts + "\n");
+            }
+        }
+        Files.move(temporary, manifest, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * A worker process and the thread that reads its output
+     */
+    private final class Worker {
+        private final int index;
+        private final Path part;
+        private final List<String> command = new ArrayList<>();
+        private final AtomicLong rows = new AtomicLong();
+        private Process process;
+        private Thread reader;
+        private int restarts;
+        private boolean finished;
+
+        private Worker(int index, Path part, List<String> args) {
+            this.index = index;
+            this.part = part;
+            command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(GeneratorCli.class.getName());
+            command.addAll(args);
+        }
+
+        private void start() throws IOException {
+            process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            reader = new Thread(this::readOutput, "coordinator-worker-" + index);
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        private void readOutput() {
+            try (BufferedReader lines = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    if (line.startsWith(PROGRESS)) {
+                        rows.set(Long.parseLong(line.substring(PROGRESS.length()).trim()));
+                    } else {
+                        err.println("[worker " + index + "] " + line);
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                err.println("[worker " + index + "] output could not be read: " + e.getMessage());
+            }
+        }
+    }
+}
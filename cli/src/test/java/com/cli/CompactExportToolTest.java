@@ -0,0 +1,92 @@
+package com.cli;
+
+import com.controller.business.DataExportManager;
+import com.model.GeneratorConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class contains tests for the class <code>{@link CompactExportTool}</code>.
+ */
+class CompactExportToolTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path file;
+    private ByteArrayOutputStream out;
+    private ByteArrayOutputStream err;
+    private CompactExportTool tool;
+
+    /**
+     * Writes a compact file with 1000 rows of {@code K-1001} to {@code K-2000}.
+     */
+    @BeforeEach
+    void setUp() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("input", "0");
+        properties.put("start", "1000");
+        properties.put("step", "1");
+        properties.put("length", "4");
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setTemplateFormat("K-{0}");
+        configuration.setGenerators(Arrays.asList(
+                new GeneratorConfiguration.GeneratorConfig(0, "SEQUENTIALNUMBERGENERATOR", properties, false)));
+
+        file = tempDir.resolve("keys.mfdc");
+        DataExportManager exportManager = new DataExportManager();
+        assertTrue(exportManager.exportCompact(configuration, 1000, file.toString()).isSuccess());
+        exportManager.shutdown();
+
+        out = new ByteArrayOutputStream();
+        err = new ByteArrayOutputStream();
+        tool = new CompactExportTool(new PrintStream(out, true), new PrintStream(err, true));
+    }
+
+    /**
+     * Test the info and row commands.
+     */
+    @Test
+    void testInfoAndRow() {
+        assertEquals(0, tool.run(new String[]{"info", file.toString()}));
+        assertTrue(out.toString().contains("rows:      1000"));
+
+        out.reset();
+        assertEquals(0, tool.run(new String[]{"row", file.toString(), "0", "999"}));
+        assertEquals(Arrays.asList("K-1001", "K-2000"), Arrays.asList(out.toString().split("\\R")));
+
+        assertEquals(1, tool.run(new String[]{"row", file.toString(), "1000"}));
+        assertEquals(2, tool.run(new String[]{"unknown", file.toString()}));
+    }
+
+    /**
+     * Test that expand writes all rows to standard output or to a file in the chosen format.
+     */
+    @Test
+    void testExpand() throws IOException {
+        assertEquals(0, tool.run(new String[]{"expand", file.toString()}));
+        String[] lines = out.toString().split("\\R");
+        assertEquals(1000, lines.length);
+        assertEquals("K-1500", lines[499]);
+
+        Path csv = tempDir.resolve("keys.csv");
+        assertEquals(0, tool.run(new String[]{"expand", file.toString(), csv.toString(), "--format", "csv"}));
+        List<String> rows = Files.readAllLines(csv, StandardCharsets.UTF_8);
+        assertEquals(1001, rows.size());
+        assertEquals("\"K-2000\"", rows.get(1000));
+    }
+}
@@ -0,0 +1,374 @@
+package com.cli;
+
+import com.controller.InputProcessor;
+import com.controller.generators.GenerationPlan;
+import com.controller.generators.ShardSpec;
+import com.controller.metrics.Metrics;
+import com.model.GeneratorConfiguration;
+import com.service.ConfigurationFileParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class contains tests for the class <code>{@link GeneratorCli}</code>.
+ */
+class GeneratorCliTest {
+    private static final String KEYS = "SEQUENTIALNUMBERGENERATOR:input=0;start=100000;step=1;length=6";
+
+    @TempDir
+    Path tempDir;
+
+    private ByteArrayOutputStream out;
+    private ByteArrayOutputStream err;
+    private GeneratorCli cli;
+
+    @BeforeEach
+    void setUp() {
+        out = new ByteArrayOutputStream();
+        err = new ByteArrayOutputStream();
+        cli = new GeneratorCli(new PrintStream(out, true), new PrintStream(err, true));
+    }
+
+    private List<String> lines() {
+        return Arrays.asList(out.toString(StandardCharsets.UTF_8).split("\\R"));
+    }
+
+    /**
+     * Test an inline template written to standard output.
+     */
+    @Test
+    void testInlineTemplateToStandardOutput() {
+        int status = cli.run(new String[]{"--template", "K-{0}", "--generator", KEYS, "--rows", "3"});
+
+        assertEquals(0, status, err.toString(StandardCharsets.UTF_8));
+        assertEquals(Arrays.asList("K-100001", "K-100002", "K-100003"), lines());
+    }
+
+    /**
+     * Test that the shards of a range add up to the whole range, on one thread and on several threads.
+     */
+    @Test
+    void testShardsAndThreads() throws IOException {
+        List<String> whole = new ArrayList<>();
+        for (int row = 50_000; row < 100_000; row++) {
+            whole.add("K-" + (100_001 + row));
+        }
+
+        List<String> sharded = new ArrayList<>();
+        for (int shard = 0; shard < 3; shard++) {
+            Path file = tempDir.resolve("shard-" + shard + ".txt");
+            int status = cli.run(new String[]{"--template", "K-{0}", "--generator", KEYS, "--from", "50000",
+                    "--rows", "50000", "--shard", shard + "/3", "--threads", shard == 1 ? "4" : "1",
+                    "--output", file.toString()});
+            assertEquals(0, status, err.toString(StandardCharsets.UTF_8));
+            sharded.addAll(Files.readAllLines(file, StandardCharsets.UTF_8));
+        }
+
+        assertEquals(whole, sharded);
+    }
+
+    /**
+     * Test that --shard splits the range exactly like a contiguous {@link ShardSpec}, so nodes using either never
+     * overlap.
+     */
+    @Test
+    void testShardsMatchShardSpec() {
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setTemplateFormat("{0}");
+        configuration.setGenerators(List.of(ConfigurationFileParser.parseGeneratorSpec(0, KEYS)));
+        GenerationPlan plan = InputProcessor.compile(configuration);
+        for (int shard = 0; shard < 3; shard++) {
+            out.reset();
+            int status = cli.run(new String[]{"--template", "{0}", "--generator", KEYS, "--from", "5",
+                    "--rows", "10", "--shard", shard + "/3"});
+            assertEquals(0, status, err.toString(StandardCharsets.UTF_8));
+            assertEquals(new ShardSpec(shard, 3, ShardSpec.Layout.CONTIGUOUS).rows(plan, 5, 15).collect(Collectors.toList()),
+                    lines());
+        }
+    }
+
+    /**
+     * Test that --unordered writes every row of the range once, and needs threads and a line-oriented format.
+     */
+    @Test
+    void testUnorderedThreads() throws IOException {
+        Path file = tempDir.resolve("unordered.txt");
+        int status = cli.run(new String[]{"--template", "{0}", "--generator", KEYS, "--rows", "100000",
+                "--threads", "4", "--unordered", "--output", file.toString()});
+        assertEquals(0, status, err.toString(StandardCharsets.UTF_8));
+
+        List<String> rows = new ArrayList<>(Files.readAllLines(file, StandardCharsets.UTF_8));
+        Collections.sort(rows);
+        assertEquals(100_000, rows.size());
+        assertEquals("100001", rows.get(0));
+        assertEquals("200000", rows.get(99_999));
+        assertEquals(100_000, new HashSet<>(rows).size());
+
+        assertEquals(2, cli.run(new String[]{"--template", "{0}", "--generator", KEYS, "--rows", "10", "--unordered"}));
+        assertEquals(2, cli.run(new String[]{"--template", "{0}", "--generator", KEYS, "--rows", "10",
+                "--threads", "2", "--unordered", "--format", "JSON"}));
+    }
+
+    /**
+     * Test that --adaptive writes the rows in order and reports the settings it chose.
+     */
+    @Test
+    void testAdaptiveThreads() throws IOException {
+        Path file = tempDir.resolve("adaptive.txt");
+        int status = cli.run(new String[]{"--template", "{0}", "--generator", KEYS, "--rows", "300000",
+                "--threads", "4", "--adaptive", "--output", file.toString()});
+        assertEquals(0, status, err.toString(StandardCharsets.UTF_8));
+
+        List<String> rows = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(300_000, rows.size());
+        assertEquals("100001", rows.get(0));
+        assertEquals("400000", rows.get(299_999));
+        assertTrue(lines().get(0).startsWith("Adaptive: "), lines().get(0));
+        assertEquals(2, cli.run(new String[]{"--template", "{0}", "--generator", KEYS, "--rows", "10", "--adaptive"}));
+    }
+
+    /**
+     * Test that --rate paces the rows and reports the achieved rate, and is refused with several threads.
+     */
+    @Test
+    void testPacedRate() throws IOException {
+        Path file = tempDir.resolve("paced.txt");
+        long start = System.nanoTime();
+        int status = cli.run(new String[]{"--template", "{0}", "--generator", KEYS, "--rows", "2000",
+                "--rate", "10000", "--output", file.toString()});
+        long elapsed = System.nanoTime() - start;
+
+        assertEquals(0, status, err.toString(StandardCharsets.UTF_8));
+        assertEquals(2000, Files.readAllLines(file, StandardCharsets.UTF_8).size());
+        assertTrue(elapsed >= 199_000_000L, "elapsed " + elapsed);
+        assertTrue(lines().get(0).startsWith("Paced 2000 rows at "), lines().get(0));
+        assertEquals(2, cli.run(new String[]{"--template", "{0}", "--generator", KEYS, "--rows", "10",
+                "--rate", "100", "--threads", "2"}));
+        assertEquals(2, cli.run(new String[]{"--template", "{0}", "--generator", KEYS, "--rows", "10", "--rate", "-1"}));
+    }
+
+    /**
+     * Test that a run leaves a report next to its output, and that --report writes it elsewhere.
+     */
+    @Test
+    void testRunReport() throws IOException {
+        Path file = tempDir.resolve("keys.csv");
+        int status = cli.run(new String[]{"--template", "{0}", "--generator", KEYS, "--rows", "500",
+                "--format", "csv", "--output", file.toString()});
+        assertEquals(0, status, err.toString(StandardCharsets.UTF_8));
+
+        Path reportFile = tempDir.resolve("keys.csv.report.json");
+        assertTrue(lines().contains("Report written to " + reportFile));
+        String report = new String(Files.readAllBytes(reportFile), StandardCharsets.UTF_8);
+        assertTrue(report.contains("\"job\": \"cli\""), report);
+        assertTrue(report.contains("\"rows\": 500,"), report);
+        assertTrue(report.contains("\"file\": \"keys.csv\""), report);
+        assertTrue(report.contains("\"bytes\": " + Files.size(file) + ","), report);
+        assertTrue(report.contains("\"format\": \"CSV\""), report);
+
+        out.reset();
+        Path elsewhere = tempDir.resolve("reports").resolve("run.json");
+        assertEquals(0, cli.run(new String[]{"--template", "{0}", "--generator", KEYS, "--rows", "3",
+                "--report", elsewhere.toString()}));
+        assertEquals(Arrays.asList("100001", "100002", "100003"), lines());
+        assertTrue(new String(Files.readAllBytes(elsewhere), StandardCharsets.UTF_8).contains("\"rows\": 3,"));
+    }
+
+    /**
+     * Test that interleaved shards take every n-th row and together cover the range.
+     */
+    @Test
+    void testInterleavedShards() {
+        List<String> rows = new ArrayList<>();
+        for (int shard = 0; shard < 3; shard++) {
+            out.reset();
+            int status = cli.run(new String[]{"--template", "{0}", "--generator", KEYS, "--from", "10",
+                    "--rows", "10", "--shard", shard + "/3", "--interleave"});
+            assertEquals(0, status, err.toString(StandardCharsets.UTF_8));
+            rows.addAll(lines());
+        }
+
+        assertEquals(Arrays.asList("100011", "100014", "100017", "100020", "100012", "100015", "100018",
+                "100013", "100016", "100019"), rows);
+
+        // the keyspace of the six digit sequence ends at 999999
+        err.reset();
+        assertEquals(1, cli.run(new String[]{"--template", "{0}", "--generator", KEYS, "--from", "899990",
+                "--rows", "20", "--shard", "0/2", "--interleave"}));
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("runs out of values"), err.toString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Test a job run by worker JVMs: the parts add up to the range and the manifest lists them.
+     */
+    @Test
+    void testWorkerProcesses() throws IOException {
+        Path output = tempDir.resolve("keys.txt");
+        int status = cli.run(new String[]{"--template", "K-{0}", "--generator", KEYS, "--from", "100",
+                "--rows", "3000", "--workers", "3", "--checkpoint", "400", "--output", output.toString()});
+        assertEquals(0, status, err.toString(StandardCharsets.UTF_8));
+
+        List<String> rows = new ArrayList<>();
+        for (int worker = 0; worker < 3; worker++) {
+            rows.addAll(Files.readAllLines(JobCoordinator.partPath(output, worker, 3), StandardCharsets.UTF_8));
+        }
+        List<String> expected = new ArrayList<>();
+        for (int row = 100; row < 3100; row++) {
+            expected.add("K-" + (100_001 + row));
+        }
+        assertEquals(expected, rows);
+
+        List<String> manifest = Files.readAllLines(JobCoordinator.manifestPath(output), StandardCharsets.UTF_8);
+        assertTrue(manifest.contains("rows=3000"));
+        assertTrue(manifest.contains("part.1.file=keys.part-1-of-3.txt"));
+        assertTrue(manifest.contains("part.2.rows=1000"));
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("Progress: 3000 of 3000 rows"));
+        assertFalse(Files.exists(tempDir.resolve("keys.part-0-of-3.txt.checkpoint")));
+    }
+
+    /**
+     * Test that a worker killed before its first checkpoint starts over, so its part holds no duplicate rows.
+     */
+    @Test
+    void testWorkerKilledBeforeCheckpoint() throws Exception {
+        Path output = tempDir.resolve("killed.txt");
+        Path part = JobCoordinator.partPath(output, 0, 2);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> job = executor.submit(() -> cli.run(new String[]{"--template", "{0}", "--generator", KEYS,
+                    "--rows", "800000", "--workers", "2", "--checkpoint", "1000000", "--output", output.toString()}));
+            ProcessHandle worker = null;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (worker == null && System.nanoTime() < deadline) {
+                if (Files.exists(part) && Files.size(part) > 0) {
+                    worker = ProcessHandle.current().children()
+                            .filter(process -> process.info().arguments()
+                                    .map(arguments -> Arrays.asList(arguments).contains(part.toString())).orElse(false))
+                            .findFirst().orElse(null);
+                }
+                Thread.sleep(2);
+            }
+            assertNotNull(worker, "worker 0 did not start writing");
+            worker.destroyForcibly();
+            assertEquals(0, job.get(60, TimeUnit.SECONDS), err.toString(StandardCharsets.UTF_8));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("before its first checkpoint, starting it over"),
+                err.toString(StandardCharsets.UTF_8));
+        List<String> rows = new ArrayList<>(Files.readAllLines(part, StandardCharsets.UTF_8));
+        rows.addAll(Files.readAllLines(JobCoordinator.partPath(output, 1, 2), StandardCharsets.UTF_8));
+        assertEquals(800_000, rows.size());
+        assertEquals(800_000, new HashSet<>(rows).size());
+    }
+
+    /**
+     * Test that a run with checkpoints reports its progress and that worker options are checked.
+     */
+    @Test
+    void testCheckpointOptions() throws IOException {
+        Path output = tempDir.resolve("keys.csv");
+        assertEquals(0, cli.run(new String[]{"--template", "{0}", "--generator", KEYS, "--rows", "250",
+                "--checkpoint", "100", "--format", "csv", "--output", output.toString()}));
+        assertTrue(lines().containsAll(Arrays.asList("progress 100", "progress 200", "progress 250")));
+        assertEquals(251, Files.readAllLines(output).size());
+
+        assertEquals(2, cli.run(new String[]{"--template", "{0}", "--generator", KEYS, "--rows", "10", "--workers", "2"}));
+        assertEquals(2, cli.run(new String[]{"--template", "{0}", "--generator", KEYS, "--rows", "10", "--workers", "2",
+                "--shard", "0/2", "--output", output.toString()}));
+        assertEquals(2, cli.run(new String[]{"--template", "{0}", "--generator", KEYS, "--rows", "10",
+                "--checkpoint", "5", "--threads", "2", "--output", output.toString()}));
+    }
+
+    /**
+     * Test a saved configuration with an evaluator, which can not be split over threads.
+     */
+    @Test
+    void testConfigurationFileWithEvaluator() throws IOException {
+        Path config = tempDir.resolve("even.txt");
+        Files.write(config, Arrays.asList(
+                "template_format={0}",
+                "generator.0.type=SEQUENTIALNUMBERGENERATOR",
+                "generator.0.input=0",
+                "generator.0.start=99",
+                "generator.0.step=1",
+                "generator.0.length=3",
+                "generator.1.type=EVALUATION",
+                "generator.1.isEvaluator=true",
+                "generator.1.input=0",
+                "generator.1.formula=(A+B+C) % 2 == 0"), StandardCharsets.UTF_8);
+
+        int status = cli.run(new String[]{"--config", config.toString(), "--rows", "3", "--from", "2",
+                "--threads", "2", "--format", "csv", "--no-headers"});
+
+        assertEquals(0, status, err.toString(StandardCharsets.UTF_8));
+        assertEquals(Arrays.asList("\"105\"", "\"107\"", "\"109\""), lines());
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("single thread"));
+    }
+
+    /**
+     * Test that --trace prints the slots of the traced attempts, including those the evaluator rejected.
+     */
+    @Test
+    void testTrace() throws IOException {
+        Path config = tempDir.resolve("even.txt");
+        Files.write(config, Arrays.asList(
+                "template_format={0}",
+                "generator.0.type=SEQUENTIALNUMBERGENERATOR",
+                "generator.0.input=0",
+                "generator.0.start=99",
+                "generator.0.step=1",
+                "generator.0.length=3",
+                "generator.1.type=EVALUATION",
+                "generator.1.isEvaluator=true",
+                "generator.1.input=0",
+                "generator.1.formula=(A+B+C) % 2 == 0"), StandardCharsets.UTF_8);
+
+        int status = cli.run(new String[]{"--config", config.toString(), "--rows", "2", "--trace", "1"});
+
+        assertEquals(0, status, err.toString(StandardCharsets.UTF_8));
+        assertEquals(Arrays.asList("101", "103"), lines());
+        List<String> trace = Arrays.asList(err.toString(StandardCharsets.UTF_8).split("\\R"));
+        assertTrue(trace.get(0).startsWith("attempt 1 on "), trace.get(0));
+        assertTrue(trace.get(0).contains("rejected at slot 1"), trace.get(0));
+        assertTrue(trace.get(1).matches("  slot 0 \\w+: \"99\" -> \"100\" \\d+ ns ACCEPTED"), trace.get(1));
+        assertTrue(trace.get(2).matches("  slot 1 \\w+: \"100\" -> null \\d+ ns REJECTED"), trace.get(2));
+        assertTrue(trace.get(3).contains(": accepted in "), trace.get(3));
+        assertEquals(0, Metrics.tracer().getTracingInterval());
+        assertEquals(2, cli.run(new String[]{"--template", "{0}", "--generator", KEYS, "--rows", "1", "--trace", "-1"}));
+    }
+
+    /**
+     * Test the exit status of wrong usage and of a failing job.
+     */
+    @Test
+    void testErrors() {
+        assertEquals(2, cli.run(new String[]{"--rows", "3"}));
+        assertEquals(2, cli.run(new String[]{"--template", "{0}", "--generator", KEYS}));
+        assertEquals(2, cli.run(new String[]{"--template", "{0}", "--generator", KEYS, "--rows", "1", "--shard", "3/3"}));
+        assertEquals(1, cli.run(new String[]{"--config", tempDir.resolve("missing.txt").toString(), "--rows", "1"}));
+        assertEquals(1, cli.run(new String[]{"--template", "{0}", "--generator", KEYS, "--rows", "10",
+                "--from", "899995", "--threads", "2"}));
+    }
+}
@@ -1,26 +1,34 @@
 package com.controller;
 
+import com.controller.generators.GenerationPlan;
 import com.controller.generators.MainGenerator;
 import com.controller.subgenerators.ISubGenerator;
 import com.controller.subgenerators.SequentialASCIIGenerator;
 import com.controller.subgenerators.SequentialNumberGenerator;
 import com.controller.subgenerators.tools.Calculator;
 import com.controller.subgenerators.tools.Evaluator;
+import com.model.GeneratorConfiguration;
 import com.model.Template;
 
 import com.model.patterns.IPattern;
 import com.model.patterns.SequentialASCIIPattern;
 import com.model.patterns.SequentialPattern;
 import com.model.patterns.ToolPattern;
+import com.utils.Parsers;
 import lombok.Getter;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Class that takes the input from the user and initialises the patterns and generators
  */
 @Getter
 public class InputProcessor {
+    private static final String EVALUATOR_ID_PREFIX = "evaluator_";
     private final String templateFormatString;
     private final Map<Integer, IPattern> subPatternsMap;
     private final Map<Integer, ISubGenerator> iSubGenerators;
@@ -39,6 +47,67 @@ public class InputProcessor {
 
     }
 
+    /**
+     * Creates an input processor from a saved configuration, the generators are added in the order of their index
+     * @param configuration the configuration that holds the template format and the generators
+     * @return an input processor whose template and main generator have been initialised
+     */
+    public static InputProcessor fromConfiguration(GeneratorConfiguration configuration) {
+        if (configuration == null || configuration.getTemplateFormat() == null) {
+            throw new IllegalArgumentException("Unable to initialise template since no template format has been passed.");
+        }
+        List<GeneratorConfiguration.GeneratorConfig> generators = orderedGenerators(configuration);
+        if (generators.isEmpty()) {
+            throw new IllegalArgumentException("Unable to initialise main generator since no subgenerators have been passed.");
+        }
+
+        InputProcessor processor = new InputProcessor(configuration.getTemplateFormat());
+        for (GeneratorConfiguration.GeneratorConfig generator : generators) {
+            processor.addGeneratorAndPattern(generator.getType(), generator.getProperties());
+        }
+        processor.initTemplate();
+        processor.initMainGenerator();
+        return processor;
+    }
+
+    /**
+     * Compiles a saved configuration into a plan that can be shared by threads, every thread generates with its own
+     * {@link GenerationPlan#newCursor()}
+     * @param configuration the configuration that holds the template format and the generators
+     * @return the plan of the configuration
+     */
+    public static GenerationPlan compile(GeneratorConfiguration configuration) {
+        return fromConfiguration(configuration).getMainGenerator().getPlan();
+    }
+
+    /**
+     * The generators of the list sorted by index, or when the list is empty the generators of the editor map,
+     * the sub generators in the order of their id followed by the evaluators in the order of their id
+     * @param configuration the configuration that holds the generators
+     * @return the generators in the order of their slots
+     */
+    public static List<GeneratorConfiguration.GeneratorConfig> orderedGenerators(GeneratorConfiguration configuration) {
+        List<GeneratorConfiguration.GeneratorConfig> generators = new ArrayList<>();
+        if (configuration.getGenerators() != null && !configuration.getGenerators().isEmpty()) {
+            generators.addAll(configuration.getGenerators());
+            generators.sort(Comparator.comparingInt(GeneratorConfiguration.GeneratorConfig::getIndex));
+        } else if (configuration.getGeneratorConfigs() != null) {
+            Map<Integer, GeneratorConfiguration.GeneratorConfig> subGenerators = new TreeMap<>();
+            Map<Integer, GeneratorConfiguration.GeneratorConfig> evaluators = new TreeMap<>();
+            for (Map.Entry<String, GeneratorConfiguration.GeneratorConfig> entry : configuration.getGeneratorConfigs().entrySet()) {
+                String id = entry.getKey();
+                if (id.startsWith(EVALUATOR_ID_PREFIX)) {
+                    evaluators.put(Parsers.parseAsInt("evaluator id", id.substring(EVALUATOR_ID_PREFIX.length())), entry.getValue());
+                } else {
+                    subGenerators.put(Parsers.parseAsInt("generator id", id), entry.getValue());
+                }
+            }
+            generators.addAll(subGenerators.values());
+            generators.addAll(evaluators.values());
+        }
+        return generators;
+    }
+
     /**
      * This method takes the input from the user and initialises the patterns and generators
      * @param genType variable that specifies for a specific generator what type of generator it should be
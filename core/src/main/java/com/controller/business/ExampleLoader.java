@@ -156,6 +156,7 @@ public class ExampleLoader {
         letters1Props.put("length", "2");
         letters1Props.put("start", "AA");
         letters1Props.put("padding-length", "2");
+        letters1Props.put("input", "0");
         
         letters1.setProperties(letters1Props);
         
@@ -168,6 +169,7 @@ public class ExampleLoader {
         numberProps.put("start", "100");
         numberProps.put("step", "1");
         numberProps.put("padding-length", "3");
+        numberProps.put("input", "1");
         
         numbers.setProperties(numberProps);
         
@@ -180,6 +182,7 @@ public class ExampleLoader {
         letters2Props.put("length", "2");
         letters2Props.put("start", "AA");
         letters2Props.put("padding-length", "2");
+        letters2Props.put("input", "2");
         
         letters2.setProperties(letters2Props);
         
@@ -215,9 +218,10 @@ public class ExampleLoader {
         
         Map<String, String> simpleProperties = new HashMap<>();
         simpleProperties.put("length", "5");
-        simpleProperties.put("start", "1");
+        simpleProperties.put("start", "0");
         simpleProperties.put("step", "1");
-        simpleProperties.put("padding-length", "0");
+        simpleProperties.put("padding-length", "5");
+        simpleProperties.put("input", "0");
         
         simpleGen.setProperties(simpleProperties);
         
@@ -250,10 +254,11 @@ public class ExampleLoader {
         deptGen.setType("SEQUENTIALASCIIGENERATOR");
         
         Map<String, String> deptProperties = new HashMap<>();
-        deptProperties.put("list", "IT,HR,FN,MK,SL,OP");
+        deptProperties.put("list", "A,B,C,D,E,F,G,H,K,L,M,N,P,R,S,T");
         deptProperties.put("length", "2");
-        deptProperties.put("start", "IT");
+        deptProperties.put("start", "AA");
         deptProperties.put("padding-length", "2");
+        deptProperties.put("input", "0");
         
         deptGen.setProperties(deptProperties);
         
@@ -266,6 +271,7 @@ public class ExampleLoader {
         idProperties.put("start", "100000");
         idProperties.put("step", "1");
         idProperties.put("padding-length", "6");
+        idProperties.put("input", "1");
         
         idGen.setProperties(idProperties);
         
@@ -280,12 +286,15 @@ public class ExampleLoader {
     }
     
     /**
-     * Adds an example to the collection.
+     * Adds an example to the collection, the configuration takes the template format of the metadata if it has none.
      * 
      * @param key The unique key for the example
      * @param example The example to add
      */
     private void addExample(String key, Example example) {
+        if (example.getConfiguration().getTemplateFormat() == null) {
+            example.getConfiguration().setTemplateFormat(example.getMetadata().getTemplateFormat());
+        }
         examples.put(key, example);
         
         // Add to category
@@ -0,0 +1,170 @@
+package com.controller.generators;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out unique rows of one seekable template to any number of threads without locking.
+ * <p>
+ * The attempts of the template are numbered from 0, attempt {@code n} is what a cursor generates after skipping
+ * {@code n} attempts, so two different attempts never give the same row. A consumer claims a block of consecutive
+ * attempts with a single {@link AtomicLong#getAndAdd(long)} and generates it with a cursor of its own. A block that
+ * is not used up is closed, its unused tail goes back to the allocator and is handed out again before new blocks.
+ * <p>
+ * With tools an attempt can be rejected, a block then gives fewer rows than it has attempts.
+ */
+public final class BlockRangeAllocator {
+    public static final long DEFAULT_BLOCK_SIZE = 1024;
+
+    private final GenerationPlan plan;
+    private final long blockSize;
+    private final long end;
+    private final AtomicLong next;
+    private final Queue<Range> returned = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Allocates all attempts of the template, until the first sequence runs out of values
+     * @param plan      the plan of a seekable template
+     * @param blockSize number of attempts per block
+     */
+    public BlockRangeAllocator(GenerationPlan plan, long blockSize) {
+        this(plan, blockSize, 0, plan.isSeekable() ? plan.newCursor().remainingAttempts() : 0);
+    }
+
+    /**
+     * @param plan      the plan of a seekable template
+     * @param blockSize number of attempts per block
+     * @param first     the first attempt to allocate
+     * @param end       the attempt after the last one to allocate, at most the number of attempts before the first
+     *                  sequence runs out of values, beyond that a sequence would repeat earlier rows
+     */
+    public BlockRangeAllocator(GenerationPlan plan, long blockSize, long first, long end) {
+        if (!plan.isSeekable()) {
+            throw new IllegalArgumentException("Only templates with sequential generators followed by tools can be allocated in blocks");
+        }
+        if (blockSize <= 0 || first < 0 || end < first) {
+            throw new IllegalArgumentException("The block size must be positive and the range must not be negative");
+        }
+        long remaining = plan.newCursor().remainingAttempts();
+        if (end > remaining) {
+            throw new IllegalArgumentException("The range ends at attempt " + end + ", but the template runs out of values after "
+                    + remaining + " attempts");
+        }
+        this.plan = plan;
+        this.blockSize = blockSize;
+        this.end = end;
+        this.next = new AtomicLong(first);
+    }
+
+    /**
+     * Claims the next block, returned tails first
+     * @return the block, or null when all attempts have been handed out
+     */
+    public Block claim() {
+        Range tail = returned.poll();
+        if (tail != null) {
+            return new Block(tail.start, tail.end);
+        }
+        long start = next.getAndAdd(blockSize);
+        if (start >= end || start < 0) {
+            // the counter only runs past the end, it is never moved back
+            return null;
+        }
+        return new Block(start, end - start < blockSize ? end : start + blockSize);
+    }
+
+    /**
+     * @return true if there are no blocks left to claim
+     */
+    public boolean isExhausted() {
+        long start = next.get();
+        return (start >= end || start < 0) && returned.isEmpty();
+    }
+
+    /**
+     * @return number of attempts per block
+     */
+    public long getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * A range of attempts, start inclusive and end exclusive
+     */
+    private static final class Range {
+        private final long start;
+        private final long end;
+
+        private Range(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * A claimed block of attempts. A block belongs to one thread, closing it gives the unused attempts back.
+     */
+    public final class Block implements AutoCloseable {
+        private final long start;
+        private final long end;
+        private long position;
+        private MainGenerator cursor;
+
+        private Block(long start, long end) {
+            this.start = start;
+            this.end = end;
+            this.position = start;
+        }
+
+        /**
+         * @return the next row of the block, or null when the attempts of the block are used up
+         */
+        public String next() {
+            if (cursor == null && position < end) {
+                cursor = plan.newCursor();
+                cursor.skipAttempts(position);
+            }
+            while (position < end) {
+                String row = cursor.tryNext();
+                position++;
+                if (row != null) {
+                    return row;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Gives the attempts that have not been used back to the allocator
+         */
+        @Override
+        public void close() {
+            if (position < end) {
+                returned.add(new Range(position, end));
+                position = end;
+            }
+        }
+
+        /**
+         * @return the first attempt of the block
+         */
+        public long getStart() {
+            return start;
+        }
+
+        /**
+         * @return the attempt after the last attempt of the block
+         */
+        public long getEnd() {
+            return end;
+        }
+
+        /**
+         * @return the next attempt the block will make
+         */
+        public long getPosition() {
+            return position;
+        }
+    }
+}
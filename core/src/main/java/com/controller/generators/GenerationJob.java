@@ -0,0 +1,204 @@
+package com.controller.generators;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * A number of rows of a template, generated in chunks on the threads of an executor.
+ * <p>
+ * When the rows of the template can be positioned directly ({@link MainGenerator#isPositionable()}) the chunks are
+ * shared by up to {@code parallelism} workers, every worker with its own generator that skips ahead to the chunks it
+ * takes. Other templates are generated chunk after chunk by a single worker. Either way the rows of the result are
+ * in the order of a single generator.
+ * <p>
+ * Cancelling is cooperative: {@link #cancel()} completes the result at once and the workers stop at the next chunk.
+ */
+public class GenerationJob {
+    public static final int DEFAULT_CHUNK_ROWS = 4096;
+
+    private final Supplier<MainGenerator> generators;
+    private final int rows;
+    private final int chunkRows;
+    private final int chunkCount;
+    private final AtomicReferenceArray<List<String>> chunks;
+    private final AtomicInteger nextChunk = new AtomicInteger();
+    private final AtomicInteger finishedChunks = new AtomicInteger();
+    private final AtomicLong generatedRows = new AtomicLong();
+    private final CompletableFuture<List<String>> result = new CompletableFuture<>();
+
+    private GenerationJob(Supplier<MainGenerator> generators, int rows, int chunkRows) {
+        this.generators = generators;
+        this.rows = rows;
+        this.chunkRows = chunkRows;
+        this.chunkCount = (int) ((rows + (long) chunkRows - 1) / chunkRows);
+        this.chunks = new AtomicReferenceArray<>(chunkCount);
+    }
+
+    /**
+     * Starts a job
+     * @param generators  creates a new generator for the template, every call must return a generator at the first row
+     * @param rows        number of rows to generate
+     * @param chunkRows   number of rows per chunk, the job can be stopped between two chunks
+     * @param executor    runs the workers
+     * @param parallelism maximum number of workers
+     * @return the running job
+     * @throws IllegalArgumentException if a number is out of range or the template is invalid
+     */
+    public static GenerationJob start(Supplier<MainGenerator> generators, int rows, int chunkRows, Executor executor,
+                                      int parallelism) {
+        if (rows < 0 || chunkRows <= 0 || parallelism <= 0) {
+            throw new IllegalArgumentException("The number of rows must not be negative, the chunk size and the parallelism must be positive");
+        }
+        GenerationJob job = new GenerationJob(generators, rows, chunkRows);
+        if (job.chunkCount == 0) {
+            job.result.complete(new ArrayList<>());
+            return job;
+        }
+        MainGenerator first = generators.get();
+        try {
+            if (first.isPositionable()) {
+                int workers = Math.min(parallelism, job.chunkCount);
+                executor.execute(() -> job.runPositioned(first));
+                for (int i = 1; i < workers; i++) {
+                    executor.execute(() -> job.runPositioned(null));
+                }
+            } else {
+                executor.execute(() -> job.runSequential(first));
+            }
+        } catch (RejectedExecutionException e) {
+            job.result.completeExceptionally(e);
+        }
+        return job;
+    }
+
+    /**
+     * Takes chunks until there are none left, skipping the generator ahead to the first row of every chunk
+     * @param generator the generator of the worker, or null to create one
+     */
+    private void runPositioned(MainGenerator generator) {
+        try {
+            MainGenerator own = generator != null ? generator : generators.get();
+            long position = 0;
+            int chunk;
+            while (!result.isDone() && (chunk = nextChunk.getAndIncrement()) < chunkCount) {
+                long start = (long) chunk * chunkRows;
+                if (start > position) {
+                    own.skipAttempts(start - position);
+                }
+                int length = chunkLength(chunk);
+                List<String> chunkRowList = new ArrayList<>(length);
+                for (int i = 0; i < length; i++) {
+                    String row = own.tryNext();
+                    if (row == null) {
+                        throw new IllegalArgumentException("The template runs out of values at row " + (start + i));
+                    }
+                    chunkRowList.add(row);
+                }
+                position = start + length;
+                finishChunk(chunk, chunkRowList);
+            }
+        } catch (Throwable e) {
+            // errors such as running out of memory must complete the result as well, or its callers wait forever
+            result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Generates all chunks one after another with a single generator
+     */
+    private void runSequential(MainGenerator generator) {
+        try {
+            Iterator<String> source = generator.generate().iterator();
+            int chunk;
+            while (!result.isDone() && (chunk = nextChunk.getAndIncrement()) < chunkCount) {
+                int length = chunkLength(chunk);
+                List<String> chunkRowList = new ArrayList<>(length);
+                for (int i = 0; i < length; i++) {
+                    chunkRowList.add(source.next());
+                }
+                finishChunk(chunk, chunkRowList);
+            }
+        } catch (Throwable e) {
+            // errors such as running out of memory must complete the result as well, or its callers wait forever
+            result.completeExceptionally(e);
+        }
+    }
+
+    private int chunkLength(int chunk) {
+        return (int) Math.min(chunkRows, rows - (long) chunk * chunkRows);
+    }
+
+    /**
+     * Stores a generated chunk, the last one completes the result
+     */
+    private void finishChunk(int chunk, List<String> chunkRowList) {
+        chunks.set(chunk, chunkRowList);
+        generatedRows.addAndGet(chunkRowList.size());
+        if (finishedChunks.incrementAndGet() == chunkCount) {
+            List<String> all = new ArrayList<>(rows);
+            for (int i = 0; i < chunkCount; i++) {
+                all.addAll(chunks.get(i));
+                chunks.set(i, null);
+            }
+            result.complete(all);
+        }
+    }
+
+    /**
+     * Stops the job, the result is cancelled at once and the workers stop after their current chunk
+     * @return true if the job was still running
+     */
+    public boolean cancel() {
+        return result.cancel(false);
+    }
+
+    /**
+     * @return true if the job was cancelled before it finished
+     */
+    public boolean isCancelled() {
+        return result.isCancelled();
+    }
+
+    /**
+     * @return true if the job finished, failed or was cancelled
+     */
+    public boolean isDone() {
+        return result.isDone();
+    }
+
+    /**
+     * @return the rows in order once all chunks are generated
+     */
+    public CompletableFuture<List<String>> getResult() {
+        return result;
+    }
+
+    /**
+     * @return number of rows the job generates
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @return number of rows generated so far, counted per finished chunk
+     */
+    public long getGeneratedRows() {
+        return generatedRows.get();
+    }
+
+    /**
+     * @return the part of the rows generated so far, between 0 and 1
+     */
+    public double getProgress() {
+        return rows == 0 ? 1.0 : (double) generatedRows.get() / rows;
+    }
+}
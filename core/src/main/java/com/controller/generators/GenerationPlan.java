@@ -0,0 +1,187 @@
+package com.controller.generators;
+
+import com.controller.subgenerators.ISeekableSubGenerator;
+import com.controller.subgenerators.ISubGenerator;
+import com.model.Template;
+import com.model.patterns.IPattern;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The compiled form of a template: the sub generators in slot order with the input, the wanted length and the start
+ * value of every slot. A plan holds no generation state, so it can be shared by any number of threads, each
+ * generating with its own cursor from {@link #newCursor()}.
+ * <p>
+ * The sub generators and the template are shared by all cursors, they must not be changed once they are planned.
+ */
+public final class GenerationPlan {
+    private final Template template;
+    private final Map<Integer, ISubGenerator> subGenerators;
+    private final int[] slots;
+    private final ISubGenerator[] generators;
+    private final int[] inputs;
+    private final int[] lengths;
+    private final Map<Integer, String> starts;
+    private final boolean seekable;
+    private volatile String fingerprint;
+
+    private GenerationPlan(Template template, Map<Integer, ISubGenerator> iSubGenerators) {
+        this.template = template;
+        this.subGenerators = Collections.unmodifiableMap(new TreeMap<>(iSubGenerators));
+        this.slots = new int[subGenerators.size()];
+        this.generators = new ISubGenerator[slots.length];
+        this.inputs = new int[slots.length];
+        this.lengths = new int[slots.length];
+        Map<Integer, String> cursorStarts = new LinkedHashMap<>();
+        int position = 0;
+        for (Map.Entry<Integer, ISubGenerator> entry : subGenerators.entrySet()) {
+            int index = entry.getKey();
+            IPattern pattern = template.getPatternsMap().get(index);
+            slots[position] = index;
+            generators[position] = entry.getValue();
+            inputs[position] = pattern.getInput();
+            lengths[position] = pattern.getLength();
+            if (index == inputs[position]) {
+                cursorStarts.put(index, pattern.getStartString());
+            }
+            position++;
+        }
+        this.starts = Collections.unmodifiableMap(cursorStarts);
+        this.seekable = computeSeekable();
+    }
+
+    /**
+     * Plans a template
+     * @param template       contains all the patterns and the formatter
+     * @param iSubGenerators instances of all sub generators by slot
+     * @return the plan
+     */
+    public static GenerationPlan of(Template template, Map<Integer, ISubGenerator> iSubGenerators) {
+        return new GenerationPlan(template, iSubGenerators);
+    }
+
+    /**
+     * @return a new generator at the first row of the template, it shares the plan and holds its own values
+     */
+    public MainGenerator newCursor() {
+        return new MainGenerator(this);
+    }
+
+    /**
+     * A template is seekable when every attempt advances all the slots that feed on themselves (the cursors) by
+     * exactly one step. That holds when all cursors are seekable and are generated before the tools, and the tools
+     * only take their input from slots that were generated earlier in the same attempt.
+     */
+    private boolean computeSeekable() {
+        Set<Integer> generated = new HashSet<>();
+        boolean toolSeen = false;
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] == inputs[i]) {
+                if (toolSeen || !(generators[i] instanceof ISeekableSubGenerator)) {
+                    return false;
+                }
+            } else {
+                if (!generated.contains(inputs[i])) {
+                    return false;
+                }
+                toolSeen = true;
+            }
+            generated.add(slots[i]);
+        }
+        return true;
+    }
+
+    /**
+     * Hashes the template format and, for every slot, the generator type and the properties of its pattern
+     */
+    private String computeFingerprint() {
+        StringBuilder description = new StringBuilder(template.getFormatter().getTemplateFormat());
+        for (int i = 0; i < slots.length; i++) {
+            description.append('\n').append(slots[i]).append(':').append(generators[i].getClass().getName())
+                    .append(':').append(new TreeMap<>(template.getPatternsMap().get(slots[i]).getProperties()));
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(description.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * @return a hash of the template and the properties of its generators, equal for plans that generate the same rows
+     */
+    public String getFingerprint() {
+        // computed on first use, threads that race here compute the same value
+        if (fingerprint == null) {
+            fingerprint = computeFingerprint();
+        }
+        return fingerprint;
+    }
+
+    /**
+     * @return true if the cursors of this plan can skip ahead
+     */
+    public boolean isSeekable() {
+        return seekable;
+    }
+
+    /**
+     * @return true if the plan is seekable and has no tools, every row then takes exactly one attempt
+     */
+    public boolean isPositionable() {
+        return seekable && starts.size() == slots.length;
+    }
+
+    /**
+     * @return the template with the patterns and the formatter
+     */
+    public Template getTemplate() {
+        return template;
+    }
+
+    /**
+     * @return the sub generators by slot, in slot order
+     */
+    public Map<Integer, ISubGenerator> getSubGenerators() {
+        return subGenerators;
+    }
+
+    /**
+     * @return the start values of the slots that feed on themselves, in slot order
+     */
+    public Map<Integer, String> getStarts() {
+        return starts;
+    }
+
+    int slotCount() {
+        return slots.length;
+    }
+
+    int slot(int position) {
+        return slots[position];
+    }
+
+    ISubGenerator generator(int position) {
+        return generators[position];
+    }
+
+    int input(int position) {
+        return inputs[position];
+    }
+
+    int length(int position) {
+        return lengths[position];
+    }
+}
@@ -0,0 +1,146 @@
+package com.controller.generators;
+
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Publishes the rows of a main generator to a subscriber that asks for them, see {@link MainGenerator#publisher}.
+ * <p>
+ * Rows are only generated for outstanding demand and are delivered on the executor, never on the thread that
+ * requests them. The rows come from the cursor of the generator, so the publisher accepts a single subscriber.
+ * A cancelled subscription stops before the next item and drops its references to the subscriber and the rows.
+ *
+ * @param <T> a row, or a batch of rows
+ */
+final class GeneratorPublisher<T> implements Flow.Publisher<T> {
+    private final MainGenerator generator;
+    private final Executor executor;
+    private final Function<Iterator<String>, T> nextItem;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    /**
+     * @param generator the generator whose rows are published
+     * @param executor  the executor the rows are generated and delivered on
+     * @param nextItem  takes the next item from the rows of the generator
+     */
+    GeneratorPublisher(MainGenerator generator, Executor executor, Function<Iterator<String>, T> nextItem) {
+        if (generator == null || executor == null) {
+            throw new IllegalArgumentException("A publisher needs a generator and an executor");
+        }
+        this.generator = generator;
+        this.executor = executor;
+        this.nextItem = nextItem;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("The subscriber must not be null");
+        }
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new RowSubscription(null));
+            subscriber.onError(new IllegalStateException("The rows of a generator can only be published to one subscriber"));
+            return;
+        }
+        RowSubscription subscription = new RowSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    /**
+     * The subscription of the single subscriber. Requests only add demand, one task at a time generates and delivers
+     * the demanded items, so the subscriber is never called concurrently.
+     */
+    private final class RowSubscription implements Flow.Subscription {
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile Flow.Subscriber<? super T> subscriber;
+        private volatile boolean cancelled;
+        private volatile IllegalArgumentException invalidRequest;
+        private Iterator<String> rows;
+
+        private RowSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+            this.cancelled = subscriber == null;
+        }
+
+        @Override
+        public void request(long n) {
+            if (cancelled) {
+                return;
+            }
+            if (n <= 0) {
+                // reported by the drain task, so it does not overlap with a delivery
+                invalidRequest = new IllegalArgumentException("The demand of a subscription must be positive, was " + n);
+            } else {
+                demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            }
+            if (pending.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    fail(e);
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriber = null;
+        }
+
+        /**
+         * Delivers items until the demand is met, then checks whether more was requested in the meantime
+         */
+        private void drain() {
+            int missed = 1;
+            do {
+                if (invalidRequest != null) {
+                    fail(invalidRequest);
+                    return;
+                }
+                long requested = demand.get();
+                long emitted = 0;
+                while (emitted < requested && !cancelled) {
+                    T item;
+                    try {
+                        if (rows == null) {
+                            rows = generator.generate().iterator();
+                        }
+                        item = nextItem.apply(rows);
+                    } catch (RuntimeException e) {
+                        fail(e);
+                        return;
+                    }
+                    Flow.Subscriber<? super T> target = subscriber;
+                    if (target != null) {
+                        target.onNext(item);
+                    }
+                    emitted++;
+                }
+                if (cancelled) {
+                    rows = null;
+                    return;
+                }
+                if (requested != Long.MAX_VALUE) {
+                    demand.addAndGet(-emitted);
+                }
+                missed = pending.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void fail(Throwable failure) {
+            Flow.Subscriber<? super T> target = subscriber;
+            cancel();
+            if (target != null) {
+                target.onError(failure);
+            }
+        }
+    }
+}
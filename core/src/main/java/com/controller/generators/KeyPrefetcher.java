@@ -0,0 +1,166 @@
+package com.controller.generators;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands out rows of a template one at a time from a ring buffer that a background thread keeps filled, so taking a
+ * key does not pay for the generation and the retries of the tools.
+ * <p>
+ * The ring has one producer and any number of consumers. The producer fills it up to its capacity and then sleeps
+ * until the consumers have taken it down to the low-water mark, or for at most 10 ms, and tops it up again.
+ * A consumer claims the oldest key with a single compare-and-set on the head of the ring, {@link #poll()} never
+ * blocks and never locks.
+ */
+public final class KeyPrefetcher implements AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 4096;
+    private static final int SPINS = 64;
+    private static final long PARK_NANOS = 50_000;
+    private static final long IDLE_NANOS = 10_000_000;
+
+    private final MainGenerator generator;
+    private final AtomicReferenceArray<String> ring;
+    private final int capacity;
+    private final int mask;
+    private final int lowWater;
+    /** Number of keys taken, only moved forward by consumers */
+    private final AtomicLong head = new AtomicLong();
+    /** Number of keys published, only moved forward by the producer */
+    private final AtomicLong tail = new AtomicLong();
+    private final Thread producer;
+    private volatile boolean closed;
+    private volatile RuntimeException failure;
+
+    private KeyPrefetcher(MainGenerator generator, int capacity, int lowWater) {
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("The capacity must be between 1 and 2^30, was " + capacity);
+        }
+        this.capacity = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        if (lowWater < 0 || lowWater >= this.capacity) {
+            throw new IllegalArgumentException("The low-water mark must be at least 0 and below the capacity, was " + lowWater);
+        }
+        this.generator = generator;
+        this.ring = new AtomicReferenceArray<>(this.capacity);
+        this.mask = this.capacity - 1;
+        this.lowWater = lowWater;
+        this.producer = new Thread(this::produce, "key-prefetcher");
+        this.producer.setDaemon(true);
+    }
+
+    /**
+     * Starts prefetching with the low-water mark at half the capacity
+     * @param generator the generator the keys are taken from, it is used by the producer thread only from now on
+     * @param capacity  number of keys kept ready, rounded up to a power of two
+     * @return the running prefetcher
+     */
+    public static KeyPrefetcher start(MainGenerator generator, int capacity) {
+        return start(generator, capacity, capacity / 2);
+    }
+
+    /**
+     * @param generator the generator the keys are taken from, it is used by the producer thread only from now on
+     * @param capacity  number of keys kept ready, rounded up to a power of two
+     * @param lowWater  number of ready keys below which the producer tops the ring up again
+     * @return the running prefetcher
+     */
+    public static KeyPrefetcher start(MainGenerator generator, int capacity, int lowWater) {
+        KeyPrefetcher prefetcher = new KeyPrefetcher(generator, capacity, lowWater);
+        prefetcher.producer.start();
+        return prefetcher;
+    }
+
+    /**
+     * Takes the oldest ready key without waiting
+     * @return the key, or null if no key is ready
+     */
+    public String poll() {
+        while (true) {
+            long taken = head.get();
+            if (taken >= tail.get()) {
+                return null;
+            }
+            // read before claiming, the producer only reuses the slot once the claim has moved the head past it
+            String key = ring.get((int) (taken & mask));
+            if (head.compareAndSet(taken, taken + 1)) {
+                if (tail.get() - taken - 1 == lowWater) {
+                    LockSupport.unpark(producer);
+                }
+                return key;
+            }
+        }
+    }
+
+    /**
+     * Takes the oldest key, waiting for the producer when the ring is empty
+     * @return the key
+     * @throws InterruptedException  if the thread is interrupted while waiting
+     * @throws IllegalStateException if the prefetcher is closed or the template can not give more keys
+     */
+    public String take() throws InterruptedException {
+        int spins = 0;
+        while (true) {
+            RuntimeException stopped = failure;
+            String key = poll();
+            if (key != null) {
+                return key;
+            }
+            if (stopped != null) {
+                throw new IllegalStateException("No more keys can be generated: " + stopped.getMessage(), stopped);
+            }
+            if (closed) {
+                throw new IllegalStateException("The prefetcher is closed");
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (++spins < SPINS) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * @return number of keys that are ready to be taken
+     */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    /**
+     * @return number of keys the ring holds
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Stops the producer, keys that are ready can still be taken
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(producer);
+    }
+
+    private void produce() {
+        try {
+            Iterator<String> rows = generator.generate().iterator();
+            while (!closed) {
+                long published = tail.get();
+                if (published - head.get() >= capacity) {
+                    // full: sleep until a consumer takes the ring down to the low-water mark or the idle time is over
+                    LockSupport.parkNanos(this, IDLE_NANOS);
+                    continue;
+                }
+                ring.lazySet((int) (published & mask), rows.next());
+                tail.lazySet(published + 1);
+            }
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package com.controller.generators;
+
+import com.controller.jfr.GenerationBatchEvent;
+import com.controller.jfr.RejectionBurstEvent;
+import com.controller.jfr.RetryLimitEvent;
+import com.controller.metrics.GeneratorMetrics;
+import com.controller.metrics.Metrics;
+import com.controller.metrics.RowTrace;
+import com.controller.metrics.RowTracer;
+import com.controller.subgenerators.ISeekableSubGenerator;
+import com.controller.subgenerators.ISubGenerator;
+import com.model.Template;
+import lombok.AccessLevel;
+import lombok.Getter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.stream.Stream;
+
+/**
+ Main generator that,using the instances of the sub generators,the patterns mapped to them and the formatter,combines the values generated by each generator and
+ returns a stream of values that conform to the input given by the user.
+ A main generator is the cursor of a {@link GenerationPlan}: it holds the values and the number of attempts, the plan is shared.
+ A main generator must only be used by one thread at a time, threads that generate from the same template each take a cursor.
+ */
+@Getter
+public class MainGenerator implements IGenerator {
+    /**
+     * Number of consecutive attempts that may be rejected before the template is considered impossible to generate
+     */
+    public static final int MAX_ATTEMPTS_PER_ROW = 1000;
+    /**
+     * Number of rows covered by one {@link GenerationBatchEvent}
+     */
+    public static final int BATCH_EVENT_ROWS = 1024;
+    /**
+     * Number of rejected attempts for a single row from which a {@link RejectionBurstEvent} is recorded
+     */
+    public static final int REJECTION_BURST = 16;
+
+    private final GenerationPlan plan;
+    private final Template template;
+    private final Map<Integer, ISubGenerator> iSubGenerators;
+    private final Map<Integer,String> values ;
+    private long attempts;
+    private final GeneratorMetrics metrics;
+    private final RowTracer tracer;
+    @Getter(AccessLevel.NONE)
+    private GenerationBatchEvent batchEvent;
+    @Getter(AccessLevel.NONE)
+    private int batchRows;
+    @Getter(AccessLevel.NONE)
+    private long batchStartAttempts;
+    @Getter(AccessLevel.NONE)
+    private int lastRejectedSlot;
+
+    /**
+     * @param template      contains all the patterns and the formatter
+     * @param iSubGenerators instances of all sub generators that will be used
+     */
+    public MainGenerator(Template template, Map<Integer, ISubGenerator> iSubGenerators) {
+        this(GenerationPlan.of(template, iSubGenerators));
+    }
+
+    /**
+     * Creates a cursor of a plan, the values start at the start values of the plan
+     * @param plan the shared plan of the template, see {@link GenerationPlan#newCursor()}
+     */
+    MainGenerator(GenerationPlan plan) {
+        this.plan = plan;
+        this.template = plan.getTemplate();
+        this.iSubGenerators = plan.getSubGenerators();
+        this.values = new HashMap<>(plan.getStarts());
+        this.metrics = Metrics.generator();
+        this.tracer = Metrics.tracer();
+    }
+
+    /**
+     * @return A stream of generated values.
+     */
+    public Stream<String> generate() {
+
+        return Stream.generate(this::generateNextValue);
+    }
+
+    /**
+     * Publishes the rows of this generator to a subscriber, a row is only generated when the subscriber requests it.
+     * The rows come from this cursor, so the publisher accepts one subscriber and the generator must not be used
+     * elsewhere while the subscription is active.
+     * @param executor the executor the rows are generated and delivered on
+     * @return a publisher of single rows
+     */
+    public Flow.Publisher<String> publisher(Executor executor) {
+        return new GeneratorPublisher<>(this, executor, Iterator::next);
+    }
+
+    /**
+     * Publishes the rows of this generator in batches, every requested item is a list of {@code batchRows} rows.
+     * See {@link #publisher(Executor)}.
+     * @param executor  the executor the batches are generated and delivered on
+     * @param batchRows number of rows per batch
+     * @return a publisher of batches of rows
+     */
+    public Flow.Publisher<List<String>> batchPublisher(Executor executor, int batchRows) {
+        if (batchRows <= 0) {
+            throw new IllegalArgumentException("The number of rows per batch must be positive");
+        }
+        return new GeneratorPublisher<>(this, executor, rows -> {
+            List<String> batch = new ArrayList<>(batchRows);
+            for (int i = 0; i < batchRows; i++) {
+                batch.add(rows.next());
+            }
+            return batch;
+        });
+    }
+
+    /**
+     * iterates through all the generated values and formats them together by using the formatter
+     *
+     * @return resulted value
+     */
+    private String generateNextValue() {
+        if (this.batchRows == 0) {
+            this.batchEvent = new GenerationBatchEvent();
+            this.batchEvent.begin();
+            this.batchStartAttempts = this.attempts;
+        }
+
+        Boolean successful = false;
+        int ctr = 0 ;
+        do{
+            successful = this.iterate();
+            ctr++;
+        }while(Boolean.TRUE.equals(!successful) && ctr < MAX_ATTEMPTS_PER_ROW);
+
+        int rejections = Boolean.TRUE.equals(successful) ? ctr - 1 : ctr;
+        if (rejections >= REJECTION_BURST) {
+            RejectionBurstEvent burst = new RejectionBurstEvent();
+            if (burst.shouldCommit()) {
+                burst.slot = this.lastRejectedSlot;
+                burst.rejections = rejections;
+                burst.commit();
+            }
+        }
+
+        if (Boolean.TRUE.equals(successful)) {
+            this.metrics.recordRow();
+            this.countBatchRow();
+            return this.formatValues();
+        }else{
+            RetryLimitEvent limit = new RetryLimitEvent();
+            if (limit.shouldCommit()) {
+                limit.slot = this.lastRejectedSlot;
+                limit.attempts = ctr;
+                limit.template = this.template.getFormatter().getTemplateFormat();
+                limit.commit();
+            }
+            throw new IllegalArgumentException("The generator is unable to generate this template.Please recheck your input");
+        }
+    }
+
+    /**
+     * Ends the batch event once it covers {@link #BATCH_EVENT_ROWS} rows
+     */
+    private void countBatchRow() {
+        if (++this.batchRows == BATCH_EVENT_ROWS) {
+            if (this.batchEvent.shouldCommit()) {
+                this.batchEvent.rows = this.batchRows;
+                this.batchEvent.attempts = this.attempts - this.batchStartAttempts;
+                this.batchEvent.commit();
+            }
+            this.batchRows = 0;
+        }
+    }
+
+    /**
+     * Makes a single attempt to generate the next value, without retrying when a tool rejects it
+     * @return the formatted value, or null if the attempt was rejected
+     */
+    public String tryNext() {
+        if (this.iterate()) {
+            this.metrics.recordRow();
+            return this.formatValues();
+        }
+        return null;
+    }
+
+    /**
+     * formats the current values together by using the formatter
+     * @return resulted value
+     */
+    private String formatValues() {
+        List<String> formattedValues = new ArrayList<>();
+        for (Map.Entry<Integer, String> entry : this.values.entrySet()) {
+            String value = entry.getValue();
+            formattedValues.add(value);
+        }
+        //now format all at once
+        return this.format(formattedValues);
+    }
+
+    /**
+     * @return true if {@link #skipAttempts(long)} can be used on this generator, see {@link GenerationPlan#isSeekable()}
+     */
+    public boolean isSeekable() {
+        return this.plan.isSeekable();
+    }
+
+    /**
+     * A template is positionable when it is seekable and has no tools, every row then takes exactly one attempt
+     * and row {@code n} is found by skipping {@code n} attempts
+     * @return true if the rows of this generator can be split into ranges that are generated independently
+     */
+    public boolean isPositionable() {
+        return this.plan.isPositionable();
+    }
+
+    /**
+     * @return a copy of the current values of the slots that feed on themselves, in slot order
+     */
+    public Map<Integer, String> getCursors() {
+        Map<Integer, String> cursors = new LinkedHashMap<>();
+        for (Integer index : this.plan.getStarts().keySet()) {
+            cursors.put(index, this.values.get(index));
+        }
+        return cursors;
+    }
+
+    /**
+     * Puts the generator back at a position that was taken with {@link #getCursors()}
+     * @param cursors  values of the slots that feed on themselves
+     * @param attempts number of attempts that had been made at that position
+     */
+    public void restoreCursors(Map<Integer, String> cursors, long attempts) {
+        for (Map.Entry<Integer, String> cursor : cursors.entrySet()) {
+            if (!this.iSubGenerators.containsKey(cursor.getKey())) {
+                throw new IllegalArgumentException("The template has no slot " + cursor.getKey() + " to restore");
+            }
+            this.values.put(cursor.getKey(), cursor.getValue());
+        }
+        this.attempts = attempts;
+    }
+
+    /**
+     * Moves all cursors ahead as if the given number of attempts had been made, without generating the values
+     * @param count number of attempts to skip
+     * @throws IllegalArgumentException if the template is not seekable or a cursor runs out of values
+     */
+    public void skipAttempts(long count) {
+        if (!this.isSeekable()) {
+            throw new IllegalArgumentException("Only templates with sequential generators followed by tools can skip ahead");
+        }
+        Map<Integer, String> cursors = this.getCursors();
+        for (Map.Entry<Integer, String> cursor : cursors.entrySet()) {
+            ISeekableSubGenerator generator = (ISeekableSubGenerator) this.iSubGenerators.get(cursor.getKey());
+            String value = generator.advance(cursor.getValue(), count);
+            if (value == null) {
+                throw new IllegalArgumentException("The generator of slot " + cursor.getKey() + " runs out of values before " + count + " attempts");
+            }
+            cursor.setValue(value);
+        }
+        this.values.putAll(cursors);
+        this.attempts += count;
+    }
+
+    /**
+     * @return number of attempts that can still be made before the first cursor runs out of values or repeats itself
+     * @throws IllegalArgumentException if the template is not seekable
+     */
+    public long remainingAttempts() {
+        if (!this.isSeekable()) {
+            throw new IllegalArgumentException("Only templates with sequential generators followed by tools can skip ahead");
+        }
+        long remaining = Long.MAX_VALUE;
+        for (Map.Entry<Integer, String> cursor : this.getCursors().entrySet()) {
+            ISeekableSubGenerator generator = (ISeekableSubGenerator) this.iSubGenerators.get(cursor.getKey());
+            remaining = Math.min(remaining, generator.remaining(cursor.getValue()));
+        }
+        return remaining;
+    }
+
+    /**
+     * iterates through all the generators and gets the values generated by each one
+     * @return returns true if all the generations were successful and false if otherwise
+     */
+    private boolean iterate() {
+        this.attempts++;
+        this.metrics.recordAttempt();
+        if (this.tracer.isTraced(this.attempts)) {
+            return this.iterateTraced();
+        }
+        boolean sampled = this.metrics.isSampled(this.attempts);
+        // loop through all the subGenerators and call their generate method
+        for (int position = 0; position < this.plan.slotCount(); position++) {
+            int index = this.plan.slot(position);
+
+            //normal generators need past values , by default then the "input" property will have the same index
+            //tools need an input from another generator
+            String input = this.values.get(this.plan.input(position));
+            long start = sampled ? System.nanoTime() : 0;
+            String value = this.plan.generator(position).generate(input);
+            if (sampled) this.metrics.recordSlotTime(index, System.nanoTime() - start);
+            int wantedLength = this.plan.length(position);
+            if (value == null || (wantedLength!=0 && value.length() !=  wantedLength)) {
+                this.metrics.recordRejection(index);
+                this.lastRejectedSlot = index;
+                return false;
+            }
+
+            this.values.put(index, value);
+        }
+        return true;
+    }
+
+    /**
+     * Makes the same attempt as {@link #iterate()} and hands the input, output, time and outcome of every slot
+     * to the {@link RowTracer}, the slots are always timed
+     * @return returns true if all the generations were successful and false if otherwise
+     */
+    private boolean iterateTraced() {
+        RowTrace trace = new RowTrace(this.attempts, Thread.currentThread().getName());
+        boolean sampled = this.metrics.isSampled(this.attempts);
+        try {
+            for (int position = 0; position < this.plan.slotCount(); position++) {
+                int index = this.plan.slot(position);
+                ISubGenerator generator = this.plan.generator(position);
+                String input = this.values.get(this.plan.input(position));
+                long start = System.nanoTime();
+                String value = generator.generate(input);
+                long nanos = System.nanoTime() - start;
+                if (sampled) this.metrics.recordSlotTime(index, nanos);
+                int wantedLength = this.plan.length(position);
+                RowTrace.Outcome outcome = value == null ? RowTrace.Outcome.REJECTED
+                        : wantedLength != 0 && value.length() != wantedLength ? RowTrace.Outcome.WRONG_LENGTH
+                        : RowTrace.Outcome.ACCEPTED;
+                trace.add(index, generator.getClass().getSimpleName(), input, value, nanos, outcome);
+                if (outcome != RowTrace.Outcome.ACCEPTED) {
+                    this.metrics.recordRejection(index);
+                    this.lastRejectedSlot = index;
+                    return false;
+                }
+
+                this.values.put(index, value);
+            }
+            return true;
+        } finally {
+            this.tracer.record(trace);
+        }
+    }
+
+    /**
+     * Format a given value by template's format string
+     * * @return formatted value
+     */
+    public String format(List<String> results) {
+        return this.template.getFormatter().format(results);
+    }
+
+}
+
@@ -0,0 +1,175 @@
+package com.controller.generators;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Shard {@code index} of {@code count} of the attempts of a seekable template. Nodes that generate the same template
+ * with different shards never produce the same row, without talking to each other, because every attempt belongs to
+ * exactly one shard and two different attempts never give the same row.
+ * <p>
+ * A contiguous shard takes one range of consecutive attempts, the ranges differ by at most one attempt in size.
+ * An interleaved shard takes every {@code count}-th attempt starting at {@code index}, so all shards move through
+ * the keyspace at the same pace. With tools an attempt can be rejected and a shard then gives fewer rows.
+ */
+public final class ShardSpec {
+    /**
+     * How the attempts are divided over the shards
+     */
+    public enum Layout {
+        CONTIGUOUS,
+        INTERLEAVED
+    }
+
+    private final int index;
+    private final int count;
+    private final Layout layout;
+
+    /**
+     * @param index  the shard, from 0 to {@code count - 1}
+     * @param count  number of shards
+     * @param layout how the attempts are divided over the shards
+     */
+    public ShardSpec(int index, int count, Layout layout) {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("The shard count must be positive and the shard index must be below it, was "
+                    + index + "/" + count);
+        }
+        if (layout == null) {
+            throw new IllegalArgumentException("A shard needs a layout");
+        }
+        this.index = index;
+        this.count = count;
+        this.layout = layout;
+    }
+
+    /**
+     * @param plan the plan of a seekable template
+     * @return the rows of this shard over the whole keyspace, until the first sequence runs out of values
+     */
+    public Stream<String> rows(GenerationPlan plan) {
+        if (!plan.isSeekable()) {
+            throw new IllegalArgumentException("Only templates with sequential generators followed by tools can be sharded");
+        }
+        return rows(plan, 0, plan.newCursor().remainingAttempts());
+    }
+
+    /**
+     * @param plan  the plan of a seekable template
+     * @param first the first attempt of the range that is sharded
+     * @param end   the attempt after the last attempt of the range, at most the number of attempts before the first
+     *              sequence runs out of values
+     * @return the rows of this shard of the range, in the order of the template
+     */
+    public Stream<String> rows(GenerationPlan plan, long first, long end) {
+        if (!plan.isSeekable()) {
+            throw new IllegalArgumentException("Only templates with sequential generators followed by tools can be sharded");
+        }
+        if (first < 0 || end < first) {
+            throw new IllegalArgumentException("The range of a shard must not be negative");
+        }
+        long remaining = plan.newCursor().remainingAttempts();
+        if (end > remaining) {
+            throw new IllegalArgumentException("The range ends at attempt " + end + ", but the template runs out of values after "
+                    + remaining + " attempts");
+        }
+        return StreamSupport.stream(new ShardSpliterator(plan.newCursor(), start(first, end), stop(first, end)), false);
+    }
+
+    /**
+     * @param first the first attempt of the range that is sharded
+     * @param end   the attempt after the last attempt of the range
+     * @return the first attempt of this shard in the range
+     */
+    public long start(long first, long end) {
+        if (layout == Layout.INTERLEAVED) {
+            return first + index;
+        }
+        long span = end - first;
+        return first + (span / count) * index + Math.min(index, span % count);
+    }
+
+    /**
+     * @param first the first attempt of the range that is sharded
+     * @param end   the attempt after the last attempt of the range
+     * @return the attempt after the last attempt this shard may make in the range
+     */
+    public long stop(long first, long end) {
+        if (layout == Layout.INTERLEAVED) {
+            return end;
+        }
+        long span = end - first;
+        return first + (span / count) * (index + 1) + Math.min(index + 1, span % count);
+    }
+
+    /**
+     * @param first the first attempt of the range that is sharded
+     * @param end   the attempt after the last attempt of the range
+     * @return the number of attempts of this shard in the range
+     */
+    public long attempts(long first, long end) {
+        long start = start(first, end);
+        long stop = stop(first, end);
+        if (start >= stop) {
+            return 0;
+        }
+        return layout == Layout.INTERLEAVED ? (stop - start + count - 1) / count : stop - start;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public Layout getLayout() {
+        return layout;
+    }
+
+    @Override
+    public String toString() {
+        return index + "/" + count + (layout == Layout.INTERLEAVED ? " interleaved" : "");
+    }
+
+    /**
+     * Makes the attempts of the shard with one cursor, skipping the attempts of the other shards
+     */
+    private final class ShardSpliterator extends Spliterators.AbstractSpliterator<String> {
+        private final MainGenerator cursor;
+        private final long stop;
+        private final long step;
+        private long next;
+        private long position;
+
+        private ShardSpliterator(MainGenerator cursor, long start, long stop) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.DISTINCT);
+            this.cursor = cursor;
+            this.next = start;
+            this.stop = stop;
+            this.step = layout == Layout.INTERLEAVED ? count : 1;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super String> action) {
+            while (next < stop) {
+                // only skip to attempts that are made, skipping past the end of the keyspace fails
+                if (next > position) {
+                    cursor.skipAttempts(next - position);
+                }
+                String row = cursor.tryNext();
+                position = next + 1;
+                next += step;
+                if (row != null) {
+                    action.accept(row);
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.controller.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * An export buffer that was handed to its file, the duration of the event is the latency of the write
+ */
+@Name("com.generator.ExportFlush")
+@Label("Export Flush")
+@Category({"Data Generator", "Export"})
+@Description("A buffer of exported rows was written to its file")
+@Enabled(false)
+public class ExportFlushEvent extends Event {
+    @Label("Path")
+    public String path;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
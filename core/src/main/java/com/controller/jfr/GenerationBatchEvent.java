@@ -0,0 +1,26 @@
+package com.controller.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A batch of rows taken from {@link com.controller.generators.MainGenerator#generate()}, the duration of the event is
+ * the time the batch took, including the time the consumer of the stream spent between the rows
+ */
+@Name("com.generator.GenerationBatch")
+@Label("Generation Batch")
+@Category({"Data Generator", "Generation"})
+@Description("A batch of generated rows")
+@Enabled(false)
+public class GenerationBatchEvent extends Event {
+    @Label("Rows")
+    public int rows;
+
+    @Label("Attempts")
+    @Description("Accepted and rejected attempts made for the rows of the batch")
+    public long attempts;
+}
@@ -0,0 +1,25 @@
+package com.controller.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A preview generated by the user interface
+ */
+@Name("com.generator.PreviewRun")
+@Label("Preview Run")
+@Category({"Data Generator", "User Interface"})
+@Enabled(false)
+public class PreviewRunEvent extends Event {
+    @Label("Rows")
+    public int rows;
+
+    @Label("Success")
+    public boolean success;
+
+    @Label("Error")
+    public String error;
+}
@@ -0,0 +1,25 @@
+package com.controller.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A row that needed at least {@link com.controller.generators.MainGenerator#REJECTION_BURST} rejected attempts
+ */
+@Name("com.generator.RejectionBurst")
+@Label("Rejection Burst")
+@Category({"Data Generator", "Generation"})
+@Description("Many consecutive attempts were rejected before a row was generated")
+@Enabled(false)
+public class RejectionBurstEvent extends Event {
+    @Label("Slot")
+    @Description("Slot that rejected the last attempt, usually an evaluator")
+    public int slot;
+
+    @Label("Rejections")
+    public int rejections;
+}
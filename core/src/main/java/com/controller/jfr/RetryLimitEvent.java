@@ -0,0 +1,28 @@
+package com.controller.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The generator gave up on a row after {@link com.controller.generators.MainGenerator#MAX_ATTEMPTS_PER_ROW} attempts
+ */
+@Name("com.generator.RetryLimit")
+@Label("Retry Limit Reached")
+@Category({"Data Generator", "Generation"})
+@Description("Every attempt for a row was rejected, the generation stopped")
+@Enabled(false)
+public class RetryLimitEvent extends Event {
+    @Label("Slot")
+    @Description("Slot that rejected the last attempt")
+    public int slot;
+
+    @Label("Attempts")
+    public int attempts;
+
+    @Label("Template")
+    public String template;
+}
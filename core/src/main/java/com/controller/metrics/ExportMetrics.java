@@ -0,0 +1,55 @@
+package com.controller.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the exports of the export manager
+ */
+public class ExportMetrics implements ExportMetricsMXBean {
+    private final LongAdder exportsCompleted = new LongAdder();
+    private final LongAdder exportsFailed = new LongAdder();
+    private final LongAdder rowsExported = new LongAdder();
+    private final LongAdder bytesExported = new LongAdder();
+
+    /**
+     * @param rows  number of rows the export wrote
+     * @param bytes number of bytes the export wrote
+     */
+    public void recordExport(long rows, long bytes) {
+        exportsCompleted.increment();
+        rowsExported.add(rows);
+        bytesExported.add(bytes);
+    }
+
+    public void recordFailure() {
+        exportsFailed.increment();
+    }
+
+    @Override
+    public long getExportsCompleted() {
+        return exportsCompleted.sum();
+    }
+
+    @Override
+    public long getExportsFailed() {
+        return exportsFailed.sum();
+    }
+
+    @Override
+    public long getRowsExported() {
+        return rowsExported.sum();
+    }
+
+    @Override
+    public long getBytesExported() {
+        return bytesExported.sum();
+    }
+
+    @Override
+    public void reset() {
+        exportsCompleted.reset();
+        exportsFailed.reset();
+        rowsExported.reset();
+        bytesExported.reset();
+    }
+}
@@ -0,0 +1,32 @@
+package com.controller.metrics;
+
+/**
+ * Management interface of the export metrics, registered as {@value Metrics#EXPORT_OBJECT_NAME}
+ */
+public interface ExportMetricsMXBean {
+
+    /**
+     * @return number of exports that finished successfully
+     */
+    long getExportsCompleted();
+
+    /**
+     * @return number of exports that failed with an error
+     */
+    long getExportsFailed();
+
+    /**
+     * @return number of rows written by the finished exports
+     */
+    long getRowsExported();
+
+    /**
+     * @return number of bytes written by the finished exports, targets that are not files count as 0
+     */
+    long getBytesExported();
+
+    /**
+     * Sets all counters back to zero
+     */
+    void reset();
+}
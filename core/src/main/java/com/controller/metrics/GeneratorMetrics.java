@@ -0,0 +1,164 @@
+package com.controller.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Counters of the generation, updated by every {@link com.controller.generators.MainGenerator} and the sequential
+ * generators. The counters are {@link LongAdder}s, so generators on many threads can update them without contending.
+ * Timing the slots costs two {@link System#nanoTime()} calls per slot and is only done for sampled attempts.
+ */
+public class GeneratorMetrics implements GeneratorMetricsMXBean {
+    /** Length of the window the rows per second are measured over */
+    static final long RATE_WINDOW_NANOS = 1_000_000_000L;
+
+    private final LongAdder rowsGenerated = new LongAdder();
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder exhaustionEvents = new LongAdder();
+    private final ConcurrentMap<Integer, LongAdder> rejectionsPerSlot = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, NanoHistogram> slotTimings = new ConcurrentHashMap<>();
+    private volatile int samplingInterval;
+    private long windowRows;
+    private long windowStart = System.nanoTime();
+    private double windowRate;
+
+    public void recordRow() {
+        rowsGenerated.increment();
+    }
+
+    public void recordAttempt() {
+        attempts.increment();
+    }
+
+    /**
+     * @param slot the slot whose value rejected the attempt
+     */
+    public void recordRejection(int slot) {
+        rejections.increment();
+        rejectionsPerSlot.computeIfAbsent(slot, key -> new LongAdder()).increment();
+    }
+
+    public void recordExhaustion() {
+        exhaustionEvents.increment();
+    }
+
+    /**
+     * @param attempt number of the attempt
+     * @return true if the slots of the attempt should be timed
+     */
+    public boolean isSampled(long attempt) {
+        int interval = samplingInterval;
+        return interval > 0 && attempt % interval == 0;
+    }
+
+    /**
+     * @param slot  the slot that was timed
+     * @param nanos time the slot took to generate its value
+     */
+    public void recordSlotTime(int slot, long nanos) {
+        slotTimings.computeIfAbsent(slot, key -> new NanoHistogram()).record(nanos);
+    }
+
+    @Override
+    public long getRowsGenerated() {
+        return rowsGenerated.sum();
+    }
+
+    @Override
+    public long getAttempts() {
+        return attempts.sum();
+    }
+
+    @Override
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    @Override
+    public Map<Integer, Long> getRejectionsPerSlot() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        rejectionsPerSlot.forEach((slot, count) -> counts.put(slot, count.sum()));
+        return counts;
+    }
+
+    @Override
+    public long getExhaustionEvents() {
+        return exhaustionEvents.sum();
+    }
+
+    @Override
+    public double getRowsPerSecond() {
+        return rowsPerSecond(System.nanoTime());
+    }
+
+    /**
+     * Closes the current window once it is {@value #RATE_WINDOW_NANOS} ns long and starts the next one. Until then
+     * every caller reads the rate of the last closed window, so several JMX clients do not disturb each other.
+     * @param now the current time
+     * @return rows generated per second in the last closed window, 0 before the first window has closed
+     */
+    synchronized double rowsPerSecond(long now) {
+        long elapsed = now - windowStart;
+        if (elapsed >= RATE_WINDOW_NANOS) {
+            long rows = rowsGenerated.sum();
+            windowRate = (rows - windowRows) * 1e9 / elapsed;
+            windowRows = rows;
+            windowStart = now;
+        }
+        return windowRate;
+    }
+
+    @Override
+    public int getSamplingInterval() {
+        return samplingInterval;
+    }
+
+    @Override
+    public void setSamplingInterval(int interval) {
+        if (interval < 0) {
+            throw new IllegalArgumentException("The sampling interval can not be negative");
+        }
+        this.samplingInterval = interval;
+    }
+
+    @Override
+    public Map<Integer, Long> getSlotMeanNanos() {
+        return perSlot(NanoHistogram::getMean);
+    }
+
+    @Override
+    public Map<Integer, Long> getSlotP99Nanos() {
+        return perSlot(histogram -> histogram.getPercentile(99));
+    }
+
+    @Override
+    public Map<Integer, long[]> getSlotHistograms() {
+        Map<Integer, long[]> histograms = new TreeMap<>();
+        slotTimings.forEach((slot, histogram) -> histograms.put(slot, histogram.getBuckets()));
+        return histograms;
+    }
+
+    private Map<Integer, Long> perSlot(ToLongFunction<NanoHistogram> statistic) {
+        Map<Integer, Long> values = new TreeMap<>();
+        slotTimings.forEach((slot, histogram) -> values.put(slot, statistic.applyAsLong(histogram)));
+        return values;
+    }
+
+    @Override
+    public synchronized void reset() {
+        rowsGenerated.reset();
+        attempts.reset();
+        rejections.reset();
+        exhaustionEvents.reset();
+        rejectionsPerSlot.clear();
+        slotTimings.clear();
+        windowRows = 0;
+        windowStart = System.nanoTime();
+        windowRate = 0;
+    }
+}
@@ -0,0 +1,70 @@
+package com.controller.metrics;
+
+import java.util.Map;
+
+/**
+ * Management interface of the generation metrics, registered as {@value Metrics#GENERATOR_OBJECT_NAME}
+ */
+public interface GeneratorMetricsMXBean {
+
+    /**
+     * @return number of rows that have been generated
+     */
+    long getRowsGenerated();
+
+    /**
+     * @return number of attempts, accepted and rejected, that have been made to generate a row
+     */
+    long getAttempts();
+
+    /**
+     * @return number of attempts that have been rejected
+     */
+    long getRejections();
+
+    /**
+     * @return number of rejected attempts per slot, for tools this is the number of retries they caused
+     */
+    Map<Integer, Long> getRejectionsPerSlot();
+
+    /**
+     * @return number of times a sequential generator ran out of values or started over
+     */
+    long getExhaustionEvents();
+
+    /**
+     * @return rows generated per second in the last closed window of at least a second, reading it does not change
+     * what other clients read
+     */
+    double getRowsPerSecond();
+
+    /**
+     * @return every how many attempts the slots are timed, 0 when timing is off
+     */
+    int getSamplingInterval();
+
+    /**
+     * @param interval time the slots of every {@code interval}-th attempt, 0 turns timing off
+     */
+    void setSamplingInterval(int interval);
+
+    /**
+     * @return mean time per slot of the sampled attempts, in nanoseconds
+     */
+    Map<Integer, Long> getSlotMeanNanos();
+
+    /**
+     * @return 99th percentile per slot of the sampled attempts, in nanoseconds rounded up to a power of two
+     */
+    Map<Integer, Long> getSlotP99Nanos();
+
+    /**
+     * @return the timing histogram per slot, see {@link NanoHistogram#getBuckets()}
+     */
+    Map<Integer, long[]> getSlotHistograms();
+
+    /**
+     * Sets all counters and histograms back to zero
+     */
+    void reset();
+}
@@ -0,0 +1,187 @@
+package com.controller.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Histogram of latencies in nanoseconds with a fixed relative precision, laid out the way HdrHistogram does it:
+ * every power of two is split into {@code 2^precisionBits} linear sub-buckets, so a recorded value is known to within
+ * {@code 1 / 2^precisionBits} of itself from single nanoseconds up to hours. With the default 7 bits the error is
+ * below 0.8% and the histogram takes about 57 KB.
+ * <p>
+ * Where {@link NanoHistogram} only tells the power of two, this histogram is precise enough to report tail
+ * percentiles of a load test. Recording is lock-free, reading while other threads record gives a close but not
+ * necessarily consistent view.
+ */
+public class LatencyHistogram {
+    public static final int DEFAULT_PRECISION_BITS = 7;
+
+    private final int precisionBits;
+    private final int subBuckets;
+    private final AtomicLongArray counts;
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong();
+    private final DoubleAdder squares = new DoubleAdder();
+
+    /**
+     * Creates a histogram with a relative precision of {@code 2^-7}
+     */
+    public LatencyHistogram() {
+        this(DEFAULT_PRECISION_BITS);
+    }
+
+    /**
+     * @param precisionBits number of bits of every value that are kept, between 1 and 16
+     */
+    public LatencyHistogram(int precisionBits) {
+        if (precisionBits < 1 || precisionBits > 16) {
+            throw new IllegalArgumentException("The precision must be between 1 and 16 bits, was " + precisionBits);
+        }
+        this.precisionBits = precisionBits;
+        this.subBuckets = 1 << precisionBits;
+        this.counts = new AtomicLongArray((64 - precisionBits) * subBuckets);
+    }
+
+    /**
+     * @param nanos the latency to record, negative latencies are recorded as 0
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts.incrementAndGet(indexOf(value));
+        count.incrementAndGet();
+        total.addAndGet(value);
+        squares.add((double) value * value);
+        long least;
+        while (value < (least = min.get()) && !min.compareAndSet(least, value)) {
+            // another thread recorded a value at the same time, try again
+        }
+        long most;
+        while (value > (most = max.get()) && !max.compareAndSet(most, value)) {
+            // another thread recorded a value at the same time, try again
+        }
+    }
+
+    /**
+     * @param value a value that is not negative
+     * @return the index of the bucket that counts the value, values below {@code 2^(precisionBits + 1)} have a
+     * bucket each and larger values share a bucket with their neighbours of the same leading bits
+     */
+    int indexOf(long value) {
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent <= precisionBits) {
+            return (int) value;
+        }
+        int shift = exponent - precisionBits;
+        return shift * subBuckets + (int) (value >>> shift);
+    }
+
+    /**
+     * @param index the index of a bucket
+     * @return the largest value counted by the bucket
+     */
+    long highestValueOf(int index) {
+        if (index < 2 * subBuckets) {
+            return index;
+        }
+        int shift = index / subBuckets - 1;
+        long mantissa = index - (long) shift * subBuckets;
+        // the last bucket ends at 2^63 - 1, where the shift wraps around
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    /**
+     * @return number of recorded latencies
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return the smallest recorded latency, 0 when nothing has been recorded
+     */
+    public long getMin() {
+        long least = min.get();
+        return least == Long.MAX_VALUE ? 0 : least;
+    }
+
+    /**
+     * @return the largest recorded latency, exact and not rounded to its bucket
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @return mean of the recorded latencies, 0 when nothing has been recorded
+     */
+    public long getMean() {
+        long recorded = count.get();
+        return recorded == 0 ? 0 : total.get() / recorded;
+    }
+
+    /**
+     * @return standard deviation of the recorded latencies, 0 when nothing has been recorded
+     */
+    public long getStdDeviation() {
+        long recorded = count.get();
+        if (recorded == 0) {
+            return 0;
+        }
+        double mean = (double) total.get() / recorded;
+        double variance = squares.sum() / recorded - mean * mean;
+        return (long) Math.sqrt(Math.max(variance, 0));
+    }
+
+    /**
+     * @param percentile the percentile, between 0 and 100
+     * @return the largest value of the bucket that holds the percentile, never more than the largest recorded
+     * latency, 0 when nothing has been recorded
+     */
+    public long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("The percentile must be between 0 and 100");
+        }
+        long recorded = 0;
+        long[] snapshot = new long[counts.length()];
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = counts.get(i);
+            recorded += snapshot[i];
+        }
+        if (recorded == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(recorded * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * @return number of bits of every value that are kept
+     */
+    public int getPrecisionBits() {
+        return precisionBits;
+    }
+
+    /**
+     * Forgets the recorded latencies, concurrent recordings may partly survive the reset
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        total.set(0);
+        squares.reset();
+        min.set(Long.MAX_VALUE);
+        max.set(0);
+    }
+}
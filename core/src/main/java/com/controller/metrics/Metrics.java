@@ -0,0 +1,69 @@
+package com.controller.metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The metrics of the process. They are registered as platform MBeans when they are first used,
+ * so jconsole or a JMX scraper can follow a running job. Start the JVM with
+ * {@code -Dgenerator.metrics.jmx=false} to keep them out of the platform MBean server.
+ * {@code -Dgenerator.trace.interval=n} starts the {@link RowTracer} with every n-th attempt traced.
+ */
+public final class Metrics {
+    public static final String GENERATOR_OBJECT_NAME = "com.generator:type=GeneratorMetrics";
+    public static final String EXPORT_OBJECT_NAME = "com.generator:type=ExportMetrics";
+    public static final String TRACER_OBJECT_NAME = "com.generator:type=RowTracer";
+    private static final Logger LOGGER = Logger.getLogger(Metrics.class.getName());
+    private static final GeneratorMetrics GENERATOR = new GeneratorMetrics();
+    private static final ExportMetrics EXPORT = new ExportMetrics();
+    private static final RowTracer TRACER = new RowTracer();
+
+    static {
+        TRACER.setTracingInterval(Integer.getInteger("generator.trace.interval", 0));
+        if (Boolean.parseBoolean(System.getProperty("generator.metrics.jmx", "true"))) {
+            register(GENERATOR, GENERATOR_OBJECT_NAME);
+            register(EXPORT, EXPORT_OBJECT_NAME);
+            register(TRACER, TRACER_OBJECT_NAME);
+        }
+    }
+
+    private Metrics() {
+    }
+
+    /**
+     * @return the generation metrics of the process
+     */
+    public static GeneratorMetrics generator() {
+        return GENERATOR;
+    }
+
+    /**
+     * @return the export metrics of the process
+     */
+    public static ExportMetrics export() {
+        return EXPORT;
+    }
+
+    /**
+     * @return the row tracer of the process
+     */
+    public static RowTracer tracer() {
+        return TRACER;
+    }
+
+    private static void register(Object mbean, String name) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(mbean, new ObjectName(name));
+        } catch (InstanceAlreadyExistsException e) {
+            LOGGER.log(Level.WARNING, "{0} is already registered by another class loader", name);
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, "Unable to register " + name, e);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.controller.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations in nanoseconds with one bucket per power of two, bucket {@code i} counts the durations
+ * from {@code 2^i} up to {@code 2^(i+1)} nanoseconds. Recording is a pair of {@link LongAdder} increments,
+ * so many threads can record into the same histogram without contending.
+ */
+public class NanoHistogram {
+    public static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets;
+    private final LongAdder count;
+    private final LongAdder total;
+
+    public NanoHistogram() {
+        this.buckets = new LongAdder[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+        this.count = new LongAdder();
+        this.total = new LongAdder();
+    }
+
+    /**
+     * @param nanos the duration to record, negative durations are recorded as 0
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        buckets[bucketOf(value)].increment();
+        count.increment();
+        total.add(value);
+    }
+
+    static int bucketOf(long nanos) {
+        return nanos == 0 ? 0 : 63 - Long.numberOfLeadingZeros(nanos);
+    }
+
+    /**
+     * @return number of recorded durations
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return mean of the recorded durations, 0 when nothing has been recorded
+     */
+    public long getMean() {
+        long recorded = count.sum();
+        return recorded == 0 ? 0 : total.sum() / recorded;
+    }
+
+    /**
+     * @param percentile the percentile, between 0 and 100
+     * @return upper bound of the bucket that holds the percentile, 0 when nothing has been recorded
+     */
+    public long getPercentile(double percentile) {
+        return percentileOf(getBuckets(), percentile);
+    }
+
+    /**
+     * @param counts     bucket counts as returned by {@link #getBuckets()}, or the difference of two of them
+     * @param percentile the percentile, between 0 and 100
+     * @return upper bound of the bucket that holds the percentile, 0 when the buckets are empty
+     */
+    public static long percentileOf(long[] counts, double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("The percentile must be between 0 and 100");
+        }
+        long recorded = 0;
+        for (long bucket : counts) {
+            recorded += bucket;
+        }
+        if (recorded == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(recorded * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= Math.max(rank, 1)) {
+                return i == BUCKETS - 1 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * @return a copy of the bucket counts, index {@code i} holds the durations from {@code 2^i} nanoseconds
+     */
+    public long[] getBuckets() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    /**
+     * Forgets the recorded durations, concurrent recordings may partly survive the reset
+     */
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        count.reset();
+        total.reset();
+    }
+}
@@ -0,0 +1,145 @@
+package com.controller.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The lineage of one traced attempt: the input, output, duration and outcome of every slot in the order the slots
+ * were generated. An attempt ends at the first slot that rejects it, so only the last step of a rejected attempt
+ * is not {@link Outcome#ACCEPTED}.
+ */
+public final class RowTrace {
+
+    /**
+     * What became of the value of a slot
+     */
+    public enum Outcome {
+        /** the value was kept */
+        ACCEPTED,
+        /** the generator or tool returned no value, for an evaluator the row did not pass */
+        REJECTED,
+        /** the value did not have the length of its slot */
+        WRONG_LENGTH
+    }
+
+    private final long attempt;
+    private final String thread;
+    private final List<Step> steps = new ArrayList<>();
+
+    /**
+     * @param attempt number of the attempt of its generator
+     * @param thread  name of the thread that made the attempt
+     */
+    public RowTrace(long attempt, String thread) {
+        this.attempt = attempt;
+        this.thread = thread;
+    }
+
+    /**
+     * Adds the next slot of the attempt
+     * @param slot      the index of the slot
+     * @param generator the simple class name of the generator or tool of the slot
+     * @param input     the value the slot was given
+     * @param output    the value the slot returned, null if it returned none
+     * @param nanos     time the slot took
+     * @param outcome   what became of the value
+     */
+    public void add(int slot, String generator, String input, String output, long nanos, Outcome outcome) {
+        steps.add(new Step(slot, generator, input, output, nanos, outcome));
+    }
+
+    public long getAttempt() {
+        return attempt;
+    }
+
+    public String getThread() {
+        return thread;
+    }
+
+    public List<Step> getSteps() {
+        return Collections.unmodifiableList(steps);
+    }
+
+    /**
+     * @return true if every slot of the attempt accepted its value
+     */
+    public boolean isAccepted() {
+        return steps.isEmpty() || steps.get(steps.size() - 1).outcome == Outcome.ACCEPTED;
+    }
+
+    /**
+     * @return the sum of the durations of the slots
+     */
+    public long getTotalNanos() {
+        long total = 0;
+        for (Step step : steps) {
+            total += step.nanos;
+        }
+        return total;
+    }
+
+    /**
+     * @return a header line with the attempt and its result, followed by one line per slot
+     */
+    public List<String> describe() {
+        List<String> lines = new ArrayList<>(steps.size() + 1);
+        lines.add(String.format(Locale.ROOT, "attempt %d on %s: %s in %d ns", attempt, thread,
+                isAccepted() ? "accepted" : "rejected at slot " + steps.get(steps.size() - 1).slot, getTotalNanos()));
+        for (Step step : steps) {
+            lines.add(String.format(Locale.ROOT, "  slot %d %s: %s -> %s %d ns %s", step.slot, step.generator,
+                    quote(step.input), quote(step.output), step.nanos, step.outcome));
+        }
+        return lines;
+    }
+
+    private static String quote(String value) {
+        return value == null ? "null" : '"' + value + '"';
+    }
+
+    /**
+     * One slot of a traced attempt
+     */
+    public static final class Step {
+        private final int slot;
+        private final String generator;
+        private final String input;
+        private final String output;
+        private final long nanos;
+        private final Outcome outcome;
+
+        Step(int slot, String generator, String input, String output, long nanos, Outcome outcome) {
+            this.slot = slot;
+            this.generator = generator;
+            this.input = input;
+            this.output = output;
+            this.nanos = nanos;
+            this.outcome = outcome;
+        }
+
+        public int getSlot() {
+            return slot;
+        }
+
+        public String getGenerator() {
+            return generator;
+        }
+
+        public String getInput() {
+            return input;
+        }
+
+        public String getOutput() {
+            return output;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.controller.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keeps the lineage of a sample of the attempts of every {@link com.controller.generators.MainGenerator}, to find
+ * the slot or evaluator behind a wrong value or a slow template. Every {@code interval}-th attempt of a generator is
+ * traced slot by slot, see {@link RowTrace}, and the traces go to a ring buffer that keeps the latest
+ * {@link #getCapacity()} of them, so tracing can stay on during a long run.
+ * <p>
+ * Tracing is off until an interval is set, through {@link #setTracingInterval(int)}, JMX or
+ * {@code -Dgenerator.trace.interval=n}. An attempt that is not traced then costs the generator a single branch.
+ * The attempts are counted per generator, so with several threads every thread traces its own sample.
+ */
+public class RowTracer implements RowTracerMXBean {
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final RowTrace[] traces;
+    private volatile int tracingInterval;
+    private long traced;
+
+    /**
+     * Creates a tracer that keeps the latest {@value #DEFAULT_CAPACITY} traces
+     */
+    public RowTracer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity the largest number of traces that are kept
+     */
+    public RowTracer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The tracer must keep at least one trace, was " + capacity);
+        }
+        this.traces = new RowTrace[capacity];
+    }
+
+    /**
+     * @param attempt number of the attempt
+     * @return true if the slots of the attempt should be traced
+     */
+    public boolean isTraced(long attempt) {
+        int interval = tracingInterval;
+        return interval > 0 && attempt % interval == 0;
+    }
+
+    /**
+     * Keeps a trace, the oldest trace is dropped when the buffer is full
+     * @param trace the trace of a finished attempt
+     */
+    public synchronized void record(RowTrace trace) {
+        traces[(int) (traced % traces.length)] = trace;
+        traced++;
+    }
+
+    /**
+     * @return the kept traces, oldest first
+     */
+    public synchronized List<RowTrace> getTraces() {
+        int kept = (int) Math.min(traced, traces.length);
+        List<RowTrace> result = new ArrayList<>(kept);
+        for (long i = traced - kept; i < traced; i++) {
+            result.add(traces[(int) (i % traces.length)]);
+        }
+        return result;
+    }
+
+    @Override
+    public int getTracingInterval() {
+        return tracingInterval;
+    }
+
+    @Override
+    public void setTracingInterval(int interval) {
+        if (interval < 0) {
+            throw new IllegalArgumentException("The tracing interval can not be negative");
+        }
+        this.tracingInterval = interval;
+    }
+
+    @Override
+    public int getCapacity() {
+        return traces.length;
+    }
+
+    @Override
+    public synchronized long getTracedAttempts() {
+        return traced;
+    }
+
+    @Override
+    public List<String> dump() {
+        List<String> lines = new ArrayList<>();
+        for (RowTrace trace : getTraces()) {
+            lines.addAll(trace.describe());
+        }
+        return lines;
+    }
+
+    @Override
+    public synchronized void clear() {
+        Arrays.fill(traces, null);
+        traced = 0;
+    }
+}
@@ -0,0 +1,39 @@
+package com.controller.metrics;
+
+import java.util.List;
+
+/**
+ * Management interface of the row tracer, registered as {@value Metrics#TRACER_OBJECT_NAME}
+ */
+public interface RowTracerMXBean {
+
+    /**
+     * @return every how many attempts an attempt is traced, 0 when tracing is off
+     */
+    int getTracingInterval();
+
+    /**
+     * @param interval trace every {@code interval}-th attempt, 0 turns tracing off
+     */
+    void setTracingInterval(int interval);
+
+    /**
+     * @return the largest number of traces that are kept
+     */
+    int getCapacity();
+
+    /**
+     * @return number of attempts that have been traced, including those that no longer fit in the buffer
+     */
+    long getTracedAttempts();
+
+    /**
+     * @return the kept traces, oldest first, one line per slot, see {@link RowTrace#describe()}
+     */
+    List<String> dump();
+
+    /**
+     * Forgets the kept traces
+     */
+    void clear();
+}
@@ -0,0 +1,498 @@
+package com.controller.metrics;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32C;
+
+/**
+ * The performance record of one generation job, written as JSON next to the output of the job so runs can be
+ * compared over time.
+ * <p>
+ * A report is started before the job and finished after it. It takes the difference of the {@link GeneratorMetrics}
+ * of the process, of the garbage collectors and of the memory the threads allocated between the two points, and a
+ * background thread samples the rows per second while the job runs. The metrics are those of the whole process, so
+ * jobs that run at the same time in one JVM share their numbers. The allocation is read per thread, a thread that
+ * ends between two samples loses what it allocated after the last one.
+ * <p>
+ * While a report runs the slots of every 1024th attempt are timed, unless a sampling interval has been set already,
+ * which gives the cost of every slot. The outputs of the job are measured and checksummed with CRC32C when the report
+ * is finished.
+ */
+public final class RunReport {
+    public static final long DEFAULT_SAMPLE_MILLIS = 1000;
+    public static final String SUFFIX = ".report.json";
+    static final int SLOT_SAMPLING_INTERVAL = 1024;
+
+    private final String job;
+    private final long sampleMillis;
+    private final GeneratorMetrics metrics;
+    private final Instant startedAt = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private final Snapshot start;
+    private final int previousSamplingInterval;
+    private final Map<String, Object> settings = new LinkedHashMap<>();
+    private final List<Path> outputs = new ArrayList<>();
+    private final List<long[]> throughput = new ArrayList<>();
+    private final Map<Long, long[]> threadAllocations = new HashMap<>();
+    private final Thread sampler;
+    private String json;
+    private boolean stopped;
+
+    private RunReport(String job, long sampleMillis, GeneratorMetrics metrics) {
+        this.job = job;
+        this.sampleMillis = sampleMillis;
+        this.metrics = metrics;
+        this.previousSamplingInterval = metrics.getSamplingInterval();
+        if (previousSamplingInterval == 0) {
+            metrics.setSamplingInterval(SLOT_SAMPLING_INTERVAL);
+        }
+        this.start = new Snapshot(metrics);
+        sampleAllocations(true);
+        this.sampler = new Thread(this::sample, "run-report-sampler");
+        this.sampler.setDaemon(true);
+    }
+
+    /**
+     * Starts a report that samples the rows per second every second
+     * @param job a short name of the kind of job, for example {@code cli} or {@code ui}
+     * @return the running report
+     */
+    public static RunReport start(String job) {
+        return start(job, DEFAULT_SAMPLE_MILLIS);
+    }
+
+    /**
+     * @param job          a short name of the kind of job, for example {@code cli} or {@code ui}
+     * @param sampleMillis the time between two samples of the rows per second
+     * @return the running report
+     */
+    public static RunReport start(String job, long sampleMillis) {
+        if (sampleMillis < 1) {
+            throw new IllegalArgumentException("The time between two samples must be positive, was " + sampleMillis);
+        }
+        RunReport report = new RunReport(job, sampleMillis, Metrics.generator());
+        report.sampler.start();
+        return report;
+    }
+
+    /**
+     * @param output the file a job writes
+     * @return the report file of the job, next to its output
+     */
+    public static Path pathFor(Path output) {
+        return Paths.get(output + SUFFIX);
+    }
+
+    /**
+     * @return the report file of a job without an output file, in the {@code .multiformat-generator/reports}
+     * directory of the user, named after the job and its start time
+     */
+    public Path defaultPath() {
+        return Paths.get(System.getProperty("user.home"), ".multiformat-generator", "reports",
+                job + "-" + startedAt.toEpochMilli() + SUFFIX);
+    }
+
+    /**
+     * Adds a setting or a result of the job to the report
+     * @param name  the name in the {@code settings} of the report
+     * @param value a string, number, boolean, list or map of those
+     */
+    public synchronized void put(String name, Object value) {
+        settings.put(name, value);
+    }
+
+    /**
+     * @param file a file the job wrote, its size and checksum are added when the report is finished
+     */
+    public synchronized void addOutput(Path file) {
+        outputs.add(file);
+    }
+
+    /**
+     * Stops the sampling and puts the report together, the outputs must be complete by now
+     * @param rows number of rows the job delivered
+     * @return the report as JSON
+     * @throws IOException if an output could not be read
+     */
+    public String finish(long rows) throws IOException {
+        stop();
+        long nanos = System.nanoTime() - startNanos;
+        Snapshot end = new Snapshot(metrics);
+        synchronized (this) {
+            sampleAllocations(false);
+            json = toJson(build(rows, nanos, end));
+            return json;
+        }
+    }
+
+    /**
+     * Stops the sampling of a report that will not be finished, for example because the job failed. Cancelling a
+     * finished report does nothing.
+     */
+    public void cancel() {
+        stop();
+    }
+
+    private void stop() {
+        sampler.interrupt();
+        try {
+            sampler.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            if (!stopped && previousSamplingInterval == 0) {
+                metrics.setSamplingInterval(0);
+            }
+            stopped = true;
+        }
+    }
+
+    /**
+     * Writes the finished report to a temporary file and renames it, so a report is always complete
+     * @param file the report file, see {@link #pathFor(Path)}
+     * @throws IOException if the file could not be written
+     */
+    public synchronized void write(Path file) throws IOException {
+        if (json == null) {
+            throw new IllegalStateException("The report has not been finished yet");
+        }
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temporary, json.getBytes(StandardCharsets.UTF_8));
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Map<String, Object> build(long rows, long nanos, Snapshot end) throws IOException {
+        double seconds = nanos / 1e9;
+        long generated = end.rows - start.rows;
+        long attempts = end.attempts - start.attempts;
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("job", job);
+        report.put("startedAt", startedAt.toString());
+        report.put("durationMillis", nanos / 1_000_000);
+        report.put("rows", rows);
+        report.put("rowsPerSecond", seconds > 0 ? rows / seconds : 0);
+        report.put("throughput", throughput());
+
+        Map<String, Object> generation = new LinkedHashMap<>();
+        generation.put("rowsGenerated", generated);
+        generation.put("attempts", attempts);
+        generation.put("retries", Math.max(0, attempts - generated));
+        generation.put("acceptanceRate", attempts > 0 ? (double) generated / attempts : 1.0);
+        generation.put("exhaustionEvents", end.exhaustions - start.exhaustions);
+        report.put("generation", generation);
+
+        Map<String, Object> evaluators = new TreeMap<>();
+        end.rejectionsPerSlot.forEach((slot, count) -> {
+            long rejections = count - start.rejectionsPerSlot.getOrDefault(slot, 0L);
+            if (rejections > 0) {
+                Map<String, Object> evaluator = new LinkedHashMap<>();
+                evaluator.put("rejections", rejections);
+                evaluator.put("acceptanceRate", attempts > 0 ? 1 - (double) rejections / attempts : 1.0);
+                evaluators.put(String.valueOf(slot), evaluator);
+            }
+        });
+        report.put("evaluators", evaluators);
+        report.put("slots", slots(end));
+
+        Map<String, Object> jvm = new LinkedHashMap<>();
+        jvm.put("gcCollections", end.gcCollections - start.gcCollections);
+        jvm.put("gcMillis", end.gcMillis - start.gcMillis);
+        jvm.put("allocatedBytes", allocatedBytes());
+        report.put("jvm", jvm);
+
+        List<Object> files = new ArrayList<>();
+        long bytes = 0;
+        for (Path output : outputs) {
+            Map<String, Object> file = new LinkedHashMap<>();
+            long size = Files.size(output);
+            file.put("file", output.getFileName().toString());
+            file.put("bytes", size);
+            file.put("crc32c", checksum(output));
+            files.add(file);
+            bytes += size;
+        }
+        report.put("bytesWritten", bytes);
+        report.put("outputs", files);
+        report.put("settings", settings);
+        return report;
+    }
+
+    /**
+     * @return the rows per second of every sample and their spread
+     */
+    private Map<String, Object> throughput() {
+        List<Object> samples = new ArrayList<>();
+        List<Double> rates = new ArrayList<>();
+        for (long[] sample : throughput) {
+            Map<String, Object> point = new LinkedHashMap<>();
+            double rate = sample[2] > 0 ? sample[1] * 1e9 / sample[2] : 0;
+            point.put("atMillis", sample[0]);
+            point.put("rowsPerSecond", rate);
+            samples.add(point);
+            rates.add(rate);
+        }
+        rates.sort(null);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("intervalMillis", sampleMillis);
+        if (!rates.isEmpty()) {
+            result.put("min", rates.get(0));
+            result.put("p50", rates.get((rates.size() - 1) / 2));
+            result.put("max", rates.get(rates.size() - 1));
+        }
+        result.put("samples", samples);
+        return result;
+    }
+
+    /**
+     * @return the timed attempts of every slot, their percentiles and the estimated share of the generation time
+     */
+    private Map<String, Object> slots(Snapshot end) {
+        Map<Integer, long[]> deltas = new TreeMap<>();
+        Map<Integer, Double> costs = new TreeMap<>();
+        double total = 0;
+        for (Map.Entry<Integer, long[]> entry : end.slotHistograms.entrySet()) {
+            long[] before = start.slotHistograms.getOrDefault(entry.getKey(), new long[entry.getValue().length]);
+            long[] delta = new long[entry.getValue().length];
+            double cost = 0;
+            for (int i = 0; i < delta.length; i++) {
+                delta[i] = entry.getValue()[i] - before[i];
+                // the middle of the bucket from 2^i up to 2^(i+1) nanoseconds
+                cost += delta[i] * 1.5 * Math.pow(2, i);
+            }
+            deltas.put(entry.getKey(), delta);
+            costs.put(entry.getKey(), cost);
+            total += cost;
+        }
+        Map<String, Object> slots = new TreeMap<>();
+        for (Map.Entry<Integer, long[]> entry : deltas.entrySet()) {
+            long timed = 0;
+            for (long count : entry.getValue()) {
+                timed += count;
+            }
+            if (timed == 0) {
+                continue;
+            }
+            Map<String, Object> slot = new LinkedHashMap<>();
+            slot.put("timedAttempts", timed);
+            slot.put("p50Nanos", NanoHistogram.percentileOf(entry.getValue(), 50));
+            slot.put("p99Nanos", NanoHistogram.percentileOf(entry.getValue(), 99));
+            slot.put("share", total > 0 ? costs.get(entry.getKey()) / total : 0);
+            slots.put(String.valueOf(entry.getKey()), slot);
+        }
+        return slots;
+    }
+
+    private void sample() {
+        long lastRows = start.rows;
+        long lastNanos = startNanos;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(sampleMillis);
+                long rows = metrics.getRowsGenerated();
+                long now = System.nanoTime();
+                synchronized (this) {
+                    throughput.add(new long[]{(now - startNanos) / 1_000_000, rows - lastRows, now - lastNanos});
+                    sampleAllocations(false);
+                }
+                lastRows = rows;
+                lastNanos = now;
+            }
+        } catch (InterruptedException e) {
+            // the report is finished
+        }
+    }
+
+    /**
+     * Reads the allocated bytes of every live thread, a thread that was started after the report counts from 0
+     */
+    private void sampleAllocations(boolean initial) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return;
+        }
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        if (!allocations.isThreadAllocatedMemorySupported() || !allocations.isThreadAllocatedMemoryEnabled()) {
+            return;
+        }
+        long[] ids = allocations.getAllThreadIds();
+        long[] bytes = allocations.getThreadAllocatedBytes(ids);
+        for (int i = 0; i < ids.length; i++) {
+            if (bytes[i] >= 0) {
+                long[] range = threadAllocations.computeIfAbsent(ids[i], id -> new long[]{initial ? -1 : 0, 0});
+                if (range[0] < 0) {
+                    range[0] = bytes[i];
+                }
+                range[1] = bytes[i];
+            }
+        }
+    }
+
+    private long allocatedBytes() {
+        long bytes = 0;
+        for (long[] range : threadAllocations.values()) {
+            bytes += range[1] - range[0];
+        }
+        return bytes;
+    }
+
+    private static String checksum(Path file) throws IOException {
+        CRC32C crc = new CRC32C();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                crc.update(buffer, 0, read);
+            }
+        }
+        return String.format(Locale.ROOT, "%08x", crc.getValue());
+    }
+
+    /**
+     * @param value a string, number, boolean, list or map of those
+     * @return the value as JSON, other objects are written as their string
+     */
+    static String toJson(Object value) {
+        StringBuilder out = new StringBuilder(1024);
+        appendJson(out, value, 0);
+        return out.append('\n').toString();
+    }
+
+    private static void appendJson(StringBuilder out, Object value, int depth) {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof Double || value instanceof Float) {
+            double number = ((Number) value).doubleValue();
+            if (Double.isNaN(number) || Double.isInfinite(number)) {
+                out.append("null");
+            } else if (number == Math.rint(number) && Math.abs(number) < 1e15) {
+                out.append((long) number);
+            } else {
+                out.append(String.format(Locale.ROOT, "%.4f", number));
+            }
+        } else if (value instanceof Number || value instanceof Boolean) {
+            out.append(value);
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            if (map.isEmpty()) {
+                out.append("{}");
+                return;
+            }
+            out.append('{');
+            String separator = "\n";
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                out.append(separator);
+                indent(out, depth + 1);
+                appendString(out, String.valueOf(entry.getKey()));
+                out.append(": ");
+                appendJson(out, entry.getValue(), depth + 1);
+                separator = ",\n";
+            }
+            out.append('\n');
+            indent(out, depth);
+            out.append('}');
+        } else if (value instanceof Collection) {
+            Collection<?> items = (Collection<?>) value;
+            if (items.isEmpty()) {
+                out.append("[]");
+                return;
+            }
+            out.append('[');
+            String separator = "\n";
+            for (Object item : items) {
+                out.append(separator);
+                indent(out, depth + 1);
+                appendJson(out, item, depth + 1);
+                separator = ",\n";
+            }
+            out.append('\n');
+            indent(out, depth);
+            out.append(']');
+        } else {
+            appendString(out, value.toString());
+        }
+    }
+
+    private static void indent(StringBuilder out, int depth) {
+        for (int i = 0; i < depth; i++) {
+            out.append("  ");
+        }
+    }
+
+    private static void appendString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+
+    /**
+     * The counters of the process at one point of the run
+     */
+    private static final class Snapshot {
+        private final long rows;
+        private final long attempts;
+        private final long exhaustions;
+        private final Map<Integer, Long> rejectionsPerSlot;
+        private final Map<Integer, long[]> slotHistograms;
+        private long gcCollections;
+        private long gcMillis;
+
+        private Snapshot(GeneratorMetrics metrics) {
+            this.rows = metrics.getRowsGenerated();
+            this.attempts = metrics.getAttempts();
+            this.exhaustions = metrics.getExhaustionEvents();
+            this.rejectionsPerSlot = metrics.getRejectionsPerSlot();
+            this.slotHistograms = metrics.getSlotHistograms();
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                gcCollections += Math.max(0, collector.getCollectionCount());
+                gcMillis += Math.max(0, collector.getCollectionTime());
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.controller.subgenerators;
+
+/**
+ * Interface for subgenerators whose sequence can be stepped over without generating every value in between
+ */
+public interface ISeekableSubGenerator extends ISubGenerator {
+
+    /**
+     * Returns the value that is generated after calling {@link #generate(String)} the given number of times
+     * @param pastValue value the sequence starts from
+     * @param steps     number of generations to skip, zero returns the past value
+     * @return the value after the given number of steps, or null if the sequence ends before that
+     */
+    String advance(String pastValue, long steps);
+
+    /**
+     * @param pastValue value the sequence starts from
+     * @return number of values that can still be generated before the sequence ends or starts repeating,
+     * {@link Long#MAX_VALUE} if it never does
+     */
+    long remaining(String pastValue);
+
+    /**
+     * @return true if the values never get shorter along the sequence, so every value between two values of the
+     * length of a slot has that length as well
+     */
+    boolean isLengthNonDecreasing();
+}
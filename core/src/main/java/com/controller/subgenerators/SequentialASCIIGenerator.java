@@ -1,14 +1,16 @@
 package com.controller.subgenerators;
 
+import com.controller.metrics.Metrics;
 import com.model.patterns.SequentialASCIIPattern;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Class that extends generator and defines a specific type of generator that generates a value based on a list of values
  */
-public class SequentialASCIIGenerator extends SubGenerator implements ISubGenerator {
+public class SequentialASCIIGenerator extends SubGenerator implements ISeekableSubGenerator {
     private final int length;
     private final List<Integer> maxIndexesInt;
     private final List<Integer> minIndexesInt;
@@ -139,6 +141,7 @@ public class SequentialASCIIGenerator extends SubGenerator implements ISubGenera
         List<Integer> intIndexesList = this.stringListToIntIndexesList(valueList);
 
         if(intIndexesList.equals(this.maxIndexesInt)){
+            Metrics.generator().recordExhaustion();
             intIndexesList = this.minIndexesInt;
         }else{
             intIndexesList = incrementList(intIndexesList);
@@ -161,5 +164,109 @@ public class SequentialASCIIGenerator extends SubGenerator implements ISubGenera
     public String generate(String pastValue) {
         return this.getNext(pastValue);
     }
+
+    /**
+     * Jumps ahead in the sequence by treating the value as a number written in the digits of the list
+     * @param pastValue value the sequence starts from
+     * @param steps     number of generations to skip
+     * @return the value after the given number of steps, or null if the sequence runs past its last value
+     */
+    @Override
+    public String advance(String pastValue, long steps) {
+        if (steps < 0) {
+            throw new IllegalArgumentException("A SequentialASCIIGenerator can not step backwards");
+        }
+        if (pastValue == null) {
+            throw new IllegalArgumentException("Input value passed to SequentialASCIIGenerator is null");
+        }
+        if (steps == 0) {
+            return pastValue;
+        }
+        List<Integer> intIndexesList = this.stringListToIntIndexesList(this.stringToList(pastValue));
+        BigInteger position = this.toPosition(intIndexesList);
+        BigInteger target = position.add(BigInteger.valueOf(steps));
+        BigInteger cycle = this.getCycleLength(intIndexesList.size());
+        if (cycle != null && position.compareTo(cycle) < 0) {
+            target = target.mod(cycle);
+        } else if (target.compareTo(BigInteger.valueOf(this.list.size()).pow(intIndexesList.size())) >= 0) {
+            return null;
+        }
+        return this.fromPosition(target, intIndexesList.size());
+    }
+
+    /**
+     * @param pastValue value the sequence starts from
+     * @return number of values until the sequence wraps back around to the past value or runs out
+     */
+    @Override
+    public long remaining(String pastValue) {
+        if (pastValue == null) {
+            throw new IllegalArgumentException("Input value passed to SequentialASCIIGenerator is null");
+        }
+        List<Integer> intIndexesList = this.stringListToIntIndexesList(this.stringToList(pastValue));
+        BigInteger position = this.toPosition(intIndexesList);
+        BigInteger cycle = this.getCycleLength(intIndexesList.size());
+        BigInteger remaining;
+        if (cycle != null && position.compareTo(cycle) < 0) {
+            remaining = cycle;
+        } else {
+            remaining = BigInteger.valueOf(this.list.size()).pow(intIndexesList.size()).subtract(BigInteger.ONE).subtract(position);
+        }
+        return remaining.bitLength() < Long.SIZE ? remaining.longValue() : Long.MAX_VALUE;
+    }
+
+    /**
+     * @return true if every value of the list is a single character, a value then always has as many characters as
+     * the value it was generated from
+     */
+    @Override
+    public boolean isLengthNonDecreasing() {
+        for (String value : this.list) {
+            if (value.length() != 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The sequence wraps to the minimum value once every index reaches the maximum index, so values up to and
+     * including that point form a cycle
+     * @param size number of characters of the value
+     * @return the length of the cycle, or null if values of this size never wrap
+     */
+    private BigInteger getCycleLength(int size) {
+        if (size != this.length) {
+            return null;
+        }
+        return this.toPosition(this.maxIndexesInt).add(BigInteger.ONE);
+    }
+
+    /**
+     * Converts a list of indexes to its position in the sequence, reading it as a number in base of the list size
+     */
+    private BigInteger toPosition(List<Integer> intIndexes) {
+        BigInteger base = BigInteger.valueOf(this.list.size());
+        BigInteger position = BigInteger.ZERO;
+        for (Integer index : intIndexes) {
+            position = position.multiply(base).add(BigInteger.valueOf(index));
+        }
+        return position;
+    }
+
+    /**
+     * Converts a position in the sequence back to a value with the given number of characters
+     */
+    private String fromPosition(BigInteger position, int size) {
+        BigInteger base = BigInteger.valueOf(this.list.size());
+        String[] elements = new String[size];
+        BigInteger rest = position;
+        for (int i = size - 1; i >= 0; i--) {
+            BigInteger[] division = rest.divideAndRemainder(base);
+            elements[i] = this.list.get(division[1].intValue());
+            rest = division[0];
+        }
+        return String.join("", elements);
+    }
 }
 
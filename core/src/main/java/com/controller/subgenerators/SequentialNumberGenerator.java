@@ -0,0 +1,115 @@
+package com.controller.subgenerators;
+
+import com.controller.metrics.Metrics;
+import com.model.patterns.SequentialPattern;
+import com.utils.Parsers;
+
+import java.util.function.Function;
+
+/**
+ * MainGenerator that generates a sequence of incremental numbers.
+ */
+public class SequentialNumberGenerator extends SubGenerator implements ISeekableSubGenerator {
+    private final Function<Long, String> paddingFunction;
+    private final long step;
+    private final long length;
+
+    /**
+     * Constructer that initialises the step and the length of the generated values
+     * @param pattern object that gives all the properties needed by the generator to be initialised
+     */
+    public SequentialNumberGenerator(SequentialPattern pattern){
+       super(pattern);
+       this.step = pattern.getStep();
+       this.length = pattern.getLength();
+        paddingFunction = getPaddingFunction(pattern.getPadding());
+    }
+
+    /**
+     * We do not want to format the padding on every iteration, nor do we want to check if padding is 0 for every iteration.
+     */
+    private static Function<Long, String> getPaddingFunction(final long padding) {
+        String leftPadding = String.format("%%0%dd", padding);
+
+        if (padding == 0) {
+            return l -> Long.toString(l);
+        }
+        return l -> String.format(leftPadding, l);
+    }
+
+    /**
+     * @param pastValue input value that is used to generate the next one in the sequence
+     * @return the next value
+     */
+    public String generate(String pastValue) {
+        Long value = Parsers.parseAsLong("NAME",pastValue);
+        Long nextValue = value + this.step;
+        if(nextValue < Math.pow(10,this.length)){
+           return paddingFunction.apply(nextValue);
+        }
+        Metrics.generator().recordExhaustion();
+        return null;
+    }
+
+    /**
+     * Jumps ahead in the sequence without generating the values in between
+     * @param pastValue value the sequence starts from
+     * @param steps     number of generations to skip
+     * @return the value after the given number of steps, or null if it does not fit the length anymore
+     */
+    @Override
+    public String advance(String pastValue, long steps) {
+        if (steps < 0) {
+            throw new IllegalArgumentException("A SequentialNumberGenerator can not step backwards");
+        }
+        long value = Parsers.parseAsLong("NAME", pastValue);
+        if (steps == 0) {
+            return pastValue;
+        }
+        long nextValue;
+        try {
+            nextValue = Math.addExact(value, Math.multiplyExact(this.step, steps));
+        } catch (ArithmeticException e) {
+            return null;
+        }
+        if (nextValue < Math.pow(10, this.length)) {
+            return paddingFunction.apply(nextValue);
+        }
+        return null;
+    }
+
+    /**
+     * @param pastValue value the sequence starts from
+     * @return number of values that still fit the length, 1 for a step of zero since its next value already
+     * repeats the past value
+     */
+    @Override
+    public long remaining(String pastValue) {
+        long value = Parsers.parseAsLong("NAME", pastValue);
+        if (this.step < 0) {
+            return Long.MAX_VALUE;
+        }
+        long limit = Long.MAX_VALUE;
+        if (this.length < 19) {
+            limit = 1;
+            for (int i = 0; i < this.length; i++) {
+                limit *= 10;
+            }
+        }
+        if (value >= limit - this.step || value >= limit) {
+            return 0;
+        }
+        if (this.step == 0) {
+            return 1;
+        }
+        return (limit - 1 - value) / this.step;
+    }
+
+    /**
+     * @return true unless the step is negative, counting down drops digits
+     */
+    @Override
+    public boolean isLengthNonDecreasing() {
+        return this.step >= 0;
+    }
+}
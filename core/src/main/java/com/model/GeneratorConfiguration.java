@@ -21,6 +21,10 @@ public class GeneratorConfiguration {
     private int batchSize = 100;
     private int evaluatorCount = 0;
     private List<GeneratorConfig> generators;
+    /**
+     * Generators keyed by the id used by the editor, "0", "1", ... for sub generators and "evaluator_N" for evaluators
+     */
+    private Map<String, GeneratorConfig> generatorConfigs;
     private ConfigurationMetadata metadata;
     
     /**
@@ -6,7 +6,6 @@ import lombok.Getter;
 import lombok.Setter;
 import java.util.HashMap;
 import java.util.Map;
-import static com.google.common.base.Strings.isNullOrEmpty;
 
 /**
  * Template class
@@ -27,6 +26,28 @@ public class Template {
         initFormatter(templateFormat);
     }
 
+    /**
+     * Constructor for a template without patterns, the format is set with {@link #setFormat(String)}
+     */
+    public Template() {
+        this(new HashMap<>(), "");
+    }
+
+    /**
+     * @return the template format of the formatter
+     */
+    public String getFormat() {
+        return this.formatter.getTemplateFormat();
+    }
+
+    /**
+     * Replaces the template format, the sub formats of the patterns are kept
+     * @param templateFormat template format
+     */
+    public void setFormat(String templateFormat) {
+        initFormatter(templateFormat);
+    }
+
     /**
      * Method for initializing formatter
      * @param templateFormat template format
@@ -36,7 +57,7 @@ public class Template {
         for (Map.Entry<Integer, IPattern> entry : this.patternsMap.entrySet()){
             String format = entry.getValue().getFormat();
             int index = entry.getKey();
-            if (!isNullOrEmpty(format)){
+            if (format != null && !format.isEmpty()){
                 subFormatsMap.put(index,format);
             }
         }
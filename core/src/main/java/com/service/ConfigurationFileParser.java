@@ -0,0 +1,170 @@
+package com.service;
+
+import com.model.GeneratorConfiguration;
+import com.utils.Parsers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Parser for the configuration files written by {@link SimpleConfigurationService}.
+ * It has no user interface dependencies, so it can be used by headless tools as well.
+ * <pre>
+ *   template_format={0}-{1}
+ *   batch_size=100
+ *   evaluator_count=0
+ *   generator.0.type=SEQUENTIALNUMBERGENERATOR
+ *   generator.0.isEvaluator=false
+ *   generator.0.start=100
+ * </pre>
+ * Lines starting with {@code #} are comments, every other line of a generator becomes one of its properties.
+ */
+public final class ConfigurationFileParser {
+    private static final String TEMPLATE_FORMAT = "template_format";
+    private static final String BATCH_SIZE = "batch_size";
+    private static final String EVALUATOR_COUNT = "evaluator_count";
+    private static final String GENERATOR_PREFIX = "generator.";
+    private static final String TYPE = "type";
+    private static final String IS_EVALUATOR = "isEvaluator";
+
+    private ConfigurationFileParser() {
+    }
+
+    /**
+     * @param file the configuration file, read as UTF-8
+     * @return the configuration, named after the file
+     * @throws IOException              if the file can not be read
+     * @throws IllegalArgumentException if a line is not valid
+     */
+    public static GeneratorConfiguration load(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return parse(reader, fileNameWithoutExtension(file));
+        }
+    }
+
+    /**
+     * @param input the configuration
+     * @param name  name of the configuration, stored in the metadata
+     * @return the configuration with its generators in the order of their index
+     * @throws IOException              if the input can not be read
+     * @throws IllegalArgumentException if a line is not valid
+     */
+    public static GeneratorConfiguration parse(Reader input, String name) throws IOException {
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        Map<Integer, GeneratorConfiguration.GeneratorConfig> generators = new TreeMap<>();
+
+        BufferedReader reader = input instanceof BufferedReader ? (BufferedReader) input : new BufferedReader(input);
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            int separator = line.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Line " + lineNumber + " is not a key=value pair: " + line);
+            }
+            String key = line.substring(0, separator).trim();
+            String value = line.substring(separator + 1);
+
+            if (key.equals(TEMPLATE_FORMAT)) {
+                configuration.setTemplateFormat(value);
+            } else if (key.equals(BATCH_SIZE)) {
+                configuration.setBatchSize(Parsers.parseAsInt(BATCH_SIZE, value.trim()));
+            } else if (key.equals(EVALUATOR_COUNT)) {
+                configuration.setEvaluatorCount(Parsers.parseAsInt(EVALUATOR_COUNT, value.trim()));
+            } else if (key.startsWith(GENERATOR_PREFIX)) {
+                parseGeneratorLine(generators, key, value.trim(), lineNumber);
+            }
+        }
+
+        for (GeneratorConfiguration.GeneratorConfig generator : generators.values()) {
+            if (generator.getType() == null) {
+                throw new IllegalArgumentException("Generator " + generator.getIndex() + " has no type");
+            }
+        }
+        GeneratorConfiguration.ConfigurationMetadata metadata = new GeneratorConfiguration.ConfigurationMetadata();
+        metadata.setName(name);
+        configuration.setMetadata(metadata);
+        configuration.setGenerators(new ArrayList<>(generators.values()));
+        return configuration;
+    }
+
+    private static void parseGeneratorLine(Map<Integer, GeneratorConfiguration.GeneratorConfig> generators,
+                                           String key, String value, int lineNumber) {
+        String rest = key.substring(GENERATOR_PREFIX.length());
+        int dot = rest.indexOf('.');
+        if (dot <= 0 || dot == rest.length() - 1) {
+            throw new IllegalArgumentException("Line " + lineNumber + " does not name a generator property: " + key);
+        }
+        int index = Parsers.parseAsInt("generator index", rest.substring(0, dot));
+        String property = rest.substring(dot + 1);
+        GeneratorConfiguration.GeneratorConfig generator = generators.computeIfAbsent(index,
+                i -> new GeneratorConfiguration.GeneratorConfig(i, null, new HashMap<>(), false));
+        if (property.equals(TYPE)) {
+            generator.setType(value);
+        } else if (property.equals(IS_EVALUATOR)) {
+            generator.setEvaluator(Boolean.parseBoolean(value));
+        } else {
+            generator.getProperties().put(property, value);
+        }
+    }
+
+    /**
+     * @return the file name without its extension
+     */
+    static String fileNameWithoutExtension(Path file) {
+        String name = file.getFileName().toString();
+        int lastDot = name.lastIndexOf('.');
+        return lastDot > 0 ? name.substring(0, lastDot) : name;
+    }
+
+    /**
+     * Parses a generator written on a single line, for example on the command line
+     * <pre>
+     *   SEQUENTIALASCIIGENERATOR:input=0;list=A,B,C;start=A;length=1
+     * </pre>
+     * @param index index of the generator
+     * @param spec  the type, a colon and the properties separated by semicolons
+     * @return the generator
+     * @throws IllegalArgumentException if the spec is not valid
+     */
+    public static GeneratorConfiguration.GeneratorConfig parseGeneratorSpec(int index, String spec) {
+        int colon = spec.indexOf(':');
+        if (colon <= 0) {
+            throw new IllegalArgumentException("A generator is written as TYPE:key=value;key=value, not '" + spec + "'");
+        }
+        String type = spec.substring(0, colon).trim();
+        Map<String, String> properties = new HashMap<>();
+        List<String> pairs = splitProperties(spec.substring(colon + 1));
+        for (String pair : pairs) {
+            int separator = pair.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Generator property '" + pair + "' is not a key=value pair");
+            }
+            properties.put(pair.substring(0, separator).trim(), pair.substring(separator + 1).trim());
+        }
+        return new GeneratorConfiguration.GeneratorConfig(index, type, properties, "EVALUATION".equals(type));
+    }
+
+    private static List<String> splitProperties(String properties) {
+        List<String> pairs = new ArrayList<>();
+        for (String pair : properties.split(";")) {
+            if (!pair.trim().isEmpty()) {
+                pairs.add(pair);
+            }
+        }
+        return pairs;
+    }
+}
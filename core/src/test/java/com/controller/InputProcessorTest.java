@@ -1,12 +1,16 @@
 package com.controller;
 
+import com.controller.business.ExampleLoader;
 import com.controller.generators.MainGenerator;
+import com.model.GeneratorConfiguration;
 import com.model.Template;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Test class for {@link InputProcessor}.
@@ -176,4 +180,53 @@ class InputProcessorTest {
         assertThrows(IllegalArgumentException.class, () -> inputProcessor.initMainGenerator());
     }
 
+    /**
+     * Tests {@link InputProcessor#fromConfiguration(GeneratorConfiguration)} with the editor map of every built in example.
+     */
+    @Test
+    void fromConfigurationExamples() {
+        ExampleLoader loader = new ExampleLoader();
+        for (String key : loader.getAllExampleKeys()) {
+            GeneratorConfiguration configuration = loader.getExample(key).getConfiguration();
+            MainGenerator generator = InputProcessor.fromConfiguration(configuration).getMainGenerator();
+            List<String> rows = generator.generate().limit(3).collect(Collectors.toList());
+            assertEquals(3, rows.size(), key);
+        }
+
+        GeneratorConfiguration bsn = new ExampleLoader().loadBSNExample();
+        List<String> rows = InputProcessor.fromConfiguration(bsn).getMainGenerator().generate().limit(2).collect(Collectors.toList());
+        assertEquals(List.of("100000009", "100000010"), rows);
+    }
+
+    /**
+     * Tests {@link InputProcessor#orderedGenerators(GeneratorConfiguration)}: the list sorted by index first, else the
+     * sub generators of the editor map by id followed by its evaluators by id.
+     */
+    @Test
+    void orderedGenerators() {
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        Map<String, GeneratorConfiguration.GeneratorConfig> editor = new HashMap<>();
+        for (String id : List.of("evaluator_1", "10", "evaluator_0", "2", "0")) {
+            GeneratorConfiguration.GeneratorConfig generator = new GeneratorConfiguration.GeneratorConfig();
+            generator.setType(id);
+            editor.put(id, generator);
+        }
+        configuration.setGeneratorConfigs(editor);
+        assertEquals(List.of("0", "2", "10", "evaluator_0", "evaluator_1"), InputProcessor.orderedGenerators(configuration)
+                .stream().map(GeneratorConfiguration.GeneratorConfig::getType).collect(Collectors.toList()));
+
+        GeneratorConfiguration.GeneratorConfig second = new GeneratorConfiguration.GeneratorConfig();
+        second.setType("second");
+        second.setIndex(1);
+        GeneratorConfiguration.GeneratorConfig first = new GeneratorConfiguration.GeneratorConfig();
+        first.setType("first");
+        configuration.setGenerators(List.of(second, first));
+        assertEquals(List.of("first", "second"), InputProcessor.orderedGenerators(configuration)
+                .stream().map(GeneratorConfiguration.GeneratorConfig::getType).collect(Collectors.toList()));
+
+        editor.put("x", new GeneratorConfiguration.GeneratorConfig());
+        configuration.setGenerators(null);
+        assertThrows(IllegalArgumentException.class, () -> InputProcessor.orderedGenerators(configuration));
+    }
+
 }
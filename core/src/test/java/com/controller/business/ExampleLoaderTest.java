@@ -0,0 +1,49 @@
+package com.controller.business;
+
+import com.controller.InputProcessor;
+import com.model.GeneratorConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class contains tests for the class <code>{@link ExampleLoader}</code>.
+ */
+class ExampleLoaderTest {
+
+    /**
+     * Test that every example takes the template format of its metadata and keeps its generators in the editor map.
+     */
+    @Test
+    void testExamplesAreComplete() {
+        ExampleLoader loader = new ExampleLoader();
+        for (String key : loader.getAllExampleKeys()) {
+            ExampleLoader.Example example = loader.getExample(key);
+            GeneratorConfiguration configuration = example.getConfiguration();
+            assertEquals(example.getMetadata().getTemplateFormat(), configuration.getTemplateFormat(), key);
+            assertFalse(configuration.getGeneratorConfigs().isEmpty(), key);
+            for (GeneratorConfiguration.GeneratorConfig generator : configuration.getGeneratorConfigs().values()) {
+                assertNotNull(generator.getProperties().get("input"), key);
+            }
+        }
+    }
+
+    /**
+     * Test the first rows of the examples whose generators were fixed to produce rows.
+     */
+    @Test
+    void testExampleRows() {
+        ExampleLoader loader = new ExampleLoader();
+        assertEquals(List.of("00001", "00002"), rows(loader, "simple_sequential"));
+        assertEquals(List.of("BIZ-AB-100001", "BIZ-AC-100002"), rows(loader, "business_ids"));
+    }
+
+    private static List<String> rows(ExampleLoader loader, String key) {
+        GeneratorConfiguration configuration = loader.getExample(key).getConfiguration();
+        return InputProcessor.fromConfiguration(configuration).getMainGenerator().generate().limit(2)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,158 @@
+package com.controller.generators;
+
+import com.controller.InputProcessor;
+import com.model.GeneratorConfiguration;
+import com.service.ConfigurationFileParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class contains tests for the class <code>{@link BlockRangeAllocator}</code>.
+ */
+class BlockRangeAllocatorTest {
+    private static final String KEYS = "SEQUENTIALNUMBERGENERATOR:input=0;start=1000;step=1;length=4";
+    private static final String EVEN = "EVALUATION:input=0;formula=(A+B+C+D) % 2 == 0";
+
+    private static GenerationPlan compile(String templateFormat, String... specs) {
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setTemplateFormat(templateFormat);
+        List<GeneratorConfiguration.GeneratorConfig> generators = new ArrayList<>();
+        for (int i = 0; i < specs.length; i++) {
+            generators.add(ConfigurationFileParser.parseGeneratorSpec(i, specs[i]));
+        }
+        configuration.setGenerators(generators);
+        return InputProcessor.compile(configuration);
+    }
+
+    /**
+     * Drains the allocator on several threads, every thread gives back the tail of every third block
+     * @return the rows per thread
+     */
+    private static List<List<String>> drain(BlockRangeAllocator allocator, int threads) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<String>>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    List<String> rows = new ArrayList<>();
+                    BlockRangeAllocator.Block block;
+                    int blocks = 0;
+                    while ((block = allocator.claim()) != null) {
+                        try (BlockRangeAllocator.Block claimed = block) {
+                            long stop = ++blocks % 3 == 0 ? (claimed.getEnd() - claimed.getStart()) / 2 : Long.MAX_VALUE;
+                            String row;
+                            for (long i = 0; i < stop && (row = claimed.next()) != null; i++) {
+                                rows.add(row);
+                            }
+                        }
+                    }
+                    return rows;
+                }));
+            }
+            List<List<String>> rows = new ArrayList<>();
+            for (Future<List<String>> result : results) {
+                rows.add(result.get());
+            }
+            return rows;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Test that threads that claim blocks and give back tails get every row of the sequence exactly once.
+     */
+    @Test
+    void testEveryRowIsHandedOutOnce() throws Exception {
+        GenerationPlan plan = compile("K{0}", KEYS);
+        Set<String> expected = plan.newCursor().generate().limit(8999).collect(Collectors.toSet());
+
+        BlockRangeAllocator allocator = new BlockRangeAllocator(plan, 64);
+        List<String> all = drain(allocator, 16).stream().flatMap(List::stream).collect(Collectors.toList());
+
+        assertEquals(8999, all.size());
+        assertEquals(expected, new HashSet<>(all));
+        assertTrue(allocator.isExhausted());
+        assertNull(allocator.claim());
+    }
+
+    /**
+     * Test that rejected attempts of a tool are skipped and the rows stay unique.
+     */
+    @Test
+    void testTemplateWithTool() throws Exception {
+        GenerationPlan plan = compile("{0}", KEYS, EVEN);
+        Map<String, Boolean> seen = new ConcurrentHashMap<>();
+
+        BlockRangeAllocator allocator = new BlockRangeAllocator(plan, 100, 0, 2000);
+        for (List<String> rows : drain(allocator, 4)) {
+            for (String row : rows) {
+                assertNull(seen.put(row, Boolean.TRUE), "duplicate row " + row);
+            }
+        }
+
+        assertEquals(plan.newCursor().generate().limit(1000).collect(Collectors.toSet()), seen.keySet());
+    }
+
+    /**
+     * Test the blocks of a range and a tail that is handed out again.
+     */
+    @Test
+    void testBlocksAndReturnedTail() {
+        BlockRangeAllocator allocator = new BlockRangeAllocator(compile("{0}", KEYS), 10, 5, 28);
+
+        BlockRangeAllocator.Block first = allocator.claim();
+        assertEquals(5, first.getStart());
+        assertEquals(15, first.getEnd());
+        assertEquals("1006", first.next());
+        assertEquals("1007", first.next());
+        first.close();
+
+        BlockRangeAllocator.Block tail = allocator.claim();
+        assertEquals(7, tail.getStart());
+        assertEquals("1008", tail.next());
+        BlockRangeAllocator.Block second = allocator.claim();
+        assertEquals(15, second.getStart());
+        BlockRangeAllocator.Block last = allocator.claim();
+        assertEquals(25, last.getStart());
+        assertEquals(28, last.getEnd());
+        assertNull(allocator.claim());
+        assertTrue(allocator.isExhausted());
+
+        tail.close();
+        assertFalse(allocator.isExhausted());
+        assertEquals(8, allocator.claim().getStart());
+    }
+
+    /**
+     * Test that a template that can not skip ahead, invalid ranges and ranges past the keyspace are refused.
+     */
+    @Test
+    void testInvalidArguments() {
+        GenerationPlan notSeekable = compile("{0}{1}", "EVALUATION:input=1;formula=A == 1",
+                "SEQUENTIALNUMBERGENERATOR:input=1;start=1000;step=1;length=4");
+        assertFalse(notSeekable.isSeekable());
+        assertThrows(IllegalArgumentException.class, () -> new BlockRangeAllocator(notSeekable, 10));
+
+        GenerationPlan plan = compile("{0}", KEYS);
+        assertThrows(IllegalArgumentException.class, () -> new BlockRangeAllocator(plan, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BlockRangeAllocator(plan, 10, 20, 10));
+
+        // beyond the end of the keyspace a sequence would start over and repeat rows
+        long remaining = plan.newCursor().remainingAttempts();
+        assertFalse(new BlockRangeAllocator(plan, 10, 0, remaining).isExhausted());
+        assertThrows(IllegalArgumentException.class, () -> new BlockRangeAllocator(plan, 10, 0, remaining + 1));
+    }
+}
@@ -0,0 +1,142 @@
+package com.controller.generators;
+
+import com.controller.InputProcessor;
+import com.model.GeneratorConfiguration;
+import com.service.ConfigurationFileParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * The class contains tests for the class <code>{@link GenerationJob}</code>.
+ */
+class GenerationJobTest {
+    private static final String KEYS = "SEQUENTIALNUMBERGENERATOR:input=0;start=100000;step=1;length=6";
+    private static final String EVEN = "EVALUATION:input=0;formula=(A+B+C+D+E+F) % 2 == 0";
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static Supplier<MainGenerator> generators(String templateFormat, String... specs) {
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setTemplateFormat(templateFormat);
+        GeneratorConfiguration.GeneratorConfig[] generators = new GeneratorConfiguration.GeneratorConfig[specs.length];
+        for (int i = 0; i < specs.length; i++) {
+            generators[i] = ConfigurationFileParser.parseGeneratorSpec(i, specs[i]);
+        }
+        configuration.setGenerators(Arrays.asList(generators));
+        return InputProcessor.compile(configuration)::newCursor;
+    }
+
+    private static List<String> firstRows(Supplier<MainGenerator> generators, int rows) {
+        return generators.get().generate().limit(rows).collect(Collectors.toList());
+    }
+
+    /**
+     * Test that the chunks of a positionable template, generated by several workers, add up to the rows of one generator.
+     */
+    @Test
+    void testParallelChunksKeepTheOrder() throws Exception {
+        Supplier<MainGenerator> generators = generators("K-{0}", KEYS);
+
+        GenerationJob job = GenerationJob.start(generators, 10_500, 1000, executor, 4);
+
+        assertEquals(firstRows(generators, 10_500), job.getResult().get(10, TimeUnit.SECONDS));
+        assertEquals(10_500, job.getGeneratedRows());
+        assertEquals(1.0, job.getProgress());
+        assertTrue(job.isDone());
+        assertFalse(job.cancel());
+    }
+
+    /**
+     * Test that a template with a tool is generated chunk after chunk by a single generator.
+     */
+    @Test
+    void testTemplateWithToolIsGeneratedSequentially() throws Exception {
+        Supplier<MainGenerator> generators = generators("{0}", KEYS, EVEN);
+        assertFalse(generators.get().isPositionable());
+
+        GenerationJob job = GenerationJob.start(generators, 2500, 100, executor, 4);
+
+        assertEquals(firstRows(generators, 2500), job.getResult().get(10, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Test that a cancelled job completes at once and its workers stop at the next chunk.
+     */
+    @Test
+    void testCancelStopsTheWorkers() throws Exception {
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        GenerationJob job = GenerationJob.start(generators("{0}", KEYS, EVEN), 800_000, 100, single, 1);
+        while (job.getGeneratedRows() == 0) {
+            Thread.sleep(1);
+        }
+
+        assertTrue(job.cancel());
+        assertTrue(job.isCancelled());
+        assertThrows(CancellationException.class, () -> job.getResult().get());
+        single.shutdown();
+        assertTrue(single.awaitTermination(5, TimeUnit.SECONDS));
+        assertTrue(job.getGeneratedRows() < job.getRows());
+    }
+
+    /**
+     * Test that a worker that fails completes the result with its exception.
+     */
+    @Test
+    void testFailureCompletesTheResult() {
+        GenerationJob job = GenerationJob.start(generators("{0}", "SEQUENTIALNUMBERGENERATOR:input=0;start=99000;step=1;length=5"),
+                5000, 100, executor, 4);
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> job.getResult().get(10, TimeUnit.SECONDS));
+        assertTrue(failure.getCause() instanceof IllegalArgumentException);
+    }
+
+    /**
+     * Test that an error of a worker, not only an exception, completes the result.
+     */
+    @Test
+    void testErrorCompletesTheResult() {
+        MainGenerator failing = mock(MainGenerator.class);
+        when(failing.isPositionable()).thenReturn(false);
+        when(failing.generate()).thenThrow(new StackOverflowError());
+        GenerationJob job = GenerationJob.start(() -> failing, 100, 10, executor, 2);
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> job.getResult().get(10, TimeUnit.SECONDS));
+        assertTrue(failure.getCause() instanceof StackOverflowError);
+    }
+
+    /**
+     * Test an empty job and invalid arguments.
+     */
+    @Test
+    void testArguments() throws Exception {
+        Supplier<MainGenerator> generators = generators("{0}", KEYS);
+        assertTrue(GenerationJob.start(generators, 0, 100, executor, 1).getResult().get().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> GenerationJob.start(generators, -1, 100, executor, 1));
+        assertThrows(IllegalArgumentException.class, () -> GenerationJob.start(generators, 10, 0, executor, 1));
+        assertThrows(IllegalArgumentException.class, () -> GenerationJob.start(generators, 10, 100, executor, 0));
+    }
+}
@@ -0,0 +1,92 @@
+package com.controller.generators;
+
+import com.controller.InputProcessor;
+import com.model.GeneratorConfiguration;
+import com.service.ConfigurationFileParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class contains tests for the class <code>{@link GenerationPlan}</code>.
+ */
+class GenerationPlanTest {
+    private static final String KEYS = "SEQUENTIALNUMBERGENERATOR:input=0;start=100000;step=1;length=6";
+    private static final String LETTERS = "SEQUENTIALASCIIGENERATOR:input=1;start=AA;list=A,B,C;length=2";
+    private static final String EVEN = "EVALUATION:input=0;formula=(A+B+C+D+E+F) % 2 == 0";
+
+    private static GenerationPlan compile(String templateFormat, String... specs) {
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setTemplateFormat(templateFormat);
+        List<GeneratorConfiguration.GeneratorConfig> generators = new ArrayList<>();
+        for (int i = 0; i < specs.length; i++) {
+            generators.add(ConfigurationFileParser.parseGeneratorSpec(i, specs[i]));
+        }
+        configuration.setGenerators(generators);
+        return InputProcessor.compile(configuration);
+    }
+
+    /**
+     * Test that every cursor starts at the first row and moves on its own.
+     */
+    @Test
+    void testCursorsAreIndependent() {
+        GenerationPlan plan = compile("{0}-{1}", KEYS, LETTERS);
+        MainGenerator first = plan.newCursor();
+        MainGenerator second = plan.newCursor();
+
+        List<String> firstRows = first.generate().limit(5).collect(Collectors.toList());
+        assertEquals(Arrays.asList("100001-AB", "100002-AC", "100003-BA", "100004-BB", "100005-BC"), firstRows);
+        assertEquals(firstRows, second.generate().limit(5).collect(Collectors.toList()));
+        assertSame(plan, first.getPlan());
+        assertNotSame(first.getValues(), second.getValues());
+    }
+
+    /**
+     * Test that threads generating from one shared plan all get the rows of a single generator.
+     */
+    @Test
+    void testSharedPlanOnSeveralThreads() throws Exception {
+        GenerationPlan plan = compile("{0}", KEYS, EVEN);
+        List<String> expected = plan.newCursor().generate().limit(2000).collect(Collectors.toList());
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<String>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> plan.newCursor().generate().limit(2000).collect(Collectors.toList())));
+            }
+            for (Future<List<String>> result : results) {
+                assertEquals(expected, result.get());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Test what the plan tells about the template and that it can not be changed.
+     */
+    @Test
+    void testPlanProperties() {
+        GenerationPlan sequential = compile("{0}-{1}", KEYS, LETTERS);
+        GenerationPlan withTool = compile("{0}", KEYS, EVEN);
+
+        assertTrue(sequential.isSeekable());
+        assertTrue(sequential.isPositionable());
+        assertTrue(withTool.isSeekable());
+        assertFalse(withTool.isPositionable());
+        assertEquals(Arrays.asList(0, 1), new ArrayList<>(sequential.getStarts().keySet()));
+        assertEquals("100000", sequential.getStarts().get(0));
+        assertThrows(UnsupportedOperationException.class, () -> sequential.getSubGenerators().remove(0));
+        assertThrows(UnsupportedOperationException.class, () -> sequential.getStarts().put(2, "A"));
+    }
+}
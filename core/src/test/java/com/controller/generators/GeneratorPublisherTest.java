@@ -0,0 +1,164 @@
+package com.controller.generators;
+
+import com.controller.InputProcessor;
+import com.model.GeneratorConfiguration;
+import com.service.ConfigurationFileParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class contains tests for the class <code>{@link GeneratorPublisher}</code>.
+ */
+class GeneratorPublisherTest {
+    private static final String KEYS = "SEQUENTIALNUMBERGENERATOR:input=0;start=100000;step=1;length=6";
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static GenerationPlan compile(String templateFormat, String spec) {
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setTemplateFormat(templateFormat);
+        List<GeneratorConfiguration.GeneratorConfig> generators = new ArrayList<>();
+        generators.add(ConfigurationFileParser.parseGeneratorSpec(0, spec));
+        configuration.setGenerators(generators);
+        return InputProcessor.compile(configuration);
+    }
+
+    /**
+     * Subscriber that keeps the items and asks for more from its own callbacks
+     */
+    private static class Collector<T> implements Flow.Subscriber<T> {
+        final List<T> items = new ArrayList<>();
+        final CompletableFuture<Throwable> error = new CompletableFuture<>();
+        final CompletableFuture<List<T>> filled = new CompletableFuture<>();
+        private final int wanted;
+        volatile Flow.Subscription subscription;
+
+        Collector(int wanted) {
+            this.wanted = wanted;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(T item) {
+            items.add(item);
+            if (items.size() == wanted) {
+                filled.complete(new ArrayList<>(items));
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error.complete(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            error.completeExceptionally(new AssertionError("a generator never completes"));
+        }
+    }
+
+    /**
+     * Test that exactly the requested rows are generated, in the order of the generator.
+     */
+    @Test
+    void testRowsFollowTheDemand() throws Exception {
+        GenerationPlan plan = compile("K-{0}", KEYS);
+        MainGenerator generator = plan.newCursor();
+        Collector<String> collector = new Collector<>(10);
+        generator.publisher(executor).subscribe(collector);
+
+        collector.subscription.request(3);
+        collector.subscription.request(7);
+        List<String> rows = collector.filled.get(5, TimeUnit.SECONDS);
+
+        assertEquals(plan.newCursor().generate().limit(10).collect(Collectors.toList()), rows);
+        Thread.sleep(50);
+        assertEquals(10, generator.getAttempts());
+        assertEquals(10, collector.items.size());
+    }
+
+    /**
+     * Test that every item of the batch publisher is a full batch of rows.
+     */
+    @Test
+    void testBatches() throws Exception {
+        GenerationPlan plan = compile("{0}", KEYS);
+        Collector<List<String>> collector = new Collector<>(3);
+        plan.newCursor().batchPublisher(executor, 100).subscribe(collector);
+
+        collector.subscription.request(3);
+        List<List<String>> batches = collector.filled.get(5, TimeUnit.SECONDS);
+
+        assertEquals(plan.newCursor().generate().limit(300).collect(Collectors.toList()),
+                batches.stream().flatMap(List::stream).collect(Collectors.toList()));
+        assertThrows(IllegalArgumentException.class, () -> plan.newCursor().batchPublisher(executor, 0));
+    }
+
+    /**
+     * Test that a cancelled subscription stops an unbounded demand.
+     */
+    @Test
+    void testCancelStopsTheGeneration() throws Exception {
+        MainGenerator generator = compile("{0}", KEYS).newCursor();
+        Collector<String> collector = new Collector<>(1000);
+        generator.publisher(executor).subscribe(collector);
+
+        collector.subscription.request(Long.MAX_VALUE);
+        collector.filled.get(5, TimeUnit.SECONDS);
+        collector.subscription.cancel();
+        Thread.sleep(50);
+        long attempts = generator.getAttempts();
+        Thread.sleep(50);
+
+        assertEquals(attempts, generator.getAttempts());
+        assertFalse(collector.error.isDone());
+    }
+
+    /**
+     * Test that a failing generator, an invalid request and a second subscriber are reported with onError.
+     */
+    @Test
+    void testErrors() throws Exception {
+        Collector<String> failing = new Collector<>(1);
+        compile("{0}", "SEQUENTIALNUMBERGENERATOR:input=0;start=99998;step=1;length=5").newCursor()
+                .publisher(executor).subscribe(failing);
+        failing.subscription.request(5);
+        assertTrue(failing.error.get(5, TimeUnit.SECONDS) instanceof IllegalArgumentException);
+
+        Flow.Publisher<String> publisher = compile("{0}", KEYS).newCursor().publisher(executor);
+        Collector<String> first = new Collector<>(1);
+        Collector<String> second = new Collector<>(1);
+        publisher.subscribe(first);
+        publisher.subscribe(second);
+        assertTrue(second.error.get(5, TimeUnit.SECONDS) instanceof IllegalStateException);
+
+        first.subscription.request(0);
+        assertTrue(first.error.get(5, TimeUnit.SECONDS) instanceof IllegalArgumentException);
+    }
+}
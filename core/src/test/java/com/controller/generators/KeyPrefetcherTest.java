@@ -0,0 +1,132 @@
+package com.controller.generators;
+
+import com.controller.InputProcessor;
+import com.model.GeneratorConfiguration;
+import com.service.ConfigurationFileParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class contains tests for the class <code>{@link KeyPrefetcher}</code>.
+ */
+class KeyPrefetcherTest {
+    private static final String KEYS = "SEQUENTIALNUMBERGENERATOR:input=0;start=100000;step=1;length=6";
+    private static final String EVEN = "EVALUATION:input=0;formula=(A+B+C+D+E+F) % 2 == 0";
+
+    private static GenerationPlan compile(String templateFormat, String... specs) {
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setTemplateFormat(templateFormat);
+        List<GeneratorConfiguration.GeneratorConfig> generators = new ArrayList<>();
+        for (int i = 0; i < specs.length; i++) {
+            generators.add(ConfigurationFileParser.parseGeneratorSpec(i, specs[i]));
+        }
+        configuration.setGenerators(generators);
+        return InputProcessor.compile(configuration);
+    }
+
+    private static void awaitSize(KeyPrefetcher prefetcher, int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (prefetcher.size() < size && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Test that consumers on several threads take every key once, in total the first keys of the template.
+     */
+    @Test
+    void testConsumersTakeUniqueKeys() throws Exception {
+        GenerationPlan plan = compile("K{0}", KEYS, EVEN);
+        Set<String> taken = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try (KeyPrefetcher prefetcher = KeyPrefetcher.start(plan.newCursor(), 256)) {
+            List<Future<?>> consumers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                consumers.add(pool.submit(() -> {
+                    for (int i = 0; i < 2500; i++) {
+                        assertTrue(taken.add(prefetcher.take()));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> consumer : consumers) {
+                consumer.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(plan.newCursor().generate().limit(20_000).collect(Collectors.toSet()), taken);
+    }
+
+    /**
+     * Test that the producer fills the ring up to its capacity, no further, and tops it up once it runs low.
+     */
+    @Test
+    void testRingIsToppedUp() throws Exception {
+        MainGenerator generator = compile("{0}", KEYS).newCursor();
+        try (KeyPrefetcher prefetcher = KeyPrefetcher.start(generator, 100, 20)) {
+            assertEquals(128, prefetcher.getCapacity());
+            awaitSize(prefetcher, 128);
+            Thread.sleep(20);
+            assertEquals(128, prefetcher.size());
+            assertEquals(128, generator.getAttempts());
+            assertEquals("100001", prefetcher.poll());
+
+            for (int i = 0; i < 107; i++) {
+                assertNotNull(prefetcher.poll());
+            }
+            awaitSize(prefetcher, 128);
+            assertEquals(128, prefetcher.size());
+            assertEquals("100109", prefetcher.take());
+        }
+    }
+
+    /**
+     * Test that the keys that are ready can be taken after the template runs out, and then take fails.
+     */
+    @Test
+    void testExhaustedTemplate() throws Exception {
+        MainGenerator generator = compile("{0}", "SEQUENTIALNUMBERGENERATOR:input=0;start=99990;step=1;length=5").newCursor();
+        try (KeyPrefetcher prefetcher = KeyPrefetcher.start(generator, 64)) {
+            List<String> keys = new ArrayList<>();
+            IllegalStateException failure = assertThrows(IllegalStateException.class, () -> {
+                while (true) {
+                    keys.add(prefetcher.take());
+                }
+            });
+            assertEquals(9, keys.size());
+            assertEquals("99999", keys.get(8));
+            assertTrue(failure.getCause() instanceof IllegalArgumentException);
+        }
+    }
+
+    /**
+     * Test that a closed prefetcher still gives its ready keys and invalid sizes are refused.
+     */
+    @Test
+    void testCloseAndArguments() throws Exception {
+        KeyPrefetcher prefetcher = KeyPrefetcher.start(compile("{0}", KEYS).newCursor(), 4, 0);
+        awaitSize(prefetcher, 4);
+        prefetcher.close();
+        for (int i = 0; i < 4; i++) {
+            assertNotNull(prefetcher.take());
+        }
+        assertNull(prefetcher.poll());
+        assertThrows(IllegalStateException.class, prefetcher::take);
+
+        MainGenerator generator = compile("{0}", KEYS).newCursor();
+        assertThrows(IllegalArgumentException.class, () -> KeyPrefetcher.start(generator, 0));
+        assertThrows(IllegalArgumentException.class, () -> KeyPrefetcher.start(generator, 16, 16));
+    }
+}
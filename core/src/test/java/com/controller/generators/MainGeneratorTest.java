@@ -1,6 +1,9 @@
 package com.controller.generators;
 
 import com.controller.formatters.Formatter;
+import com.controller.metrics.Metrics;
+import com.controller.metrics.RowTrace;
+import com.controller.metrics.RowTracer;
 import com.controller.subgenerators.ISubGenerator;
 import com.model.Template;
 import com.model.patterns.IPattern;
@@ -143,5 +146,36 @@ class MainGeneratorTest {
         assertEquals(expectedMessage, actualMessage);
     }
 
+    /**
+     * Test that every n-th attempt is handed to the row tracer with the values of its slots.
+     */
+    @Test
+    void testTracedAttempts() {
+        when(mockISubGenerator.generate("AAA")).thenReturn("AAB");
+        when(mockISubGenerator.generate("AAB")).thenReturn("AB");
+        RowTracer tracer = Metrics.tracer();
+        tracer.clear();
+        tracer.setTracingInterval(2);
+        try {
+            mainGenerator.tryNext();
+            mainGenerator.tryNext();
+            assertNull(mainGenerator.tryNext());
+            assertNull(mainGenerator.tryNext());
+        } finally {
+            tracer.setTracingInterval(0);
+        }
+
+        List<RowTrace> traces = tracer.getTraces();
+        assertEquals(2, traces.size());
+        RowTrace.Step step = traces.get(0).getSteps().get(0);
+        assertEquals(2, traces.get(0).getAttempt());
+        assertEquals("AAB", step.getInput());
+        assertEquals("AB", step.getOutput());
+        assertEquals(RowTrace.Outcome.WRONG_LENGTH, step.getOutcome());
+        assertFalse(traces.get(0).isAccepted());
+        assertEquals(4, traces.get(1).getAttempt());
+        tracer.clear();
+    }
+
 }
 
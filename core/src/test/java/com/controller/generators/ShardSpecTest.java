@@ -0,0 +1,110 @@
+package com.controller.generators;
+
+import com.controller.InputProcessor;
+import com.model.GeneratorConfiguration;
+import com.service.ConfigurationFileParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class contains tests for the class <code>{@link ShardSpec}</code>.
+ */
+class ShardSpecTest {
+    private static final String KEYS = "SEQUENTIALNUMBERGENERATOR:input=0;start=1000;step=1;length=4";
+    private static final String EVEN = "EVALUATION:input=0;formula=(A+B+C+D) % 2 == 0";
+
+    private static GenerationPlan compile(String templateFormat, String... specs) {
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setTemplateFormat(templateFormat);
+        List<GeneratorConfiguration.GeneratorConfig> generators = new ArrayList<>();
+        for (int i = 0; i < specs.length; i++) {
+            generators.add(ConfigurationFileParser.parseGeneratorSpec(i, specs[i]));
+        }
+        configuration.setGenerators(generators);
+        return InputProcessor.compile(configuration);
+    }
+
+    /**
+     * Test that contiguous shards of the whole keyspace follow each other and add up to the template.
+     */
+    @Test
+    void testContiguousShardsCoverTheKeyspace() {
+        GenerationPlan plan = compile("{0}", KEYS);
+        List<String> all = new ArrayList<>();
+        for (int shard = 0; shard < 4; shard++) {
+            ShardSpec spec = new ShardSpec(shard, 4, ShardSpec.Layout.CONTIGUOUS);
+            List<String> rows = spec.rows(plan).collect(Collectors.toList());
+            assertEquals(spec.attempts(0, 8999), rows.size());
+            all.addAll(rows);
+        }
+
+        assertEquals(plan.newCursor().generate().limit(8999).collect(Collectors.toList()), all);
+        assertEquals(2250, new ShardSpec(0, 4, ShardSpec.Layout.CONTIGUOUS).attempts(0, 8999));
+        assertEquals(2249, new ShardSpec(3, 4, ShardSpec.Layout.CONTIGUOUS).attempts(0, 8999));
+    }
+
+    /**
+     * Test that interleaved shards take every n-th attempt and are disjoint.
+     */
+    @Test
+    void testInterleavedShards() {
+        GenerationPlan plan = compile("{0}", KEYS);
+        ShardSpec second = new ShardSpec(1, 3, ShardSpec.Layout.INTERLEAVED);
+
+        assertEquals(Arrays.asList("1002", "1005", "1008", "1011"), second.rows(plan, 0, 12).collect(Collectors.toList()));
+        assertEquals(3000, second.rows(plan).count());
+        assertEquals(3000, second.attempts(0, 8999));
+
+        Set<String> union = new HashSet<>();
+        for (int shard = 0; shard < 3; shard++) {
+            new ShardSpec(shard, 3, ShardSpec.Layout.INTERLEAVED).rows(plan, 100, 1100)
+                    .forEach(row -> assertTrue(union.add(row), "duplicate row " + row));
+        }
+        assertEquals(1000, union.size());
+    }
+
+    /**
+     * Test that a template with a tool is sharded over its attempts and the rows stay unique.
+     */
+    @Test
+    void testTemplateWithTool() {
+        GenerationPlan plan = compile("{0}", KEYS, EVEN);
+        Set<String> union = new HashSet<>();
+        for (ShardSpec.Layout layout : ShardSpec.Layout.values()) {
+            union.clear();
+            for (int shard = 0; shard < 5; shard++) {
+                new ShardSpec(shard, 5, layout).rows(plan, 0, 2000)
+                        .forEach(row -> assertTrue(union.add(row), "duplicate row " + row));
+            }
+            assertEquals(plan.newCursor().generate().limit(1000).collect(Collectors.toSet()), union);
+        }
+    }
+
+    /**
+     * Test that invalid shards and templates that can not skip ahead are refused.
+     */
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new ShardSpec(3, 3, ShardSpec.Layout.CONTIGUOUS));
+        assertThrows(IllegalArgumentException.class, () -> new ShardSpec(0, 0, ShardSpec.Layout.INTERLEAVED));
+        assertThrows(IllegalArgumentException.class, () -> new ShardSpec(0, 1, null));
+
+        GenerationPlan notSeekable = compile("{0}{1}", "EVALUATION:input=1;formula=A == 1",
+                "SEQUENTIALNUMBERGENERATOR:input=1;start=1000;step=1;length=4");
+        ShardSpec spec = new ShardSpec(0, 2, ShardSpec.Layout.CONTIGUOUS);
+        assertThrows(IllegalArgumentException.class, () -> spec.rows(notSeekable));
+        assertThrows(IllegalArgumentException.class, () -> spec.rows(compile("{0}", KEYS), 10, 5));
+        GenerationPlan plan = compile("{0}", KEYS);
+        long remaining = plan.newCursor().remainingAttempts();
+        assertEquals(0, spec.rows(plan, 5, 5).count());
+        assertThrows(IllegalArgumentException.class, () -> spec.rows(plan, 0, remaining + 1));
+    }
+}
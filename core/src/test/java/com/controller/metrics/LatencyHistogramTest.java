@@ -0,0 +1,68 @@
+package com.controller.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class contains tests for the class <code>{@link LatencyHistogram}</code>.
+ */
+class LatencyHistogramTest {
+
+    /**
+     * Test that small values have a bucket each and every bucket of larger values holds its own index.
+     */
+    @Test
+    void testBuckets() {
+        LatencyHistogram histogram = new LatencyHistogram(3);
+        for (int value = 0; value < 16; value++) {
+            assertEquals(value, histogram.indexOf(value));
+            assertEquals(value, histogram.highestValueOf(value));
+        }
+        assertEquals(16, histogram.indexOf(16));
+        assertEquals(16, histogram.indexOf(17));
+        assertEquals(17, histogram.highestValueOf(16));
+        assertEquals(17, histogram.indexOf(18));
+        assertEquals(19, histogram.highestValueOf(17));
+
+        LatencyHistogram precise = new LatencyHistogram();
+        for (long value = 1; value > 0 && value < Long.MAX_VALUE / 3; value = value * 3 + 1) {
+            long highest = precise.highestValueOf(precise.indexOf(value));
+            assertTrue(highest >= value, "bucket of " + value);
+            assertTrue(highest - value <= value / 128, "precision of " + value);
+        }
+        assertEquals(Long.MAX_VALUE, precise.highestValueOf(precise.indexOf(Long.MAX_VALUE)));
+    }
+
+    /**
+     * Test the count, extremes, mean, deviation and percentiles of the recorded latencies.
+     */
+    @Test
+    void testStatistics() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getMean());
+        assertEquals(0, histogram.getMin());
+        assertEquals(0, histogram.getPercentile(99));
+
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        histogram.record(-5);
+
+        assertEquals(1001, histogram.getCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(1_000_000, histogram.getMax());
+        assertEquals(500_000, histogram.getMean(), 1000);
+        assertEquals(288_819, histogram.getStdDeviation(), 1000);
+        assertEquals(500_000, histogram.getPercentile(50), 500_000 / 128);
+        assertEquals(990_000, histogram.getPercentile(99), 990_000 / 128);
+        assertEquals(1_000_000, histogram.getPercentile(100));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(-1));
+        assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram(0));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(50));
+    }
+}
@@ -0,0 +1,49 @@
+package com.controller.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class contains tests for the class <code>{@link NanoHistogram}</code>.
+ */
+class NanoHistogramTest {
+
+    /**
+     * Test that durations end up in their power of two bucket.
+     */
+    @Test
+    void testBuckets() {
+        assertEquals(0, NanoHistogram.bucketOf(0));
+        assertEquals(0, NanoHistogram.bucketOf(1));
+        assertEquals(1, NanoHistogram.bucketOf(3));
+        assertEquals(10, NanoHistogram.bucketOf(1024));
+        assertEquals(62, NanoHistogram.bucketOf(Long.MAX_VALUE));
+    }
+
+    /**
+     * Test the count, mean and percentiles of the recorded durations.
+     */
+    @Test
+    void testStatistics() {
+        NanoHistogram histogram = new NanoHistogram();
+        assertEquals(0, histogram.getMean());
+        assertEquals(0, histogram.getPercentile(99));
+
+        for (int i = 0; i < 99; i++) {
+            histogram.record(100);
+        }
+        histogram.record(5000);
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(149, histogram.getMean());
+        assertEquals(127, histogram.getPercentile(50));
+        assertEquals(127, histogram.getPercentile(99));
+        assertEquals(8191, histogram.getPercentile(100));
+        assertEquals(99, histogram.getBuckets()[6]);
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(101));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+    }
+}
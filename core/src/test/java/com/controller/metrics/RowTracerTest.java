@@ -0,0 +1,69 @@
+package com.controller.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class contains tests for the class <code>{@link RowTracer}</code>.
+ */
+class RowTracerTest {
+
+    /**
+     * Test that only every n-th attempt is traced, and nothing while tracing is off.
+     */
+    @Test
+    void testTracedAttempts() {
+        RowTracer tracer = new RowTracer(4);
+        assertFalse(tracer.isTraced(0));
+        assertFalse(tracer.isTraced(10));
+
+        tracer.setTracingInterval(5);
+        assertTrue(tracer.isTraced(10));
+        assertFalse(tracer.isTraced(11));
+        assertThrows(IllegalArgumentException.class, () -> tracer.setTracingInterval(-1));
+        assertThrows(IllegalArgumentException.class, () -> new RowTracer(0));
+    }
+
+    /**
+     * Test that a full buffer drops the oldest traces and that the kept traces are returned oldest first.
+     */
+    @Test
+    void testRingBuffer() {
+        RowTracer tracer = new RowTracer(3);
+        for (long attempt = 1; attempt <= 5; attempt++) {
+            tracer.record(new RowTrace(attempt, "main"));
+        }
+
+        List<RowTrace> traces = tracer.getTraces();
+        assertEquals(3, traces.size());
+        assertEquals(3, traces.get(0).getAttempt());
+        assertEquals(5, traces.get(2).getAttempt());
+        assertEquals(5, tracer.getTracedAttempts());
+
+        tracer.clear();
+        assertTrue(tracer.getTraces().isEmpty());
+        assertEquals(0, tracer.getTracedAttempts());
+    }
+
+    /**
+     * Test the lines of a dump: a header per attempt and a line per slot.
+     */
+    @Test
+    void testDump() {
+        RowTracer tracer = new RowTracer();
+        RowTrace trace = new RowTrace(7, "worker-1");
+        trace.add(0, "SequentialNumberGenerator", "099", "100", 120, RowTrace.Outcome.ACCEPTED);
+        trace.add(1, "EvaluatorTool", "100", null, 80, RowTrace.Outcome.REJECTED);
+        tracer.record(trace);
+
+        assertEquals(Arrays.asList(
+                "attempt 7 on worker-1: rejected at slot 1 in 200 ns",
+                "  slot 0 SequentialNumberGenerator: \"099\" -> \"100\" 120 ns ACCEPTED",
+                "  slot 1 EvaluatorTool: \"100\" -> null 80 ns REJECTED"), tracer.dump());
+        assertEquals(RowTracer.DEFAULT_CAPACITY, tracer.getCapacity());
+    }
+}
@@ -0,0 +1,122 @@
+package com.controller.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class contains tests for the class <code>{@link RunReport}</code>.
+ */
+class RunReportTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Test that the report holds the difference of the counters since it was started, the slot costs and the
+     * size and checksum of the outputs.
+     */
+    @Test
+    void testReport() throws IOException, InterruptedException {
+        GeneratorMetrics metrics = Metrics.generator();
+        metrics.recordAttempt();
+        metrics.recordRow();
+
+        Path output = tempDir.resolve("keys.txt");
+        Files.write(output, "123456789".getBytes(StandardCharsets.US_ASCII));
+        RunReport report = RunReport.start("test", 20);
+        assertEquals(RunReport.SLOT_SAMPLING_INTERVAL, metrics.getSamplingInterval());
+        for (int i = 0; i < 10; i++) {
+            metrics.recordAttempt();
+        }
+        for (int i = 0; i < 8; i++) {
+            metrics.recordRow();
+        }
+        metrics.recordRejection(1);
+        metrics.recordRejection(1);
+        metrics.recordSlotTime(0, 100);
+        metrics.recordSlotTime(1, 300);
+        report.put("format", "TXT");
+        report.addOutput(output);
+        Thread.sleep(70);
+        String json = report.finish(8);
+
+        assertEquals(0, metrics.getSamplingInterval());
+        assertTrue(json.contains("\"job\": \"test\""), json);
+        assertTrue(json.contains("\"rows\": 8,"), json);
+        assertTrue(json.contains("\"attempts\": 10,"), json);
+        assertTrue(json.contains("\"retries\": 2,"), json);
+        assertTrue(json.contains("\"acceptanceRate\": 0.8000"), json);
+        assertTrue(json.contains("\"rejections\": 2,"), json);
+        assertTrue(json.contains("\"p50Nanos\": 511"), json);
+        assertTrue(json.contains("\"share\": 0.2000"), json);
+        assertTrue(json.contains("\"share\": 0.8000"), json);
+        // the CRC-32C check value of "123456789"
+        assertTrue(json.contains("\"crc32c\": \"e3069283\""), json);
+        assertTrue(json.contains("\"bytesWritten\": 9,"), json);
+        assertTrue(json.contains("\"format\": \"TXT\""), json);
+        assertTrue(json.contains("\"atMillis\""), json);
+
+        Path file = RunReport.pathFor(output);
+        assertEquals(tempDir.resolve("keys.txt.report.json"), file);
+        report.write(file);
+        assertEquals(json, new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        report.cancel();
+        assertEquals(0, metrics.getSamplingInterval());
+    }
+
+    /**
+     * Test that a sampling interval set before the report is kept, and that a report is only written once finished.
+     */
+    @Test
+    void testSamplingIntervalIsKept() {
+        GeneratorMetrics metrics = Metrics.generator();
+        metrics.setSamplingInterval(7);
+        try {
+            RunReport report = RunReport.start("test");
+            assertEquals(7, metrics.getSamplingInterval());
+            assertThrows(IllegalStateException.class, () -> report.write(tempDir.resolve("early.json")));
+            report.cancel();
+            assertEquals(7, metrics.getSamplingInterval());
+        } finally {
+            metrics.setSamplingInterval(0);
+        }
+        assertThrows(IllegalArgumentException.class, () -> RunReport.start("test", 0));
+    }
+
+    /**
+     * Test the JSON of nested values, numbers and escaped strings.
+     */
+    @Test
+    void testJson() {
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("text", "a \"quoted\"\\path\n");
+        value.put("whole", 2.0);
+        value.put("fraction", 0.125);
+        value.put("invalid", Double.NaN);
+        value.put("list", Arrays.asList(1, true, null));
+        value.put("empty", new LinkedHashMap<>());
+
+        assertEquals("{\n"
+                + "  \"text\": \"a \\\"quoted\\\"\\\\path\\n\",\n"
+                + "  \"whole\": 2,\n"
+                + "  \"fraction\": 0.1250,\n"
+                + "  \"invalid\": null,\n"
+                + "  \"list\": [\n"
+                + "    1,\n"
+                + "    true,\n"
+                + "    null\n"
+                + "  ],\n"
+                + "  \"empty\": {}\n"
+                + "}\n", RunReport.toJson(value));
+    }
+}
@@ -144,4 +144,31 @@ class SequentialASCIIGeneratorTest {
         String generated = generator.generate("abc");
         assertEquals("abd", generated);
     }
+
+    /**
+     * Test that advancing gives the same value as generating step by step, including the wrap around.
+     */
+    @Test
+    void advanceTest() {
+        assertEquals("abc", generator.advance("abc", 0));
+        assertEquals("abd", generator.advance("abc", 1));
+        assertEquals("aaa", generator.advance("ddd", 1));
+        assertEquals("aaa", generator.advance("aaa", 64));
+        assertThrows(IllegalArgumentException.class, () -> generator.advance("abc", -1));
+
+        String value = "abc";
+        for (int i = 1; i <= 200; i++) {
+            value = generator.generate(value);
+            assertEquals(value, generator.advance("abc", i));
+        }
+    }
+
+    /**
+     * Test that the whole cycle of values is remaining before the sequence repeats.
+     */
+    @Test
+    void remainingTest() {
+        assertEquals(64, generator.remaining("abc"));
+        assertEquals(64, generator.remaining("ddd"));
+    }
 }
@@ -70,6 +70,51 @@ class SequentialNumberGeneratorTest {
         assertNull(generator.generate("99999"));
     }
 
+    /**
+     * Tests that advancing gives the same value as generating step by step.
+     */
+    @Test
+    void advanceTest() {
+        assertEquals("7", generator.advance("7", 0));
+        assertEquals("011", generator.advance("3", 4));
+        assertEquals("99999", generator.advance("99997", 1));
+        assertNull(generator.advance("99997", 2));
+        assertNull(generator.advance("3", Long.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> generator.advance("3", -1));
+
+        String value = "3";
+        for (int i = 1; i <= 100; i++) {
+            value = generator.generate(value);
+            assertEquals(value, generator.advance("3", i));
+        }
+    }
+
+    /**
+     * Tests the number of values that still fit the length.
+     */
+    @Test
+    void remainingTest() {
+        assertEquals(49998, generator.remaining("3"));
+        assertEquals(1, generator.remaining("99997"));
+        assertEquals(0, generator.remaining("99998"));
+
+        // a step of zero gives a single value before it repeats
+        when(pattern.getStep()).thenReturn(0L);
+        SequentialNumberGenerator constant = new SequentialNumberGenerator(pattern);
+        assertEquals(1, constant.remaining("3"));
+        assertEquals(0, constant.remaining("100000"));
+    }
+
+    /**
+     * Tests that only a sequence counting down can produce shorter values.
+     */
+    @Test
+    void isLengthNonDecreasingTest() {
+        assertTrue(generator.isLengthNonDecreasing());
+        when(pattern.getStep()).thenReturn(-1L);
+        assertFalse(new SequentialNumberGenerator(pattern).isLengthNonDecreasing());
+    }
+
     /**
      * Tests the padding function.
      * @throws Exception
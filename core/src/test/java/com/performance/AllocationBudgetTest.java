@@ -0,0 +1,144 @@
+package com.performance;
+
+import com.controller.InputProcessor;
+import com.controller.formatters.Formatter;
+import com.controller.generators.MainGenerator;
+import com.controller.subgenerators.ISubGenerator;
+import com.controller.subgenerators.SequentialASCIIGenerator;
+import com.controller.subgenerators.SequentialNumberGenerator;
+import com.controller.subgenerators.tools.Calculator;
+import com.controller.subgenerators.tools.Evaluator;
+import com.model.GeneratorConfiguration;
+import com.model.patterns.SequentialASCIIPattern;
+import com.model.patterns.SequentialPattern;
+import com.model.patterns.ToolPattern;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Allocation budgets of the code that runs for every generated row.
+ * The budgets are a little above what the code allocates today, a test failing here means a change made a hot path
+ * allocate more per row, so either the change should allocate less or the budget is raised on purpose.
+ */
+class AllocationBudgetTest {
+    /**
+     * The tools compile their expression for every row, which is far more expensive than the other steps
+     */
+    private static final double TOOL_BUDGET = 64 * 1024;
+    private static final int TOOL_CALLS = 2_000;
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(AllocationMeter.isSupported(), "The JVM does not report the allocations of a thread");
+    }
+
+    private static Map<String, String> properties(String... keysAndValues) {
+        Map<String, String> properties = new HashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            properties.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return properties;
+    }
+
+    private static void assertBudget(String name, double budget, AllocationMeter.Operation operation) {
+        assertBudget(name, budget, AllocationMeter.bytesPerCall(operation));
+    }
+
+    private static void assertBudget(String name, double budget, double bytes) {
+        assertTrue(bytes <= budget, String.format("%s allocates %.1f bytes per row, the budget is %.0f", name, bytes, budget));
+    }
+
+    /**
+     * Calls the generator with its own output, starting over when the sequence runs out
+     */
+    private static AllocationMeter.Operation chain(ISubGenerator generator, String start) {
+        String[] current = {start};
+        return () -> {
+            String next = generator.generate(current[0]);
+            current[0] = next == null ? start : next;
+            return next;
+        };
+    }
+
+    /**
+     * Test the allocations of the sequential number generator, with and without padding.
+     */
+    @Test
+    void testSequentialNumberGenerator() {
+        SequentialNumberGenerator plain = new SequentialNumberGenerator(new SequentialPattern(
+                properties("input", "0", "start", "100000000", "step", "1", "length", "9")));
+        SequentialNumberGenerator padded = new SequentialNumberGenerator(new SequentialPattern(
+                properties("input", "0", "start", "0", "step", "1", "length", "9", "padding-length", "9")));
+
+        assertBudget("SequentialNumberGenerator", 256, chain(plain, "100000000"));
+        assertBudget("SequentialNumberGenerator with padding", 832, chain(padded, "000000000"));
+    }
+
+    /**
+     * Test the allocations of the sequential ASCII generator.
+     */
+    @Test
+    void testSequentialASCIIGenerator() {
+        SequentialASCIIGenerator generator = new SequentialASCIIGenerator(new SequentialASCIIPattern(
+                properties("input", "0", "list", "A,B,C,D,E,F,G,H,J,K", "start", "AAAA", "length", "4")));
+
+        assertBudget("SequentialASCIIGenerator", 1024, chain(generator, "AAAA"));
+    }
+
+    /**
+     * Test the allocations of the tools, which compile their expression for every row.
+     */
+    @Test
+    void testTools() {
+        Evaluator evaluator = new Evaluator(new ToolPattern(
+                properties("input", "0", "formula", "(9*A + 8*B + 7*C + 6*D + 5*E + 4*F + 3*G + 2*H - I) % 11 == 0")));
+        Calculator calculator = new Calculator(new ToolPattern(
+                properties("input", "0", "formula", "(A + B + C + D + E + F + G + H + I) % 10")));
+
+        assertBudget("Evaluator", TOOL_BUDGET,
+                AllocationMeter.bytesPerCall(() -> evaluator.generate("123456782"), TOOL_CALLS, TOOL_CALLS));
+        assertBudget("Calculator", TOOL_BUDGET,
+                AllocationMeter.bytesPerCall(() -> calculator.generate("123456782"), TOOL_CALLS, TOOL_CALLS));
+    }
+
+    /**
+     * Test the allocations of the formatter of the template.
+     */
+    @Test
+    void testFormatter() {
+        Map<Integer, String> subFormats = new HashMap<>();
+        subFormats.put(1, "{1}{2}{3}-{4}{5}{6}");
+        Formatter formatter = new Formatter("{0}-{1}-{2}", subFormats);
+        List<String> values = Arrays.asList("BD", "123456", "7");
+
+        assertBudget("Formatter", 320, () -> formatter.format(values));
+    }
+
+    /**
+     * Test the allocations of the full pipeline, from the generators through the formatter to the row.
+     */
+    @Test
+    void testMainGenerator() {
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setTemplateFormat("{0}-{1}");
+        configuration.setGenerators(Arrays.asList(
+                new GeneratorConfiguration.GeneratorConfig(0, "SEQUENTIALASCIIGENERATOR",
+                        properties("input", "0", "list", "A,B,C,D,E,F,G,H,J,K", "start", "AA", "length", "2"), false),
+                new GeneratorConfiguration.GeneratorConfig(1, "SEQUENTIALNUMBERGENERATOR",
+                        properties("input", "1", "start", "100000000", "step", "1", "length", "9",
+                                "format", "{1}{2}{3}-{4}{5}{6}-{7}{8}{9}"), false)));
+        MainGenerator generator = InputProcessor.fromConfiguration(configuration).getMainGenerator();
+        Iterator<String> rows = generator.generate().iterator();
+
+        assertBudget("MainGenerator", 1536, rows::next);
+    }
+}
@@ -0,0 +1,82 @@
+package com.performance;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the bytes the current thread allocates per call of an operation,
+ * with {@link com.sun.management.ThreadMXBean#getCurrentThreadAllocatedBytes()}.
+ * The operation is warmed up first, so the numbers reflect the compiled code instead of the interpreter.
+ */
+final class AllocationMeter {
+    static final int WARMUP_CALLS = 50_000;
+    static final int MEASURED_CALLS = 20_000;
+    private static final int ROUNDS = 3;
+
+    /**
+     * An operation that returns its result, so the work can not be optimised away
+     */
+    @FunctionalInterface
+    interface Operation {
+        Object run();
+    }
+
+    private static final com.sun.management.ThreadMXBean THREADS = threads();
+    private static int sink;
+
+    private AllocationMeter() {
+    }
+
+    private static com.sun.management.ThreadMXBean threads() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean) threads;
+            if (sunThreads.isThreadAllocatedMemorySupported()) {
+                sunThreads.setThreadAllocatedMemoryEnabled(true);
+                return sunThreads;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return true if the JVM can report the allocations of a thread
+     */
+    static boolean isSupported() {
+        return THREADS != null;
+    }
+
+    /**
+     * @param operation the operation to measure, called {@link #WARMUP_CALLS} times before measuring
+     * @return the lowest number of bytes allocated per call over a few rounds, which filters out one-off allocations
+     *         such as the growing of a map or the loading of a class
+     */
+    static double bytesPerCall(Operation operation) {
+        return bytesPerCall(operation, WARMUP_CALLS, MEASURED_CALLS);
+    }
+
+    /**
+     * @param operation     the operation to measure
+     * @param warmupCalls   number of calls before measuring
+     * @param measuredCalls number of calls per measured round
+     * @return the lowest number of bytes allocated per call over a few rounds
+     */
+    static double bytesPerCall(Operation operation, int warmupCalls, int measuredCalls) {
+        for (int i = 0; i < warmupCalls; i++) {
+            consume(operation.run());
+        }
+        double lowest = Double.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = THREADS.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < measuredCalls; i++) {
+                consume(operation.run());
+            }
+            long allocated = THREADS.getCurrentThreadAllocatedBytes() - before;
+            lowest = Math.min(lowest, (double) allocated / measuredCalls);
+        }
+        return lowest;
+    }
+
+    private static void consume(Object result) {
+        sink += result == null ? 0 : 1;
+    }
+}
@@ -0,0 +1,82 @@
+package com.service;
+
+import com.model.GeneratorConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class contains tests for the class <code>{@link ConfigurationFileParser}</code>.
+ */
+class ConfigurationFileParserTest {
+
+    /**
+     * Test that the template, the settings and the generators are read in the order of their index.
+     */
+    @Test
+    void testParse() throws IOException {
+        String file = "# Multi-Format Data Generator Configuration\n"
+                + "template_format={0}-{1}\n"
+                + "batch_size=50\n"
+                + "evaluator_count=1\n"
+                + "\n"
+                + "generator.1.type=EVALUATION\n"
+                + "generator.1.isEvaluator=true\n"
+                + "generator.1.input=0\n"
+                + "generator.1.formula=(A+B+C) % 2 == 0\n"
+                + "\n"
+                + "generator.0.type=SEQUENTIALNUMBERGENERATOR\n"
+                + "generator.0.isEvaluator=false\n"
+                + "generator.0.start=100\n"
+                + "generator.0.length=3\n";
+
+        GeneratorConfiguration configuration = ConfigurationFileParser.parse(new StringReader(file), "keys");
+
+        assertEquals("{0}-{1}", configuration.getTemplateFormat());
+        assertEquals(50, configuration.getBatchSize());
+        assertEquals(1, configuration.getEvaluatorCount());
+        assertEquals("keys", configuration.getMetadata().getName());
+        assertEquals(2, configuration.getGenerators().size());
+        GeneratorConfiguration.GeneratorConfig number = configuration.getGenerators().get(0);
+        assertEquals("SEQUENTIALNUMBERGENERATOR", number.getType());
+        assertFalse(number.isEvaluator());
+        assertEquals("100", number.getProperties().get("start"));
+        GeneratorConfiguration.GeneratorConfig evaluator = configuration.getGenerators().get(1);
+        assertTrue(evaluator.isEvaluator());
+        assertEquals("(A+B+C) % 2 == 0", evaluator.getProperties().get("formula"));
+        assertFalse(evaluator.getProperties().containsKey("type"));
+    }
+
+    /**
+     * Test that lines which are not valid are reported.
+     */
+    @Test
+    void testInvalidLines() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ConfigurationFileParser.parse(new StringReader("template_format\n"), "x"));
+        assertThrows(IllegalArgumentException.class,
+                () -> ConfigurationFileParser.parse(new StringReader("generator.0=SEQUENTIALNUMBERGENERATOR\n"), "x"));
+        assertThrows(IllegalArgumentException.class,
+                () -> ConfigurationFileParser.parse(new StringReader("generator.0.start=1\n"), "x"));
+    }
+
+    /**
+     * Test a generator written on a single line.
+     */
+    @Test
+    void testParseGeneratorSpec() {
+        GeneratorConfiguration.GeneratorConfig generator =
+                ConfigurationFileParser.parseGeneratorSpec(2, "SEQUENTIALASCIIGENERATOR:input=2;list=A,B,C;start=A;length=1");
+
+        assertEquals(2, generator.getIndex());
+        assertEquals("SEQUENTIALASCIIGENERATOR", generator.getType());
+        assertEquals("A,B,C", generator.getProperties().get("list"));
+        assertEquals(4, generator.getProperties().size());
+        assertTrue(ConfigurationFileParser.parseGeneratorSpec(0, "EVALUATION:input=0;formula=A == 1").isEvaluator());
+        assertThrows(IllegalArgumentException.class, () -> ConfigurationFileParser.parseGeneratorSpec(0, "input=0"));
+        assertThrows(IllegalArgumentException.class, () -> ConfigurationFileParser.parseGeneratorSpec(0, "EVALUATION:formula"));
+    }
+}
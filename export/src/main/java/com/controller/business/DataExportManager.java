@@ -0,0 +1,793 @@
+package com.controller.business;
+
+import com.controller.export.CompactExportWriter;
+import com.controller.export.FormatRowWriter;
+import com.controller.export.GenerationPipeline;
+import com.controller.export.PartitionExpression;
+import com.controller.export.PartitionedSink;
+import com.controller.export.ResumableExport;
+import com.controller.export.RowRenderer;
+import com.controller.export.RowSink;
+import com.controller.export.RowSinks;
+import com.controller.export.TeeSink;
+import com.controller.generators.GenerationPlan;
+import com.controller.generators.MainGenerator;
+import com.controller.metrics.Metrics;
+import com.model.GeneratorConfiguration;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.stream.Stream;
+
+/**
+ * Manages data export operations and format handling.
+ * Provides various export formats and batch processing capabilities.
+ * 
+ * Responsibilities:
+ * - Handle different export formats (CSV, TXT, JSON, NDJSON, SQL, XML)
+ * - Manage export settings and configurations
+ * - Provide batch export functionality
+ * - Stream a single generation pass into several formats at once
+ * - Split a single generation pass into partition files
+ * - Store sequential templates compactly as runs of generator positions
+ * - Write to pluggable export targets such as a database table
+ * - Track export history and statistics
+ */
+public class DataExportManager {
+    
+    /**
+     * Supported export formats.
+     */
+    public enum ExportFormat {
+        CSV("Comma-Separated Values", ".csv"),
+        TXT("Plain Text", ".txt"),
+        JSON("JavaScript Object Notation", ".json"),
+        NDJSON("Newline-Delimited JSON", ".ndjson"),
+        SQL("SQL Insert Statements", ".sql"),
+        XML("Extensible Markup Language", ".xml");
+        
+        private final String description;
+        private final String extension;
+        
+        ExportFormat(String description, String extension) {
+            this.description = description;
+            this.extension = extension;
+        }
+        
+        public String getDescription() { return description; }
+        public String getExtension() { return extension; }
+    }
+    
+    /**
+     * Export configuration settings.
+     */
+    public static class ExportSettings {
+        private ExportFormat format;
+        private String filePath;
+        private boolean includeHeaders;
+        private String delimiter;
+        private int batchSize;
+        private boolean appendMode;
+        private String encoding;
+        private String tableName;
+        private String partitionExpression;
+        private int maxOpenFiles;
+        private int partitionBufferSize;
+        private int partitionBufferCount;
+        
+        public ExportSettings() {
+            this.format = ExportFormat.CSV;
+            this.includeHeaders = true;
+            this.delimiter = ",";
+            this.batchSize = 1000;
+            this.appendMode = false;
+            this.encoding = "UTF-8";
+            this.tableName = "generated_data";
+            this.partitionExpression = null;
+            this.maxOpenFiles = PartitionedSink.DEFAULT_MAX_OPEN_FILES;
+            this.partitionBufferSize = PartitionedSink.DEFAULT_BUFFER_SIZE;
+            this.partitionBufferCount = PartitionedSink.DEFAULT_BUFFER_COUNT;
+        }
+        
+        // Getters and setters
+        public ExportFormat getFormat() { return format; }
+        public void setFormat(ExportFormat format) { this.format = format; }
+        
+        public String getFilePath() { return filePath; }
+        public void setFilePath(String filePath) { this.filePath = filePath; }
+        
+        public boolean isIncludeHeaders() { return includeHeaders; }
+        public void setIncludeHeaders(boolean includeHeaders) { this.includeHeaders = includeHeaders; }
+        
+        public String getDelimiter() { return delimiter; }
+        public void setDelimiter(String delimiter) { this.delimiter = delimiter; }
+        
+        public int getBatchSize() { return batchSize; }
+        public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+        
+        public boolean isAppendMode() { return appendMode; }
+        public void setAppendMode(boolean appendMode) { this.appendMode = appendMode; }
+        
+        public String getEncoding() { return encoding; }
+        public void setEncoding(String encoding) { this.encoding = encoding; }
+        
+        public String getTableName() { return tableName; }
+        public void setTableName(String tableName) { this.tableName = tableName; }
+        
+        public String getPartitionExpression() { return partitionExpression; }
+        public void setPartitionExpression(String partitionExpression) { this.partitionExpression = partitionExpression; }
+        
+        public boolean isPartitioned() { return partitionExpression != null && !partitionExpression.trim().isEmpty(); }
+        
+        public int getMaxOpenFiles() { return maxOpenFiles; }
+        public void setMaxOpenFiles(int maxOpenFiles) { this.maxOpenFiles = maxOpenFiles; }
+        
+        public int getPartitionBufferSize() { return partitionBufferSize; }
+        public void setPartitionBufferSize(int partitionBufferSize) { this.partitionBufferSize = partitionBufferSize; }
+        
+        public int getPartitionBufferCount() { return partitionBufferCount; }
+        public void setPartitionBufferCount(int partitionBufferCount) { this.partitionBufferCount = partitionBufferCount; }
+    }
+    
+    /**
+     * Export result information.
+     */
+    public static class ExportResult {
+        private final boolean success;
+        private final String filePath;
+        private final long recordCount;
+        private final long fileSize;
+        private final String error;
+        private final long exportTimeMs;
+        
+        private ExportResult(boolean success, String filePath, long recordCount, 
+                           long fileSize, String error, long exportTimeMs) {
+            this.success = success;
+            this.filePath = filePath;
+            this.recordCount = recordCount;
+            this.fileSize = fileSize;
+            this.error = error;
+            this.exportTimeMs = exportTimeMs;
+        }
+        
+        public static ExportResult success(String filePath, long recordCount, long fileSize, long exportTimeMs) {
+            return new ExportResult(true, filePath, recordCount, fileSize, null, exportTimeMs);
+        }
+        
+        public static ExportResult failure(String error) {
+            return new ExportResult(false, null, 0, 0, error, 0);
+        }
+        
+        // Getters
+        public boolean isSuccess() { return success; }
+        public String getFilePath() { return filePath; }
+        public long getRecordCount() { return recordCount; }
+        public long getFileSize() { return fileSize; }
+        public String getError() { return error; }
+        public long getExportTimeMs() { return exportTimeMs; }
+    }
+    
+    private final ExecutorService executor;
+    private final Map<String, ExportResult> exportHistory;
+    private volatile boolean isExporting;
+    
+    public DataExportManager() {
+        this.executor = Executors.newSingleThreadExecutor();
+        this.exportHistory = new HashMap<>();
+        this.isExporting = false;
+    }
+    
+    /**
+     * Exports data synchronously.
+     * 
+     * @param data The data to export
+     * @param settings Export settings
+     * @return ExportResult with success/failure information
+     */
+    public ExportResult exportData(List<String> data, ExportSettings settings) {
+        if (data == null || data.isEmpty()) {
+            return ExportResult.failure("No data to export");
+        }
+        
+        if (settings == null || settings.getFilePath() == null || settings.getFilePath().trim().isEmpty()) {
+            return ExportResult.failure("Invalid export settings or file path");
+        }
+        
+        long startTime = System.currentTimeMillis();
+        isExporting = true;
+        
+        try {
+            // Ensure file path has correct extension
+            String filePath = ensureCorrectExtension(settings.getFilePath(), settings.getFormat());
+            settings.setFilePath(filePath);
+            
+            if (settings.isPartitioned()) {
+                return writePartitions(data.iterator(), null, settings, startTime);
+            }
+            
+            // Render the rows with the writer of the configured format
+            try (FormatRowWriter writer = FormatRowWriter.open(settings)) {
+                for (String value : data) {
+                    writer.write(value);
+                }
+            }
+            
+            return recordSuccess(filePath, data.size(), System.currentTimeMillis() - startTime);
+            
+        } catch (Exception e) {
+            return recordFailure(e);
+        } finally {
+            isExporting = false;
+        }
+    }
+    
+    /**
+     * Exports a single stream of rows to several targets at once.
+     * The rows are generated only once, every target is written by its own thread
+     * and the slowest target sets the pace of the generation.
+     * 
+     * @param rows The rows to export, usually {@code mainGenerator.generate().limit(n)}
+     * @param targets Export settings for every target file
+     * @return ExportResult for every target, in the order of the targets
+     */
+    public List<ExportResult> exportStream(Stream<String> rows, List<ExportSettings> targets) {
+        List<ExportResult> results = new ArrayList<>();
+        if (rows == null) {
+            results.add(ExportResult.failure("No data to export"));
+            return results;
+        }
+        if (targets == null || targets.isEmpty()) {
+            results.add(ExportResult.failure("No export targets have been specified"));
+            return results;
+        }
+        for (ExportSettings settings : targets) {
+            if (!validateExportSettings(settings)) {
+                results.add(ExportResult.failure("Invalid export settings or file path"));
+                return results;
+            }
+        }
+        
+        long startTime = System.currentTimeMillis();
+        isExporting = true;
+        
+        List<RowSink> writers = new ArrayList<>();
+        try {
+            for (ExportSettings settings : targets) {
+                settings.setFilePath(ensureCorrectExtension(settings.getFilePath(), settings.getFormat()));
+                writers.add(FormatRowWriter.open(settings));
+            }
+            
+            long rowCount = 0;
+            boolean cancelled = false;
+            try (TeeSink tee = new TeeSink(writers)) {
+                writers.clear();
+                Iterator<String> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    if (!isExporting) {
+                        cancelled = true;
+                        break;
+                    }
+                    tee.write(iterator.next());
+                    rowCount++;
+                }
+            }
+            
+            if (cancelled) {
+                ExportResult result = recordCancellation("Export cancelled after " + rowCount + " rows");
+                for (int i = 0; i < targets.size(); i++) {
+                    results.add(result);
+                }
+                return results;
+            }
+            long exportTime = System.currentTimeMillis() - startTime;
+            for (ExportSettings settings : targets) {
+                results.add(recordSuccess(settings.getFilePath(), rowCount, exportTime));
+            }
+        } catch (Exception e) {
+            closeQuietly(writers);
+            Metrics.export().recordFailure();
+            results.clear();
+            for (int i = 0; i < targets.size(); i++) {
+                results.add(ExportResult.failure("Export error: " + e.getMessage()));
+            }
+        } finally {
+            isExporting = false;
+        }
+        return results;
+    }
+    
+    /**
+     * Exports a stream of rows to a pluggable export target, for example a database table.
+     * The available targets are listed by {@link RowSinks#getNames()}.
+     * 
+     * @param rows The rows to export, usually {@code mainGenerator.generate().limit(n)}
+     * @param target Name of the export target
+     * @param options Options of the export target
+     * @return ExportResult with the number of rows, the file size is 0 for targets that are not files
+     */
+    public ExportResult exportToSink(Stream<String> rows, String target, Map<String, String> options) {
+        if (rows == null) {
+            return ExportResult.failure("No data to export");
+        }
+        
+        long startTime = System.currentTimeMillis();
+        isExporting = true;
+        long rowCount = 0;
+        boolean cancelled = false;
+        try (RowSink sink = RowSinks.open(target, options)) {
+            Iterator<String> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                if (!isExporting) {
+                    cancelled = true;
+                    break;
+                }
+                sink.write(iterator.next());
+                rowCount++;
+            }
+        } catch (Exception e) {
+            return recordFailure(e);
+        } finally {
+            isExporting = false;
+        }
+        if (cancelled) {
+            return recordCancellation("Export cancelled after " + rowCount + " rows");
+        }
+        String location = options.containsKey("path") ? options.get("path") : target;
+        return recordSuccess(location, rowCount, System.currentTimeMillis() - startTime);
+    }
+    
+    /**
+     * Generates rows and splits them over one file per partition in a single pass.
+     * The partition expression of the settings may refer to the rendered value or to the slot values of the generator.
+     * 
+     * @param generator The generator to take the rows from
+     * @param rowCount Number of rows to generate
+     * @param settings Export settings, the file path is the base name of the partition files
+     * @return ExportResult with the total number of rows and bytes over all partitions
+     */
+    public ExportResult exportPartitioned(MainGenerator generator, long rowCount, ExportSettings settings) {
+        if (generator == null || rowCount <= 0) {
+            return ExportResult.failure("No data to export");
+        }
+        if (!validateExportSettings(settings) || !settings.isPartitioned()) {
+            return ExportResult.failure("Invalid export settings, file path or partition expression");
+        }
+        
+        long startTime = System.currentTimeMillis();
+        isExporting = true;
+        try {
+            settings.setFilePath(ensureCorrectExtension(settings.getFilePath(), settings.getFormat()));
+            return writePartitions(generator.generate().limit(rowCount).iterator(), generator.getValues(),
+                    settings, startTime);
+        } catch (Exception e) {
+            return recordFailure(e);
+        } finally {
+            isExporting = false;
+        }
+    }
+    
+    /**
+     * Exports the rows of a purely sequential template in the compact binary format.
+     * The file holds the template and the generator positions of every run instead of the rendered rows,
+     * it can be expanded back to text with {@link com.controller.export.CompactExportReader}.
+     * 
+     * @param configuration The template to generate
+     * @param rowCount Number of rows to export
+     * @param filePath The compact file to write
+     * @return ExportResult with the number of rows and the size of the compact file
+     */
+    public ExportResult exportCompact(GeneratorConfiguration configuration, long rowCount, String filePath) {
+        if (configuration == null || rowCount <= 0) {
+            return ExportResult.failure("No data to export");
+        }
+        if (filePath == null || filePath.trim().isEmpty()) {
+            return ExportResult.failure("Invalid export settings, file path is missing");
+        }
+        
+        long startTime = System.currentTimeMillis();
+        isExporting = true;
+        try (CompactExportWriter writer = new CompactExportWriter(Paths.get(filePath))) {
+            writer.write(writer.addTemplate(configuration), rowCount);
+        } catch (Exception e) {
+            return recordFailure(e);
+        } finally {
+            isExporting = false;
+        }
+        return recordSuccess(filePath, rowCount, System.currentTimeMillis() - startTime);
+    }
+    
+    /**
+     * Exports the rows of a template with separate generate, render and write stages that run at the same time,
+     * see {@link GenerationPipeline}. Rows of positionable templates are generated on several threads,
+     * the file is written in the order of the template. {@link #cancelExport()} stops the workers before the next batch.
+     * 
+     * @param plan The compiled template, see {@link com.controller.InputProcessor#compile}
+     * @param rowCount Number of rows to export
+     * @param settings Export settings
+     * @param threads Number of generator and of renderer threads
+     * @return ExportResult with success/failure information
+     */
+    public ExportResult exportPipelined(GenerationPlan plan, long rowCount, ExportSettings settings, int threads) {
+        if (plan == null || rowCount <= 0) {
+            return ExportResult.failure("No data to export");
+        }
+        if (!validateExportSettings(settings) || settings.isPartitioned()) {
+            return ExportResult.failure("Invalid export settings or file path");
+        }
+        
+        long startTime = System.currentTimeMillis();
+        isExporting = true;
+        try {
+            String filePath = ensureCorrectExtension(settings.getFilePath(), settings.getFormat());
+            settings.setFilePath(filePath);
+            GenerationPipeline pipeline = new GenerationPipeline(threads, threads, GenerationPipeline.DEFAULT_BATCH_ROWS, true);
+            boolean appending = FormatRowWriter.isAppending(settings);
+            long written;
+            try (OutputStream out = FormatRowWriter.openStream(settings)) {
+                written = pipeline.run(plan, 0, rowCount, RowRenderer.forSettings(settings),
+                        Charset.forName(settings.getEncoding()), out, !appending, () -> !isExporting);
+            }
+            if (written < rowCount) {
+                return recordCancellation("Export cancelled after " + written + " rows");
+            }
+            return recordSuccess(filePath, rowCount, System.currentTimeMillis() - startTime);
+        } catch (Exception e) {
+            return recordFailure(e);
+        } finally {
+            isExporting = false;
+        }
+    }
+    
+    /**
+     * Exports the rows of a template with a checkpoint every {@code checkpointRows} rows, see {@link ResumableExport}.
+     * With append mode an export that died is resumed from its last checkpoint instead of from the first row.
+     * {@link #cancelExport()} stops the export at its next checkpoint, which is kept so it can be resumed.
+     * 
+     * @param plan The compiled template, see {@link com.controller.InputProcessor#compile}
+     * @param rowCount Total number of rows of the export
+     * @param settings Export settings
+     * @param checkpointRows Number of rows between two checkpoints
+     * @return ExportResult with the number of rows written by this call
+     */
+    public ExportResult exportResumable(GenerationPlan plan, long rowCount, ExportSettings settings, long checkpointRows) {
+        if (plan == null || rowCount <= 0) {
+            return ExportResult.failure("No data to export");
+        }
+        if (!validateExportSettings(settings) || settings.isPartitioned()) {
+            return ExportResult.failure("Invalid export settings or file path");
+        }
+        
+        long startTime = System.currentTimeMillis();
+        isExporting = true;
+        try {
+            String filePath = ensureCorrectExtension(settings.getFilePath(), settings.getFormat());
+            settings.setFilePath(filePath);
+            ResumableExport export = new ResumableExport(plan, settings, checkpointRows);
+            export.setStopCondition(() -> !isExporting);
+            long written = export.run(rowCount);
+            if (export.isStopped()) {
+                return recordCancellation("Export cancelled at its checkpoint after " + written
+                        + " rows, export again in append mode to resume it");
+            }
+            return recordSuccess(filePath, written, System.currentTimeMillis() - startTime);
+        } catch (Exception e) {
+            return recordFailure(e);
+        } finally {
+            isExporting = false;
+        }
+    }
+    
+    /**
+     * Writes the rows to their partition files. The slot values are read after every row,
+     * so they always belong to the row that was just taken from the iterator.
+     * A cancelled export keeps the partition files written so far but is reported as cancelled.
+     */
+    private ExportResult writePartitions(Iterator<String> rows, Map<Integer, String> slots,
+                                         ExportSettings settings, long startTime) throws IOException {
+        long rowCount = 0;
+        boolean cancelled = false;
+        List<Path> paths;
+        try (PartitionedSink sink = new PartitionedSink(settings)) {
+            while (rows.hasNext()) {
+                if (!isExporting) {
+                    cancelled = true;
+                    break;
+                }
+                sink.write(rows.next(), slots);
+                rowCount++;
+            }
+            sink.flush();
+            paths = sink.getPartitionPaths();
+        }
+        if (cancelled) {
+            return recordCancellation("Export cancelled after " + rowCount + " rows");
+        }
+        
+        long fileSize = 0;
+        for (Path path : paths) {
+            fileSize += path.toFile().length();
+        }
+        ExportResult result = ExportResult.success(settings.getFilePath(), rowCount, fileSize,
+                System.currentTimeMillis() - startTime);
+        exportHistory.put(generateHistoryKey(settings.getFilePath()), result);
+        Metrics.export().recordExport(rowCount, fileSize);
+        return result;
+    }
+    
+    /**
+     * Builds the result of a successful export and stores it in the history.
+     */
+    private ExportResult recordSuccess(String filePath, long recordCount, long exportTime) {
+        File file = new File(filePath);
+        long fileSize = file.exists() ? file.length() : 0;
+        
+        ExportResult result = ExportResult.success(filePath, recordCount, fileSize, exportTime);
+        exportHistory.put(generateHistoryKey(filePath), result);
+        Metrics.export().recordExport(recordCount, fileSize);
+        return result;
+    }
+    
+    /**
+     * Builds the result of a failed export and counts it in the metrics.
+     */
+    private ExportResult recordFailure(Exception e) {
+        Metrics.export().recordFailure();
+        return ExportResult.failure("Export error: " + e.getMessage());
+    }
+    
+    /**
+     * Builds the result of an export that was stopped by {@link #cancelExport()}, it is counted as failed
+     * and not stored in the history.
+     */
+    private ExportResult recordCancellation(String message) {
+        Metrics.export().recordFailure();
+        return ExportResult.failure(message);
+    }
+    
+    /**
+     * Closes sinks that were opened before an export failed.
+     */
+    private void closeQuietly(List<RowSink> sinks) {
+        for (RowSink sink : sinks) {
+            try {
+                sink.close();
+            } catch (IOException e) {
+                System.err.println("Error closing export target: " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Exports data asynchronously.
+     * 
+     * @param data The data to export
+     * @param settings Export settings
+     * @return CompletableFuture containing the ExportResult
+     */
+    public CompletableFuture<ExportResult> exportDataAsync(List<String> data, ExportSettings settings) {
+        return CompletableFuture.supplyAsync(() -> exportData(data, settings), executor);
+    }
+    
+    /**
+     * Progress callback interface for batch exports.
+     */
+    public interface ProgressCallback {
+        void onProgress(int progressPercent, int exportedCount, int totalCount);
+    }
+    
+    /**
+     * Ensures the file path has the correct extension for the format.
+     * 
+     * @param filePath The original file path
+     * @param format The export format
+     * @return File path with correct extension
+     */
+    private String ensureCorrectExtension(String filePath, ExportFormat format) {
+        if (filePath == null || format == null) {
+            return filePath;
+        }
+        
+        String extension = format.getExtension();
+        if (!filePath.toLowerCase().endsWith(extension)) {
+            // Remove any existing extension and add the correct one
+            int lastDot = filePath.lastIndexOf('.');
+            if (lastDot > 0 && lastDot > filePath.lastIndexOf(File.separator)) {
+                filePath = filePath.substring(0, lastDot);
+            }
+            filePath += extension;
+        }
+        
+        return filePath;
+    }
+    
+    /**
+     * Generates a unique key for export history.
+     * 
+     * @param filePath The file path
+     * @return History key
+     */
+    private String generateHistoryKey(String filePath) {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        String fileName = new File(filePath).getName();
+        return timestamp + "_" + fileName;
+    }
+    
+    /**
+     * Gets the export history.
+     * 
+     * @return Map of export history entries
+     */
+    public Map<String, ExportResult> getExportHistory() {
+        return new HashMap<>(exportHistory);
+    }
+    
+    /**
+     * Clears the export history.
+     */
+    public void clearExportHistory() {
+        exportHistory.clear();
+    }
+    
+    /**
+     * Checks if an export operation is currently in progress.
+     * 
+     * @return true if exporting, false otherwise
+     */
+    public boolean isExporting() {
+        return isExporting;
+    }
+    
+    /**
+     * Cancels any ongoing export operation.
+     */
+    public void cancelExport() {
+        isExporting = false;
+        // Additional cancellation logic could be added here
+    }
+    
+    /**
+     * Creates default export settings for a given format.
+     * 
+     * @param format The export format
+     * @param filePath The file path
+     * @return Default export settings
+     */
+    public ExportSettings createDefaultSettings(ExportFormat format, String filePath) {
+        ExportSettings settings = new ExportSettings();
+        settings.setFormat(format);
+        settings.setFilePath(filePath);
+        
+        // Format-specific defaults
+        switch (format) {
+            case CSV:
+                settings.setDelimiter(",");
+                settings.setIncludeHeaders(true);
+                break;
+            case TXT:
+                settings.setDelimiter("\n");
+                settings.setIncludeHeaders(false);
+                break;
+            case JSON:
+            case NDJSON:
+            case SQL:
+            case XML:
+                settings.setIncludeHeaders(false);
+                break;
+        }
+        
+        return settings;
+    }
+    
+    /**
+     * Validates export settings.
+     * 
+     * @param settings The settings to validate
+     * @return true if valid, false otherwise
+     */
+    public boolean validateExportSettings(ExportSettings settings) {
+        if (settings == null) {
+            return false;
+        }
+        
+        if (settings.getFilePath() == null || settings.getFilePath().trim().isEmpty()) {
+            return false;
+        }
+        
+        if (settings.getFormat() == null) {
+            return false;
+        }
+        
+        if (settings.getBatchSize() <= 0) {
+            return false;
+        }
+        
+        if (settings.isPartitioned()) {
+            try {
+                PartitionExpression.parse(settings.getPartitionExpression());
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+            return settings.getMaxOpenFiles() > 0;
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Gets available export formats.
+     * 
+     * @return Array of available export formats
+     */
+    public ExportFormat[] getAvailableFormats() {
+        return ExportFormat.values();
+    }
+    
+    /**
+     * Gets the recommended file extension for a format.
+     * 
+     * @param format The export format
+     * @return Recommended file extension
+     */
+    public String getRecommendedExtension(ExportFormat format) {
+        return format != null ? format.getExtension() : ".txt";
+    }
+    
+    /**
+     * Estimates the file size for the given data and format.
+     * 
+     * @param data The data to export
+     * @param format The export format
+     * @return Estimated file size in bytes
+     */
+    public long estimateFileSize(List<String> data, ExportFormat format) {
+        if (data == null || data.isEmpty()) {
+            return 0;
+        }
+        
+        long totalChars = data.stream().mapToLong(String::length).sum();
+        
+        // Add overhead based on format
+        switch (format) {
+            case CSV:
+                // Add commas and newlines
+                return totalChars + (data.size() * 2); // rough estimate
+            case JSON:
+            case NDJSON:
+                // Add JSON structure overhead
+                return totalChars + (data.size() * 20); // rough estimate for JSON structure
+            case SQL:
+                // Add insert statement overhead
+                return totalChars + (data.size() * 50L); // rough estimate for INSERT statements
+            case XML:
+                // Add XML tag overhead
+                return totalChars + (data.size() * 50); // rough estimate for XML tags
+            case TXT:
+            default:
+                // Add newlines
+                return totalChars + data.size();
+        }
+    }
+    
+    /**
+     * Shuts down the export manager and releases resources.
+     */
+    public void shutdown() {
+        isExporting = false;
+        if (executor != null && !executor.isShutdown()) {
+            executor.shutdown();
+        }
+    }
+}
\ No newline at end of file
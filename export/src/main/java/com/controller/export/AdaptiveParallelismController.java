@@ -0,0 +1,310 @@
+package com.controller.export;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Tunes the number of generator workers and the number of rows per batch of a {@link GenerationPipeline} while it
+ * runs. Templates of sequential generators scale with the workers and like large batches, templates with heavy tools
+ * are generated by a single worker and only the batch size matters for them, so no fixed setting suits both.
+ * <p>
+ * The pipeline reports the rows it wrote and the depth of its queue of generated batches once per interval. The
+ * controller climbs towards the throughput peak one setting at a time: it tries a step in one direction, keeps it
+ * when the throughput rises by more than {@value #TOLERANCE_PERCENT}% and otherwise returns to the best settings
+ * and tries the other direction, then the other setting. When no step helps the settings are kept for a while and the
+ * search starts again, in case the template or the machine behaves differently later in the run. A full queue means
+ * the generators are ahead of the renderers and the writer, so the first step of the workers is then downwards.
+ * <p>
+ * A controller belongs to a single run, it is not safe for use by several threads.
+ */
+public class AdaptiveParallelismController {
+    public static final long DEFAULT_INTERVAL_MILLIS = 250;
+    public static final int DEFAULT_MIN_BATCH_ROWS = 256;
+    public static final int DEFAULT_MAX_BATCH_ROWS = 64 * 1024;
+    static final int TOLERANCE_PERCENT = 3;
+    /** Number of intervals the best settings are kept once no step improves them */
+    static final int HOLD_INTERVALS = 20;
+
+    /**
+     * The settings that can be tuned
+     */
+    private enum Setting { WORKERS, BATCH_ROWS }
+
+    private final int maxWorkers;
+    private final int minBatchRows;
+    private final int maxBatchRows;
+    private final long intervalNanos;
+    private final List<Sample> samples = new ArrayList<>();
+    private int workerLimit;
+    private int workers;
+    private int batchRows;
+    private int bestWorkers;
+    private int bestBatchRows;
+    private double bestThroughput;
+    private Setting setting = Setting.WORKERS;
+    private int workerDirection = 1;
+    private int batchDirection = 1;
+    /** Number of steps in a row that did not improve the throughput */
+    private int failures;
+    /** True while the settings in effect are a step away from the best settings */
+    private boolean probing;
+    private int hold;
+
+    /**
+     * Creates a controller with the default batch sizes and interval
+     * @param maxWorkers the largest number of generator workers
+     */
+    public AdaptiveParallelismController(int maxWorkers) {
+        this(maxWorkers, GenerationPipeline.DEFAULT_BATCH_ROWS, DEFAULT_MIN_BATCH_ROWS, DEFAULT_MAX_BATCH_ROWS,
+                DEFAULT_INTERVAL_MILLIS);
+    }
+
+    /**
+     * @param maxWorkers       the largest number of generator workers
+     * @param initialBatchRows number of rows per batch to start with
+     * @param minBatchRows     the smallest number of rows per batch
+     * @param maxBatchRows     the largest number of rows per batch
+     * @param intervalMillis   the time between two measurements
+     */
+    public AdaptiveParallelismController(int maxWorkers, int initialBatchRows, int minBatchRows, int maxBatchRows,
+                                         long intervalMillis) {
+        if (maxWorkers < 1 || minBatchRows < 1 || minBatchRows > maxBatchRows || intervalMillis < 1) {
+            throw new IllegalArgumentException("The number of workers, the batch sizes and the interval must be "
+                    + "positive and the smallest batch size must not exceed the largest");
+        }
+        if (initialBatchRows < minBatchRows || initialBatchRows > maxBatchRows) {
+            throw new IllegalArgumentException("The initial batch size must be between " + minBatchRows
+                    + " and " + maxBatchRows + ", was " + initialBatchRows);
+        }
+        this.maxWorkers = maxWorkers;
+        this.minBatchRows = minBatchRows;
+        this.maxBatchRows = maxBatchRows;
+        this.intervalNanos = intervalMillis * 1_000_000;
+        this.batchRows = initialBatchRows;
+        start(maxWorkers);
+    }
+
+    /**
+     * Starts the search over, half way up the workers
+     * @param workerLimit the number of workers the run can use, 1 for templates that are generated sequentially
+     */
+    void start(int workerLimit) {
+        this.workerLimit = Math.max(1, Math.min(maxWorkers, workerLimit));
+        this.workers = (this.workerLimit + 1) / 2;
+        this.bestWorkers = workers;
+        this.bestBatchRows = batchRows;
+        this.bestThroughput = 0;
+        this.setting = this.workerLimit > 1 ? Setting.WORKERS : Setting.BATCH_ROWS;
+        this.failures = 0;
+        this.probing = false;
+        this.hold = 0;
+        samples.clear();
+    }
+
+    /**
+     * Records the throughput of the settings in effect and moves to the next settings to measure
+     * @param rows          number of rows written in the interval
+     * @param nanos         length of the interval
+     * @param queueDepth    number of generated batches waiting for a renderer at the end of the interval
+     * @param queueCapacity number of batches the queue can hold
+     * @return true if the settings have changed
+     */
+    boolean update(long rows, long nanos, int queueDepth, int queueCapacity) {
+        int previousWorkers = workers;
+        int previousBatchRows = batchRows;
+        double throughput = nanos <= 0 ? 0 : rows * 1e9 / nanos;
+        samples.add(new Sample(workers, batchRows, throughput, queueDepth));
+
+        if (!probing) {
+            // the best settings were measured again, the machine may have become faster or slower
+            bestThroughput = throughput;
+            if (hold > 0) {
+                hold--;
+            } else {
+                if (setting == Setting.WORKERS && failures == 0) {
+                    // a fresh climb of the workers starts in the direction the queue points to
+                    if (queueDepth * 4 >= queueCapacity * 3) {
+                        workerDirection = -1;
+                    } else if (queueDepth * 4 <= queueCapacity) {
+                        workerDirection = 1;
+                    }
+                }
+                probe();
+            }
+        } else if (throughput > bestThroughput * (1 + TOLERANCE_PERCENT / 100.0)) {
+            bestWorkers = workers;
+            bestBatchRows = batchRows;
+            bestThroughput = throughput;
+            failures = 0;
+            probing = false;
+            probe();
+        } else {
+            workers = bestWorkers;
+            batchRows = bestBatchRows;
+            probing = false;
+            reject();
+        }
+        return workers != previousWorkers || batchRows != previousBatchRows;
+    }
+
+    /**
+     * Takes a step away from the best settings, or holds them when no step is possible
+     */
+    private void probe() {
+        for (int attempt = 0; attempt < 4 && hold == 0; attempt++) {
+            if (step()) {
+                probing = true;
+                return;
+            }
+            reject();
+        }
+    }
+
+    /**
+     * Moves the setting that is being tuned one step in its direction
+     * @return false if the setting is already at its bound
+     */
+    private boolean step() {
+        if (setting == Setting.WORKERS) {
+            int next = workers + workerDirection * Math.max(1, workers / 4);
+            next = Math.max(1, Math.min(workerLimit, next));
+            if (next == workers) {
+                return false;
+            }
+            workers = next;
+        } else {
+            int next = batchDirection > 0 ? (int) Math.min(maxBatchRows, 2L * batchRows) : Math.max(minBatchRows, batchRows / 2);
+            if (next == batchRows) {
+                return false;
+            }
+            batchRows = next;
+        }
+        return true;
+    }
+
+    /**
+     * Turns around after a step that did not help, and moves on to the other setting after both directions failed.
+     * When no step of either setting helps the best settings are held for a while.
+     */
+    private void reject() {
+        failures++;
+        if (setting == Setting.WORKERS) {
+            workerDirection = -workerDirection;
+        } else {
+            batchDirection = -batchDirection;
+        }
+        if (failures % 2 == 0 && workerLimit > 1) {
+            setting = setting == Setting.WORKERS ? Setting.BATCH_ROWS : Setting.WORKERS;
+        }
+        if (failures >= (workerLimit > 1 ? 4 : 2)) {
+            failures = 0;
+            hold = HOLD_INTERVALS;
+        }
+    }
+
+    /**
+     * @return the number of generator workers to run now
+     */
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * @return the number of rows per batch to claim now
+     */
+    public int getBatchRows() {
+        return batchRows;
+    }
+
+    /**
+     * @return the number of workers with the highest measured throughput
+     */
+    public int getBestWorkers() {
+        return bestWorkers;
+    }
+
+    /**
+     * @return the number of rows per batch with the highest measured throughput
+     */
+    public int getBestBatchRows() {
+        return bestBatchRows;
+    }
+
+    /**
+     * @return the last measured throughput of the best settings, in rows per second
+     */
+    public double getBestThroughput() {
+        return bestThroughput;
+    }
+
+    /**
+     * @return the largest number of generator workers
+     */
+    public int getMaxWorkers() {
+        return maxWorkers;
+    }
+
+    /**
+     * @return the time between two measurements in nanoseconds
+     */
+    public long getIntervalNanos() {
+        return intervalNanos;
+    }
+
+    /**
+     * @return every measurement of the run in order
+     */
+    public List<Sample> getSamples() {
+        return Collections.unmodifiableList(samples);
+    }
+
+    /**
+     * @return a one line summary of the chosen settings
+     */
+    public String describe() {
+        return String.format(Locale.ROOT, "Adaptive: %d of %d generator workers, %d rows per batch, "
+                        + "%.0f rows/s after %d measurements", bestWorkers, workerLimit, bestBatchRows, bestThroughput, samples.size());
+    }
+
+    /**
+     * The throughput of one interval and the settings it was measured with
+     */
+    public static final class Sample {
+        private final int workers;
+        private final int batchRows;
+        private final double rowsPerSecond;
+        private final int queueDepth;
+
+        Sample(int workers, int batchRows, double rowsPerSecond, int queueDepth) {
+            this.workers = workers;
+            this.batchRows = batchRows;
+            this.rowsPerSecond = rowsPerSecond;
+            this.queueDepth = queueDepth;
+        }
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public int getBatchRows() {
+            return batchRows;
+        }
+
+        public double getRowsPerSecond() {
+            return rowsPerSecond;
+        }
+
+        /**
+         * @return the throughput divided by the number of generator workers
+         */
+        public double getRowsPerSecondPerWorker() {
+            return rowsPerSecond / workers;
+        }
+
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.controller.export;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Bounded pool of character buffers. At most {@code maxBuffers} buffers are handed out at once,
+ * once the pool is exhausted the caller has to release a buffer before it can acquire a new one.
+ */
+public class BufferPool {
+    private final int bufferSize;
+    private final int maxBuffers;
+    private final Deque<StringBuilder> free;
+    private int allocated;
+
+    /**
+     * @param bufferSize capacity of every buffer in characters
+     * @param maxBuffers maximum number of buffers in use at the same time
+     */
+    public BufferPool(int bufferSize, int maxBuffers) {
+        if (bufferSize <= 0 || maxBuffers <= 0) {
+            throw new IllegalArgumentException("Buffer size and number of buffers must be positive");
+        }
+        this.bufferSize = bufferSize;
+        this.maxBuffers = maxBuffers;
+        this.free = new ArrayDeque<>();
+        this.allocated = 0;
+    }
+
+    /**
+     * @return an empty buffer, or null if all buffers are in use
+     */
+    public StringBuilder acquire() {
+        StringBuilder buffer = free.poll();
+        if (buffer != null) {
+            return buffer;
+        }
+        if (allocated < maxBuffers) {
+            allocated++;
+            return new StringBuilder(bufferSize);
+        }
+        return null;
+    }
+
+    /**
+     * Returns a buffer to the pool
+     * @param buffer the buffer that is no longer used
+     */
+    public void release(StringBuilder buffer) {
+        buffer.setLength(0);
+        free.push(buffer);
+    }
+
+    /**
+     * @return capacity of every buffer in characters
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * @return number of buffers that are currently handed out
+     */
+    public int getBuffersInUse() {
+        return allocated - free.size();
+    }
+}
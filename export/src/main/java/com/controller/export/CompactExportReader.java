@@ -0,0 +1,357 @@
+package com.controller.export;
+
+import com.controller.InputProcessor;
+import com.controller.generators.MainGenerator;
+import com.model.GeneratorConfiguration;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodes files written by {@link CompactExportWriter}.
+ * The file is memory mapped and only the run headers are read when it is opened, the exception lists are decoded
+ * when a run is used. Rows are rebuilt by putting the generator of the template at the cursors of the run,
+ * rejected attempts are skipped without running the tools again.
+ * <p>
+ * A reader keeps one generator per template and is not thread safe.
+ */
+public class CompactExportReader implements Closeable {
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final List<GeneratorConfiguration> templates;
+    private final List<MainGenerator> generators;
+    private final List<Run> runs;
+    private final long rowCount;
+    private Run decodedRun;
+    private long[] decodedOffsets;
+
+    private CompactExportReader(FileChannel channel, ByteBuffer buffer) throws IOException {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.templates = new ArrayList<>();
+        this.generators = new ArrayList<>();
+        this.runs = new ArrayList<>();
+        this.rowCount = parse();
+    }
+
+    /**
+     * Opens a compact file and reads its templates and run headers
+     * @param file the compact file
+     * @return the reader
+     * @throws IOException if the file can not be read or is not a valid compact file
+     */
+    public static CompactExportReader open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Compact file is too large to be mapped: " + file);
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new CompactExportReader(channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads all records of the file
+     * @return total number of rows
+     */
+    private long parse() throws IOException {
+        ByteBuffer in = buffer.duplicate();
+        if (in.remaining() < 5 || in.getInt() != CompactFormat.MAGIC) {
+            throw new IOException("Not a compact export file");
+        }
+        int version = in.get();
+        if (version != CompactFormat.VERSION) {
+            throw new IOException("Unsupported compact file version " + version);
+        }
+        List<Map<Integer, String>> previousCursors = new ArrayList<>();
+        long rows = 0;
+        while (true) {
+            if (!in.hasRemaining()) {
+                throw new IOException("Compact file is truncated, the end marker is missing");
+            }
+            int tag = in.get();
+            if (tag == CompactFormat.TAG_END) {
+                return rows;
+            } else if (tag == CompactFormat.TAG_TEMPLATE) {
+                templates.add(readTemplate(in));
+                generators.add(null);
+                previousCursors.add(new HashMap<>());
+            } else if (tag == CompactFormat.TAG_RUN) {
+                Run run = readRun(in, rows, previousCursors);
+                runs.add(run);
+                rows += run.rowCount;
+            } else {
+                throw new IOException("Unknown record " + tag + " in compact file");
+            }
+        }
+    }
+
+    private GeneratorConfiguration readTemplate(ByteBuffer in) throws IOException {
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setTemplateFormat(CompactFormat.readString(in));
+        int generatorCount = CompactFormat.readVarInt(in);
+        List<GeneratorConfiguration.GeneratorConfig> generatorConfigs = new ArrayList<>(generatorCount);
+        for (int index = 0; index < generatorCount; index++) {
+            String type = CompactFormat.readString(in);
+            int propertyCount = CompactFormat.readVarInt(in);
+            Map<String, String> properties = new HashMap<>();
+            for (int i = 0; i < propertyCount; i++) {
+                properties.put(CompactFormat.readString(in), CompactFormat.readString(in));
+            }
+            generatorConfigs.add(new GeneratorConfiguration.GeneratorConfig(index, type, properties, "EVALUATION".equals(type)));
+        }
+        configuration.setGenerators(generatorConfigs);
+        return configuration;
+    }
+
+    private Run readRun(ByteBuffer in, long firstRow, List<Map<Integer, String>> previousCursors) throws IOException {
+        int templateId = CompactFormat.readVarInt(in);
+        if (templateId >= templates.size()) {
+            throw new IOException("Run refers to unknown template " + templateId);
+        }
+        long rows = CompactFormat.readVarLong(in);
+        long attempts = CompactFormat.readVarLong(in);
+        int cursorCount = CompactFormat.readVarInt(in);
+        Map<Integer, String> previous = previousCursors.get(templateId);
+        Map<Integer, String> cursors = new LinkedHashMap<>();
+        for (int i = 0; i < cursorCount; i++) {
+            int slot = CompactFormat.readVarInt(in);
+            int shared = CompactFormat.readVarInt(in);
+            String suffix = CompactFormat.readString(in);
+            String before = previous.get(slot);
+            if (shared > 0 && (before == null || before.length() < shared)) {
+                throw new IOException("Cursor of slot " + slot + " refers to a missing previous value");
+            }
+            String value = shared == 0 ? suffix : before.substring(0, shared) + suffix;
+            cursors.put(slot, value);
+            previous.put(slot, value);
+        }
+        int mode = in.get();
+        int exceptionCount = CompactFormat.readVarInt(in);
+        int exceptionLength = CompactFormat.readVarInt(in);
+        if (exceptionLength > in.remaining()) {
+            throw new IOException("Unexpected end of compact file");
+        }
+        int exceptionPosition = in.position();
+        in.position(exceptionPosition + exceptionLength);
+
+        boolean consistent = mode == CompactFormat.EXCEPTIONS_REJECTED
+                ? rows == attempts - exceptionCount
+                : mode == CompactFormat.EXCEPTIONS_ACCEPTED && rows == exceptionCount;
+        if (!consistent || rows < 0) {
+            throw new IOException("Run at row " + firstRow + " is corrupt");
+        }
+        return new Run(templateId, firstRow, rows, attempts, Collections.unmodifiableMap(cursors),
+                mode, exceptionCount, exceptionPosition);
+    }
+
+    /**
+     * Writes every row of the file to a sink, the sink is not closed
+     * @param sink the sink that receives the rows
+     * @return number of rows written
+     * @throws IOException if the sink fails or the file does not match its templates
+     */
+    public long expand(RowSink sink) throws IOException {
+        long written = 0;
+        for (Run run : runs) {
+            MainGenerator generator = generatorFor(run);
+            long[] offsets = exceptionsOf(run);
+            long attempt = 0;
+            if (run.mode == CompactFormat.EXCEPTIONS_REJECTED) {
+                for (long rejectedAt : offsets) {
+                    written += emit(generator, sink, rejectedAt - attempt, run);
+                    generator.skipAttempts(1);
+                    attempt = rejectedAt + 1;
+                }
+                written += emit(generator, sink, run.attempts - attempt, run);
+            } else {
+                for (long acceptedAt : offsets) {
+                    if (acceptedAt > attempt) {
+                        generator.skipAttempts(acceptedAt - attempt);
+                    }
+                    written += emit(generator, sink, 1, run);
+                    attempt = acceptedAt + 1;
+                }
+            }
+        }
+        sink.flush();
+        return written;
+    }
+
+    private long emit(MainGenerator generator, RowSink sink, long count, Run run) throws IOException {
+        for (long i = 0; i < count; i++) {
+            String row = generator.tryNext();
+            if (row == null) {
+                throw new IOException("Run at row " + run.firstRow + " does not match its template");
+            }
+            sink.write(row);
+        }
+        return count;
+    }
+
+    /**
+     * Rebuilds a single row without generating the rows before it
+     * @param index position of the row in the file, starting at 0
+     * @return the row
+     * @throws IOException if the file does not match its template
+     */
+    public String row(long index) throws IOException {
+        if (index < 0 || index >= rowCount) {
+            throw new IndexOutOfBoundsException("Row " + index + " is outside of the " + rowCount + " rows of the file");
+        }
+        Run run = runOf(index);
+        long rowInRun = index - run.firstRow;
+        long[] offsets = exceptionsOf(run);
+        long attempt;
+        if (run.mode == CompactFormat.EXCEPTIONS_ACCEPTED) {
+            attempt = offsets[(int) rowInRun];
+        } else {
+            attempt = rowInRun;
+            for (long rejectedAt : offsets) {
+                if (rejectedAt > attempt) {
+                    break;
+                }
+                attempt++;
+            }
+        }
+        MainGenerator generator = generatorFor(run);
+        if (attempt > 0) {
+            generator.skipAttempts(attempt);
+        }
+        String row = generator.tryNext();
+        if (row == null) {
+            throw new IOException("Row " + index + " does not match its template");
+        }
+        return row;
+    }
+
+    /**
+     * Binary search for the run that contains a row
+     */
+    private Run runOf(long index) {
+        int low = 0;
+        int high = runs.size() - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (runs.get(middle).firstRow <= index) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return runs.get(low);
+    }
+
+    /**
+     * @return the generator of the template of the run, positioned at the start of the run
+     */
+    private MainGenerator generatorFor(Run run) {
+        MainGenerator generator = generators.get(run.templateId);
+        if (generator == null) {
+            generator = InputProcessor.fromConfiguration(templates.get(run.templateId)).getMainGenerator();
+            generators.set(run.templateId, generator);
+        }
+        generator.restoreCursors(run.cursors, 0);
+        return generator;
+    }
+
+    /**
+     * Decodes the attempt offsets of a run, the last decoded run is cached for repeated random access
+     */
+    private long[] exceptionsOf(Run run) throws IOException {
+        if (run == decodedRun) {
+            return decodedOffsets;
+        }
+        ByteBuffer in = buffer.duplicate();
+        in.position(run.exceptionPosition);
+        long[] offsets = new long[run.exceptionCount];
+        long previous = -1;
+        for (int i = 0; i < offsets.length; i++) {
+            previous += CompactFormat.readVarLong(in) + 1;
+            if (previous >= run.attempts) {
+                throw new IOException("Run at row " + run.firstRow + " has an exception outside of the run");
+            }
+            offsets[i] = previous;
+        }
+        decodedRun = run;
+        decodedOffsets = offsets;
+        return offsets;
+    }
+
+    /**
+     * @return total number of rows in the file
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return number of runs in the file
+     */
+    public int getRunCount() {
+        return runs.size();
+    }
+
+    /**
+     * @return number of generation attempts the rows were taken from, including the rejected ones
+     */
+    public long getAttemptCount() {
+        long attempts = 0;
+        for (Run run : runs) {
+            attempts += run.attempts;
+        }
+        return attempts;
+    }
+
+    /**
+     * @return the templates stored in the file, in order of their id
+     */
+    public List<GeneratorConfiguration> getTemplates() {
+        return Collections.unmodifiableList(templates);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Header of a single run
+     */
+    private static final class Run {
+        private final int templateId;
+        private final long firstRow;
+        private final long rowCount;
+        private final long attempts;
+        private final Map<Integer, String> cursors;
+        private final int mode;
+        private final int exceptionCount;
+        private final int exceptionPosition;
+
+        private Run(int templateId, long firstRow, long rowCount, long attempts, Map<Integer, String> cursors,
+                    int mode, int exceptionCount, int exceptionPosition) {
+            this.templateId = templateId;
+            this.firstRow = firstRow;
+            this.rowCount = rowCount;
+            this.attempts = attempts;
+            this.cursors = cursors;
+            this.mode = mode;
+            this.exceptionCount = exceptionCount;
+            this.exceptionPosition = exceptionPosition;
+        }
+    }
+}
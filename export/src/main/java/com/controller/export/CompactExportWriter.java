@@ -0,0 +1,277 @@
+package com.controller.export;
+
+import com.controller.InputProcessor;
+import com.controller.generators.MainGenerator;
+import com.controller.subgenerators.ISeekableSubGenerator;
+import com.model.GeneratorConfiguration;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Writes generated rows in the compact binary format instead of as text.
+ * Only the positions of the sequential generators (the cursors) are stored per run, together with the attempts
+ * the tools rejected, so a billion consecutive keys take a few bytes instead of gigabytes.
+ * Templates must be seekable, see {@link MainGenerator#isSeekable()}.
+ * <p>
+ * Templates without tools whose values can not get shorter are stored as a single run per {@link #write(int, long)}
+ * without generating the rows in between, only the first and the last row are generated to check that the template
+ * produces values at all. Every row in between then has the length of its slots as well. Other templates are
+ * generated attempt by attempt, so rejected attempts are stored as such.
+ */
+public class CompactExportWriter implements Closeable {
+    private static final String IMPOSSIBLE = "The generator is unable to generate this template.Please recheck your input";
+
+    private final DataOutputStream out;
+    private final ByteArrayOutputStream exceptionBytes;
+    private final DataOutputStream exceptionOut;
+    private final List<TemplateState> templates;
+    private final int[] rejected;
+    private final int[] accepted;
+    private long rowCount;
+    private long runCount;
+    private boolean closed;
+
+    /**
+     * @param file the file to write, it is replaced if it exists
+     * @throws IOException if the file can not be created
+     */
+    public CompactExportWriter(Path file) throws IOException {
+        this(Files.newOutputStream(file));
+    }
+
+    /**
+     * @param stream the stream to write to, it is closed together with the writer
+     * @throws IOException if the file header can not be written
+     */
+    public CompactExportWriter(OutputStream stream) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(stream, 64 * 1024));
+        this.exceptionBytes = new ByteArrayOutputStream();
+        this.exceptionOut = new DataOutputStream(exceptionBytes);
+        this.templates = new ArrayList<>();
+        this.rejected = new int[CompactFormat.MAX_RUN_ATTEMPTS];
+        this.accepted = new int[CompactFormat.MAX_RUN_ATTEMPTS];
+        out.writeInt(CompactFormat.MAGIC);
+        out.writeByte(CompactFormat.VERSION);
+    }
+
+    /**
+     * Stores a template in the file and creates a generator for it that starts at its start values
+     * @param configuration the template format and its generators
+     * @return the id of the template, used to write its rows
+     * @throws IllegalArgumentException if the template is not purely sequential
+     * @throws IOException              if the template can not be written
+     */
+    public int addTemplate(GeneratorConfiguration configuration) throws IOException {
+        checkOpen();
+        MainGenerator generator = InputProcessor.fromConfiguration(configuration).getMainGenerator();
+        if (!generator.isSeekable()) {
+            throw new IllegalArgumentException("Compact export needs a purely sequential template: "
+                    + "sequential generators first, followed by tools that only use earlier slots");
+        }
+        List<GeneratorConfiguration.GeneratorConfig> generators = InputProcessor.orderedGenerators(configuration);
+
+        out.writeByte(CompactFormat.TAG_TEMPLATE);
+        CompactFormat.writeString(out, configuration.getTemplateFormat());
+        CompactFormat.writeVarLong(out, generators.size());
+        for (GeneratorConfiguration.GeneratorConfig config : generators) {
+            CompactFormat.writeString(out, config.getType());
+            Map<String, String> properties = new TreeMap<>(config.getProperties());
+            CompactFormat.writeVarLong(out, properties.size());
+            for (Map.Entry<String, String> property : properties.entrySet()) {
+                CompactFormat.writeString(out, property.getKey());
+                CompactFormat.writeString(out, property.getValue());
+            }
+        }
+        templates.add(new TemplateState(generator));
+        return templates.size() - 1;
+    }
+
+    /**
+     * Generates the next rows of a template and writes them as runs
+     * @param templateId id returned by {@link #addTemplate(GeneratorConfiguration)}
+     * @param rows       number of rows to write
+     * @return number of rows written
+     * @throws IllegalArgumentException if the template runs out of values or can not generate a row
+     * @throws IOException              if the file can not be written
+     */
+    public long write(int templateId, long rows) throws IOException {
+        checkOpen();
+        if (templateId < 0 || templateId >= templates.size()) {
+            throw new IllegalArgumentException("Unknown template id " + templateId);
+        }
+        if (rows <= 0) {
+            return 0;
+        }
+        TemplateState state = templates.get(templateId);
+        if (state.skippable) {
+            writeSkippedRun(templateId, state, rows);
+        } else {
+            long written = 0;
+            while (written < rows) {
+                written += writeGeneratedRun(templateId, state, rows - written);
+            }
+        }
+        rowCount += rows;
+        return rows;
+    }
+
+    /**
+     * Writes a run of a skippable template, every attempt is a row so the cursors can simply be skipped ahead
+     */
+    private void writeSkippedRun(int templateId, TemplateState state, long rows) throws IOException {
+        MainGenerator generator = state.generator;
+        Map<Integer, String> start = generator.getCursors();
+        if (generator.tryNext() == null) {
+            throw new IllegalArgumentException(IMPOSSIBLE);
+        }
+        if (rows > 1) {
+            generator.skipAttempts(rows - 2);
+            if (generator.tryNext() == null) {
+                throw new IllegalArgumentException(IMPOSSIBLE);
+            }
+        }
+        writeRun(templateId, state, start, rows, rows, CompactFormat.EXCEPTIONS_REJECTED, rejected, 0);
+    }
+
+    /**
+     * Generates attempts until enough rows are accepted or the run is full, and writes them as a single run
+     * @return number of rows in the run
+     */
+    private long writeGeneratedRun(int templateId, TemplateState state, long rows) throws IOException {
+        MainGenerator generator = state.generator;
+        Map<Integer, String> start = generator.getCursors();
+        int attempts = 0;
+        int rejectedCount = 0;
+        int acceptedCount = 0;
+        while (attempts < CompactFormat.MAX_RUN_ATTEMPTS && acceptedCount < rows) {
+            if (generator.tryNext() == null) {
+                rejected[rejectedCount++] = attempts;
+                if (++state.consecutiveRejections >= MainGenerator.MAX_ATTEMPTS_PER_ROW) {
+                    throw new IllegalArgumentException(IMPOSSIBLE);
+                }
+            } else {
+                accepted[acceptedCount++] = attempts;
+                state.consecutiveRejections = 0;
+            }
+            attempts++;
+        }
+        checkCursors(generator, start, attempts);
+
+        if (rejectedCount <= acceptedCount) {
+            writeRun(templateId, state, start, acceptedCount, attempts, CompactFormat.EXCEPTIONS_REJECTED, rejected, rejectedCount);
+        } else {
+            writeRun(templateId, state, start, acceptedCount, attempts, CompactFormat.EXCEPTIONS_ACCEPTED, accepted, acceptedCount);
+        }
+        return acceptedCount;
+    }
+
+    /**
+     * Makes sure the cursors moved exactly one step per attempt, otherwise the run could not be replayed
+     */
+    private void checkCursors(MainGenerator generator, Map<Integer, String> start, long attempts) {
+        Map<Integer, String> current = generator.getCursors();
+        for (Map.Entry<Integer, String> cursor : start.entrySet()) {
+            ISeekableSubGenerator subGenerator = (ISeekableSubGenerator) generator.getISubGenerators().get(cursor.getKey());
+            String expected = subGenerator.advance(cursor.getValue(), attempts);
+            if (!current.get(cursor.getKey()).equals(expected)) {
+                throw new IllegalArgumentException("The generator of slot " + cursor.getKey()
+                        + " did not advance once per attempt, the template can not be stored compactly");
+            }
+        }
+    }
+
+    private void writeRun(int templateId, TemplateState state, Map<Integer, String> cursors, long rows, long attempts,
+                          int mode, int[] offsets, int count) throws IOException {
+        out.writeByte(CompactFormat.TAG_RUN);
+        CompactFormat.writeVarLong(out, templateId);
+        CompactFormat.writeVarLong(out, rows);
+        CompactFormat.writeVarLong(out, attempts);
+        CompactFormat.writeVarLong(out, cursors.size());
+        for (Map.Entry<Integer, String> cursor : cursors.entrySet()) {
+            String value = cursor.getValue();
+            int shared = CompactFormat.sharedPrefix(state.previousCursors.get(cursor.getKey()), value);
+            CompactFormat.writeVarLong(out, cursor.getKey());
+            CompactFormat.writeVarLong(out, shared);
+            CompactFormat.writeString(out, value.substring(shared));
+        }
+        state.previousCursors.putAll(cursors);
+
+        exceptionBytes.reset();
+        int previous = -1;
+        for (int i = 0; i < count; i++) {
+            CompactFormat.writeVarLong(exceptionOut, offsets[i] - previous - 1L);
+            previous = offsets[i];
+        }
+        out.writeByte(mode);
+        CompactFormat.writeVarLong(out, count);
+        CompactFormat.writeVarLong(out, exceptionBytes.size());
+        exceptionBytes.writeTo(out);
+        runCount++;
+    }
+
+    private void checkOpen() throws IOException {
+        if (closed) {
+            throw new IOException("The compact writer has already been closed");
+        }
+    }
+
+    /**
+     * @return number of rows written so far over all templates
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return number of runs written so far
+     */
+    public long getRunCount() {
+        return runCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            out.writeByte(CompactFormat.TAG_END);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Generator and front coding state of a template
+     */
+    private static final class TemplateState {
+        private final MainGenerator generator;
+        /** no tools and no slot whose values can get shorter, so every attempt between two rows is a row as well */
+        private final boolean skippable;
+        private final Map<Integer, String> previousCursors;
+        private int consecutiveRejections;
+
+        private TemplateState(MainGenerator generator) {
+            this.generator = generator;
+            boolean skippable = generator.getCursors().size() == generator.getISubGenerators().size();
+            for (Integer slot : generator.getCursors().keySet()) {
+                skippable &= ((ISeekableSubGenerator) generator.getISubGenerators().get(slot)).isLengthNonDecreasing();
+            }
+            this.skippable = skippable;
+            this.previousCursors = new HashMap<>();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.controller.export;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Constants and variable length encodings shared by {@link CompactExportWriter} and {@link CompactExportReader}.
+ * <p>
+ * A compact file starts with {@link #MAGIC} and {@link #VERSION}, followed by records that each start with a tag:
+ * <ul>
+ *     <li>{@link #TAG_TEMPLATE} - template format and the type and properties of every generator, in slot order</li>
+ *     <li>{@link #TAG_RUN} - template id, row count, attempt count, the cursors the run starts from (front coded
+ *     against the previous run of the same template) and the delta coded offsets of the exceptional attempts</li>
+ *     <li>{@link #TAG_END} - end of the file</li>
+ * </ul>
+ */
+final class CompactFormat {
+    static final int MAGIC = 0x4D464443;
+    static final int VERSION = 1;
+
+    static final int TAG_END = 0;
+    static final int TAG_TEMPLATE = 1;
+    static final int TAG_RUN = 2;
+
+    /**
+     * The exception list holds the offsets of the rejected attempts
+     */
+    static final int EXCEPTIONS_REJECTED = 0;
+    /**
+     * The exception list holds the offsets of the accepted attempts, used when most attempts are rejected
+     */
+    static final int EXCEPTIONS_ACCEPTED = 1;
+
+    /**
+     * Maximum number of attempts in a run of a template with tools, bounds the work of a random access
+     */
+    static final int MAX_RUN_ATTEMPTS = 1 << 16;
+
+    private CompactFormat() {
+    }
+
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        long rest = value;
+        while ((rest & ~0x7FL) != 0) {
+            out.writeByte((int) ((rest & 0x7F) | 0x80));
+            rest >>>= 7;
+        }
+        out.writeByte((int) rest);
+    }
+
+    static long readVarLong(ByteBuffer in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            if (!in.hasRemaining()) {
+                throw new IOException("Unexpected end of compact file");
+            }
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed number in compact file");
+    }
+
+    static int readVarInt(ByteBuffer in) throws IOException {
+        long value = readVarLong(in);
+        if (value > Integer.MAX_VALUE) {
+            throw new IOException("Malformed number in compact file");
+        }
+        return (int) value;
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(ByteBuffer in) throws IOException {
+        int length = readVarInt(in);
+        if (length > in.remaining()) {
+            throw new IOException("Unexpected end of compact file");
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return number of leading characters both strings have in common
+     */
+    static int sharedPrefix(String previous, String value) {
+        if (previous == null) {
+            return 0;
+        }
+        int max = Math.min(previous.length(), value.length());
+        int i = 0;
+        while (i < max && previous.charAt(i) == value.charAt(i)) {
+            i++;
+        }
+        if (i > 0 && Character.isHighSurrogate(value.charAt(i - 1))) {
+            i--;
+        }
+        return i;
+    }
+}
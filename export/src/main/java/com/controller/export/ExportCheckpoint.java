@@ -0,0 +1,157 @@
+package com.controller.export;
+
+import com.utils.Parsers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The position of an export that can be resumed: the fingerprint of the plan, the number of rows written, the cursors
+ * of the generator and the length and CRC32 of the output at that row. It is stored as a small text file next to the
+ * export, one {@code key=value} pair per line.
+ * <pre>
+ *   fingerprint=9f86d0...
+ *   rows=200000
+ *   attempts=200000
+ *   offset=1400006
+ *   checksum=3632233996
+ *   cursor.0=300000
+ * </pre>
+ */
+public final class ExportCheckpoint {
+    private static final String FINGERPRINT = "fingerprint";
+    private static final String ROWS = "rows";
+    private static final String ATTEMPTS = "attempts";
+    private static final String OFFSET = "offset";
+    private static final String CHECKSUM = "checksum";
+    private static final String CURSOR_PREFIX = "cursor.";
+
+    private final String fingerprint;
+    private final long rows;
+    private final long attempts;
+    private final Map<Integer, String> cursors;
+    private final long offset;
+    private final long checksum;
+
+    /**
+     * @param fingerprint the fingerprint of the plan that generates the rows
+     * @param rows        number of rows written up to the checkpoint
+     * @param attempts    number of attempts the generator had made
+     * @param cursors     values of the slots that feed on themselves
+     * @param offset      length of the output at the checkpoint
+     * @param checksum    CRC32 of the output up to the offset
+     */
+    public ExportCheckpoint(String fingerprint, long rows, long attempts, Map<Integer, String> cursors,
+                            long offset, long checksum) {
+        this.fingerprint = fingerprint;
+        this.rows = rows;
+        this.attempts = attempts;
+        this.cursors = Collections.unmodifiableMap(new LinkedHashMap<>(cursors));
+        this.offset = offset;
+        this.checksum = checksum;
+    }
+
+    /**
+     * Writes the checkpoint to a temporary file, forces it to the disk and renames it over the previous checkpoint,
+     * so a crash leaves either the old or the new checkpoint and never half of one
+     * @param file the checkpoint file
+     * @throws IOException if the checkpoint could not be written
+     */
+    public void save(Path file) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            writer.write(FINGERPRINT + "=" + fingerprint + "\n");
+            writer.write(ROWS + "=" + rows + "\n");
+            writer.write(ATTEMPTS + "=" + attempts + "\n");
+            writer.write(OFFSET + "=" + offset + "\n");
+            writer.write(CHECKSUM + "=" + checksum + "\n");
+            for (Map.Entry<Integer, String> cursor : cursors.entrySet()) {
+                writer.write(CURSOR_PREFIX + cursor.getKey() + "=" + cursor.getValue() + "\n");
+            }
+        }
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        try {
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * @param file the checkpoint file
+     * @return the checkpoint
+     * @throws IOException              if the file can not be read
+     * @throws IllegalArgumentException if the file is not a complete checkpoint
+     */
+    public static ExportCheckpoint load(Path file) throws IOException {
+        Map<String, String> values = new LinkedHashMap<>();
+        Map<Integer, String> cursors = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.indexOf('=');
+                if (separator <= 0) {
+                    continue;
+                }
+                String key = line.substring(0, separator);
+                String value = line.substring(separator + 1);
+                if (key.startsWith(CURSOR_PREFIX)) {
+                    cursors.put(Parsers.parseAsInt(key, key.substring(CURSOR_PREFIX.length())), value);
+                } else {
+                    values.put(key, value);
+                }
+            }
+        }
+        return new ExportCheckpoint(required(values, FINGERPRINT), parseLong(values, ROWS), parseLong(values, ATTEMPTS),
+                cursors, parseLong(values, OFFSET), parseLong(values, CHECKSUM));
+    }
+
+    private static String required(Map<String, String> values, String key) {
+        String value = values.get(key);
+        if (value == null) {
+            throw new IllegalArgumentException("The checkpoint has no " + key);
+        }
+        return value;
+    }
+
+    private static long parseLong(Map<String, String> values, String key) {
+        return Parsers.parseAsLong(key, required(values, key));
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getAttempts() {
+        return attempts;
+    }
+
+    public Map<Integer, String> getCursors() {
+        return cursors;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public long getChecksum() {
+        return checksum;
+    }
+}
@@ -0,0 +1,41 @@
+package com.controller.export;
+
+import com.controller.business.DataExportManager.ExportFormat;
+import com.controller.business.DataExportManager.ExportSettings;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Export target {@code file}: writes the rows to a file in one of the export formats, or to partition files
+ */
+public class FileSinkProvider implements RowSinkProvider {
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public String getDescription() {
+        return "File in an export format. Options: path, format (TXT), encoding (UTF-8), headers (true), "
+                + "table (generated_data), append (false), partition";
+    }
+
+    @Override
+    public RowSink open(Map<String, String> options) throws IOException {
+        ExportSettings settings = new ExportSettings();
+        settings.setFilePath(RowSinks.requiredOption(options, "path"));
+        settings.setFormat(ExportFormat.valueOf(RowSinks.option(options, "format", "TXT").toUpperCase(Locale.ROOT)));
+        settings.setEncoding(RowSinks.option(options, "encoding", settings.getEncoding()));
+        settings.setIncludeHeaders(Boolean.parseBoolean(RowSinks.option(options, "headers", "true")));
+        settings.setTableName(RowSinks.option(options, "table", settings.getTableName()));
+        settings.setAppendMode(Boolean.parseBoolean(RowSinks.option(options, "append", "false")));
+        settings.setPartitionExpression(options.get("partition"));
+        if (settings.isPartitioned()) {
+            return new PartitionedSink(settings);
+        }
+        return FormatRowWriter.open(settings);
+    }
+}
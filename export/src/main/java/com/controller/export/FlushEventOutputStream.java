@@ -0,0 +1,32 @@
+package com.controller.export;
+
+import com.controller.jfr.ExportFlushEvent;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Stream under the writers of the export files that records every buffer written to the file as an
+ * {@link ExportFlushEvent}. When the event is not enabled it only adds a check to every buffer.
+ */
+class FlushEventOutputStream extends FilterOutputStream {
+    private final String path;
+
+    FlushEventOutputStream(OutputStream out, String path) {
+        super(out);
+        this.path = path;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        ExportFlushEvent event = new ExportFlushEvent();
+        event.begin();
+        out.write(bytes, offset, length);
+        if (event.shouldCommit()) {
+            event.path = path;
+            event.bytes = length;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.controller.export;
+
+import com.controller.business.DataExportManager.ExportSettings;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Sink that renders rows with a {@link RowRenderer} and writes them to a character stream.
+ */
+public class FormatRowWriter implements RowSink {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Writer writer;
+    private final RowRenderer renderer;
+    private final StringBuilder line;
+    private long rowCount;
+
+    /**
+     * Creates a writer and writes the header of the format
+     * @param writer   the stream the rendered rows are written to
+     * @param renderer the renderer for the export format
+     * @throws IOException if the header could not be written
+     */
+    public FormatRowWriter(Writer writer, RowRenderer renderer) throws IOException {
+        this(writer, renderer, true);
+    }
+
+    private FormatRowWriter(Writer writer, RowRenderer renderer, boolean writeHeader) throws IOException {
+        this.writer = writer;
+        this.renderer = renderer;
+        this.line = new StringBuilder(128);
+        this.rowCount = 0;
+        if (writeHeader) {
+            writer.write(renderer.header());
+        }
+    }
+
+    /**
+     * Opens the file configured in the export settings, honouring the append mode and encoding
+     * @param settings the export settings
+     * @return a writer for the configured file and format
+     * @throws IOException if the file could not be opened
+     */
+    public static FormatRowWriter open(ExportSettings settings) throws IOException {
+        boolean appending = isAppending(settings);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(openStream(settings),
+                Charset.forName(settings.getEncoding())), BUFFER_SIZE);
+        return new FormatRowWriter(writer, RowRenderer.forSettings(settings), !appending);
+    }
+
+    /**
+     * Opens the file configured in the export settings as a byte stream, honouring the append mode
+     * @param settings the export settings
+     * @return an unbuffered stream that records its flushes as events
+     * @throws IOException if the file could not be opened
+     */
+    public static OutputStream openStream(ExportSettings settings) throws IOException {
+        Path path = Paths.get(settings.getFilePath());
+        StandardOpenOption[] options = settings.isAppendMode()
+                ? new StandardOpenOption[]{StandardOpenOption.CREATE, StandardOpenOption.APPEND}
+                : new StandardOpenOption[]{StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE};
+        return new FlushEventOutputStream(Files.newOutputStream(path, options), settings.getFilePath());
+    }
+
+    /**
+     * @param settings the export settings
+     * @return true if rows are appended to a file that already has content, the header is then left out
+     * @throws IOException if the size of the file could not be read
+     */
+    public static boolean isAppending(ExportSettings settings) throws IOException {
+        Path path = Paths.get(settings.getFilePath());
+        return settings.isAppendMode() && Files.exists(path) && Files.size(path) > 0;
+    }
+
+    @Override
+    public void write(String row) throws IOException {
+        line.setLength(0);
+        renderer.render(line, row, rowCount);
+        writer.append(line);
+        rowCount++;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * @return the number of rows written so far
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            writer.write(renderer.footer(rowCount));
+        } finally {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,453 @@
+package com.controller.export;
+
+import com.controller.generators.GenerationPlan;
+import com.controller.generators.MainGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Generates the rows of a plan and writes them in an export format with three stages that run at the same time:
+ * generator workers produce batches of rows, renderer workers render and encode every batch into bytes and the
+ * calling thread writes the encoded batches. A blocking write therefore never stalls the generation.
+ * <p>
+ * The stages are connected by bounded queues and a fixed number of batches is in flight, so a slow disk holds the
+ * generators back instead of filling the memory. In ordered mode the batches are numbered and pass through a
+ * {@link ReorderBuffer} before they are written, so the output is in the order of the template and a generator does
+ * not start a batch that is more than the window ahead of the writer. In unordered mode every batch is written as soon
+ * as it is encoded, which keeps all workers busy when one batch is slow, but only suits line-oriented formats whose
+ * rows do not depend on their index. Positionable templates are generated by all generator workers,
+ * every worker skips its own cursor ahead to the batches it takes. Other templates are generated by one worker.
+ * <p>
+ * The workers run on virtual threads when the runtime has them and on a sized pool of platform threads otherwise.
+ * With an {@link AdaptiveParallelismController} the number of generator workers that take batches and the size of
+ * the batches are tuned while the pipeline runs, up to the given number of generators.
+ */
+public class GenerationPipeline {
+    public static final int DEFAULT_BATCH_ROWS = 4096;
+    private static final long POLL_MILLIS = 100;
+    private static final long IDLE_NANOS = 1_000_000;
+
+    private final int generators;
+    private final int renderers;
+    private final int batchRows;
+    private final boolean virtualThreads;
+    private final boolean ordered;
+    private AdaptiveParallelismController controller;
+
+    /**
+     * Creates a pipeline that writes the rows in order
+     * @param generators     maximum number of generator workers
+     * @param renderers      number of renderer workers
+     * @param batchRows      number of rows per batch
+     * @param virtualThreads true to run the workers on virtual threads when the runtime supports them
+     */
+    public GenerationPipeline(int generators, int renderers, int batchRows, boolean virtualThreads) {
+        this(generators, renderers, batchRows, virtualThreads, true);
+    }
+
+    /**
+     * @param generators     maximum number of generator workers
+     * @param renderers      number of renderer workers
+     * @param batchRows      number of rows per batch
+     * @param virtualThreads true to run the workers on virtual threads when the runtime supports them
+     * @param ordered        true to write the batches in the order of the template, false to write every batch
+     *                       as soon as it is ready
+     */
+    public GenerationPipeline(int generators, int renderers, int batchRows, boolean virtualThreads, boolean ordered) {
+        if (generators < 1 || renderers < 1 || batchRows < 1) {
+            throw new IllegalArgumentException("The number of workers and the batch size must be positive");
+        }
+        this.generators = generators;
+        this.renderers = renderers;
+        this.batchRows = batchRows;
+        this.virtualThreads = virtualThreads;
+        this.ordered = ordered;
+    }
+
+    /**
+     * @return true if the batches are written in the order of the template
+     */
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    /**
+     * @param controller tunes the generator workers and the batch size of the next runs, null for the fixed numbers
+     *                   of the constructor. The number of generators of the constructor remains the upper bound.
+     */
+    public void setController(AdaptiveParallelismController controller) {
+        this.controller = controller;
+    }
+
+    /**
+     * @return the controller that tunes the runs, or null
+     */
+    public AdaptiveParallelismController getController() {
+        return controller;
+    }
+
+    /**
+     * Generates rows {@code first} up to {@code first + rows} of the plan and writes them to the stream.
+     * The stream is flushed but not closed.
+     * @param plan        the plan of the template
+     * @param first       number of rows to leave out at the start of the template
+     * @param rows        number of rows to write
+     * @param renderer    the renderer of the export format
+     * @param charset     the encoding of the output
+     * @param out         the stream the encoded rows are written to
+     * @param writeHeader false to leave out the header, when rows are appended to an existing file
+     * @return the number of rows written
+     * @throws IOException              if the stream could not be written or a worker failed
+     * @throws IllegalArgumentException if the pipeline is unordered and the format is not line-oriented
+     */
+    public long run(GenerationPlan plan, long first, long rows, RowRenderer renderer, Charset charset,
+                    OutputStream out, boolean writeHeader) throws IOException {
+        return run(plan, first, rows, renderer, charset, out, writeHeader, () -> false);
+    }
+
+    /**
+     * Generates rows {@code first} up to {@code first + rows} of the plan and writes them to the stream, until the
+     * cancellation check returns true. The check is made before every batch and while the writer waits for one,
+     * a cancelled run stops the workers and leaves out the footer. The stream is flushed but not closed.
+     * @param plan        the plan of the template
+     * @param first       number of rows to leave out at the start of the template
+     * @param rows        number of rows to write
+     * @param renderer    the renderer of the export format
+     * @param charset     the encoding of the output
+     * @param out         the stream the encoded rows are written to
+     * @param writeHeader false to leave out the header, when rows are appended to an existing file
+     * @param cancelled   returns true once the run should stop
+     * @return the number of rows written, less than {@code rows} if the run was cancelled
+     * @throws IOException              if the stream could not be written or a worker failed
+     * @throws IllegalArgumentException if the pipeline is unordered and the format is not line-oriented
+     */
+    public long run(GenerationPlan plan, long first, long rows, RowRenderer renderer, Charset charset,
+                    OutputStream out, boolean writeHeader, BooleanSupplier cancelled) throws IOException {
+        if (first < 0 || rows < 0) {
+            throw new IllegalArgumentException("The first row and the number of rows must not be negative");
+        }
+        if (!ordered && !renderer.isLineOriented()) {
+            throw new IllegalArgumentException("The rows of " + renderer.getFormat() + " can only be written in order");
+        }
+        int generatorCount;
+        if (!plan.isPositionable()) {
+            generatorCount = 1;
+        } else if (controller != null) {
+            generatorCount = Math.min(generators, controller.getMaxWorkers());
+        } else {
+            generatorCount = (int) Math.max(1, Math.min(generators, (rows + batchRows - 1) / batchRows));
+        }
+        int window = 2 * (generatorCount + renderers);
+
+        Run run = new Run(plan, first, rows, window);
+        if (controller != null) {
+            controller.start(generatorCount);
+            run.apply(controller);
+        } else {
+            run.activeGenerators = generatorCount;
+            run.claimRows = batchRows;
+        }
+        ExecutorService workers = newExecutor(generatorCount + renderers);
+        try {
+            for (int i = 0; i < generatorCount; i++) {
+                int index = i;
+                workers.execute(() -> run.guard(() -> run.generate(index)));
+            }
+            for (int i = 0; i < renderers; i++) {
+                workers.execute(() -> run.guard(() -> run.render(renderer, charset)));
+            }
+
+            if (writeHeader) {
+                out.write(renderer.header().getBytes(charset));
+            }
+            long written = 0;
+            long intervalStart = System.nanoTime();
+            long intervalRows = 0;
+            while (written < rows && !cancelled.getAsBoolean()) {
+                Batch batch = run.takeEncoded(cancelled);
+                if (batch == null) {
+                    break;
+                }
+                out.write(batch.bytes);
+                written += batch.count;
+                if (controller != null) {
+                    intervalRows += batch.count;
+                    long now = System.nanoTime();
+                    if (now - intervalStart >= controller.getIntervalNanos()) {
+                        if (controller.update(intervalRows, now - intervalStart, run.generated.size(), window)) {
+                            run.apply(controller);
+                        }
+                        intervalStart = now;
+                        intervalRows = 0;
+                    }
+                }
+            }
+            if (written < rows) {
+                // cancelled, the workers are stopped below
+                out.flush();
+                return written;
+            }
+            out.write(renderer.footer(rows).getBytes(charset));
+            out.flush();
+            return rows;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * @return an executor with a virtual thread per task, or a pool of daemon platform threads before Java 21
+     */
+    private ExecutorService newExecutor(int threads) {
+        if (virtualThreads) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                // the runtime has no virtual threads, fall back on platform threads
+            }
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "generation-pipeline-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * A batch of consecutive rows, first as strings and then encoded
+     */
+    private static final class Batch {
+        private final long sequence;
+        /** The index of the first row of the batch in the output */
+        private final long offset;
+        private final int count;
+        private final String[] rows;
+        private final byte[] bytes;
+
+        private Batch(long sequence, long offset, int count, String[] rows, byte[] bytes) {
+            this.sequence = sequence;
+            this.offset = offset;
+            this.count = count;
+            this.rows = rows;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * A task of a worker that may be interrupted when the pipeline stops
+     */
+    private interface Stage {
+        void run() throws InterruptedException;
+    }
+
+    /**
+     * The shared state of one run of the pipeline
+     */
+    private final class Run {
+        private final GenerationPlan plan;
+        private final long first;
+        private final long rows;
+        private final BlockingQueue<Batch> generated;
+        /** The encoded batches in order, in ordered mode */
+        private final ReorderBuffer<Batch> reorder;
+        /** The permits of the window and the encoded batches in any order, in unordered mode */
+        private final Semaphore inFlight;
+        private final BlockingQueue<Batch> encoded;
+        private final Object claims = new Object();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private long nextSequence;
+        private long nextRow;
+        /** Number of generator workers that take batches, the others wait */
+        private volatile int activeGenerators;
+        /** Number of rows of the batches that are claimed from now on */
+        private volatile int claimRows;
+
+        private Run(GenerationPlan plan, long first, long rows, int window) {
+            this.plan = plan;
+            this.first = first;
+            this.rows = rows;
+            this.generated = new ArrayBlockingQueue<>(window);
+            this.reorder = ordered ? new ReorderBuffer<>(window) : null;
+            this.inFlight = ordered ? null : new Semaphore(window);
+            this.encoded = ordered ? null : new ArrayBlockingQueue<>(window);
+        }
+
+        /**
+         * Runs a stage and keeps the first failure of any worker, the writer reports it
+         */
+        private void guard(Stage stage) {
+            try {
+                stage.run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+
+        /**
+         * Applies the settings the controller has chosen to the batches that are claimed from now on
+         */
+        private void apply(AdaptiveParallelismController controller) {
+            claimRows = controller.getBatchRows();
+            activeGenerators = controller.getWorkers();
+        }
+
+        /**
+         * Claims the next batch. In ordered mode the batch is claimed first and then waits until it is within the
+         * window of the reorder buffer, the batch the writer waits for is always within it. In unordered mode a batch
+         * is only claimed with a permit of the window, so the writer never waits for a batch that nobody is generating.
+         * @return the empty batch, or null when all rows have been claimed
+         */
+        private Batch claim() throws InterruptedException {
+            if (ordered) {
+                Batch batch = next();
+                if (batch != null) {
+                    reorder.await(batch.sequence);
+                }
+                return batch;
+            }
+            inFlight.acquire();
+            Batch batch = next();
+            if (batch == null) {
+                inFlight.release();
+            }
+            return batch;
+        }
+
+        /**
+         * @return the next rows of the output in a batch of the current size, or null when all rows have been claimed
+         */
+        private Batch next() {
+            synchronized (claims) {
+                if (nextRow >= rows) {
+                    return null;
+                }
+                int count = (int) Math.min(claimRows, rows - nextRow);
+                Batch batch = new Batch(nextSequence++, nextRow, count, new String[count], null);
+                nextRow += count;
+                return batch;
+            }
+        }
+
+        /**
+         * Claims batches in order and generates them, while the worker is one of the active generators
+         */
+        private void generate(int index) throws InterruptedException {
+            MainGenerator cursor = plan.newCursor();
+            boolean positionable = plan.isPositionable();
+            Iterator<String> sequential = null;
+            long position = 0;
+            while (failure.get() == null) {
+                if (index >= activeGenerators) {
+                    LockSupport.parkNanos(this, IDLE_NANOS);
+                    if (Thread.interrupted()) {
+                        throw new InterruptedException();
+                    }
+                    continue;
+                }
+                Batch claimed = claim();
+                if (claimed == null) {
+                    return;
+                }
+                String[] batch = claimed.rows;
+                if (positionable) {
+                    long start = first + claimed.offset;
+                    cursor.skipAttempts(start - position);
+                    for (int i = 0; i < batch.length; i++) {
+                        batch[i] = cursor.tryNext();
+                        if (batch[i] == null) {
+                            throw new IllegalArgumentException("The template runs out of values at row " + (start + i));
+                        }
+                    }
+                    position = start + batch.length;
+                } else {
+                    if (sequential == null) {
+                        sequential = cursor.generate().iterator();
+                        for (long row = 0; row < first; row++) {
+                            sequential.next();
+                        }
+                    }
+                    for (int i = 0; i < batch.length; i++) {
+                        batch[i] = sequential.next();
+                    }
+                }
+                generated.put(claimed);
+            }
+        }
+
+        /**
+         * Renders batches with the index of their rows in the output and encodes them
+         */
+        private void render(RowRenderer renderer, Charset charset) throws InterruptedException {
+            StringBuilder text = new StringBuilder(batchRows * 32);
+            // the renderers wait for batches until the pipeline stops them
+            while (failure.get() == null) {
+                Batch batch = generated.take();
+                text.setLength(0);
+                long index = batch.offset;
+                for (String row : batch.rows) {
+                    renderer.render(text, row, index++);
+                }
+                Batch encodedBatch = new Batch(batch.sequence, batch.offset, batch.count, null,
+                        text.toString().getBytes(charset));
+                if (ordered) {
+                    reorder.put(batch.sequence, encodedBatch);
+                } else {
+                    encoded.put(encodedBatch);
+                }
+            }
+        }
+
+        /**
+         * @return the next encoded batch in order in ordered mode and any encoded batch in unordered mode,
+         * null if the run was cancelled while waiting
+         * @throws IOException if a worker failed or the writer was interrupted
+         */
+        private Batch takeEncoded(BooleanSupplier cancelled) throws IOException {
+            try {
+                Batch batch;
+                while ((batch = pollEncoded()) == null) {
+                    Throwable cause = failure.get();
+                    if (cause != null) {
+                        throw new IOException(cause.getMessage(), cause);
+                    }
+                    if (cancelled.getAsBoolean()) {
+                        return null;
+                    }
+                }
+                return batch;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for the generation pipeline", e);
+            }
+        }
+
+        private Batch pollEncoded() throws InterruptedException {
+            if (ordered) {
+                return reorder.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            Batch batch = encoded.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            if (batch == null) {
+                return null;
+            }
+            // the batch leaves the window once the writer has it
+            inFlight.release();
+            return batch;
+        }
+    }
+}
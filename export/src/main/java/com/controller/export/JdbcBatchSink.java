@@ -0,0 +1,271 @@
+package com.controller.export;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Sink that inserts the rows straight into a database table with JDBC batches.
+ * Rows are collected into batches of {@code batchSize}, batch {@code b} is executed on connection {@code b % N},
+ * so every connection owns every N-th range of rows. Every connection has its own thread and can hold one batch
+ * in waiting, which lets the generation of the next batches overlap the execution of the current ones.
+ * <p>
+ * When a connection is not in auto-commit mode every batch is committed after it has been executed.
+ * The sink owns the connections and closes them.
+ */
+public class JdbcBatchSink implements RowSink {
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    public static final int DEFAULT_CONNECTIONS = 4;
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)?");
+    private static final String[] END_OF_STREAM = new String[0];
+    private static final long OFFER_TIMEOUT_MS = 100;
+
+    private final List<Worker> workers;
+    private final int batchSize;
+    private String[] batch;
+    private int batchFill;
+    private long batchCount;
+    private long rowCount;
+    private boolean closed;
+
+    /**
+     * @param connections one connection per parallel writer
+     * @param table       the table to insert into
+     * @param column      the column that receives the rows
+     * @param batchSize   number of rows per {@link PreparedStatement#executeBatch()}
+     */
+    public JdbcBatchSink(List<Connection> connections, String table, String column, int batchSize) {
+        if (connections == null || connections.isEmpty()) {
+            throw new IllegalArgumentException("The JDBC sink needs at least one connection");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("The batch size must be positive");
+        }
+        if (!IDENTIFIER.matcher(table).matches() || !IDENTIFIER.matcher(column).matches()) {
+            throw new IllegalArgumentException("'" + table + "' and '" + column + "' must be plain table and column names");
+        }
+        String sql = "INSERT INTO " + table + " (" + column + ") VALUES (?)";
+        this.batchSize = batchSize;
+        this.batch = new String[batchSize];
+        this.workers = new ArrayList<>(connections.size());
+        for (int i = 0; i < connections.size(); i++) {
+            Worker worker = new Worker(connections.get(i), sql);
+            Thread thread = new Thread(worker, "jdbc-writer-" + i);
+            thread.setDaemon(true);
+            worker.thread = thread;
+            workers.add(worker);
+            thread.start();
+        }
+    }
+
+    /**
+     * Opens the connections with the {@link DriverManager}
+     * @param url         JDBC url of the database
+     * @param info        connection properties such as user and password
+     * @param connections number of parallel connections
+     * @param table       the table to insert into
+     * @param column      the column that receives the rows
+     * @param batchSize   number of rows per batch
+     * @return the sink
+     * @throws IOException if a connection can not be opened
+     */
+    public static JdbcBatchSink open(String url, Properties info, int connections, String table, String column,
+                                     int batchSize) throws IOException {
+        if (connections <= 0) {
+            throw new IllegalArgumentException("The JDBC sink needs at least one connection");
+        }
+        List<Connection> opened = new ArrayList<>(connections);
+        try {
+            for (int i = 0; i < connections; i++) {
+                Connection connection = DriverManager.getConnection(url, info);
+                opened.add(connection);
+                connection.setAutoCommit(false);
+            }
+            return new JdbcBatchSink(opened, table, column, batchSize);
+        } catch (SQLException | RuntimeException e) {
+            for (Connection connection : opened) {
+                try {
+                    connection.close();
+                } catch (SQLException closeFailure) {
+                    e.addSuppressed(closeFailure);
+                }
+            }
+            throw new IOException("Unable to connect to " + url + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void write(String row) throws IOException {
+        if (closed) {
+            throw new IOException("The JDBC sink has already been closed");
+        }
+        batch[batchFill++] = row;
+        if (batchFill == batchSize) {
+            dispatchBatch();
+        }
+    }
+
+    /**
+     * Hands the pending rows to their connection as a batch, without waiting for the batch to be executed
+     */
+    @Override
+    public void flush() throws IOException {
+        if (batchFill > 0) {
+            dispatchBatch();
+        }
+        checkFailures();
+    }
+
+    private void dispatchBatch() throws IOException {
+        String[] rows = batchFill == batchSize ? batch : Arrays.copyOf(batch, batchFill);
+        Worker worker = workers.get((int) (batchCount % workers.size()));
+        offer(worker, rows);
+        rowCount += batchFill;
+        batchCount++;
+        batch = new String[batchSize];
+        batchFill = 0;
+        checkFailures();
+    }
+
+    /**
+     * Waits until the worker can take the batch, gives up when the worker died in the meantime
+     */
+    private void offer(Worker worker, String[] rows) throws IOException {
+        try {
+            while (worker.failure == null && !worker.queue.offer(rows, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                // the connection is still executing its previous batch
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while handing a batch to the JDBC writers");
+        }
+    }
+
+    private void checkFailures() throws IOException {
+        for (Worker worker : workers) {
+            if (worker.failure != null) {
+                throw new IOException("JDBC writer failed: " + worker.failure.getMessage(), worker.failure);
+            }
+        }
+    }
+
+    /**
+     * @return number of rows handed to the connections
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return number of batches handed to the connections
+     */
+    public long getBatchCount() {
+        return batchCount;
+    }
+
+    /**
+     * Executes the remaining rows, waits for all connections to finish and closes them
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        IOException failure = null;
+        try {
+            if (batchFill > 0) {
+                dispatchBatch();
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+        for (Worker worker : workers) {
+            try {
+                offer(worker, END_OF_STREAM);
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        for (Worker worker : workers) {
+            try {
+                worker.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (failure == null) {
+                    failure = new InterruptedIOException("Interrupted while waiting for the JDBC writers");
+                }
+            }
+            if (failure == null && worker.failure != null) {
+                failure = new IOException("JDBC writer failed: " + worker.failure.getMessage(), worker.failure);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * A connection with its prepared statement, queue and writer thread
+     */
+    private static final class Worker implements Runnable {
+        private final Connection connection;
+        private final String sql;
+        private final BlockingQueue<String[]> queue;
+        private Thread thread;
+        private volatile Throwable failure;
+
+        private Worker(Connection connection, String sql) {
+            this.connection = connection;
+            this.sql = sql;
+            this.queue = new ArrayBlockingQueue<>(1);
+        }
+
+        @Override
+        public void run() {
+            try (Connection owned = connection;
+                 PreparedStatement statement = owned.prepareStatement(sql)) {
+                boolean commit = !owned.getAutoCommit();
+                while (true) {
+                    String[] rows = queue.take();
+                    if (rows == END_OF_STREAM) {
+                        break;
+                    }
+                    for (String row : rows) {
+                        statement.setString(1, row);
+                        statement.addBatch();
+                    }
+                    try {
+                        statement.executeBatch();
+                        if (commit) {
+                            owned.commit();
+                        }
+                    } catch (SQLException e) {
+                        if (commit) {
+                            owned.rollback();
+                        }
+                        throw e;
+                    }
+                }
+            } catch (InterruptedException e) {
+                failure = e;
+                Thread.currentThread().interrupt();
+            } catch (Throwable e) {
+                failure = e;
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.controller.export;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Export target {@code jdbc}: inserts the rows into a database table with batched prepared statements
+ */
+public class JdbcSinkProvider implements RowSinkProvider {
+
+    @Override
+    public String getName() {
+        return "jdbc";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Database table over JDBC. Options: url, user, password, table (generated_data), column (value), "
+                + "batchSize (1000), connections (4)";
+    }
+
+    @Override
+    public RowSink open(Map<String, String> options) throws IOException {
+        Properties info = new Properties();
+        if (options.containsKey("user")) {
+            info.setProperty("user", options.get("user"));
+        }
+        if (options.containsKey("password")) {
+            info.setProperty("password", options.get("password"));
+        }
+        return JdbcBatchSink.open(RowSinks.requiredOption(options, "url"), info,
+                RowSinks.intOption(options, "connections", JdbcBatchSink.DEFAULT_CONNECTIONS),
+                RowSinks.option(options, "table", "generated_data"),
+                RowSinks.option(options, "column", "value"),
+                RowSinks.intOption(options, "batchSize", JdbcBatchSink.DEFAULT_BATCH_SIZE));
+    }
+}
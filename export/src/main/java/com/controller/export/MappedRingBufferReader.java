@@ -0,0 +1,233 @@
+package com.controller.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.controller.export.RingLayout.LONGS;
+
+/**
+ * Consumer of a ring buffer written by {@link MappedRingBufferSink}, usable from any JVM on the same host.
+ * The reader takes one of the consumer slots of the ring and starts at the rows published from then on.
+ * Rows are handed out as views on the mapped pages, so reading does not copy them unless a String is requested.
+ * <p>
+ * A reader is meant to be used by a single thread. A reader that stops reading without being closed keeps the
+ * producer waiting, so always close it.
+ */
+public class MappedRingBufferReader implements Closeable {
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 200;
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /**
+     * Receives the rows of the ring without copying them
+     */
+    public interface RowHandler {
+        /**
+         * @param row the UTF-8 bytes of the row between position and limit, only valid during the call
+         */
+        void onRow(ByteBuffer row);
+    }
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final ByteBuffer readView;
+    private final int capacity;
+    private final int mask;
+    private final int dataOffset;
+    private final int consumerLine;
+    private final RowHandler decoder;
+    private long sequence;
+    private String pending;
+    private boolean closed;
+
+    private MappedRingBufferReader(FileChannel channel, MappedByteBuffer buffer) throws IOException {
+        this.channel = channel;
+        this.buffer = buffer;
+        buffer.order(ByteOrder.nativeOrder());
+        if (buffer.capacity() < RingLayout.OFF_CONSUMERS
+                || (int) RingLayout.INTS.getAcquire(buffer, RingLayout.OFF_MAGIC) != RingLayout.MAGIC) {
+            throw new IOException("Not an initialised ring buffer file");
+        }
+        if (buffer.getInt(RingLayout.OFF_VERSION) != RingLayout.VERSION) {
+            throw new IOException("Unsupported ring buffer version " + buffer.getInt(RingLayout.OFF_VERSION));
+        }
+        this.capacity = (int) buffer.getLong(RingLayout.OFF_CAPACITY);
+        this.mask = capacity - 1;
+        this.dataOffset = buffer.getInt(RingLayout.OFF_DATA);
+        int maxConsumers = buffer.getInt(RingLayout.OFF_MAX_CONSUMERS);
+        if ((long) dataOffset + capacity > buffer.capacity() || dataOffset != RingLayout.dataOffset(maxConsumers)) {
+            throw new IOException("The ring buffer header does not match the size of the file");
+        }
+        this.readView = buffer.duplicate().order(ByteOrder.nativeOrder());
+        this.decoder = row -> pending = StandardCharsets.UTF_8.decode(row).toString();
+        this.consumerLine = claimSlot(maxConsumers);
+    }
+
+    /**
+     * Attaches to a ring buffer as a new consumer
+     * @param file the file the producer maps
+     * @return the reader, positioned at the next row the producer publishes
+     * @throws IOException if the file is not a ring buffer or all consumer slots are taken
+     */
+    public static MappedRingBufferReader open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            return new MappedRingBufferReader(channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Takes a free consumer slot. The slot is only marked active once its sequence is set,
+     * so the producer never waits for a sequence that is not there yet.
+     * <p>
+     * The producer does not wait for a joining slot, so it may lap the sequence that was read before the slot became
+     * active. The reader therefore starts at the producer sequence read again once the slot is active: the producer
+     * either sees the slot, or last looked at the consumers before it published that sequence and only overwrites
+     * rows before it.
+     */
+    private int claimSlot(int maxConsumers) throws IOException {
+        for (int i = 0; i < maxConsumers; i++) {
+            int line = RingLayout.consumerOffset(i);
+            if (LONGS.compareAndSet(buffer, line + RingLayout.CONSUMER_STATE, RingLayout.STATE_FREE, RingLayout.STATE_JOINING)) {
+                LONGS.setRelease(buffer, line, (long) LONGS.getAcquire(buffer, RingLayout.OFF_PRODUCER));
+                LONGS.setRelease(buffer, line + RingLayout.CONSUMER_STATE, RingLayout.STATE_ACTIVE);
+                // the active state must be visible before the producer sequence is read again
+                VarHandle.fullFence();
+                sequence = (long) LONGS.getAcquire(buffer, RingLayout.OFF_PRODUCER);
+                LONGS.setRelease(buffer, line, sequence);
+                return line;
+            }
+        }
+        throw new IOException("All " + maxConsumers + " consumer slots of the ring buffer are in use");
+    }
+
+    /**
+     * Hands the rows that are available right now to the handler, and frees their space for the producer afterwards
+     * @param handler receives the rows
+     * @param maxRows maximum number of rows to read
+     * @return number of rows read, or -1 if the producer closed the ring and all rows have been read
+     * @throws IOException if the ring is corrupt
+     */
+    public int drain(RowHandler handler, int maxRows) throws IOException {
+        checkOpen();
+        // the closed flag is read first, so the published sequence read after it is final when the flag is set
+        boolean producerClosed = (long) LONGS.getAcquire(buffer, RingLayout.OFF_CLOSED) != 0;
+        long published = (long) LONGS.getAcquire(buffer, RingLayout.OFF_PRODUCER);
+        long start = sequence;
+        int count = 0;
+        while (count < maxRows && sequence < published) {
+            int offset = (int) (sequence & mask);
+            int length = buffer.getInt(dataOffset + offset);
+            if (length == RingLayout.PADDING) {
+                sequence += capacity - offset;
+                continue;
+            }
+            if (length < 0 || RingLayout.recordSize(length) > capacity - offset) {
+                throw new IOException("Corrupt record in ring buffer at sequence " + sequence);
+            }
+            int rowStart = dataOffset + offset + Integer.BYTES;
+            readView.limit(rowStart + length);
+            readView.position(rowStart);
+            handler.onRow(readView);
+            sequence += RingLayout.recordSize(length);
+            count++;
+        }
+        if (sequence != start) {
+            LONGS.setRelease(buffer, consumerLine, sequence);
+        }
+        if (count == 0 && producerClosed && sequence >= published) {
+            return -1;
+        }
+        return count;
+    }
+
+    /**
+     * @return the next row, or null if no row is available right now
+     * @throws IOException if the ring is corrupt
+     */
+    public String poll() throws IOException {
+        pending = null;
+        drain(decoder, 1);
+        return pending;
+    }
+
+    /**
+     * Waits for the next row
+     * @return the next row, or null once the producer closed the ring and all rows have been read
+     * @throws IOException if the ring is corrupt or the thread is interrupted
+     */
+    public String take() throws IOException {
+        int tries = 0;
+        while (true) {
+            pending = null;
+            int read = drain(decoder, 1);
+            if (read > 0) {
+                return pending;
+            }
+            if (read < 0) {
+                return null;
+            }
+            if (tries < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else if (tries < SPIN_TRIES + YIELD_TRIES) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+                if (Thread.interrupted()) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for the ring buffer producer");
+                }
+            }
+            tries++;
+        }
+    }
+
+    /**
+     * @return true once the producer closed the ring and all rows have been read
+     */
+    public boolean isEndOfStream() {
+        boolean producerClosed = (long) LONGS.getAcquire(buffer, RingLayout.OFF_CLOSED) != 0;
+        return producerClosed && sequence >= (long) LONGS.getAcquire(buffer, RingLayout.OFF_PRODUCER);
+    }
+
+    /**
+     * @return number of bytes read so far, including record headers and padding
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    private void checkOpen() throws IOException {
+        if (closed) {
+            throw new IOException("The ring buffer reader has already been closed");
+        }
+    }
+
+    /**
+     * Gives the consumer slot back, the producer stops waiting for this reader
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LONGS.setRelease(buffer, consumerLine + RingLayout.CONSUMER_STATE, RingLayout.STATE_FREE);
+        channel.close();
+    }
+}
@@ -0,0 +1,242 @@
+package com.controller.export;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.controller.export.RingLayout.LONGS;
+
+/**
+ * Sink that publishes rows into a memory mapped file used as a single producer, multi consumer ring buffer.
+ * Consumers in the same or in other processes attach with {@link MappedRingBufferReader} and every consumer
+ * receives every row, straight from the shared pages without a copy through the kernel.
+ * <p>
+ * The producer never overwrites bytes the slowest attached consumer has not read yet, it spins, yields and then parks
+ * until there is room. The first row is only published once {@code minConsumers} consumers are attached,
+ * consumers that attach later start at the rows published from then on. Rows are visible to the consumers as soon as
+ * {@link #write(String)} returns, so there is nothing to flush.
+ */
+public class MappedRingBufferSink implements RowSink {
+    public static final int DEFAULT_CAPACITY = 16 * 1024 * 1024;
+    public static final int DEFAULT_MAX_CONSUMERS = 8;
+    private static final int MIN_CAPACITY = 4096;
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 200;
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final ByteBuffer writeView;
+    private final int capacity;
+    private final int mask;
+    private final int dataOffset;
+    private final int maxConsumers;
+    private final int minConsumers;
+    private final long waitTimeoutNanos;
+    private long position;
+    private long gatingSequence;
+    private boolean started;
+    private boolean closed;
+
+    /**
+     * Creates a ring with the default capacity that waits for one consumer and never times out
+     * @param file the file to map, it is replaced if it exists
+     * @throws IOException if the file can not be created or mapped
+     */
+    public MappedRingBufferSink(Path file) throws IOException {
+        this(file, DEFAULT_CAPACITY, DEFAULT_MAX_CONSUMERS, 1, 0);
+    }
+
+    /**
+     * @param file              the file to map, it is replaced if it exists
+     * @param capacity          size of the data region in bytes, a power of two of at least 4096
+     * @param maxConsumers      number of consumers that can be attached at the same time
+     * @param minConsumers      number of consumers that must be attached before rows are published, 0 publishes
+     *                          right away and overwrites rows nobody reads
+     * @param waitTimeoutMillis how long a write may wait for the consumers to make room, 0 waits forever
+     * @throws IOException if the file can not be created or mapped
+     */
+    public MappedRingBufferSink(Path file, int capacity, int maxConsumers, int minConsumers, long waitTimeoutMillis)
+            throws IOException {
+        if (capacity < MIN_CAPACITY || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("The ring capacity must be a power of two of at least " + MIN_CAPACITY);
+        }
+        if (maxConsumers <= 0 || minConsumers < 0 || minConsumers > maxConsumers) {
+            throw new IllegalArgumentException("The number of consumers must be positive and at least the minimum");
+        }
+        if (waitTimeoutMillis < 0) {
+            throw new IllegalArgumentException("The wait timeout can not be negative");
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.maxConsumers = maxConsumers;
+        this.minConsumers = minConsumers;
+        this.waitTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(waitTimeoutMillis);
+        this.dataOffset = RingLayout.dataOffset(maxConsumers);
+        if ((long) dataOffset + capacity > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The ring buffer does not fit in a single mapping");
+        }
+
+        // a new file, so readers that are still attached to a previous ring do not see this one
+        Files.deleteIfExists(file);
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) dataOffset + capacity);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        buffer.order(ByteOrder.nativeOrder());
+        this.writeView = buffer.duplicate().order(ByteOrder.nativeOrder());
+        buffer.putInt(RingLayout.OFF_VERSION, RingLayout.VERSION);
+        buffer.putLong(RingLayout.OFF_CAPACITY, capacity);
+        buffer.putInt(RingLayout.OFF_MAX_CONSUMERS, maxConsumers);
+        buffer.putInt(RingLayout.OFF_DATA, dataOffset);
+        RingLayout.INTS.setRelease(buffer, RingLayout.OFF_MAGIC, RingLayout.MAGIC);
+        this.position = 0;
+        this.gatingSequence = 0;
+    }
+
+    @Override
+    public void write(String row) throws IOException {
+        if (closed) {
+            throw new IOException("The ring buffer sink has already been closed");
+        }
+        if (!started) {
+            awaitConsumers();
+            started = true;
+        }
+        byte[] bytes = row.getBytes(StandardCharsets.UTF_8);
+        int recordSize = RingLayout.recordSize(bytes.length);
+        if (recordSize > capacity / 2) {
+            throw new IOException("A row of " + bytes.length + " bytes does not fit in a ring of " + capacity + " bytes");
+        }
+
+        int offset = (int) (position & mask);
+        int untilEnd = capacity - offset;
+        if (recordSize > untilEnd) {
+            awaitSpace(position + untilEnd + recordSize);
+            buffer.putInt(dataOffset + offset, RingLayout.PADDING);
+            position += untilEnd;
+            offset = 0;
+        } else {
+            awaitSpace(position + recordSize);
+        }
+        writeView.position(dataOffset + offset);
+        writeView.putInt(bytes.length);
+        writeView.put(bytes);
+        position += recordSize;
+        LONGS.setRelease(buffer, RingLayout.OFF_PRODUCER, position);
+    }
+
+    /**
+     * Waits until the slowest consumer has read far enough that the ring can hold everything up to the given sequence
+     */
+    private void awaitSpace(long end) throws IOException {
+        long wrapPoint = end - capacity;
+        if (wrapPoint <= gatingSequence) {
+            return;
+        }
+        long start = System.nanoTime();
+        int tries = 0;
+        while (true) {
+            // the published sequence must be visible before the consumer states are read, see the reader joining
+            VarHandle.fullFence();
+            long minimum = Long.MAX_VALUE;
+            int active = 0;
+            for (int i = 0; i < maxConsumers; i++) {
+                int line = RingLayout.consumerOffset(i);
+                if ((long) LONGS.getAcquire(buffer, line + RingLayout.CONSUMER_STATE) == RingLayout.STATE_ACTIVE) {
+                    active++;
+                    minimum = Math.min(minimum, (long) LONGS.getAcquire(buffer, line));
+                }
+            }
+            if (active == 0 && minConsumers == 0) {
+                gatingSequence = wrapPoint;
+                return;
+            }
+            if (active > 0 && minimum >= wrapPoint) {
+                gatingSequence = minimum;
+                return;
+            }
+            tries = idle(tries, start, "make room in the ring buffer");
+        }
+    }
+
+    /**
+     * Waits until the minimum number of consumers is attached
+     */
+    private void awaitConsumers() throws IOException {
+        long start = System.nanoTime();
+        int tries = 0;
+        while (getConsumerCount() < minConsumers) {
+            tries = idle(tries, start, "attach to the ring buffer");
+        }
+    }
+
+    /**
+     * Backs off while waiting for the consumers: spin first, then yield, then park
+     */
+    private int idle(int tries, long start, String waitingFor) throws IOException {
+        if (waitTimeoutNanos > 0 && System.nanoTime() - start > waitTimeoutNanos) {
+            throw new IOException("No consumer did " + waitingFor + " within "
+                    + TimeUnit.NANOSECONDS.toMillis(waitTimeoutNanos) + " ms");
+        }
+        if (tries < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (tries < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the ring buffer consumers");
+            }
+        }
+        return tries + 1;
+    }
+
+    /**
+     * @return number of consumers that are currently attached
+     */
+    public int getConsumerCount() {
+        int active = 0;
+        for (int i = 0; i < maxConsumers; i++) {
+            if ((long) LONGS.getAcquire(buffer, RingLayout.consumerOffset(i) + RingLayout.CONSUMER_STATE) == RingLayout.STATE_ACTIVE) {
+                active++;
+            }
+        }
+        return active;
+    }
+
+    /**
+     * @return number of bytes published so far, including record headers and padding
+     */
+    public long getSequence() {
+        return position;
+    }
+
+    /**
+     * Marks the end of the stream, consumers finish once they have read all published rows.
+     * The file stays in place so late consumers can still see that the stream ended.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LONGS.setRelease(buffer, RingLayout.OFF_CLOSED, 1L);
+        channel.close();
+    }
+}
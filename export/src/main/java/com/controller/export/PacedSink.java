@@ -0,0 +1,159 @@
+package com.controller.export;
+
+import com.controller.metrics.LatencyHistogram;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Locale;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sink that hands rows to another sink at a fixed rate instead of as fast as possible, to drive load tests with a
+ * steady stream of generated keys.
+ * <p>
+ * Row {@code n} has an intended send time of {@code start + n / rate}. The sink waits until that time and then
+ * writes the row. A row that is late because the target stalled is written at once, and its latency is measured
+ * from its intended time and not from the time it was written. This avoids coordinated omission: a stall counts
+ * for every row that should have been sent during it, and not only for the row that was stuck. The rate catches
+ * up after a stall. The target is flushed whenever the sink is about to wait, so rows are not held back in a
+ * buffer while it is idle.
+ * <p>
+ * Two {@link LatencyHistogram}s are recorded. The latencies run from the intended send time until the target has
+ * taken the row. The schedule lag runs from the intended send time until the row is handed over, and its spread
+ * is the jitter of the pacing.
+ */
+public class PacedSink implements RowSink {
+    /** Closer than this to the send time the sink spins instead of parking, parking overshoots by tens of micros */
+    private static final long SPIN_NANOS = 50_000;
+    /** The target is only flushed when there is at least this much time left before the next row */
+    private static final long FLUSH_SLACK_NANOS = 100_000;
+
+    private final RowSink target;
+    private final double rate;
+    private final double intervalNanos;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LatencyHistogram scheduleLag = new LatencyHistogram();
+    private long start;
+    private long lastSent;
+    private long rows;
+
+    /**
+     * @param target the sink the rows are written to
+     * @param rate   number of rows per second
+     */
+    public PacedSink(RowSink target, double rate) {
+        if (target == null) {
+            throw new IllegalArgumentException("No sink has been passed to pace");
+        }
+        if (!(rate > 0) || Double.isInfinite(rate)) {
+            throw new IllegalArgumentException("The rate must be a positive number of rows per second, was " + rate);
+        }
+        this.target = target;
+        this.rate = rate;
+        this.intervalNanos = 1e9 / rate;
+    }
+
+    @Override
+    public void write(String row) throws IOException {
+        long now = System.nanoTime();
+        if (rows == 0) {
+            start = now;
+        }
+        long intended = start + (long) (rows * intervalNanos);
+        if (intended - now > FLUSH_SLACK_NANOS) {
+            target.flush();
+            now = System.nanoTime();
+        }
+        if (now < intended) {
+            now = awaitUntil(intended);
+        }
+        target.write(row);
+        long done = System.nanoTime();
+        scheduleLag.record(now - intended);
+        latencies.record(done - intended);
+        lastSent = now;
+        rows++;
+    }
+
+    /**
+     * Parks until shortly before the deadline and spins for the rest
+     * @return the time the wait ended
+     */
+    private static long awaitUntil(long deadline) throws IOException {
+        long now;
+        while ((now = System.nanoTime()) < deadline) {
+            long remaining = deadline - now;
+            if (remaining > SPIN_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_NANOS);
+                if (Thread.interrupted()) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while pacing the rows");
+                }
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+        return now;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        target.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        target.close();
+    }
+
+    /**
+     * @return the latencies from the intended send time of every row until the target had taken it
+     */
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    /**
+     * @return the time from the intended send time of every row until it was handed to the target
+     */
+    public LatencyHistogram getScheduleLag() {
+        return scheduleLag;
+    }
+
+    /**
+     * @return number of rows written
+     */
+    public long getRowCount() {
+        return rows;
+    }
+
+    /**
+     * @return the rate the rows are meant to be written at, in rows per second
+     */
+    public double getTargetRate() {
+        return rate;
+    }
+
+    /**
+     * @return the rate the rows were written at from the first to the last row, in rows per second,
+     * 0 until two rows have been written
+     */
+    public double getAchievedRate() {
+        return rows < 2 || lastSent == start ? 0 : (rows - 1) * 1e9 / (lastSent - start);
+    }
+
+    /**
+     * @return a one line summary of the rates, the jitter and the latency percentiles
+     */
+    public String report() {
+        return String.format(Locale.ROOT, "Paced %d rows at %.1f/s (target %.1f/s), jitter mean %s stddev %s p99 %s, "
+                        + "latency p50 %s p99 %s p99.9 %s max %s",
+                rows, getAchievedRate(), rate, micros(scheduleLag.getMean()), micros(scheduleLag.getStdDeviation()),
+                micros(scheduleLag.getPercentile(99)), micros(latencies.getPercentile(50)),
+                micros(latencies.getPercentile(99)), micros(latencies.getPercentile(99.9)), micros(latencies.getMax()));
+    }
+
+    private static String micros(long nanos) {
+        return String.format(Locale.ROOT, "%.1fus", nanos / 1000.0);
+    }
+}
@@ -0,0 +1,109 @@
+package com.controller.export;
+
+import com.utils.Parsers;
+
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Expression that assigns a generated row to a partition.
+ * The expression works on a source, which is either the rendered value or the value of one slot of the template:
+ * <ul>
+ *     <li>{@code value} or {@code slot[i]} - the whole source is the partition key</li>
+ *     <li>{@code prefix(value, n)} - the first n characters of the source</li>
+ *     <li>{@code hash(slot[i]) % n} - the hash bucket of the source, from 0 to n-1</li>
+ * </ul>
+ */
+public class PartitionExpression {
+    private static final String SOURCE = "\\s*(value|slot\\[\\s*(\\d+)\\s*])\\s*";
+    private static final Pattern PLAIN = Pattern.compile("^" + SOURCE + "$");
+    private static final Pattern PREFIX = Pattern.compile("^\\s*prefix\\s*\\(" + SOURCE + ",\\s*(\\d+)\\s*\\)\\s*$");
+    private static final Pattern HASH = Pattern.compile("^\\s*hash\\s*\\(" + SOURCE + "\\)\\s*%\\s*(\\d+)\\s*$");
+
+    private enum Function { PLAIN, PREFIX, HASH }
+
+    private final String expression;
+    private final Function function;
+    private final int slot;
+    private final int argument;
+
+    private PartitionExpression(String expression, Function function, int slot, int argument) {
+        this.expression = expression;
+        this.function = function;
+        this.slot = slot;
+        this.argument = argument;
+    }
+
+    /**
+     * Parses a partition expression
+     * @param expression the expression, for example {@code prefix(value, 2)} or {@code hash(slot[0]) % 64}
+     * @return the parsed expression
+     * @throws IllegalArgumentException if the expression is empty or not valid
+     */
+    public static PartitionExpression parse(String expression) {
+        String input = Parsers.validateNotNullOrEmpty("partitionExpression", expression);
+        Matcher matcher = PLAIN.matcher(input);
+        if (matcher.matches()) {
+            return new PartitionExpression(input, Function.PLAIN, slotOf(matcher), 0);
+        }
+        matcher = PREFIX.matcher(input);
+        if (matcher.matches()) {
+            return new PartitionExpression(input, Function.PREFIX, slotOf(matcher), argumentOf(matcher));
+        }
+        matcher = HASH.matcher(input);
+        if (matcher.matches()) {
+            return new PartitionExpression(input, Function.HASH, slotOf(matcher), argumentOf(matcher));
+        }
+        throw new IllegalArgumentException("The partition expression '" + input + "' is not valid");
+    }
+
+    private static int slotOf(Matcher matcher) {
+        return matcher.group(2) == null ? -1 : Parsers.parseAsInt("slot", matcher.group(2));
+    }
+
+    private static int argumentOf(Matcher matcher) {
+        int argument = Parsers.parseAsInt("partitionExpression", matcher.group(3));
+        if (argument <= 0) {
+            throw new IllegalArgumentException("The partition expression needs a positive number, got " + argument);
+        }
+        return argument;
+    }
+
+    /**
+     * @return true if the expression needs the slot values and not only the rendered value
+     */
+    public boolean usesSlots() {
+        return slot >= 0;
+    }
+
+    /**
+     * Computes the partition of a row
+     * @param row   the rendered value
+     * @param slots the values of the slots the row was built from, only needed if {@link #usesSlots()}
+     * @return the partition key
+     */
+    public String partitionOf(String row, Map<Integer, String> slots) {
+        String source = row;
+        if (slot >= 0) {
+            source = slots == null ? null : slots.get(slot);
+            if (source == null) {
+                throw new IllegalArgumentException("No value for slot " + slot + " is available to partition on");
+            }
+        }
+        switch (function) {
+            case PREFIX:
+                return source.length() <= argument ? source : source.substring(0, argument);
+            case HASH:
+                return Integer.toString(Math.floorMod(source.hashCode(), argument));
+            case PLAIN:
+            default:
+                return source;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
@@ -0,0 +1,300 @@
+package com.controller.export;
+
+import com.controller.business.DataExportManager.ExportSettings;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Sink that splits the rows over one file per partition in a single pass.
+ * Rows are collected in per-partition buffers taken from a bounded {@link BufferPool}, when the pool is exhausted the
+ * least recently used partition is flushed to free its buffer. File handles are kept open in LRU order as well,
+ * when more partitions are active than files may be open the least recently written file is closed and reopened
+ * in append mode on its next flush.
+ * <p>
+ * A partition file is named after its key, with the characters that are not safe in a file name replaced by
+ * {@code _}. Keys that end up with the same name, such as {@code a/b} and {@code a_b}, are told apart by the hash of
+ * the key, which is added to the name of every key after the first.
+ */
+public class PartitionedSink implements RowSink {
+    public static final int DEFAULT_MAX_OPEN_FILES = 64;
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    public static final int DEFAULT_BUFFER_COUNT = 128;
+
+    private final PartitionExpression expression;
+    private final RowRenderer renderer;
+    private final Charset charset;
+    private final boolean appendMode;
+    private final String basePath;
+    private final String extension;
+    private final int maxOpenFiles;
+    private final BufferPool bufferPool;
+    private final Map<String, Partition> partitions;
+    /** The key of every partition file, by the lower case file name so names that differ in case only are caught */
+    private final Map<String, String> pathKeys;
+    private final LinkedHashMap<String, Partition> openFiles;
+    private final LinkedHashMap<String, Partition> buffered;
+    private long filesOpened;
+
+    /**
+     * Creates a partitioned sink from the export settings
+     * @param settings export settings, the file path is used as the base name of the partition files
+     */
+    public PartitionedSink(ExportSettings settings) {
+        this(settings, PartitionExpression.parse(settings.getPartitionExpression()));
+    }
+
+    /**
+     * @param settings   export settings, the file path is used as the base name of the partition files
+     * @param expression the expression that assigns every row to a partition
+     */
+    public PartitionedSink(ExportSettings settings, PartitionExpression expression) {
+        this.renderer = RowRenderer.forSettings(settings);
+        if (!renderer.isLineOriented()) {
+            throw new IllegalArgumentException("Partitioned export only supports line oriented formats, not " + settings.getFormat());
+        }
+        if (settings.getMaxOpenFiles() <= 0) {
+            throw new IllegalArgumentException("At least one file must be allowed to be open");
+        }
+        this.expression = expression;
+        this.charset = Charset.forName(settings.getEncoding());
+        this.appendMode = settings.isAppendMode();
+        this.maxOpenFiles = settings.getMaxOpenFiles();
+        this.bufferPool = new BufferPool(settings.getPartitionBufferSize(), settings.getPartitionBufferCount());
+
+        String filePath = settings.getFilePath();
+        int lastDot = filePath.lastIndexOf('.');
+        int lastSeparator = Math.max(filePath.lastIndexOf('/'), filePath.lastIndexOf('\\'));
+        if (lastDot > lastSeparator + 1) {
+            this.basePath = filePath.substring(0, lastDot);
+            this.extension = filePath.substring(lastDot);
+        } else {
+            this.basePath = filePath;
+            this.extension = "";
+        }
+
+        this.partitions = new HashMap<>();
+        this.pathKeys = new HashMap<>();
+        this.openFiles = new LinkedHashMap<>(16, 0.75f, true);
+        this.buffered = new LinkedHashMap<>(16, 0.75f, true);
+        this.filesOpened = 0;
+    }
+
+    /**
+     * Writes a row partitioned on the rendered value only
+     */
+    @Override
+    public void write(String row) throws IOException {
+        write(row, Collections.emptyMap());
+    }
+
+    /**
+     * Writes a row to the partition computed from the rendered value or the slot values
+     * @param row   the rendered value
+     * @param slots the slot values the row was generated from
+     * @throws IOException if a partition file could not be written
+     */
+    public void write(String row, Map<Integer, String> slots) throws IOException {
+        String key = expression.partitionOf(row, slots);
+        Partition partition = partitions.get(key);
+        if (partition == null) {
+            partition = new Partition(partitionPath(key));
+            partitions.put(key, partition);
+        }
+        if (partition.buffer == null) {
+            partition.buffer = acquireBuffer();
+        }
+        buffered.put(key, partition);
+        renderer.render(partition.buffer, row, partition.rowCount);
+        partition.rowCount++;
+        if (partition.buffer.length() >= bufferPool.getBufferSize()) {
+            flushBuffer(key, partition);
+        }
+    }
+
+    /**
+     * Takes a buffer from the pool, flushing the least recently used partition if the pool is exhausted
+     */
+    private StringBuilder acquireBuffer() throws IOException {
+        StringBuilder buffer = bufferPool.acquire();
+        while (buffer == null) {
+            Iterator<Map.Entry<String, Partition>> eldest = buffered.entrySet().iterator();
+            Map.Entry<String, Partition> entry = eldest.next();
+            Partition partition = entry.getValue();
+            eldest.remove();
+            writeBuffer(entry.getKey(), partition);
+            bufferPool.release(partition.buffer);
+            partition.buffer = null;
+            buffer = bufferPool.acquire();
+        }
+        return buffer;
+    }
+
+    private void flushBuffer(String key, Partition partition) throws IOException {
+        writeBuffer(key, partition);
+        partition.buffer.setLength(0);
+    }
+
+    /**
+     * Writes the buffered rows of a partition to its file, opening the file if necessary
+     */
+    private void writeBuffer(String key, Partition partition) throws IOException {
+        if (partition.buffer == null || partition.buffer.length() == 0) {
+            return;
+        }
+        Writer writer = openWriter(key, partition);
+        writer.append(partition.buffer);
+        writer.flush();
+    }
+
+    private Writer openWriter(String key, Partition partition) throws IOException {
+        if (partition.writer != null) {
+            openFiles.get(key);
+            return partition.writer;
+        }
+        while (openFiles.size() >= maxOpenFiles) {
+            Iterator<Map.Entry<String, Partition>> eldest = openFiles.entrySet().iterator();
+            Partition evicted = eldest.next().getValue();
+            eldest.remove();
+            evicted.writer.close();
+            evicted.writer = null;
+        }
+        boolean append = partition.created || appendMode;
+        boolean writeHeader = !partition.created
+                && !(appendMode && Files.exists(partition.path) && Files.size(partition.path) > 0);
+        StandardOpenOption[] options = append
+                ? new StandardOpenOption[]{StandardOpenOption.CREATE, StandardOpenOption.APPEND}
+                : new StandardOpenOption[]{StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE};
+        partition.writer = new OutputStreamWriter(
+                new FlushEventOutputStream(Files.newOutputStream(partition.path, options), partition.path.toString()), charset);
+        partition.created = true;
+        filesOpened++;
+        openFiles.put(key, partition);
+        if (writeHeader) {
+            partition.writer.write(renderer.header());
+        }
+        return partition.writer;
+    }
+
+    private Path partitionPath(String key) {
+        StringBuilder name = new StringBuilder(basePath).append('-');
+        if (key.isEmpty()) {
+            name.append('_');
+        }
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            name.append(Character.isLetterOrDigit(c) || c == '-' || c == '.' ? c : '_');
+        }
+        String path = name + extension;
+        if (!claimPath(path, key)) {
+            path = name.append('~').append(String.format("%08x", key.hashCode())).append(extension).toString();
+            if (!claimPath(path, key)) {
+                throw new IllegalArgumentException("The partitions \"" + key + "\" and \""
+                        + pathKeys.get(path.toLowerCase(Locale.ROOT)) + "\" would both be written to " + path);
+            }
+        }
+        return Paths.get(path);
+    }
+
+    /**
+     * @return true if the file is not used by another partition yet, it then belongs to the key
+     */
+    private boolean claimPath(String path, String key) {
+        return pathKeys.putIfAbsent(path.toLowerCase(Locale.ROOT), key) == null;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        for (Map.Entry<String, Partition> entry : partitions.entrySet()) {
+            if (entry.getValue().buffer != null) {
+                flushBuffer(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        try {
+            flush();
+        } catch (IOException e) {
+            failure = e;
+        }
+        for (Partition partition : partitions.values()) {
+            if (partition.writer != null) {
+                try {
+                    partition.writer.close();
+                } catch (IOException e) {
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+                partition.writer = null;
+            }
+            if (partition.buffer != null) {
+                bufferPool.release(partition.buffer);
+                partition.buffer = null;
+            }
+        }
+        openFiles.clear();
+        buffered.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * @return number of partitions that received at least one row
+     */
+    public int getPartitionCount() {
+        return partitions.size();
+    }
+
+    /**
+     * @return the files of all partitions, sorted by path
+     */
+    public List<Path> getPartitionPaths() {
+        List<Path> paths = new ArrayList<>();
+        for (Partition partition : partitions.values()) {
+            paths.add(partition.path);
+        }
+        Collections.sort(paths);
+        return paths;
+    }
+
+    /**
+     * @return number of times a partition file has been opened, including reopens after an LRU close
+     */
+    public long getFilesOpened() {
+        return filesOpened;
+    }
+
+    /**
+     * State of a single partition
+     */
+    private static final class Partition {
+        private final Path path;
+        private StringBuilder buffer;
+        private Writer writer;
+        private boolean created;
+        private long rowCount;
+
+        private Partition(Path path) {
+            this.path = path;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.controller.export;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Puts results that are produced out of order back into the order of their sequence numbers.
+ * <p>
+ * The buffer holds a window of {@code capacity} sequence numbers starting at the next one to be taken. A producer
+ * that is further ahead waits in {@link #await(long)} or {@link #put(long, Object)} until the consumer has taken
+ * enough results, so the memory held by the buffer is bounded and fast producers are held back by slow ones.
+ * Producers must claim their sequence numbers in increasing order, so the result the consumer waits for is never
+ * held back behind the others.
+ * @param <T> the type of the results
+ */
+final class ReorderBuffer<T> {
+    private final Object[] slots;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition ready = lock.newCondition();
+    private final Condition space = lock.newCondition();
+    /** The sequence number of the next result to be taken */
+    private long next;
+    private int size;
+
+    /**
+     * @param capacity number of sequence numbers a producer may be ahead of the consumer
+     */
+    ReorderBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity of the reorder buffer must be positive, was " + capacity);
+        }
+        this.slots = new Object[capacity];
+    }
+
+    /**
+     * Waits until the sequence number is within the window of the buffer
+     * @param sequence the sequence number of a result that is about to be produced
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    void await(long sequence) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            awaitWindow(sequence);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds a result, waiting until its sequence number is within the window of the buffer
+     * @param sequence the sequence number of the result
+     * @param result   the result
+     * @throws InterruptedException     if the thread is interrupted while waiting
+     * @throws IllegalArgumentException if the result has been taken already or is added twice
+     */
+    void put(long sequence, T result) throws InterruptedException {
+        if (result == null) {
+            throw new IllegalArgumentException("A reorder buffer does not hold null results");
+        }
+        lock.lockInterruptibly();
+        try {
+            if (sequence < next) {
+                throw new IllegalArgumentException("The result " + sequence + " has been taken already");
+            }
+            awaitWindow(sequence);
+            int slot = (int) (sequence % slots.length);
+            if (slots[slot] != null) {
+                throw new IllegalArgumentException("The result " + sequence + " has been added twice");
+            }
+            slots[slot] = result;
+            size++;
+            if (sequence == next) {
+                ready.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes the next result in order, waiting until it has been added
+     * @return the result with the next sequence number
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    T take() throws InterruptedException {
+        return poll(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Takes the next result in order, waiting at most the given time until it has been added
+     * @param timeout the longest time to wait
+     * @param unit    the unit of the timeout
+     * @return the result with the next sequence number, or null if it was not added in time
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    @SuppressWarnings("unchecked")
+    T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            int slot = (int) (next % slots.length);
+            while (slots[slot] == null) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = ready.awaitNanos(nanos);
+            }
+            T result = (T) slots[slot];
+            slots[slot] = null;
+            size--;
+            next++;
+            space.signalAll();
+            if (slots[(int) (next % slots.length)] != null) {
+                ready.signal();
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the sequence number of the next result to be taken
+     */
+    long getNext() {
+        lock.lock();
+        try {
+            return next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of results that are held until the results before them have been taken
+     */
+    int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of sequence numbers a producer may be ahead of the consumer
+     */
+    int getCapacity() {
+        return slots.length;
+    }
+
+    private void awaitWindow(long sequence) throws InterruptedException {
+        while (sequence >= next + slots.length) {
+            space.await();
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.controller.export;
+
+import com.controller.business.DataExportManager.ExportSettings;
+import com.controller.generators.GenerationPlan;
+import com.controller.generators.MainGenerator;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Export of the rows of a plan that writes an {@link ExportCheckpoint} every {@code checkpointRows} rows.
+ * <p>
+ * In append mode an export picks up where the checkpoint next to the file left off: it checks the fingerprint of the
+ * plan and the checksum of the output up to the checkpoint, cuts the file back to that length, restores the cursors of
+ * the generator and writes the remaining rows. Without a checkpoint nothing in the file is known to belong to the
+ * export, for example after a crash before the first checkpoint or after a complete export, so the file is written
+ * from the start, as it is without append mode. The checkpoint is removed once the export is complete.
+ * <p>
+ * The rows up to a checkpoint are forced to the disk before the checkpoint is saved, so a checkpoint never points
+ * past the end of the file after a power loss.
+ * <p>
+ * With a stop condition the export checks it at every checkpoint and stops there when it is true. The checkpoint is
+ * kept, so a later run in append mode resumes the export.
+ */
+public class ResumableExport {
+    public static final long DEFAULT_CHECKPOINT_ROWS = 100_000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final GenerationPlan plan;
+    private final ExportSettings settings;
+    private final long checkpointRows;
+    private LongConsumer progressListener = rows -> { };
+    private BooleanSupplier stopCondition = () -> false;
+    private boolean stopped;
+
+    /**
+     * @param plan           the plan of the template
+     * @param settings       the export settings, the file path must already have its extension
+     * @param checkpointRows number of rows between two checkpoints
+     */
+    public ResumableExport(GenerationPlan plan, ExportSettings settings, long checkpointRows) {
+        if (checkpointRows <= 0) {
+            throw new IllegalArgumentException("The number of rows between checkpoints must be positive");
+        }
+        this.plan = plan;
+        this.settings = settings;
+        this.checkpointRows = checkpointRows;
+    }
+
+    /**
+     * @param settings the export settings
+     * @return the checkpoint file of the export, next to the export file
+     */
+    public static Path checkpointPath(ExportSettings settings) {
+        return Paths.get(settings.getFilePath() + ".checkpoint");
+    }
+
+    /**
+     * @param progressListener called with the number of rows in the file at every checkpoint and at the end
+     */
+    public void setProgressListener(LongConsumer progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * @param stopCondition checked at every checkpoint, the export stops at the checkpoint once it returns true
+     */
+    public void setStopCondition(BooleanSupplier stopCondition) {
+        this.stopCondition = stopCondition;
+    }
+
+    /**
+     * @return true if the last run stopped at a checkpoint because of the stop condition, its checkpoint is kept
+     */
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * Writes the rows that are missing from the file
+     * @param rowCount total number of rows of the export
+     * @return number of rows written by this call, less than {@code rowCount} when an earlier run was resumed
+     * @throws IOException              if the file could not be written or does not match its checkpoint
+     * @throws IllegalArgumentException if the checkpoint belongs to another template or a longer export
+     */
+    public long run(long rowCount) throws IOException {
+        return run(0, rowCount);
+    }
+
+    /**
+     * Writes the rows that are missing from the file, the export holds rows {@code first} up to
+     * {@code first + rowCount} of the template
+     * @param first    number of rows of the template to leave out, only used when the export starts from scratch
+     * @param rowCount total number of rows of the export
+     * @return number of rows written by this call, less than {@code rowCount} when an earlier run was resumed
+     * @throws IOException              if the file could not be written or does not match its checkpoint
+     * @throws IllegalArgumentException if the checkpoint belongs to another template or a longer export
+     */
+    public long run(long first, long rowCount) throws IOException {
+        Path file = Paths.get(settings.getFilePath());
+        Path checkpointFile = checkpointPath(settings);
+        stopped = false;
+        MainGenerator cursor = plan.newCursor();
+        CRC32 checksum = new CRC32();
+        long row = 0;
+        long offset = 0;
+
+        if (settings.isAppendMode() && Files.exists(checkpointFile)) {
+            ExportCheckpoint checkpoint = ExportCheckpoint.load(checkpointFile);
+            if (!plan.getFingerprint().equals(checkpoint.getFingerprint())) {
+                throw new IllegalArgumentException("The checkpoint " + checkpointFile + " was written for another template");
+            }
+            if (checkpoint.getRows() > rowCount) {
+                throw new IllegalArgumentException("The checkpoint is at row " + checkpoint.getRows()
+                        + ", beyond the " + rowCount + " rows of the export");
+            }
+            offset = checkpoint.getOffset();
+            truncate(file, offset, checksum);
+            if (checksum.getValue() != checkpoint.getChecksum()) {
+                throw new IOException("The first " + offset + " bytes of " + file + " do not match the checkpoint");
+            }
+            cursor.restoreCursors(checkpoint.getCursors(), checkpoint.getAttempts());
+            row = checkpoint.getRows();
+        } else {
+            Files.deleteIfExists(checkpointFile);
+        }
+
+        long resumedAt = row;
+        RowRenderer renderer = RowRenderer.forSettings(settings);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        CheckedStream stream;
+        try {
+            // cuts off what is left after the checkpoint, or everything when the export starts over
+            channel.truncate(offset);
+            channel.position(offset);
+            stream = new CheckedStream(new FlushEventOutputStream(Channels.newOutputStream(channel),
+                    settings.getFilePath()), checksum, offset);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(stream, Charset.forName(settings.getEncoding())), BUFFER_SIZE)) {
+            if (offset == 0) {
+                writer.write(renderer.header());
+            }
+            StringBuilder line = new StringBuilder(128);
+            Iterator<String> rows = cursor.generate().iterator();
+            if (resumedAt == 0 && first > 0) {
+                skip(cursor, rows, first);
+            }
+            while (row < rowCount) {
+                line.setLength(0);
+                renderer.render(line, rows.next(), row);
+                writer.append(line);
+                row++;
+                if (row % checkpointRows == 0 && row < rowCount) {
+                    writer.flush();
+                    channel.force(false);
+                    new ExportCheckpoint(plan.getFingerprint(), row, cursor.getAttempts(), cursor.getCursors(),
+                            stream.length, checksum.getValue()).save(checkpointFile);
+                    progressListener.accept(row);
+                    if (stopCondition.getAsBoolean()) {
+                        stopped = true;
+                        break;
+                    }
+                }
+            }
+            if (!stopped) {
+                writer.write(renderer.footer(rowCount));
+            }
+        }
+        if (stopped) {
+            return row - resumedAt;
+        }
+        Files.deleteIfExists(checkpointFile);
+        progressListener.accept(row);
+        return row - resumedAt;
+    }
+
+    /**
+     * Moves a fresh cursor past the first rows, directly when every row takes one attempt
+     */
+    private static void skip(MainGenerator cursor, Iterator<String> rows, long count) {
+        if (cursor.isPositionable()) {
+            cursor.skipAttempts(count);
+        } else {
+            for (long row = 0; row < count; row++) {
+                rows.next();
+            }
+        }
+    }
+
+    /**
+     * Computes the checksum of the first {@code length} bytes of the file and cuts off the rest
+     */
+    private static void truncate(Path file, long length, CRC32 checksum) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() < length) {
+                throw new IOException("The file " + file + " is shorter than its checkpoint");
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            long position = 0;
+            while (position < length) {
+                buffer.clear().limit((int) Math.min(BUFFER_SIZE, length - position));
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    throw new IOException("The file " + file + " ended while reading it");
+                }
+                buffer.flip();
+                checksum.update(buffer);
+                position += read;
+            }
+            channel.truncate(length);
+        }
+    }
+
+    /**
+     * Stream that keeps the length and the checksum of everything written to the file
+     */
+    private static final class CheckedStream extends FilterOutputStream {
+        private final CRC32 checksum;
+        private long length;
+
+        private CheckedStream(OutputStream out, CRC32 checksum, long length) {
+            super(out);
+            this.checksum = checksum;
+            this.length = length;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            checksum.update(b);
+            length++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int count) throws IOException {
+            out.write(bytes, offset, count);
+            checksum.update(bytes, offset, count);
+            length += count;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.controller.export;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Map;
+
+/**
+ * Export target {@code ring}: publishes the rows into a memory mapped ring buffer for consumers on the same host
+ */
+public class RingBufferSinkProvider implements RowSinkProvider {
+
+    @Override
+    public String getName() {
+        return "ring";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Memory mapped ring buffer. Options: path, capacity (16 MB), maxConsumers (8), minConsumers (1), "
+                + "timeoutMillis (0, wait forever)";
+    }
+
+    @Override
+    public RowSink open(Map<String, String> options) throws IOException {
+        return new MappedRingBufferSink(Paths.get(RowSinks.requiredOption(options, "path")),
+                RowSinks.intOption(options, "capacity", MappedRingBufferSink.DEFAULT_CAPACITY),
+                RowSinks.intOption(options, "maxConsumers", MappedRingBufferSink.DEFAULT_MAX_CONSUMERS),
+                RowSinks.intOption(options, "minConsumers", 1),
+                RowSinks.longOption(options, "timeoutMillis", 0));
+    }
+}
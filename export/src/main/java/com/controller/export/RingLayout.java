@@ -0,0 +1,63 @@
+package com.controller.export;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Layout of the memory mapped ring buffer shared by {@link MappedRingBufferSink} and {@link MappedRingBufferReader}.
+ * <pre>
+ *   0    magic, written last so readers never see a half initialised header
+ *   4    version
+ *   8    capacity of the data region in bytes, a power of two
+ *   16   maximum number of consumers
+ *   24   offset of the data region
+ *   64   closed flag, set by the producer after the last row
+ *   128  producer sequence: number of bytes published since the start
+ *   192  one 64 byte line per consumer: its sequence at +0 and its state at +8
+ * </pre>
+ * Every counter has a cache line of its own so the producer and the consumers do not slow each other down.
+ * A record is an int length followed by the UTF-8 bytes of the row, padded to 8 bytes. A length of
+ * {@link #PADDING} means the rest of the ring is unused and the next record starts at the beginning.
+ * Values are stored in the native byte order, the ring is meant for processes on the same host.
+ */
+final class RingLayout {
+    static final int MAGIC = 0x4D464452;
+    static final int VERSION = 1;
+
+    static final int OFF_MAGIC = 0;
+    static final int OFF_VERSION = 4;
+    static final int OFF_CAPACITY = 8;
+    static final int OFF_MAX_CONSUMERS = 16;
+    static final int OFF_DATA = 24;
+    static final int OFF_CLOSED = 64;
+    static final int OFF_PRODUCER = 128;
+    static final int OFF_CONSUMERS = 192;
+    static final int CONSUMER_LINE = 64;
+    static final int CONSUMER_STATE = 8;
+
+    static final long STATE_FREE = 0;
+    static final long STATE_ACTIVE = 1;
+    static final long STATE_JOINING = 2;
+
+    static final int PADDING = -1;
+    static final int ALIGNMENT = 8;
+
+    static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    private RingLayout() {
+    }
+
+    static int dataOffset(int maxConsumers) {
+        return OFF_CONSUMERS + maxConsumers * CONSUMER_LINE;
+    }
+
+    static int consumerOffset(int consumer) {
+        return OFF_CONSUMERS + consumer * CONSUMER_LINE;
+    }
+
+    static int recordSize(int length) {
+        return (Integer.BYTES + length + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+}
@@ -0,0 +1,190 @@
+package com.controller.export;
+
+import com.controller.business.DataExportManager.ExportFormat;
+import com.controller.business.DataExportManager.ExportSettings;
+
+/**
+ * Renders generated rows into the textual representation of an export format.
+ * The renderer is stateless, the index of the row is passed in so formats that need separators or ids can use it.
+ */
+public class RowRenderer {
+    private final ExportFormat format;
+    private final boolean includeHeaders;
+    private final String tableName;
+
+    /**
+     * @param format         the export format to render
+     * @param includeHeaders whether a header line should be written for formats that support one
+     * @param tableName      the table used by SQL insert statements
+     */
+    public RowRenderer(ExportFormat format, boolean includeHeaders, String tableName) {
+        if (format == null) {
+            throw new IllegalArgumentException("No export format has been passed to the renderer");
+        }
+        this.format = format;
+        this.includeHeaders = includeHeaders;
+        this.tableName = tableName;
+    }
+
+    /**
+     * Creates a renderer from the given export settings
+     * @param settings the export settings
+     * @return the renderer for the configured format
+     */
+    public static RowRenderer forSettings(ExportSettings settings) {
+        return new RowRenderer(settings.getFormat(), settings.isIncludeHeaders(), settings.getTableName());
+    }
+
+    /**
+     * @return the export format rendered by this renderer
+     */
+    public ExportFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * @return true if rows are written one per line and the output can be split or appended to
+     */
+    public boolean isLineOriented() {
+        return format != ExportFormat.JSON && format != ExportFormat.XML;
+    }
+
+    /**
+     * @return the content written before the first row
+     */
+    public String header() {
+        switch (format) {
+            case CSV:
+                return includeHeaders ? "Generated_Data\n" : "";
+            case JSON:
+                return "[\n";
+            case XML:
+                return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<data>\n";
+            default:
+                return "";
+        }
+    }
+
+    /**
+     * Appends a single row to the output
+     * @param out   the buffer to append to
+     * @param row   the generated value
+     * @param index the zero based index of the row in the output
+     */
+    public void render(StringBuilder out, String row, long index) {
+        switch (format) {
+            case CSV:
+                out.append('"');
+                appendEscaped(out, row, '"', "\"\"");
+                out.append("\"\n");
+                break;
+            case JSON:
+                if (index > 0) {
+                    out.append(",\n");
+                }
+                out.append("  \"");
+                appendJsonEscaped(out, row);
+                out.append('"');
+                break;
+            case NDJSON:
+                out.append("{\"value\":\"");
+                appendJsonEscaped(out, row);
+                out.append("\"}\n");
+                break;
+            case SQL:
+                out.append("INSERT INTO ").append(tableName).append(" (value) VALUES ('");
+                appendEscaped(out, row, '\'', "''");
+                out.append("');\n");
+                break;
+            case XML:
+                out.append("  <record id=\"").append(index + 1).append("\">");
+                appendXmlEscaped(out, row);
+                out.append("</record>\n");
+                break;
+            case TXT:
+            default:
+                out.append(row).append('\n');
+                break;
+        }
+    }
+
+    /**
+     * @param rowCount the number of rows that have been rendered
+     * @return the content written after the last row
+     */
+    public String footer(long rowCount) {
+        switch (format) {
+            case JSON:
+                return rowCount > 0 ? "\n]\n" : "]\n";
+            case XML:
+                return "</data>";
+            default:
+                return "";
+        }
+    }
+
+    private static void appendEscaped(StringBuilder out, String value, char quote, String replacement) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == quote) {
+                out.append(replacement);
+            } else {
+                out.append(c);
+            }
+        }
+    }
+
+    private static void appendJsonEscaped(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+    }
+
+    private static void appendXmlEscaped(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&':
+                    out.append("&amp;");
+                    break;
+                case '<':
+                    out.append("&lt;");
+                    break;
+                case '>':
+                    out.append("&gt;");
+                    break;
+                case '"':
+                    out.append("&quot;");
+                    break;
+                case '\'':
+                    out.append("&apos;");
+                    break;
+                default:
+                    out.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.controller.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Destination for generated rows. Rows are handed over one at a time in generation order,
+ * closing the sink writes any trailing content and releases the underlying resources.
+ */
+public interface RowSink extends Closeable {
+
+    /**
+     * Writes a single generated row
+     * @param row the rendered value produced by the generator
+     * @throws IOException if the row could not be written
+     */
+    void write(String row) throws IOException;
+
+    /**
+     * Pushes buffered rows to the underlying destination
+     * @throws IOException if the buffered rows could not be written
+     */
+    default void flush() throws IOException {
+    }
+}
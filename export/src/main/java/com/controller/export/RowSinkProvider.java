@@ -0,0 +1,32 @@
+package com.controller.export;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Service interface for pluggable export targets.
+ * Implementations are found with {@link java.util.ServiceLoader}, so a jar on the classpath can add a target by
+ * listing its provider in {@code META-INF/services/com.controller.export.RowSinkProvider}.
+ * Targets are opened by name through {@link RowSinks}.
+ */
+public interface RowSinkProvider {
+
+    /**
+     * @return the unique name the target is selected by, for example {@code jdbc}
+     */
+    String getName();
+
+    /**
+     * @return a short description of the target and its options
+     */
+    String getDescription();
+
+    /**
+     * Opens a new sink
+     * @param options the options of the target, like the generator properties all values are strings
+     * @return the sink, owned and closed by the caller
+     * @throws IOException              if the target can not be opened
+     * @throws IllegalArgumentException if an option is missing or not valid
+     */
+    RowSink open(Map<String, String> options) throws IOException;
+}
@@ -0,0 +1,97 @@
+package com.controller.export;
+
+import com.utils.Parsers;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Registry of the {@link RowSinkProvider}s found on the classpath
+ */
+public final class RowSinks {
+    private static Map<String, RowSinkProvider> providers;
+
+    private RowSinks() {
+    }
+
+    /**
+     * @return the names of all available targets, sorted
+     */
+    public static synchronized Set<String> getNames() {
+        return Collections.unmodifiableSet(providers().keySet());
+    }
+
+    /**
+     * @param name name of the target
+     * @return the provider of the target
+     * @throws IllegalArgumentException if no provider has that name
+     */
+    public static synchronized RowSinkProvider getProvider(String name) {
+        RowSinkProvider provider = providers().get(name);
+        if (provider == null) {
+            throw new IllegalArgumentException("Unknown export target '" + name + "', available targets are " + getNames());
+        }
+        return provider;
+    }
+
+    /**
+     * Opens a sink of the named target
+     * @param name    name of the target
+     * @param options options of the target
+     * @return the sink
+     * @throws IOException if the target can not be opened
+     */
+    public static RowSink open(String name, Map<String, String> options) throws IOException {
+        return getProvider(name).open(options);
+    }
+
+    /**
+     * Forgets the loaded providers, the classpath is scanned again on the next lookup
+     */
+    public static synchronized void reload() {
+        providers = null;
+    }
+
+    private static Map<String, RowSinkProvider> providers() {
+        if (providers == null) {
+            Map<String, RowSinkProvider> loaded = new TreeMap<>();
+            for (RowSinkProvider provider : ServiceLoader.load(RowSinkProvider.class)) {
+                if (loaded.putIfAbsent(provider.getName(), provider) != null) {
+                    throw new IllegalStateException("Two export targets are called '" + provider.getName() + "'");
+                }
+            }
+            providers = loaded;
+        }
+        return providers;
+    }
+
+    /**
+     * @return the option, or the default value if the option is not set
+     */
+    static String option(Map<String, String> options, String name, String defaultValue) {
+        String value = options.get(name);
+        return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+    }
+
+    /**
+     * @return the option
+     * @throws IllegalArgumentException if the option is not set
+     */
+    static String requiredOption(Map<String, String> options, String name) {
+        return Parsers.validateNotNullOrEmpty(name, options.get(name)).trim();
+    }
+
+    static int intOption(Map<String, String> options, String name, int defaultValue) {
+        String value = options.get(name);
+        return value == null || value.trim().isEmpty() ? defaultValue : Parsers.parseAsInt(name, value.trim());
+    }
+
+    static long longOption(Map<String, String> options, String name, long defaultValue) {
+        String value = options.get(name);
+        return value == null || value.trim().isEmpty() ? defaultValue : Parsers.parseAsLong(name, value.trim());
+    }
+}
@@ -0,0 +1,183 @@
+package com.controller.export;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fan-out sink that feeds one generated row stream to several sinks at once.
+ * Every sink is drained by its own thread through a bounded queue of row batches, so rows are generated once
+ * and the producer blocks as soon as the slowest sink falls a full queue behind.
+ */
+public class TeeSink implements RowSink {
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+    public static final int DEFAULT_QUEUE_CAPACITY = 16;
+    private static final List<String> END_OF_STREAM = new ArrayList<>(0);
+    private static final long OFFER_TIMEOUT_MS = 100;
+
+    private final List<Branch> branches;
+    private final int batchSize;
+    private List<String> batch;
+    private boolean closed;
+
+    /**
+     * Creates a tee with the default batch size and queue capacity
+     * @param sinks the sinks that all receive every row
+     */
+    public TeeSink(List<? extends RowSink> sinks) {
+        this(sinks, DEFAULT_BATCH_SIZE, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param sinks         the sinks that all receive every row
+     * @param batchSize     number of rows handed to the writer threads at once
+     * @param queueCapacity number of batches a writer can fall behind before the producer blocks
+     */
+    public TeeSink(List<? extends RowSink> sinks, int batchSize, int queueCapacity) {
+        if (sinks == null || sinks.isEmpty()) {
+            throw new IllegalArgumentException("A tee needs at least one sink to write to");
+        }
+        if (batchSize <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Batch size and queue capacity must be positive");
+        }
+        this.batchSize = batchSize;
+        this.batch = new ArrayList<>(batchSize);
+        this.branches = new ArrayList<>(sinks.size());
+        for (int i = 0; i < sinks.size(); i++) {
+            Branch branch = new Branch(sinks.get(i), queueCapacity);
+            Thread thread = new Thread(branch, "tee-writer-" + i);
+            thread.setDaemon(true);
+            branch.thread = thread;
+            this.branches.add(branch);
+            thread.start();
+        }
+    }
+
+    @Override
+    public void write(String row) throws IOException {
+        if (closed) {
+            throw new IOException("The tee has already been closed");
+        }
+        batch.add(row);
+        if (batch.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Hands the pending rows to the writer threads, the sinks flush at their own pace
+     */
+    @Override
+    public void flush() throws IOException {
+        if (!batch.isEmpty()) {
+            List<String> rows = batch;
+            batch = new ArrayList<>(batchSize);
+            dispatch(rows);
+        }
+        Branch failed = firstFailure();
+        if (failed != null) {
+            throw new IOException("Tee writer failed: " + failed.failure.getMessage(), failed.failure);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        IOException failure = null;
+        try {
+            if (!batch.isEmpty()) {
+                dispatch(batch);
+            }
+            dispatch(END_OF_STREAM);
+        } catch (IOException e) {
+            failure = e;
+        }
+        for (Branch branch : branches) {
+            try {
+                branch.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (failure == null) {
+                    failure = new InterruptedIOException("Interrupted while waiting for the tee writers");
+                }
+            }
+            if (failure == null && branch.failure != null) {
+                failure = new IOException("Tee writer failed: " + branch.failure.getMessage(), branch.failure);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Puts the batch on every queue, blocking while a queue is full. Failed branches are skipped
+     * so the remaining sinks can still finish, the failure is reported by the next flush or on close.
+     */
+    private void dispatch(List<String> rows) throws IOException {
+        for (Branch branch : branches) {
+            try {
+                while (branch.failure == null && !branch.queue.offer(rows, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    // the writer is still busy, keep waiting unless it died in the meantime
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while handing rows to the tee writers");
+            }
+        }
+    }
+
+    /**
+     * @return the first branch whose sink failed, or null if all sinks are healthy
+     */
+    private Branch firstFailure() {
+        for (Branch branch : branches) {
+            if (branch.failure != null) {
+                return branch;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A single sink together with its queue and writer thread
+     */
+    private static final class Branch implements Runnable {
+        private final RowSink sink;
+        private final BlockingQueue<List<String>> queue;
+        private Thread thread;
+        private volatile Throwable failure;
+
+        private Branch(RowSink sink, int queueCapacity) {
+            this.sink = sink;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        @Override
+        public void run() {
+            try (RowSink target = sink) {
+                while (true) {
+                    List<String> rows = queue.take();
+                    if (rows == END_OF_STREAM) {
+                        break;
+                    }
+                    for (String row : rows) {
+                        target.write(row);
+                    }
+                }
+            } catch (InterruptedException e) {
+                failure = e;
+                Thread.currentThread().interrupt();
+            } catch (Throwable e) {
+                failure = e;
+            }
+        }
+    }
+}
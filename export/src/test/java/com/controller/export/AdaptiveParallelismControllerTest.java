@@ -0,0 +1,92 @@
+package com.controller.export;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.function.IntBinaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class contains tests for the class <code>{@link AdaptiveParallelismController}</code>.
+ */
+class AdaptiveParallelismControllerTest {
+
+    /**
+     * Feeds the controller the throughput of a model for the given number of intervals, with an empty queue
+     */
+    private static void climb(AdaptiveParallelismController controller, IntBinaryOperator rowsPerSecond, int intervals) {
+        for (int i = 0; i < intervals; i++) {
+            long rows = rowsPerSecond.applyAsInt(controller.getWorkers(), controller.getBatchRows());
+            controller.update(rows, 1_000_000_000L, 0, 16);
+        }
+    }
+
+    /**
+     * Test that the controller finds the peak of a template that scales up to six workers and likes batches of 16384.
+     */
+    @Test
+    void testClimbsToThePeak() {
+        AdaptiveParallelismController controller = new AdaptiveParallelismController(16, 1024, 256, 65536, 100);
+        climb(controller, (workers, batchRows) -> {
+            int scaling = workers <= 6 ? workers * 100_000 : 600_000 - (workers - 6) * 40_000;
+            int batchPenalty = Math.abs(Integer.numberOfTrailingZeros(batchRows) - 14) * 30_000;
+            return scaling - batchPenalty;
+        }, 60);
+
+        assertEquals(6, controller.getBestWorkers(), controller.describe());
+        assertEquals(16384, controller.getBestBatchRows(), controller.describe());
+        assertEquals(600_000, controller.getBestThroughput(), 1);
+        assertEquals(60, controller.getSamples().size());
+        assertEquals(controller.getSamples().get(0).getRowsPerSecond() / 8,
+                controller.getSamples().get(0).getRowsPerSecondPerWorker(), 1e-9);
+    }
+
+    /**
+     * Test that a sequential template only tunes the batch size and that the settings are held once nothing helps.
+     */
+    @Test
+    void testSingleWorkerAndHold() {
+        AdaptiveParallelismController controller = new AdaptiveParallelismController(8, 4096, 256, 65536, 100);
+        controller.start(1);
+        assertEquals(1, controller.getWorkers());
+
+        // a step up and a step down with a baseline measurement before each
+        climb(controller, (workers, batchRows) -> 50_000, 4);
+        assertEquals(1, controller.getBestWorkers());
+        assertEquals(4096, controller.getBestBatchRows());
+
+        // neither step helped, the settings are held and then the search starts again
+        for (int i = 0; i < AdaptiveParallelismController.HOLD_INTERVALS; i++) {
+            assertFalse(controller.update(50_000, 1_000_000_000L, 0, 16));
+        }
+        assertEquals(4096, controller.getBatchRows());
+        assertTrue(controller.update(50_000, 1_000_000_000L, 0, 16));
+        assertEquals(8192, controller.getBatchRows());
+    }
+
+    /**
+     * Test that a full queue of generated batches makes the first step of the workers go down.
+     */
+    @Test
+    void testFullQueueStepsDown() {
+        AdaptiveParallelismController controller = new AdaptiveParallelismController(8);
+        assertEquals(4, controller.getWorkers());
+        assertTrue(controller.update(100_000, 1_000_000_000L, 16, 16));
+        assertEquals(3, controller.getWorkers());
+
+        controller.start(8);
+        assertTrue(controller.update(100_000, 1_000_000_000L, 0, 16));
+        assertEquals(5, controller.getWorkers());
+    }
+
+    /**
+     * Test that invalid settings are refused.
+     */
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveParallelismController(0));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveParallelismController(4, 100, 256, 1024, 100));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveParallelismController(4, 512, 1024, 256, 100));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveParallelismController(4, 512, 256, 1024, 0));
+    }
+}
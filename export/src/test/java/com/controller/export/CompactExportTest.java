@@ -0,0 +1,227 @@
+package com.controller.export;
+
+import com.controller.InputProcessor;
+import com.controller.business.DataExportManager;
+import com.controller.generators.MainGenerator;
+import com.model.GeneratorConfiguration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class contains tests for the classes <code>{@link CompactExportWriter}</code> and <code>{@link CompactExportReader}</code>.
+ */
+class CompactExportTest {
+
+    @TempDir
+    Path tempDir;
+
+    static GeneratorConfiguration.GeneratorConfig generator(int index, String type, String... properties) {
+        Map<String, String> map = new HashMap<>();
+        for (int i = 0; i < properties.length; i += 2) {
+            map.put(properties[i], properties[i + 1]);
+        }
+        return new GeneratorConfiguration.GeneratorConfig(index, type, map, "EVALUATION".equals(type));
+    }
+
+    static GeneratorConfiguration configuration(String format, GeneratorConfiguration.GeneratorConfig... generators) {
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setTemplateFormat(format);
+        configuration.setGenerators(Arrays.asList(generators));
+        return configuration;
+    }
+
+    /**
+     * Department code followed by a number, no tools
+     */
+    static GeneratorConfiguration sequentialKeys() {
+        return configuration("{0}-{1}",
+                generator(1, "SEQUENTIALNUMBERGENERATOR", "input", "1", "start", "1000000", "step", "1", "length", "7"),
+                generator(0, "SEQUENTIALASCIIGENERATOR", "input", "0", "list", "A,B,C", "start", "A", "length", "1"));
+    }
+
+    /**
+     * Numbers whose digits add up to a multiple of the divisor, so most attempts are rejected for a large divisor
+     */
+    static GeneratorConfiguration checkedNumbers(int divisor) {
+        return configuration("{0}",
+                generator(0, "SEQUENTIALNUMBERGENERATOR", "input", "0", "start", "10000", "step", "1", "length", "5"),
+                generator(1, "EVALUATION", "input", "0", "formula", "(A+B+C+D+E) % " + divisor + " == 0"));
+    }
+
+    private static List<String> generate(GeneratorConfiguration configuration, int rows) {
+        MainGenerator generator = InputProcessor.fromConfiguration(configuration).getMainGenerator();
+        return generator.generate().limit(rows).collect(Collectors.toList());
+    }
+
+    private static List<String> expand(CompactExportReader reader) throws IOException {
+        List<String> rows = new ArrayList<>();
+        reader.expand(new RowSink() {
+            @Override
+            public void write(String row) {
+                rows.add(row);
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        return rows;
+    }
+
+    /**
+     * Test that a template without tools is stored as a single tiny run and expands to the generated rows.
+     */
+    @Test
+    void testSequentialTemplateRoundTrip() throws IOException {
+        Path file = tempDir.resolve("keys.mfdc");
+        try (CompactExportWriter writer = new CompactExportWriter(file)) {
+            int template = writer.addTemplate(sequentialKeys());
+            writer.write(template, 20_000);
+            writer.write(template, 10_000);
+            assertEquals(2, writer.getRunCount());
+        }
+        assertTrue(Files.size(file) < 200, "compact file should only hold the template and two runs");
+
+        try (CompactExportReader reader = CompactExportReader.open(file)) {
+            assertEquals(30_000, reader.getRowCount());
+            List<String> expected = generate(sequentialKeys(), 30_000);
+            assertEquals(expected, expand(reader));
+            assertEquals(expected.get(0), reader.row(0));
+            assertEquals(expected.get(19_999), reader.row(19_999));
+            assertEquals(expected.get(20_000), reader.row(20_000));
+            assertEquals(expected.get(29_999), reader.row(29_999));
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.row(30_000));
+        }
+    }
+
+    /**
+     * Test that a template counting down is generated attempt by attempt, since its values drop below the length of
+     * their slot, so the file holds exactly the rows of the generator.
+     */
+    @Test
+    void testCountdownIsNotSkipped() throws IOException {
+        GeneratorConfiguration countdown = configuration("{0}",
+                generator(0, "SEQUENTIALNUMBERGENERATOR", "input", "0", "start", "165", "step", "-55", "length", "3"));
+        assertThrows(IllegalArgumentException.class, () -> generate(countdown, 4));
+
+        Path file = tempDir.resolve("countdown.mfdc");
+        try (CompactExportWriter writer = new CompactExportWriter(file)) {
+            // 110 and -55 have the length of the slot, but 55 and 0 in between do not
+            int template = writer.addTemplate(countdown);
+            assertThrows(IllegalArgumentException.class, () -> writer.write(template, 4));
+            assertEquals(0, writer.getRowCount());
+
+            int slow = writer.addTemplate(configuration("{0}",
+                    generator(0, "SEQUENTIALNUMBERGENERATOR", "input", "0", "start", "999", "step", "-1", "length", "3")));
+            assertEquals(500, writer.write(slow, 500));
+        }
+        try (CompactExportReader reader = CompactExportReader.open(file)) {
+            List<String> rows = expand(reader);
+            assertEquals(500, rows.size());
+            assertEquals("998", rows.get(0));
+            assertEquals("499", rows.get(499));
+            assertEquals("750", reader.row(248));
+        }
+    }
+
+    /**
+     * Test that rows rejected by an evaluator are recorded as exceptions, with both exception modes.
+     */
+    @Test
+    void testEvaluatorExceptionsRoundTrip() throws IOException {
+        for (int divisor : new int[]{2, 9}) {
+            Path file = tempDir.resolve("checked-" + divisor + ".mfdc");
+            try (CompactExportWriter writer = new CompactExportWriter(file)) {
+                writer.write(writer.addTemplate(checkedNumbers(divisor)), 8_000);
+            }
+
+            List<String> expected = new ArrayList<>();
+            for (int number = 10001; expected.size() < 8_000; number++) {
+                if (Integer.toString(number).chars().map(c -> c - '0').sum() % divisor == 0) {
+                    expected.add(Integer.toString(number));
+                }
+            }
+            try (CompactExportReader reader = CompactExportReader.open(file)) {
+                assertEquals(8_000, reader.getRowCount());
+                assertTrue(reader.getAttemptCount() > 8_000);
+                assertEquals(expected, expand(reader));
+                for (int row : new int[]{7_999, 0, 1_234, 1_235, 17, 7_300}) {
+                    assertEquals(expected.get(row), reader.row(row));
+                }
+            }
+        }
+    }
+
+    /**
+     * Test that runs of several templates are kept apart and a template needs sequential slots before the tools.
+     */
+    @Test
+    void testTemplatesAndValidation() throws IOException {
+        Path file = tempDir.resolve("mixed.mfdc");
+        try (CompactExportWriter writer = new CompactExportWriter(file)) {
+            int keys = writer.addTemplate(sequentialKeys());
+            int checked = writer.addTemplate(checkedNumbers(3));
+            writer.write(keys, 10);
+            writer.write(checked, 10);
+            writer.write(keys, 10);
+
+            assertThrows(IllegalArgumentException.class, () -> writer.addTemplate(configuration("{0}{1}",
+                    generator(0, "EVALUATION", "input", "1", "formula", "A == 1"),
+                    generator(1, "SEQUENTIALNUMBERGENERATOR", "input", "1", "start", "10", "step", "1", "length", "2"))));
+        }
+
+        try (CompactExportReader reader = CompactExportReader.open(file)) {
+            assertEquals(2, reader.getTemplates().size());
+            List<String> rows = expand(reader);
+            List<String> keys = generate(sequentialKeys(), 20);
+            assertEquals(keys.subList(0, 10), rows.subList(0, 10));
+            assertEquals(generate(checkedNumbers(3), 10), rows.subList(10, 20));
+            assertEquals(keys.subList(10, 20), rows.subList(20, 30));
+            assertEquals(keys.get(15), reader.row(25));
+        }
+    }
+
+    /**
+     * Test that the export manager writes compact files and reports the failure of an exhausted template.
+     */
+    @Test
+    void testExportCompact() throws IOException {
+        DataExportManager exportManager = new DataExportManager();
+        String path = tempDir.resolve("export.mfdc").toString();
+        DataExportManager.ExportResult result = exportManager.exportCompact(sequentialKeys(), 1_000_000, path);
+        assertTrue(result.isSuccess(), result.getError());
+        assertEquals(1_000_000, result.getRecordCount());
+        assertTrue(result.getFileSize() < 200);
+
+        DataExportManager.ExportResult exhausted = exportManager.exportCompact(sequentialKeys(), 1_000_000_000L,
+                tempDir.resolve("exhausted.mfdc").toString());
+        exportManager.shutdown();
+        assertFalse(exhausted.isSuccess());
+
+        try (CompactExportReader reader = CompactExportReader.open(tempDir.resolve("export.mfdc"))) {
+            assertEquals("A-1900000", reader.row(899_999));
+        }
+    }
+
+    /**
+     * Test that files that are not compact exports are rejected.
+     */
+    @Test
+    void testInvalidFile() throws IOException {
+        Path file = tempDir.resolve("plain.txt");
+        Files.write(file, "A-100001\n".getBytes());
+        assertThrows(IOException.class, () -> CompactExportReader.open(file));
+    }
+}
@@ -0,0 +1,230 @@
+package com.controller.export;
+
+import com.controller.InputProcessor;
+import com.controller.business.DataExportManager;
+import com.controller.business.DataExportManager.ExportFormat;
+import com.controller.business.DataExportManager.ExportSettings;
+import com.controller.generators.GenerationPlan;
+import com.model.GeneratorConfiguration;
+import com.service.ConfigurationFileParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class contains tests for the class <code>{@link GenerationPipeline}</code>.
+ */
+class GenerationPipelineTest {
+    private static final String KEYS = "SEQUENTIALNUMBERGENERATOR:input=0;start=100000;step=1;length=6";
+    private static final String EVEN = "EVALUATION:input=0;formula=(A+B+C+D+E+F) % 2 == 0";
+
+    @TempDir
+    Path tempDir;
+
+    private static GenerationPlan compile(String templateFormat, String... specs) {
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setTemplateFormat(templateFormat);
+        List<GeneratorConfiguration.GeneratorConfig> generators = new ArrayList<>();
+        for (int i = 0; i < specs.length; i++) {
+            generators.add(ConfigurationFileParser.parseGeneratorSpec(i, specs[i]));
+        }
+        configuration.setGenerators(generators);
+        return InputProcessor.compile(configuration);
+    }
+
+    private static RowRenderer renderer(ExportFormat format) {
+        ExportSettings settings = new ExportSettings();
+        settings.setFormat(format);
+        return RowRenderer.forSettings(settings);
+    }
+
+    /**
+     * Renders rows {@code first} up to {@code first + rows} on the calling thread, the way a {@link FormatRowWriter} does
+     */
+    private static String sequential(GenerationPlan plan, long first, long rows, ExportFormat format) throws IOException {
+        StringWriter text = new StringWriter();
+        Iterator<String> iterator = plan.newCursor().generate().skip(first).limit(rows).iterator();
+        try (FormatRowWriter writer = new FormatRowWriter(text, renderer(format))) {
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+            }
+        }
+        return text.toString();
+    }
+
+    private static String pipelined(GenerationPipeline pipeline, GenerationPlan plan, long first, long rows,
+                                    ExportFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(rows, pipeline.run(plan, first, rows, renderer(format), StandardCharsets.UTF_8, out, true));
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Test that several generator and renderer workers write the same output as a single thread, in every format
+     * that depends on the index of the row.
+     */
+    @Test
+    void testOutputMatchesSequentialWriter() throws IOException {
+        GenerationPlan plan = compile("K-{0}", KEYS);
+        GenerationPipeline pipeline = new GenerationPipeline(4, 3, 100, true);
+
+        for (ExportFormat format : new ExportFormat[]{ExportFormat.TXT, ExportFormat.JSON, ExportFormat.XML}) {
+            assertEquals(sequential(plan, 250, 5_050, format), pipelined(pipeline, plan, 250, 5_050, format), format.name());
+        }
+        assertEquals(sequential(plan, 0, 0, ExportFormat.JSON), pipelined(pipeline, plan, 0, 0, ExportFormat.JSON));
+    }
+
+    /**
+     * Test that a template with a tool is generated by a single worker and still rendered in order.
+     */
+    @Test
+    void testTemplateWithTool() throws IOException {
+        GenerationPlan plan = compile("{0}", KEYS, EVEN);
+        assertFalse(plan.isPositionable());
+
+        assertEquals(sequential(plan, 30, 3_000, ExportFormat.CSV),
+                pipelined(new GenerationPipeline(4, 2, 64, false), plan, 30, 3_000, ExportFormat.CSV));
+    }
+
+    /**
+     * Test that a template that runs out of values fails the run instead of hanging.
+     */
+    @Test
+    void testFailureIsReported() {
+        GenerationPlan plan = compile("{0}", "SEQUENTIALNUMBERGENERATOR:input=0;start=99000;step=1;length=5");
+        GenerationPipeline pipeline = new GenerationPipeline(4, 2, 100, true);
+
+        IOException failure = assertThrows(IOException.class,
+                () -> pipeline.run(plan, 0, 5_000, renderer(ExportFormat.TXT), StandardCharsets.UTF_8,
+                        new ByteArrayOutputStream(), true));
+        assertTrue(failure.getCause() instanceof IllegalArgumentException);
+        assertThrows(IllegalArgumentException.class, () -> new GenerationPipeline(0, 1, 100, true));
+    }
+
+    /**
+     * Test that an unordered pipeline writes every row once, and refuses formats whose rows depend on their order.
+     */
+    @Test
+    void testUnorderedOutput() throws IOException {
+        GenerationPlan plan = compile("K-{0}", KEYS);
+        GenerationPipeline pipeline = new GenerationPipeline(4, 3, 100, true, false);
+        assertFalse(pipeline.isOrdered());
+
+        List<String> expected = new ArrayList<>(Arrays.asList(sequential(plan, 250, 5_050, ExportFormat.CSV).split("\n")));
+        List<String> actual = new ArrayList<>(Arrays.asList(pipelined(pipeline, plan, 250, 5_050, ExportFormat.CSV).split("\n")));
+        assertEquals(expected.remove(0), actual.remove(0));
+        Collections.sort(actual);
+        assertEquals(expected, actual);
+
+        assertThrows(IllegalArgumentException.class, () -> pipelined(pipeline, plan, 0, 10, ExportFormat.JSON));
+        assertThrows(IllegalArgumentException.class, () -> pipelined(pipeline, plan, 0, 10, ExportFormat.XML));
+    }
+
+    /**
+     * Test that a pipeline whose workers and batch sizes change while it runs still writes the sequential output.
+     */
+    @Test
+    void testAdaptiveController() throws IOException {
+        GenerationPlan plan = compile("K-{0}", KEYS);
+        GenerationPipeline pipeline = new GenerationPipeline(4, 2, 100, true);
+        AdaptiveParallelismController controller = new AdaptiveParallelismController(8, 64, 16, 1024, 1);
+        pipeline.setController(controller);
+
+        for (ExportFormat format : new ExportFormat[]{ExportFormat.XML, ExportFormat.CSV}) {
+            assertEquals(sequential(plan, 17, 200_000, format), pipelined(pipeline, plan, 17, 200_000, format), format.name());
+        }
+        assertFalse(controller.getSamples().isEmpty());
+        assertTrue(controller.getBestWorkers() >= 1 && controller.getBestWorkers() <= 4, controller.describe());
+        assertTrue(controller.getSamples().stream().map(s -> s.getWorkers() + "/" + s.getBatchRows()).distinct().count() > 1,
+                controller.describe());
+
+        GenerationPlan withTool = compile("{0}", KEYS, EVEN);
+        assertEquals(sequential(withTool, 0, 20_000, ExportFormat.TXT), pipelined(pipeline, withTool, 0, 20_000, ExportFormat.TXT));
+        assertEquals(1, controller.getBestWorkers());
+    }
+
+    /**
+     * Test the pipelined export of the export manager, appending leaves out the header.
+     */
+    @Test
+    void testExportPipelined() throws IOException {
+        GenerationPlan plan = compile("{0}", KEYS);
+        ExportSettings settings = new ExportSettings();
+        settings.setFormat(ExportFormat.CSV);
+        settings.setFilePath(tempDir.resolve("keys").toString());
+        settings.setAppendMode(true);
+
+        DataExportManager exportManager = new DataExportManager();
+        DataExportManager.ExportResult result = exportManager.exportPipelined(plan, 10_000, settings, 2);
+        DataExportManager.ExportResult appended = exportManager.exportPipelined(plan, 10, settings, 2);
+        exportManager.shutdown();
+
+        assertTrue(result.isSuccess(), result.getError());
+        assertTrue(appended.isSuccess(), appended.getError());
+        List<String> lines = Files.readAllLines(tempDir.resolve("keys.csv"), StandardCharsets.UTF_8);
+        assertEquals(10_011, lines.size());
+        assertEquals("\"100001\"", lines.get(1));
+        assertEquals("\"100001\"", lines.get(10_001));
+    }
+
+    /**
+     * Test that a cancelled run stops before the next batch and leaves out the footer.
+     */
+    @Test
+    void testCancelledRun() throws IOException {
+        GenerationPlan plan = compile("{0}", KEYS);
+        GenerationPipeline pipeline = new GenerationPipeline(4, 2, 100, true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int header = renderer(ExportFormat.JSON).header().length();
+
+        // cancelled as soon as the first batch has been written
+        long written = pipeline.run(plan, 0, 500_000, renderer(ExportFormat.JSON), StandardCharsets.UTF_8, out, true,
+                () -> out.size() > header);
+
+        assertEquals(100, written);
+        String json = out.toString(StandardCharsets.UTF_8);
+        assertTrue(json.contains("\"100100\""), json);
+        assertFalse(json.contains("\"100101\""), json);
+        assertFalse(json.trim().endsWith("]"), json);
+    }
+
+    /**
+     * Test that cancelling a pipelined export of the export manager stops it and reports the cancellation.
+     */
+    @Test
+    void testExportPipelinedCancelled() throws Exception {
+        GenerationPlan plan = compile("{0}", "SEQUENTIALNUMBERGENERATOR:input=0;start=100000000;step=1;length=9");
+        ExportSettings settings = new ExportSettings();
+        settings.setFormat(ExportFormat.TXT);
+        settings.setFilePath(tempDir.resolve("cancelled").toString());
+
+        DataExportManager exportManager = new DataExportManager();
+        CompletableFuture<DataExportManager.ExportResult> export =
+                CompletableFuture.supplyAsync(() -> exportManager.exportPipelined(plan, 800_000_000, settings, 2));
+        while (!exportManager.isExporting() && !export.isDone()) {
+            Thread.onSpinWait();
+        }
+        exportManager.cancelExport();
+        DataExportManager.ExportResult result = export.get(30, TimeUnit.SECONDS);
+        exportManager.shutdown();
+
+        assertFalse(result.isSuccess());
+        assertTrue(result.getError().startsWith("Export cancelled after "), result.getError());
+        assertTrue(exportManager.getExportHistory().isEmpty());
+    }
+}
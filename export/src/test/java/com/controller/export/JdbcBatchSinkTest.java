@@ -0,0 +1,120 @@
+package com.controller.export;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * The class contains tests for the class <code>{@link JdbcBatchSink}</code>.
+ */
+class JdbcBatchSinkTest {
+
+    /**
+     * Stub connection that records the rows of every executed batch
+     */
+    private static final class RecordingConnection {
+        private final Connection connection = mock(Connection.class);
+        private final PreparedStatement statement = mock(PreparedStatement.class);
+        private final List<String> pending = new ArrayList<>();
+        private final List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+        private String current;
+
+        private RecordingConnection(boolean failOnExecute) throws SQLException {
+            when(connection.prepareStatement(anyString())).thenReturn(statement);
+            when(connection.getAutoCommit()).thenReturn(false);
+            doAnswer(invocation -> current = invocation.getArgument(1)).when(statement).setString(anyInt(), anyString());
+            doAnswer(invocation -> pending.add(current)).when(statement).addBatch();
+            when(statement.executeBatch()).thenAnswer(invocation -> {
+                if (failOnExecute) {
+                    throw new SQLException("duplicate key");
+                }
+                batches.add(new ArrayList<>(pending));
+                int[] counts = new int[pending.size()];
+                pending.clear();
+                return counts;
+            });
+        }
+    }
+
+    /**
+     * Test that every batch ends up on its own connection, batch b on connection b % N, and is committed.
+     */
+    @Test
+    void testBatchesAreSpreadOverConnections() throws Exception {
+        List<RecordingConnection> recorders = new ArrayList<>();
+        List<Connection> connections = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            RecordingConnection recorder = new RecordingConnection(false);
+            recorders.add(recorder);
+            connections.add(recorder.connection);
+        }
+
+        JdbcBatchSink sink = new JdbcBatchSink(connections, "keys", "value", 100);
+        for (int i = 0; i < 1050; i++) {
+            sink.write("K" + i);
+        }
+        sink.close();
+
+        assertEquals(1050, sink.getRowCount());
+        assertEquals(11, sink.getBatchCount());
+        for (int c = 0; c < 3; c++) {
+            RecordingConnection recorder = recorders.get(c);
+            verify(recorder.connection).prepareStatement("INSERT INTO keys (value) VALUES (?)");
+            verify(recorder.connection, times(recorder.batches.size())).commit();
+            verify(recorder.connection).close();
+            for (int b = 0; b < recorder.batches.size(); b++) {
+                int batchNumber = c + 3 * b;
+                List<String> rows = recorder.batches.get(b);
+                assertEquals("K" + batchNumber * 100, rows.get(0));
+                assertEquals(batchNumber == 10 ? 50 : 100, rows.size());
+            }
+        }
+        assertEquals(4, recorders.get(0).batches.size());
+        assertEquals(4, recorders.get(1).batches.size());
+        assertEquals(3, recorders.get(2).batches.size());
+    }
+
+    /**
+     * Test that a failing batch is rolled back and reported to the producer.
+     */
+    @Test
+    void testFailureIsReported() throws Exception {
+        RecordingConnection healthy = new RecordingConnection(false);
+        RecordingConnection failing = new RecordingConnection(true);
+        JdbcBatchSink sink = new JdbcBatchSink(List.of(healthy.connection, failing.connection), "keys", "value", 10);
+
+        IOException failure = assertThrows(IOException.class, () -> {
+            for (int i = 0; i < 10_000; i++) {
+                sink.write("K" + i);
+            }
+            sink.close();
+        });
+        assertTrue(failure.getMessage().contains("duplicate key"), failure.getMessage());
+        assertThrows(IOException.class, sink::close);
+        verify(failing.connection).rollback();
+        verify(failing.connection).close();
+        verify(healthy.connection).close();
+    }
+
+    /**
+     * Test that table and column names are checked before they end up in the statement.
+     */
+    @Test
+    void testInvalidNames() throws Exception {
+        List<Connection> connections = List.of(new RecordingConnection(false).connection);
+        assertThrows(IllegalArgumentException.class, () -> new JdbcBatchSink(connections, "keys; DROP TABLE x", "value", 10));
+        assertThrows(IllegalArgumentException.class, () -> new JdbcBatchSink(connections, "keys", "value", 0));
+        assertThrows(IllegalArgumentException.class, () -> new JdbcBatchSink(Collections.emptyList(), "keys", "value", 10));
+    }
+}
@@ -0,0 +1,166 @@
+package com.controller.export;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class contains tests for the classes <code>{@link MappedRingBufferSink}</code> and <code>{@link MappedRingBufferReader}</code>.
+ */
+class MappedRingBufferTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static List<String> readAll(MappedRingBufferReader reader) throws IOException {
+        List<String> rows = new ArrayList<>();
+        String row;
+        while ((row = reader.take()) != null) {
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * Test that every consumer receives every row in order while the producer wraps around a small ring many times.
+     */
+    @Test
+    void testAllConsumersReceiveAllRows() throws Exception {
+        Path file = tempDir.resolve("keys.ring");
+        int rows = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (MappedRingBufferSink sink = new MappedRingBufferSink(file, 4096, 4, 2, 10_000)) {
+            MappedRingBufferReader first = MappedRingBufferReader.open(file);
+            MappedRingBufferReader second = MappedRingBufferReader.open(file);
+            Future<List<String>> firstRows = executor.submit(() -> {
+                try (MappedRingBufferReader reader = first) {
+                    return readAll(reader);
+                }
+            });
+            Future<List<String>> secondRows = executor.submit(() -> {
+                try (MappedRingBufferReader reader = second) {
+                    return readAll(reader);
+                }
+            });
+
+            assertEquals(2, sink.getConsumerCount());
+            for (int i = 0; i < rows; i++) {
+                sink.write("KEY-" + i + (i % 7 == 0 ? "-with-a-longer-suffix-ü" : ""));
+            }
+            sink.close();
+
+            for (Future<List<String>> future : List.of(firstRows, secondRows)) {
+                List<String> received = future.get(30, TimeUnit.SECONDS);
+                assertEquals(rows, received.size());
+                assertEquals("KEY-0-with-a-longer-suffix-ü", received.get(0));
+                assertEquals("KEY-49999", received.get(rows - 1));
+            }
+            assertTrue(sink.getSequence() > 4096 * 100, "the producer should have wrapped around the ring");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Test that rows can be read without copies and that a late consumer starts at the live position.
+     */
+    @Test
+    void testDrainAndLateConsumer() throws IOException {
+        Path file = tempDir.resolve("late.ring");
+        try (MappedRingBufferSink sink = new MappedRingBufferSink(file, 4096, 2, 1, 1_000);
+             MappedRingBufferReader reader = MappedRingBufferReader.open(file)) {
+            sink.write("A");
+            sink.write("B");
+            try (MappedRingBufferReader late = MappedRingBufferReader.open(file)) {
+                sink.write("C");
+                assertEquals("C", late.poll());
+                assertNull(late.poll());
+            }
+
+            List<Integer> lengths = new ArrayList<>();
+            assertEquals(2, reader.drain(row -> lengths.add(row.remaining()), 2));
+            assertEquals(1, reader.drain(row -> lengths.add(row.remaining()), 10));
+            assertEquals(List.of(1, 1, 1), lengths);
+            assertEquals(0, reader.drain(row -> fail("no rows left"), 10));
+
+            sink.close();
+            assertTrue(reader.isEndOfStream());
+            assertEquals(-1, reader.drain(row -> fail("no rows left"), 10));
+        }
+    }
+
+    /**
+     * Test that the producer gives up when no consumer makes room and that oversized rows are rejected.
+     */
+    @Test
+    void testTimeoutAndLimits() throws IOException {
+        Path file = tempDir.resolve("stuck.ring");
+        try (MappedRingBufferSink sink = new MappedRingBufferSink(file, 4096, 1, 1, 100);
+             MappedRingBufferReader reader = MappedRingBufferReader.open(file)) {
+            assertThrows(IOException.class, () -> MappedRingBufferReader.open(file));
+            assertThrows(IOException.class, () -> sink.write(new String(new char[3000])));
+            assertThrows(IOException.class, () -> {
+                for (int i = 0; i < 1000; i++) {
+                    sink.write("ROW-" + i);
+                }
+            });
+            assertEquals("ROW-0", reader.poll());
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> new MappedRingBufferSink(file, 5000, 1, 1, 0));
+        try (MappedRingBufferSink unattended = new MappedRingBufferSink(tempDir.resolve("lossy.ring"), 4096, 1, 0, 100)) {
+            for (int i = 0; i < 10_000; i++) {
+                unattended.write("ROW-" + i);
+            }
+        }
+    }
+
+    /**
+     * Test that consumers joining a ring that nobody holds back, while the producer keeps lapping it, start at rows
+     * that have not been overwritten during the join.
+     */
+    @Test
+    void testJoinWhileProducerLaps() throws Exception {
+        Path file = tempDir.resolve("busy.ring");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (MappedRingBufferSink sink = new MappedRingBufferSink(file, 4096, 2, 0, 10_000)) {
+            AtomicBoolean stop = new AtomicBoolean();
+            Future<?> producer = executor.submit(() -> {
+                for (long i = 0; !stop.get(); i++) {
+                    sink.write("ROW-" + i + (i % 3 == 0 ? "-padded-to-another-length" : ""));
+                }
+                return null;
+            });
+            try {
+                for (int join = 0; join < 2_000; join++) {
+                    try (MappedRingBufferReader reader = MappedRingBufferReader.open(file)) {
+                        long previous = -1;
+                        for (int row = 0; row < 20; row++) {
+                            String value = reader.take();
+                            assertTrue(value.matches("ROW-\\d+(-padded-to-another-length)?"), value);
+                            long number = Long.parseLong(value.split("-")[1]);
+                            assertTrue(previous < 0 || number == previous + 1, previous + " then " + value);
+                            previous = number;
+                        }
+                    }
+                }
+            } finally {
+                stop.set(true);
+                producer.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
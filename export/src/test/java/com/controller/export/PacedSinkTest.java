@@ -0,0 +1,113 @@
+package com.controller.export;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class contains tests for the class <code>{@link PacedSink}</code>.
+ */
+class PacedSinkTest {
+
+    /**
+     * Sink that keeps the rows and stalls once at a given row
+     */
+    private static final class RecordingSink implements RowSink {
+        private final List<String> rows = new ArrayList<>();
+        private final int stallAt;
+        private final long stallMillis;
+        private int flushes;
+
+        private RecordingSink(int stallAt, long stallMillis) {
+            this.stallAt = stallAt;
+            this.stallMillis = stallMillis;
+        }
+
+        @Override
+        public void write(String row) throws IOException {
+            if (rows.size() == stallAt) {
+                try {
+                    Thread.sleep(stallMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            rows.add(row);
+        }
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Test that the rows are written at the target rate and every row is passed on.
+     */
+    @Test
+    void testRowsAreWrittenAtTheRate() throws IOException {
+        RecordingSink target = new RecordingSink(-1, 0);
+        PacedSink sink = new PacedSink(target, 20_000);
+        long start = System.nanoTime();
+        for (int i = 0; i < 10_000; i++) {
+            sink.write("row-" + i);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        assertEquals(10_000, target.rows.size());
+        assertEquals("row-9999", target.rows.get(9_999));
+        assertEquals(10_000, sink.getRowCount());
+        assertTrue(elapsed >= 499_000_000L, "elapsed " + elapsed);
+        assertEquals(20_000, sink.getAchievedRate(), 1_000, sink.report());
+        assertEquals(10_000, sink.getLatencies().getCount());
+        assertEquals(10_000, sink.getScheduleLag().getCount());
+        assertTrue(sink.report().startsWith("Paced 10000 rows at "), sink.report());
+    }
+
+    /**
+     * Test that a stall of the target counts for every row that should have been sent during it, and the rate
+     * catches up afterwards.
+     */
+    @Test
+    void testStallIsMeasuredFromTheIntendedTime() throws IOException {
+        RecordingSink target = new RecordingSink(100, 50);
+        PacedSink sink = new PacedSink(target, 10_000);
+        for (int i = 0; i < 2_000; i++) {
+            sink.write("row-" + i);
+        }
+
+        // the stall of 50 ms holds up the 500 rows due in that time, all of them report it
+        assertTrue(sink.getLatencies().getMax() >= 50_000_000L, sink.report());
+        assertTrue(sink.getLatencies().getPercentile(80) >= 10_000_000L, sink.report());
+        assertTrue(sink.getScheduleLag().getPercentile(80) >= 10_000_000L, sink.report());
+        assertEquals(10_000, sink.getAchievedRate(), 1_000, sink.report());
+    }
+
+    /**
+     * Test that a slow rate flushes the target while waiting, and invalid arguments are refused.
+     */
+    @Test
+    void testFlushWhileWaitingAndArguments() throws IOException {
+        RecordingSink target = new RecordingSink(-1, 0);
+        PacedSink sink = new PacedSink(target, 200);
+        for (int i = 0; i < 5; i++) {
+            sink.write("row-" + i);
+        }
+        // every wait before the next four rows flushes, unless the test thread was held up for a whole interval
+        assertTrue(target.flushes >= 1 && target.flushes <= 4, "flushes " + target.flushes);
+        assertEquals(0, new PacedSink(target, 1).getAchievedRate());
+
+        assertThrows(IllegalArgumentException.class, () -> new PacedSink(null, 100));
+        assertThrows(IllegalArgumentException.class, () -> new PacedSink(target, 0));
+        assertThrows(IllegalArgumentException.class, () -> new PacedSink(target, Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> new PacedSink(target, Double.POSITIVE_INFINITY));
+    }
+}
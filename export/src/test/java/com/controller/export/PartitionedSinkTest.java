@@ -0,0 +1,220 @@
+package com.controller.export;
+
+import com.controller.InputProcessor;
+import com.controller.business.DataExportManager;
+import com.controller.generators.MainGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class contains tests for the classes <code>{@link PartitionedSink}</code> and <code>{@link PartitionExpression}</code>.
+ */
+class PartitionedSinkTest {
+
+    @TempDir
+    Path tempDir;
+
+    private DataExportManager.ExportSettings settings(String expression) {
+        DataExportManager.ExportSettings settings = new DataExportManager.ExportSettings();
+        settings.setFormat(DataExportManager.ExportFormat.TXT);
+        settings.setFilePath(tempDir.resolve("keys.txt").toString());
+        settings.setPartitionExpression(expression);
+        return settings;
+    }
+
+    /**
+     * Test for method {@link PartitionExpression#partitionOf(String, Map)}.
+     */
+    @Test
+    void testPartitionExpressions() {
+        Map<Integer, String> slots = new HashMap<>();
+        slots.put(0, "HR");
+        slots.put(1, "0042");
+
+        assertEquals("HR-0042", PartitionExpression.parse("value").partitionOf("HR-0042", slots));
+        assertEquals("HR", PartitionExpression.parse("prefix(value, 2)").partitionOf("HR-0042", slots));
+        assertEquals("00", PartitionExpression.parse("prefix( slot[1] ,2)").partitionOf("HR-0042", slots));
+        assertEquals("HR", PartitionExpression.parse("slot[0]").partitionOf("HR-0042", slots));
+        String bucket = PartitionExpression.parse("hash(value) % 64").partitionOf("HR-0042", slots);
+        assertEquals(Integer.toString(Math.floorMod("HR-0042".hashCode(), 64)), bucket);
+        assertTrue(PartitionExpression.parse("hash(slot[1]) % 4").usesSlots());
+        assertFalse(PartitionExpression.parse("prefix(value,1)").usesSlots());
+    }
+
+    /**
+     * Test that invalid expressions are rejected.
+     */
+    @Test
+    void testInvalidExpressions() {
+        assertThrows(IllegalArgumentException.class, () -> PartitionExpression.parse(""));
+        assertThrows(IllegalArgumentException.class, () -> PartitionExpression.parse("prefix(value)"));
+        assertThrows(IllegalArgumentException.class, () -> PartitionExpression.parse("hash(value) % 0"));
+        assertThrows(IllegalArgumentException.class, () -> PartitionExpression.parse("suffix(value, 2)"));
+        assertThrows(IllegalArgumentException.class,
+                () -> PartitionExpression.parse("slot[3]").partitionOf("A", new HashMap<>()));
+    }
+
+    /**
+     * Test that rows end up in their prefix partition when file handles and buffers are scarce.
+     */
+    @Test
+    void testLruClosingKeepsAllRows() throws IOException {
+        DataExportManager.ExportSettings settings = settings("prefix(value, 1)");
+        settings.setMaxOpenFiles(2);
+        settings.setPartitionBufferSize(16);
+        settings.setPartitionBufferCount(3);
+
+        PartitionedSink sink = new PartitionedSink(settings);
+        for (int i = 0; i < 500; i++) {
+            sink.write((char) ('A' + i % 10) + "-" + i);
+        }
+        sink.close();
+
+        assertEquals(10, sink.getPartitionCount());
+        assertTrue(sink.getFilesOpened() > 10, "files should have been closed and reopened");
+        List<String> rowsOfC = Files.readAllLines(tempDir.resolve("keys-C.txt"), StandardCharsets.UTF_8);
+        assertEquals(50, rowsOfC.size());
+        assertEquals("C-2", rowsOfC.get(0));
+        assertEquals("C-492", rowsOfC.get(49));
+    }
+
+    /**
+     * Test that keys whose file names collide once they are made safe are written to separate files.
+     */
+    @Test
+    void testCollidingKeysGetTheirOwnFiles() throws IOException {
+        PartitionedSink sink = new PartitionedSink(settings("value"));
+        for (String key : new String[]{"a_b", "a/b", "_", "", "A_B", "a_b"}) {
+            sink.write(key);
+        }
+        sink.close();
+
+        assertEquals(5, sink.getPartitionCount());
+        assertEquals(5, sink.getPartitionPaths().size());
+        assertEquals(List.of("a_b", "a_b"), Files.readAllLines(tempDir.resolve("keys-a_b.txt"), StandardCharsets.UTF_8));
+        assertEquals(List.of("a/b"), Files.readAllLines(tempDir.resolve(
+                String.format("keys-a_b~%08x.txt", "a/b".hashCode())), StandardCharsets.UTF_8));
+        assertEquals(List.of("_"), Files.readAllLines(tempDir.resolve("keys-_.txt"), StandardCharsets.UTF_8));
+        assertEquals(List.of(""), Files.readAllLines(tempDir.resolve(
+                String.format("keys-_~%08x.txt", "".hashCode())), StandardCharsets.UTF_8));
+        assertEquals(List.of("A_B"), Files.readAllLines(tempDir.resolve(
+                String.format("keys-A_B~%08x.txt", "A_B".hashCode())), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Test that the header is written once per partition even when the partition file is reopened.
+     */
+    @Test
+    void testCsvHeaderWrittenOncePerPartition() throws IOException {
+        DataExportManager.ExportSettings settings = settings("hash(value) % 4");
+        settings.setFormat(DataExportManager.ExportFormat.CSV);
+        settings.setFilePath(tempDir.resolve("keys.csv").toString());
+        settings.setMaxOpenFiles(1);
+        settings.setPartitionBufferSize(8);
+        settings.setPartitionBufferCount(1);
+
+        try (PartitionedSink sink = new PartitionedSink(settings)) {
+            for (int i = 0; i < 200; i++) {
+                sink.write("K" + i);
+            }
+        }
+
+        int rows = 0;
+        for (int bucket = 0; bucket < 4; bucket++) {
+            List<String> lines = Files.readAllLines(tempDir.resolve("keys-" + bucket + ".csv"), StandardCharsets.UTF_8);
+            assertEquals("Generated_Data", lines.get(0));
+            assertFalse(lines.subList(1, lines.size()).contains("Generated_Data"));
+            rows += lines.size() - 1;
+        }
+        assertEquals(200, rows);
+    }
+
+    /**
+     * Test that formats with a document structure are rejected.
+     */
+    @Test
+    void testJsonIsRejected() {
+        DataExportManager.ExportSettings settings = settings("value");
+        settings.setFormat(DataExportManager.ExportFormat.JSON);
+        assertThrows(IllegalArgumentException.class, () -> new PartitionedSink(settings));
+    }
+
+    /**
+     * Test that a generator is partitioned on a slot value in a single pass.
+     */
+    @Test
+    void testExportPartitionedOnSlot() throws IOException {
+        InputProcessor processor = new InputProcessor("{0}-{1}");
+        Map<String, String> department = new HashMap<>();
+        department.put("input", "0");
+        department.put("list", "A,B,C");
+        department.put("start", "A");
+        department.put("length", "1");
+        processor.addGeneratorAndPattern("SEQUENTIALASCIIGENERATOR", department);
+        Map<String, String> number = new HashMap<>();
+        number.put("input", "1");
+        number.put("start", "1000");
+        number.put("step", "1");
+        number.put("length", "4");
+        processor.addGeneratorAndPattern("SEQUENTIALNUMBERGENERATOR", number);
+        processor.initTemplate();
+        MainGenerator generator = processor.initMainGenerator();
+
+        DataExportManager exportManager = new DataExportManager();
+        DataExportManager.ExportResult result = exportManager.exportPartitioned(generator, 300, settings("slot[0]"));
+        exportManager.shutdown();
+
+        assertTrue(result.isSuccess(), result.getError());
+        assertEquals(300, result.getRecordCount());
+        Set<String> seen = new HashSet<>();
+        for (String code : new String[]{"A", "B", "C"}) {
+            List<String> lines = Files.readAllLines(tempDir.resolve("keys-" + code + ".txt"), StandardCharsets.UTF_8);
+            assertEquals(100, lines.size());
+            for (String line : lines) {
+                assertTrue(line.startsWith(code + "-"), line);
+                assertTrue(seen.add(line));
+            }
+        }
+    }
+
+    /**
+     * Test that a cancelled partitioned export is not reported as a successful export.
+     */
+    @Test
+    void testCancelledExport() {
+        DataExportManager exportManager = new DataExportManager();
+        List<String> data = new AbstractList<>() {
+            @Override
+            public String get(int index) {
+                if (index == 49) {
+                    exportManager.cancelExport();
+                }
+                return "K" + index;
+            }
+
+            @Override
+            public int size() {
+                return 200;
+            }
+        };
+        DataExportManager.ExportResult result = exportManager.exportData(data, settings("prefix(value, 2)"));
+        exportManager.shutdown();
+
+        assertFalse(result.isSuccess());
+        assertEquals("Export cancelled after 50 rows", result.getError());
+        assertTrue(exportManager.getExportHistory().isEmpty());
+    }
+}
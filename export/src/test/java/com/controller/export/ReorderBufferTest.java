@@ -0,0 +1,121 @@
+package com.controller.export;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class contains tests for the class <code>{@link ReorderBuffer}</code>.
+ */
+class ReorderBufferTest {
+
+    /**
+     * Test that results added out of order are taken in order.
+     */
+    @Test
+    void testResultsAreTakenInOrder() throws InterruptedException {
+        ReorderBuffer<String> buffer = new ReorderBuffer<>(4);
+        buffer.put(2, "c");
+        buffer.put(1, "b");
+        assertNull(buffer.poll(1, TimeUnit.MILLISECONDS));
+        assertEquals(2, buffer.size());
+
+        buffer.put(0, "a");
+        buffer.put(3, "d");
+        List<String> taken = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            taken.add(buffer.take());
+        }
+        assertEquals(Arrays.asList("a", "b", "c", "d"), taken);
+        assertEquals(4, buffer.getNext());
+        assertEquals(0, buffer.size());
+    }
+
+    /**
+     * Test that a producer beyond the window waits until the consumer has taken the results before it.
+     */
+    @Test
+    void testProducerAheadOfTheWindowWaits() throws Exception {
+        ReorderBuffer<Integer> buffer = new ReorderBuffer<>(2);
+        buffer.put(1, 1);
+        ExecutorService producer = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> ahead = producer.submit(() -> {
+                buffer.put(3, 3);
+                return null;
+            });
+            Thread.sleep(50);
+            assertFalse(ahead.isDone());
+
+            buffer.put(0, 0);
+            assertEquals(0, buffer.take());
+            assertFalse(ahead.isDone());
+            assertEquals(1, buffer.take());
+            ahead.get(5, TimeUnit.SECONDS);
+            buffer.put(2, 2);
+            assertEquals(2, buffer.take());
+            assertEquals(3, buffer.take());
+        } finally {
+            producer.shutdownNow();
+        }
+    }
+
+    /**
+     * Test that producers that claim their sequence numbers in order deliver every result once and in order.
+     */
+    @Test
+    void testConcurrentProducers() throws Exception {
+        ReorderBuffer<Long> buffer = new ReorderBuffer<>(8);
+        AtomicLong claims = new AtomicLong();
+        ExecutorService producers = Executors.newFixedThreadPool(6);
+        try {
+            for (int t = 0; t < 6; t++) {
+                producers.execute(() -> {
+                    try {
+                        long sequence;
+                        while ((sequence = claims.getAndIncrement()) < 20_000) {
+                            buffer.await(sequence);
+                            if (sequence % 7 == 0) {
+                                Thread.yield();
+                            }
+                            buffer.put(sequence, sequence);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            for (long expected = 0; expected < 20_000; expected++) {
+                Long result = buffer.poll(5, TimeUnit.SECONDS);
+                assertEquals(expected, result);
+                assertTrue(buffer.size() <= buffer.getCapacity());
+            }
+        } finally {
+            producers.shutdownNow();
+        }
+    }
+
+    /**
+     * Test that results that were taken or added before and invalid capacities are refused.
+     */
+    @Test
+    void testInvalidArguments() throws InterruptedException {
+        ReorderBuffer<String> buffer = new ReorderBuffer<>(4);
+        buffer.put(0, "a");
+        assertThrows(IllegalArgumentException.class, () -> buffer.put(0, "a"));
+        assertEquals("a", buffer.take());
+        assertThrows(IllegalArgumentException.class, () -> buffer.put(0, "a"));
+        assertThrows(IllegalArgumentException.class, () -> buffer.put(1, null));
+        assertThrows(IllegalArgumentException.class, () -> new ReorderBuffer<>(0));
+        assertEquals(0, buffer.size());
+    }
+}
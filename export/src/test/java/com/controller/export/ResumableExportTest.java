@@ -0,0 +1,225 @@
+package com.controller.export;
+
+import com.controller.InputProcessor;
+import com.controller.business.DataExportManager;
+import com.controller.business.DataExportManager.ExportFormat;
+import com.controller.business.DataExportManager.ExportSettings;
+import com.controller.generators.GenerationPlan;
+import com.controller.generators.MainGenerator;
+import com.model.GeneratorConfiguration;
+import com.service.ConfigurationFileParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class contains tests for the classes <code>{@link ResumableExport}</code> and <code>{@link ExportCheckpoint}</code>.
+ */
+class ResumableExportTest {
+    private static final String KEYS = "SEQUENTIALNUMBERGENERATOR:input=0;start=100000;step=1;length=6";
+
+    @TempDir
+    Path tempDir;
+
+    private static GenerationPlan compile(String templateFormat, String spec) {
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setTemplateFormat(templateFormat);
+        List<GeneratorConfiguration.GeneratorConfig> generators = new ArrayList<>();
+        generators.add(ConfigurationFileParser.parseGeneratorSpec(0, spec));
+        configuration.setGenerators(generators);
+        return InputProcessor.compile(configuration);
+    }
+
+    private ExportSettings settings(String name, boolean append) {
+        ExportSettings settings = new ExportSettings();
+        settings.setFormat(ExportFormat.CSV);
+        settings.setFilePath(tempDir.resolve(name).toString());
+        settings.setAppendMode(append);
+        return settings;
+    }
+
+    private static long crc(byte[] bytes, int length) {
+        CRC32 checksum = new CRC32();
+        checksum.update(bytes, 0, length);
+        return checksum.getValue();
+    }
+
+    /**
+     * @return the offset after the given number of lines
+     */
+    private static int offsetAfterLines(byte[] bytes, int lines) {
+        int offset = 0;
+        for (int line = 0; line < lines; offset++) {
+            if (bytes[offset] == '\n') {
+                line++;
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Test that an export that died after a checkpoint is cut back and completed with the same bytes
+     * as an export that never stopped.
+     */
+    @Test
+    void testResumeFromCheckpoint() throws IOException {
+        GenerationPlan plan = compile("K-{0}", KEYS);
+        ExportSettings complete = settings("complete.csv", false);
+        assertEquals(5000, new ResumableExport(plan, complete, 1000).run(5000));
+        byte[] expected = Files.readAllBytes(tempDir.resolve("complete.csv"));
+
+        // the state of an export that wrote a checkpoint at row 3000 and died in the middle of a row after it
+        MainGenerator cursor = plan.newCursor();
+        cursor.generate().limit(3000).forEach(row -> { });
+        int offset = offsetAfterLines(expected, 3001);
+        ExportSettings resumed = settings("resumed.csv", true);
+        Path file = tempDir.resolve("resumed.csv");
+        Files.write(file, Arrays.copyOf(expected, offset + 5));
+        new ExportCheckpoint(plan.getFingerprint(), 3000, cursor.getAttempts(), cursor.getCursors(),
+                offset, crc(expected, offset)).save(ResumableExport.checkpointPath(resumed));
+
+        assertEquals(2000, new ResumableExport(plan, resumed, 1000).run(5000));
+        assertArrayEquals(expected, Files.readAllBytes(file));
+        assertFalse(Files.exists(ResumableExport.checkpointPath(resumed)));
+    }
+
+    /**
+     * Test that an export that died before its first checkpoint, and an export that is complete, are written again
+     * from the start instead of being appended to.
+     */
+    @Test
+    void testRerunWithoutCheckpointStartsOver() throws IOException {
+        GenerationPlan plan = compile("K-{0}", KEYS);
+        ExportSettings complete = settings("complete.csv", false);
+        new ResumableExport(plan, complete, 1000).run(2500);
+        byte[] expected = Files.readAllBytes(tempDir.resolve("complete.csv"));
+
+        // the state of an export that died after 700 rows, before its first checkpoint at row 1000
+        ExportSettings killed = settings("killed.csv", true);
+        Path file = tempDir.resolve("killed.csv");
+        Files.write(file, Arrays.copyOf(expected, offsetAfterLines(expected, 701) + 3));
+        assertFalse(Files.exists(ResumableExport.checkpointPath(killed)));
+
+        assertEquals(2500, new ResumableExport(plan, killed, 1000).run(2500));
+        assertArrayEquals(expected, Files.readAllBytes(file));
+        assertEquals(2500, new ResumableExport(plan, killed, 1000).run(2500));
+        assertArrayEquals(expected, Files.readAllBytes(file));
+    }
+
+    /**
+     * Test that an export stops at the checkpoint where its stop condition holds, keeps the checkpoint and is resumed
+     * by the next run.
+     */
+    @Test
+    void testStopAtCheckpoint() throws IOException {
+        GenerationPlan plan = compile("K-{0}", KEYS);
+        new ResumableExport(plan, settings("complete.csv", false), 1000).run(2500);
+        byte[] expected = Files.readAllBytes(tempDir.resolve("complete.csv"));
+
+        ExportSettings settings = settings("stopped.csv", true);
+        List<Long> checkpoints = new ArrayList<>();
+        ResumableExport export = new ResumableExport(plan, settings, 1000);
+        export.setProgressListener(checkpoints::add);
+        export.setStopCondition(() -> !checkpoints.isEmpty());
+        assertEquals(1000, export.run(2500));
+        assertTrue(export.isStopped());
+        assertEquals(1000, ExportCheckpoint.load(ResumableExport.checkpointPath(settings)).getRows());
+        assertEquals(offsetAfterLines(expected, 1001), Files.size(tempDir.resolve("stopped.csv")));
+
+        ResumableExport resumed = new ResumableExport(plan, settings, 1000);
+        assertEquals(1500, resumed.run(2500));
+        assertFalse(resumed.isStopped());
+        assertArrayEquals(expected, Files.readAllBytes(tempDir.resolve("stopped.csv")));
+        assertFalse(Files.exists(ResumableExport.checkpointPath(settings)));
+    }
+
+    /**
+     * Test that a failing export leaves a checkpoint that matches the start of its output.
+     */
+    @Test
+    void testFailedExportLeavesCheckpoint() throws IOException {
+        GenerationPlan plan = compile("{0}", "SEQUENTIALNUMBERGENERATOR:input=0;start=99000;step=1;length=5");
+        ExportSettings settings = settings("failed.csv", true);
+
+        assertThrows(IllegalArgumentException.class, () -> new ResumableExport(plan, settings, 100).run(5000));
+
+        ExportCheckpoint checkpoint = ExportCheckpoint.load(ResumableExport.checkpointPath(settings));
+        byte[] written = Files.readAllBytes(tempDir.resolve("failed.csv"));
+        assertEquals(900, checkpoint.getRows());
+        assertEquals(plan.getFingerprint(), checkpoint.getFingerprint());
+        assertEquals(offsetAfterLines(written, 901), checkpoint.getOffset());
+        assertEquals(crc(written, (int) checkpoint.getOffset()), checkpoint.getChecksum());
+        assertEquals("99900", checkpoint.getCursors().get(0));
+    }
+
+    /**
+     * Test that a checkpoint of another template or of a changed file is refused.
+     */
+    @Test
+    void testMismatchesAreRefused() throws IOException {
+        GenerationPlan plan = compile("{0}", KEYS);
+        ExportSettings settings = settings("keys.csv", true);
+        Files.write(tempDir.resolve("keys.csv"), "value\n\"100001\"\n".getBytes(StandardCharsets.UTF_8));
+
+        new ExportCheckpoint(compile("X{0}", KEYS).getFingerprint(), 1, 1, plan.newCursor().getCursors(), 15, 0)
+                .save(ResumableExport.checkpointPath(settings));
+        assertThrows(IllegalArgumentException.class, () -> new ResumableExport(plan, settings, 10).run(20));
+
+        new ExportCheckpoint(plan.getFingerprint(), 1, 1, plan.newCursor().getCursors(), 15, 42)
+                .save(ResumableExport.checkpointPath(settings));
+        assertThrows(IOException.class, () -> new ResumableExport(plan, settings, 10).run(20));
+        assertNotEquals(compile("{0}", KEYS.replace("step=1", "step=2")).getFingerprint(), plan.getFingerprint());
+        assertEquals(compile("{0}", KEYS).getFingerprint(), plan.getFingerprint());
+    }
+
+    /**
+     * Test the resumable export of the export manager.
+     */
+    @Test
+    void testExportResumable() throws IOException {
+        ExportSettings settings = settings("keys", false);
+        DataExportManager exportManager = new DataExportManager();
+        DataExportManager.ExportResult result = exportManager.exportResumable(compile("{0}", KEYS), 250, settings, 100);
+        exportManager.shutdown();
+
+        assertTrue(result.isSuccess(), result.getError());
+        assertEquals(251, Files.readAllLines(tempDir.resolve("keys.csv")).size());
+        assertFalse(Files.exists(tempDir.resolve("keys.csv.checkpoint")));
+    }
+
+    /**
+     * Test that cancelling a resumable export of the export manager stops it at a checkpoint that is kept.
+     */
+    @Test
+    void testExportResumableCancelled() throws Exception {
+        ExportSettings settings = settings("cancelled", true);
+        GenerationPlan plan = compile("{0}", "SEQUENTIALNUMBERGENERATOR:input=0;start=100000000;step=1;length=9");
+        DataExportManager exportManager = new DataExportManager();
+        CompletableFuture<DataExportManager.ExportResult> export =
+                CompletableFuture.supplyAsync(() -> exportManager.exportResumable(plan, 800_000_000, settings, 1000));
+        while (!exportManager.isExporting() && !export.isDone()) {
+            Thread.onSpinWait();
+        }
+        exportManager.cancelExport();
+        DataExportManager.ExportResult result = export.get(30, TimeUnit.SECONDS);
+        exportManager.shutdown();
+
+        assertFalse(result.isSuccess());
+        assertTrue(result.getError().startsWith("Export cancelled at its checkpoint"), result.getError());
+        ExportCheckpoint checkpoint = ExportCheckpoint.load(tempDir.resolve("cancelled.csv.checkpoint"));
+        assertEquals(0, checkpoint.getRows() % 1000);
+        assertEquals(checkpoint.getOffset(), Files.size(tempDir.resolve("cancelled.csv")));
+    }
+}
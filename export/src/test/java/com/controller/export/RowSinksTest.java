@@ -0,0 +1,80 @@
+package com.controller.export;
+
+import com.controller.business.DataExportManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class contains tests for the class <code>{@link RowSinks}</code> and the built in export targets.
+ */
+class RowSinksTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Test that the built in targets are found through the service loader.
+     */
+    @Test
+    void testBuiltInTargets() {
+        assertTrue(RowSinks.getNames().containsAll(List.of("file", "jdbc", "ring")));
+        assertEquals("jdbc", RowSinks.getProvider("jdbc").getName());
+        assertThrows(IllegalArgumentException.class, () -> RowSinks.getProvider("carrier-pigeon"));
+        assertThrows(IllegalArgumentException.class, () -> RowSinks.open("file", new HashMap<>()));
+    }
+
+    /**
+     * Test that the export manager writes to a target selected by name.
+     */
+    @Test
+    void testExportToFileTarget() throws IOException {
+        Path file = tempDir.resolve("keys.ndjson");
+        Map<String, String> options = new HashMap<>();
+        options.put("path", file.toString());
+        options.put("format", "ndjson");
+
+        DataExportManager exportManager = new DataExportManager();
+        DataExportManager.ExportResult result = exportManager.exportToSink(Stream.of("A", "B"), "file", options);
+        DataExportManager.ExportResult unknown = exportManager.exportToSink(Stream.of("A"), "nowhere", options);
+        exportManager.shutdown();
+
+        assertTrue(result.isSuccess(), result.getError());
+        assertEquals(2, result.getRecordCount());
+        assertEquals(List.of("{\"value\":\"A\"}", "{\"value\":\"B\"}"), Files.readAllLines(file, StandardCharsets.UTF_8));
+        assertFalse(unknown.isSuccess());
+    }
+
+    /**
+     * Test that an export to a target that is cancelled is not reported as a successful export.
+     */
+    @Test
+    void testExportToSinkCancelled() {
+        Map<String, String> options = new HashMap<>();
+        options.put("path", tempDir.resolve("cancelled.txt").toString());
+
+        DataExportManager exportManager = new DataExportManager();
+        Stream<String> rows = Stream.iterate(0, i -> i + 1).limit(1000).map(i -> {
+            if (i == 10) {
+                exportManager.cancelExport();
+            }
+            return "K" + i;
+        });
+        DataExportManager.ExportResult result = exportManager.exportToSink(rows, "file", options);
+        exportManager.shutdown();
+
+        assertFalse(result.isSuccess());
+        assertEquals("Export cancelled after 10 rows", result.getError());
+        assertTrue(exportManager.getExportHistory().isEmpty());
+    }
+}
@@ -0,0 +1,187 @@
+package com.controller.export;
+
+import com.controller.business.DataExportManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class contains tests for the class <code>{@link TeeSink}</code>.
+ */
+class TeeSinkTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Sink that keeps all the rows in memory, optionally slowing down or failing
+     */
+    private static class RecordingSink implements RowSink {
+        private final List<String> rows = Collections.synchronizedList(new ArrayList<>());
+        private final long delayMs;
+        private final int failAt;
+        private volatile boolean closed;
+
+        RecordingSink(long delayMs, int failAt) {
+            this.delayMs = delayMs;
+            this.failAt = failAt;
+        }
+
+        @Override
+        public void write(String row) throws IOException {
+            if (rows.size() == failAt) {
+                throw new IOException("disk full");
+            }
+            if (delayMs > 0) {
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            rows.add(row);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    /**
+     * Test that every sink receives every row in generation order.
+     */
+    @Test
+    void testAllSinksReceiveAllRows() throws IOException {
+        RecordingSink first = new RecordingSink(0, -1);
+        RecordingSink second = new RecordingSink(0, -1);
+
+        try (TeeSink tee = new TeeSink(Arrays.asList(first, second), 7, 2)) {
+            for (int i = 0; i < 100; i++) {
+                tee.write("row" + i);
+            }
+        }
+
+        assertEquals(100, first.rows.size());
+        assertEquals(first.rows, second.rows);
+        assertEquals("row99", second.rows.get(99));
+        assertTrue(first.closed);
+        assertTrue(second.closed);
+    }
+
+    /**
+     * Test that the producer is held back by the slowest sink instead of buffering everything.
+     */
+    @Test
+    void testSlowestSinkSetsThePace() throws IOException {
+        RecordingSink fast = new RecordingSink(0, -1);
+        RecordingSink slow = new RecordingSink(1, -1);
+        AtomicInteger written = new AtomicInteger();
+
+        try (TeeSink tee = new TeeSink(Arrays.asList(fast, slow), 1, 1)) {
+            for (int i = 0; i < 20; i++) {
+                tee.write("row" + i);
+                written.incrementAndGet();
+                // one batch in the queue and one in the writer is all the producer may get ahead
+                assertTrue(written.get() - slow.rows.size() <= 3);
+            }
+        }
+        assertEquals(20, slow.rows.size());
+    }
+
+    /**
+     * Test that a failing sink is reported and does not prevent the other sinks from finishing.
+     */
+    @Test
+    void testFailingSinkIsReported() {
+        RecordingSink healthy = new RecordingSink(0, -1);
+        RecordingSink failing = new RecordingSink(0, 5);
+
+        IOException exception = assertThrows(IOException.class, () -> {
+            try (TeeSink tee = new TeeSink(Arrays.asList(healthy, failing), 1, 1)) {
+                for (int i = 0; i < 50; i++) {
+                    tee.write("row" + i);
+                }
+            }
+        });
+
+        assertTrue(exception.getMessage().contains("disk full"));
+        assertTrue(failing.closed);
+        assertTrue(healthy.closed);
+    }
+
+    /**
+     * Test that one stream is exported to several formats in a single pass.
+     */
+    @Test
+    void testExportStreamWritesEveryFormat() throws IOException {
+        DataExportManager exportManager = new DataExportManager();
+        List<DataExportManager.ExportSettings> targets = new ArrayList<>();
+        targets.add(exportManager.createDefaultSettings(DataExportManager.ExportFormat.CSV, tempDir.resolve("out").toString()));
+        targets.add(exportManager.createDefaultSettings(DataExportManager.ExportFormat.NDJSON, tempDir.resolve("out").toString()));
+        targets.add(exportManager.createDefaultSettings(DataExportManager.ExportFormat.SQL, tempDir.resolve("out").toString()));
+        AtomicInteger generated = new AtomicInteger();
+        Stream<String> rows = IntStream.range(0, 1000).mapToObj(i -> {
+            generated.incrementAndGet();
+            return "K'" + i;
+        });
+
+        List<DataExportManager.ExportResult> results = exportManager.exportStream(rows, targets);
+        exportManager.shutdown();
+
+        assertEquals(1000, generated.get());
+        assertEquals(3, results.size());
+        for (DataExportManager.ExportResult result : results) {
+            assertTrue(result.isSuccess(), result.getError());
+            assertEquals(1000, result.getRecordCount());
+        }
+        List<String> csv = Files.readAllLines(tempDir.resolve("out.csv"), StandardCharsets.UTF_8);
+        List<String> ndjson = Files.readAllLines(tempDir.resolve("out.ndjson"), StandardCharsets.UTF_8);
+        List<String> sql = Files.readAllLines(tempDir.resolve("out.sql"), StandardCharsets.UTF_8);
+        assertEquals("Generated_Data", csv.get(0));
+        assertEquals("\"K'0\"", csv.get(1));
+        assertEquals("{\"value\":\"K'999\"}", ndjson.get(999));
+        assertEquals("INSERT INTO generated_data (value) VALUES ('K''0');", sql.get(0));
+        assertEquals(1000, sql.size());
+    }
+
+    /**
+     * Test that a cancelled stream export reports the cancellation for every target instead of a shorter success.
+     */
+    @Test
+    void testExportStreamCancelled() {
+        DataExportManager exportManager = new DataExportManager();
+        List<DataExportManager.ExportSettings> targets = new ArrayList<>();
+        targets.add(exportManager.createDefaultSettings(DataExportManager.ExportFormat.CSV, tempDir.resolve("cancelled").toString()));
+        targets.add(exportManager.createDefaultSettings(DataExportManager.ExportFormat.TXT, tempDir.resolve("cancelled").toString()));
+        Stream<String> rows = IntStream.range(0, 1000).mapToObj(i -> {
+            if (i == 100) {
+                exportManager.cancelExport();
+            }
+            return "K" + i;
+        });
+
+        List<DataExportManager.ExportResult> results = exportManager.exportStream(rows, targets);
+        exportManager.shutdown();
+
+        assertEquals(2, results.size());
+        for (DataExportManager.ExportResult result : results) {
+            assertFalse(result.isSuccess());
+            assertEquals("Export cancelled after 100 rows", result.getError());
+        }
+        assertTrue(exportManager.getExportHistory().isEmpty());
+    }
+}
@@ -0,0 +1,115 @@
+package com.controller.jfr;
+
+import com.controller.InputProcessor;
+import com.controller.business.DataExportManager;
+import com.controller.generators.MainGenerator;
+import com.model.GeneratorConfiguration;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * The class contains tests for the flight recorder events of the generator.
+ */
+class JfrEventsTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static MainGenerator generator(String formula) {
+        Map<String, String> number = new HashMap<>();
+        number.put("input", "0");
+        number.put("start", "10000");
+        number.put("step", "1");
+        number.put("length", "5");
+        Map<String, String> evaluator = new HashMap<>();
+        evaluator.put("input", "0");
+        evaluator.put("formula", formula);
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setTemplateFormat("{0}");
+        configuration.setGenerators(Arrays.asList(
+                new GeneratorConfiguration.GeneratorConfig(0, "SEQUENTIALNUMBERGENERATOR", number, false),
+                new GeneratorConfiguration.GeneratorConfig(1, "EVALUATION", evaluator, true)));
+        return InputProcessor.fromConfiguration(configuration).getMainGenerator();
+    }
+
+    /**
+     * Test that the events are off unless a recording turns them on.
+     */
+    @Test
+    void testDisabledByDefault() {
+        for (Class<? extends jdk.jfr.Event> type : Arrays.asList(GenerationBatchEvent.class, RejectionBurstEvent.class,
+                RetryLimitEvent.class, ExportFlushEvent.class, PreviewRunEvent.class)) {
+            assertFalse(EventType.getEventType(type).isEnabled(), type.getSimpleName());
+        }
+    }
+
+    /**
+     * Test that batches, rejection bursts, the retry limit and export flushes are recorded.
+     */
+    @Test
+    void testEventsAreRecorded() throws Exception {
+        assumeTrue(FlightRecorder.isAvailable(), "The flight recorder is not available");
+        Path dump = tempDir.resolve("generator.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(GenerationBatchEvent.class);
+            recording.enable(RejectionBurstEvent.class);
+            recording.enable(RetryLimitEvent.class);
+            recording.enable(ExportFlushEvent.class);
+            recording.start();
+
+            List<String> rows = generator("(A+B+C+D+E) % 20 == 0").generate()
+                    .limit(MainGenerator.BATCH_EVENT_ROWS).collect(Collectors.toList());
+            assertThrows(IllegalArgumentException.class, () -> generator("A == 7").generate().findFirst());
+
+            DataExportManager exportManager = new DataExportManager();
+            DataExportManager.ExportSettings settings = exportManager.createDefaultSettings(
+                    DataExportManager.ExportFormat.TXT, tempDir.resolve("rows.txt").toString());
+            assertTrue(exportManager.exportData(rows, settings).isSuccess());
+            exportManager.shutdown();
+
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        List<RecordedEvent> batches = ofType(events, "com.generator.GenerationBatch");
+        assertEquals(1, batches.size());
+        assertEquals(MainGenerator.BATCH_EVENT_ROWS, batches.get(0).getInt("rows"));
+        assertTrue(batches.get(0).getLong("attempts") > MainGenerator.BATCH_EVENT_ROWS);
+
+        List<RecordedEvent> bursts = ofType(events, "com.generator.RejectionBurst");
+        assertFalse(bursts.isEmpty());
+        assertEquals(1, bursts.get(0).getInt("slot"));
+        assertTrue(bursts.get(0).getInt("rejections") >= MainGenerator.REJECTION_BURST);
+
+        List<RecordedEvent> limits = ofType(events, "com.generator.RetryLimit");
+        assertEquals(1, limits.size());
+        assertEquals(MainGenerator.MAX_ATTEMPTS_PER_ROW, limits.get(0).getInt("attempts"));
+        assertEquals("{0}", limits.get(0).getString("template"));
+
+        List<RecordedEvent> flushes = ofType(events, "com.generator.ExportFlush");
+        long bytes = flushes.stream().mapToLong(event -> event.getLong("bytes")).sum();
+        assertEquals(tempDir.resolve("rows.txt").toFile().length(), bytes);
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name))
+                .collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList));
+    }
+}
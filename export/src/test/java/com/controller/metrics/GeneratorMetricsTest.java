@@ -0,0 +1,158 @@
+package com.controller.metrics;
+
+import com.controller.InputProcessor;
+import com.controller.business.DataExportManager;
+import com.controller.generators.MainGenerator;
+import com.model.GeneratorConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class contains tests for the classes <code>{@link GeneratorMetrics}</code>, <code>{@link ExportMetrics}</code>
+ * and <code>{@link Metrics}</code>.
+ */
+class GeneratorMetricsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        Metrics.generator().setSamplingInterval(0);
+    }
+
+    private static Map<String, String> properties(String... keysAndValues) {
+        Map<String, String> properties = new HashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            properties.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return properties;
+    }
+
+    /**
+     * Numbers of three digits whose digits add up to an even number, followed by the check value
+     */
+    private static MainGenerator evenDigitSums() {
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setTemplateFormat("{0}");
+        configuration.setGenerators(Arrays.asList(
+                new GeneratorConfiguration.GeneratorConfig(0, "SEQUENTIALNUMBERGENERATOR",
+                        properties("input", "0", "start", "99", "step", "1", "length", "3"), false),
+                new GeneratorConfiguration.GeneratorConfig(1, "EVALUATION",
+                        properties("input", "0", "formula", "(A+B+C) % 2 == 0"), true)));
+        return InputProcessor.fromConfiguration(configuration).getMainGenerator();
+    }
+
+    /**
+     * Test that rows, attempts, rejections per slot and exhaustion are counted.
+     */
+    @Test
+    void testGenerationIsCounted() {
+        GeneratorMetrics metrics = Metrics.generator();
+        long rows = metrics.getRowsGenerated();
+        long attempts = metrics.getAttempts();
+        long rejections = metrics.getRejections();
+        long evaluatorRejections = metrics.getRejectionsPerSlot().getOrDefault(1, 0L);
+        long exhaustion = metrics.getExhaustionEvents();
+
+        List<String> generated = evenDigitSums().generate().limit(10).collect(Collectors.toList());
+
+        assertEquals(Arrays.asList("101", "103", "105", "107", "109", "110", "112", "114", "116", "118"), generated);
+        assertEquals(10, metrics.getRowsGenerated() - rows);
+        assertEquals(19, metrics.getAttempts() - attempts);
+        assertEquals(9, metrics.getRejections() - rejections);
+        assertEquals(9, metrics.getRejectionsPerSlot().get(1) - evaluatorRejections);
+        assertEquals(exhaustion, metrics.getExhaustionEvents());
+
+        MainGenerator generator = evenDigitSums();
+        generator.skipAttempts(900);
+        assertNull(generator.tryNext());
+        assertEquals(exhaustion + 1, metrics.getExhaustionEvents());
+        assertTrue(metrics.getRowsPerSecond() >= 0);
+    }
+
+    /**
+     * Test that the rate is measured over whole windows and that reading it does not change it.
+     */
+    @Test
+    void testRowsPerSecondWindow() {
+        GeneratorMetrics metrics = new GeneratorMetrics();
+        long start = System.nanoTime();
+        assertEquals(0, metrics.rowsPerSecond(start));
+
+        for (int i = 0; i < 500; i++) {
+            metrics.recordRow();
+        }
+        long closed = start + 2 * GeneratorMetrics.RATE_WINDOW_NANOS;
+        double rate = metrics.rowsPerSecond(closed);
+        assertTrue(rate > 240 && rate <= 250, "rate " + rate);
+
+        // other readers within the next window see the same rate, however often they read
+        metrics.recordRow();
+        assertEquals(rate, metrics.rowsPerSecond(closed + 1));
+        assertEquals(rate, metrics.rowsPerSecond(closed + GeneratorMetrics.RATE_WINDOW_NANOS / 2));
+        assertEquals(1.0, metrics.rowsPerSecond(closed + GeneratorMetrics.RATE_WINDOW_NANOS));
+    }
+
+    /**
+     * Test that the slots are only timed when sampling is on.
+     */
+    @Test
+    void testSampledSlotTimings() {
+        GeneratorMetrics metrics = Metrics.generator();
+        metrics.reset();
+        evenDigitSums().generate().limit(10).forEach(row -> { });
+        assertTrue(metrics.getSlotHistograms().isEmpty());
+
+        metrics.setSamplingInterval(2);
+        evenDigitSums().generate().limit(10).forEach(row -> { });
+
+        assertEquals(Arrays.asList(0, 1), List.copyOf(metrics.getSlotHistograms().keySet()));
+        assertEquals(9, Arrays.stream(metrics.getSlotHistograms().get(0)).sum());
+        assertTrue(metrics.getSlotMeanNanos().get(1) > 0);
+        assertTrue(metrics.getSlotP99Nanos().get(1) >= metrics.getSlotMeanNanos().get(1) / 2);
+        assertThrows(IllegalArgumentException.class, () -> metrics.setSamplingInterval(-1));
+    }
+
+    /**
+     * Test that the metrics are visible through the platform MBean server and that exports are counted.
+     */
+    @Test
+    void testPlatformMBeans() throws Exception {
+        ExportMetrics exportMetrics = Metrics.export();
+        long bytes = exportMetrics.getBytesExported();
+        long failures = exportMetrics.getExportsFailed();
+
+        DataExportManager exportManager = new DataExportManager();
+        DataExportManager.ExportSettings settings = exportManager.createDefaultSettings(
+                DataExportManager.ExportFormat.TXT, tempDir.resolve("rows.txt").toString());
+        DataExportManager.ExportResult result = exportManager.exportData(Arrays.asList("A", "B"), settings);
+        exportManager.exportToSink(evenDigitSums().generate().limit(1), "nowhere", new HashMap<>());
+        exportManager.shutdown();
+
+        assertTrue(result.isSuccess(), result.getError());
+        assertEquals(result.getFileSize(), exportMetrics.getBytesExported() - bytes);
+        assertEquals(failures + 1, exportMetrics.getExportsFailed());
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        assertEquals(exportMetrics.getBytesExported(),
+                server.getAttribute(new ObjectName(Metrics.EXPORT_OBJECT_NAME), "BytesExported"));
+        assertEquals(Metrics.generator().getAttempts(),
+                server.getAttribute(new ObjectName(Metrics.GENERATOR_OBJECT_NAME), "Attempts"));
+        server.setAttribute(new ObjectName(Metrics.GENERATOR_OBJECT_NAME), new javax.management.Attribute("SamplingInterval", 5));
+        assertEquals(5, Metrics.generator().getSamplingInterval());
+    }
+}
@@ -1,15 +1,22 @@
 package com.controller.business;
 
-import com.controller.generators.MainGenerator;
 import com.controller.InputProcessor;
+import com.controller.generators.GenerationJob;
+import com.controller.generators.GenerationPlan;
 import com.model.GeneratorConfiguration;
 import com.model.Template;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.ArrayList;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Core business logic controller for data generation operations.
@@ -20,19 +27,56 @@ import java.util.concurrent.Executors;
  * - Apply templates and configurations
  * - Manage generation workflows
  * - Handle asynchronous generation tasks
+ * 
+ * Every generation runs as a {@link GenerationJob} on a pool of worker threads, split into chunks of
+ * {@link GenerationJob#DEFAULT_CHUNK_ROWS} rows. {@link #stopGeneration()} cancels the running jobs,
+ * their workers stop at the next chunk.
  */
 public class GeneratorController {
     
-    private MainGenerator mainGenerator;
-    private InputProcessor inputProcessor;
-    private ExecutorService executor;
-    private volatile boolean isGenerating;
+    private final int workerCount;
+    private final ExecutorService executor;
+    private final Set<GenerationJob> activeJobs;
     
     public GeneratorController() {
-        this.mainGenerator = new MainGenerator();
-        this.inputProcessor = new InputProcessor();
-        this.executor = Executors.newSingleThreadExecutor();
-        this.isGenerating = false;
+        this(Runtime.getRuntime().availableProcessors());
+    }
+    
+    /**
+     * @param workerCount number of worker threads that generate the chunks of the jobs
+     */
+    public GeneratorController(int workerCount) {
+        if (workerCount <= 0) {
+            throw new IllegalArgumentException("The number of workers must be positive");
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workerCount = workerCount;
+        this.executor = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "generator-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.activeJobs = ConcurrentHashMap.newKeySet();
+    }
+    
+    /**
+     * Starts a generation job, the job reports its progress and can be cancelled on its own.
+     * 
+     * @param template The template defining the output format, used when the configuration has none
+     * @param configuration The generator configuration with settings
+     * @param batchSize Number of items to generate
+     * @return the running job
+     */
+    public GenerationJob startGeneration(Template template, GeneratorConfiguration configuration, int batchSize) {
+        if (template == null || configuration == null) {
+            throw new IllegalArgumentException("Template and configuration cannot be null");
+        }
+        GenerationPlan plan = InputProcessor.compile(withTemplateFormat(template, configuration));
+        GenerationJob job = GenerationJob.start(plan::newCursor, batchSize, GenerationJob.DEFAULT_CHUNK_ROWS,
+                executor, workerCount);
+        activeJobs.add(job);
+        job.getResult().whenComplete((rows, failure) -> activeJobs.remove(job));
+        return job;
     }
     
     /**
@@ -42,34 +86,16 @@ public class GeneratorController {
      * @param configuration The generator configuration with settings
      * @param batchSize Number of items to generate
      * @return List of generated data strings
+     * @throws CancellationException if the generation was stopped
      */
     public List<String> generateNumbers(Template template, GeneratorConfiguration configuration, int batchSize) {
-        if (template == null || configuration == null) {
-            throw new IllegalArgumentException("Template and configuration cannot be null");
-        }
-        
         try {
-            isGenerating = true;
-            
-            // Set up the generator with configuration
-            mainGenerator.initialize(configuration);
-            
-            List<String> results = new ArrayList<>();
-            
-            // Generate the requested batch
-            for (int i = 0; i < batchSize; i++) {
-                Map<String, Object> generated = mainGenerator.generateNext();
-                if (generated != null && !generated.isEmpty()) {
-                    String formatted = applyTemplate(template, generated);
-                    if (formatted != null && !formatted.trim().isEmpty()) {
-                        results.add(formatted);
-                    }
-                }
+            return startGeneration(template, configuration, batchSize).getResult().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
             }
-            
-            return results;
-        } finally {
-            isGenerating = false;
+            throw e;
         }
     }
     
@@ -84,15 +110,33 @@ public class GeneratorController {
     public CompletableFuture<List<String>> generateNumbersAsync(Template template, 
                                                                  GeneratorConfiguration configuration, 
                                                                  int batchSize) {
-        return CompletableFuture.supplyAsync(() -> 
-            generateNumbers(template, configuration, batchSize), executor);
+        return startGeneration(template, configuration, batchSize).getResult();
+    }
+    
+    /**
+     * Uses the format of the template for a configuration that has no template format of its own
+     */
+    private static GeneratorConfiguration withTemplateFormat(Template template, GeneratorConfiguration configuration) {
+        String format = configuration.getTemplateFormat();
+        if (format != null && !format.trim().isEmpty()) {
+            return configuration;
+        }
+        GeneratorConfiguration copy = new GeneratorConfiguration();
+        copy.setVersion(configuration.getVersion());
+        copy.setTemplateFormat(template.getFormat());
+        copy.setBatchSize(configuration.getBatchSize());
+        copy.setEvaluatorCount(configuration.getEvaluatorCount());
+        copy.setGenerators(configuration.getGenerators());
+        copy.setGeneratorConfigs(configuration.getGeneratorConfigs());
+        copy.setMetadata(configuration.getMetadata());
+        return copy;
     }
     
     /**
      * Applies the template format to generated data.
      * 
      * @param template The template to apply
-     * @param generatedData The data to format
+     * @param generatedData The data to format, keyed by the index of the slot
      * @return Formatted string result
      */
     public String applyTemplate(Template template, Map<String, Object> generatedData) {
@@ -101,7 +145,11 @@ public class GeneratorController {
         }
         
         try {
-            return inputProcessor.formatOutput(template.getFormat(), generatedData);
+            Map<Integer, String> slots = new TreeMap<>();
+            for (Map.Entry<String, Object> entry : generatedData.entrySet()) {
+                slots.put(Integer.parseInt(entry.getKey()), String.valueOf(entry.getValue()));
+            }
+            return template.getFormatter().format(new ArrayList<>(slots.values()));
         } catch (Exception e) {
             System.err.println("Error applying template: " + e.getMessage());
             return "";
@@ -139,7 +187,7 @@ public class GeneratorController {
             return 0;
         }
         
-        int maxIndex = 0;
+        int maxIndex = -1;
         String[] parts = templateFormat.split("\\{");
         
         for (String part : parts) {
@@ -187,17 +235,15 @@ public class GeneratorController {
      * @return true if generating, false otherwise
      */
     public boolean isGenerating() {
-        return isGenerating;
+        return !activeJobs.isEmpty();
     }
     
     /**
-     * Stops any ongoing generation process.
+     * Stops any ongoing generation process, the workers stop at the next chunk.
      */
     public void stopGeneration() {
-        isGenerating = false;
-        if (mainGenerator != null) {
-            // Signal to stop if the generator supports it
-            // This would need to be implemented in MainGenerator
+        for (GenerationJob job : activeJobs) {
+            job.cancel();
         }
     }
     
@@ -205,10 +251,14 @@ public class GeneratorController {
      * Resets the generator state.
      */
     public void resetGenerator() {
-        if (mainGenerator != null) {
-            mainGenerator = new MainGenerator();
-        }
-        isGenerating = false;
+        stopGeneration();
+    }
+    
+    /**
+     * @return number of worker threads
+     */
+    public int getWorkerCount() {
+        return workerCount;
     }
     
     /**
@@ -235,9 +285,7 @@ public class GeneratorController {
      * Shuts down the controller and releases resources.
      */
     public void shutdown() {
-        isGenerating = false;
-        if (executor != null && !executor.isShutdown()) {
-            executor.shutdown();
-        }
+        stopGeneration();
+        executor.shutdownNow();
     }
 }
\ No newline at end of file
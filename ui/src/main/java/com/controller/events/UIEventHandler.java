@@ -5,12 +5,16 @@ import com.controller.business.ValidationController;
 import com.controller.business.ConfigurationManager;
 import com.controller.business.DataExportManager;
 import com.controller.business.ExampleLoader;
+import com.controller.metrics.RunReport;
 import com.model.GeneratorConfiguration;
 import com.model.Template;
 
 import javax.swing.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
@@ -338,10 +342,15 @@ public class UIEventHandler {
         
         fireEvent(new EventData(EventType.GENERATION_STARTED, batchSize, "Generation started"));
         
+        RunReport report = RunReport.start("ui-generate");
+        report.put("template", templateFormat);
+        report.put("requestedRows", batchSize);
+        
         // Generate asynchronously
         CompletableFuture<List<String>> future = generatorController.generateNumbersAsync(template, config, batchSize);
         
         future.whenComplete((results, throwable) -> {
+            Path reportFile = throwable != null ? cancelReport(report) : writeReport(report, results.size(), report.defaultPath());
             SwingUtilities.invokeLater(() -> {
                 if (throwable != null) {
                     updateStatus("Generation failed: " + throwable.getMessage());
@@ -349,7 +358,8 @@ public class UIEventHandler {
                     fireEvent(new EventData(EventType.GENERATION_FAILED, throwable, "Generation failed"));
                 } else {
                     displayResults(results);
-                    updateStatus("Generated " + results.size() + " items successfully.");
+                    updateStatus("Generated " + results.size() + " items successfully."
+                            + (reportFile != null ? " Report: " + reportFile : ""));
                     setProgress(100);
                     fireEvent(new EventData(EventType.GENERATION_COMPLETED, results, "Generation completed"));
                 }
@@ -446,15 +456,25 @@ public class UIEventHandler {
             updateStatus("Exporting data...");
             fireEvent(new EventData(EventType.EXPORT_STARTED, format, "Export started"));
             
+            RunReport report = RunReport.start("ui-export");
+            report.put("format", format.name());
+            
             CompletableFuture<DataExportManager.ExportResult> future = exportManager.exportDataAsync(data, settings);
             
             future.whenComplete((result, throwable) -> {
+                boolean failed = throwable != null || !result.isSuccess();
+                if (!failed) {
+                    report.addOutput(Paths.get(result.getFilePath()));
+                }
+                Path reportFile = failed ? cancelReport(report)
+                        : writeReport(report, data.size(), RunReport.pathFor(Paths.get(result.getFilePath())));
                 SwingUtilities.invokeLater(() -> {
-                    if (throwable != null || !result.isSuccess()) {
+                    if (failed) {
                         String error = throwable != null ? throwable.getMessage() : result.getError();
                         updateStatus("Export failed: " + error);
                     } else {
-                        updateStatus("Data exported to: " + result.getFilePath());
+                        updateStatus("Data exported to: " + result.getFilePath()
+                                + (reportFile != null ? " Report: " + reportFile : ""));
                         fireEvent(new EventData(EventType.EXPORT_COMPLETED, result, "Export completed"));
                     }
                 });
@@ -462,6 +482,35 @@ public class UIEventHandler {
         }
     }
     
+    /**
+     * Finishes the report of a job and writes it, a report that can not be written does not fail the job.
+     * 
+     * @param report The report of the job
+     * @param rows Number of rows the job delivered
+     * @param file The report file
+     * @return The report file, or null if it could not be written
+     */
+    private Path writeReport(RunReport report, long rows, Path file) {
+        try {
+            report.finish(rows);
+            report.write(file);
+            return file;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Stops the report of a failed job.
+     * 
+     * @param report The report of the job
+     * @return Always null, no report is written
+     */
+    private Path cancelReport(RunReport report) {
+        report.cancel();
+        return null;
+    }
+    
     /**
      * Handles loading example configurations.
      * 
@@ -2,6 +2,7 @@ package com.controller.helpers;
 
 import com.controller.business.GeneratorController;
 import com.controller.business.ValidationController;
+import com.controller.jfr.PreviewRunEvent;
 import com.model.GeneratorConfiguration;
 import com.model.Template;
 
@@ -73,6 +74,8 @@ public class PreviewGenerator {
         void onPreviewUpdated(PreviewResult result);
     }
     
+    private static final int PREVIEW_ROWS = 3;
+    
     private final GeneratorController generatorController;
     private final ValidationController validationController;
     private final ScheduledExecutorService scheduler;
@@ -303,30 +306,16 @@ public class PreviewGenerator {
         // Generate preview asynchronously
         CompletableFuture.supplyAsync(() -> {
             long startTime = System.currentTimeMillis();
-            try {
-                // Generate multiple samples for better preview
-                List<String> samples = generatorController.generateNumbers(currentTemplate, currentConfiguration, 3);
-                long endTime = System.currentTimeMillis();
-                
-                if (samples.isEmpty()) {
-                    return PreviewResult.error("No data generated");
-                }
-                
-                StringBuilder preview = new StringBuilder();
-                preview.append("Sample output:\n");
-                for (int i = 0; i < Math.min(samples.size(), 3); i++) {
-                    preview.append("  ").append(i + 1).append(". ").append(samples.get(i)).append("\n");
-                }
-                
-                if (samples.size() > 3) {
-                    preview.append("  ... (and more)");
-                }
-                
-                return PreviewResult.success(preview.toString(), endTime - startTime);
-                
-            } catch (Exception e) {
-                return PreviewResult.error("Generation error: " + e.getMessage());
+            PreviewRunEvent event = new PreviewRunEvent();
+            event.begin();
+            PreviewResult result = generatePreviewResult(startTime);
+            if (event.shouldCommit()) {
+                event.success = result.isSuccess();
+                event.error = result.getError();
+                event.rows = result.isSuccess() ? PREVIEW_ROWS : 0;
+                event.commit();
             }
+            return result;
         }).whenComplete((result, throwable) -> {
             SwingUtilities.invokeLater(() -> {
                 if (throwable != null) {
@@ -338,6 +327,39 @@ public class PreviewGenerator {
         });
     }
     
+    /**
+     * Generates the sample rows of the preview and renders them.
+     * 
+     * @param startTime Time the preview run started
+     * @return The preview result
+     */
+    private PreviewResult generatePreviewResult(long startTime) {
+        try {
+            // Generate multiple samples for better preview
+            List<String> samples = generatorController.generateNumbers(currentTemplate, currentConfiguration, PREVIEW_ROWS);
+            long endTime = System.currentTimeMillis();
+            
+            if (samples.isEmpty()) {
+                return PreviewResult.error("No data generated");
+            }
+            
+            StringBuilder preview = new StringBuilder();
+            preview.append("Sample output:\n");
+            for (int i = 0; i < Math.min(samples.size(), PREVIEW_ROWS); i++) {
+                preview.append("  ").append(i + 1).append(". ").append(samples.get(i)).append("\n");
+            }
+            
+            if (samples.size() > PREVIEW_ROWS) {
+                preview.append("  ... (and more)");
+            }
+            
+            return PreviewResult.success(preview.toString(), endTime - startTime);
+            
+        } catch (Exception e) {
+            return PreviewResult.error("Generation error: " + e.getMessage());
+        }
+    }
+    
     /**
      * Updates the preview display with the result.
      * 
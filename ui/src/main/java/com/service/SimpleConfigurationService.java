@@ -6,9 +6,10 @@ import com.view.GeneratorPanel;
 import javax.swing.*;
 import java.awt.*;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -86,7 +87,7 @@ public class SimpleConfigurationService {
     
     private void saveConfigurationToFile(File file, String templateFormat, int batchSize,
                                        int evaluatorCount, List<Component> generatorComponents) throws IOException {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8))) {
             writer.println("# Multi-Format Data Generator Configuration");
             writer.println("# Generated: " + getCurrentTimestamp());
             writer.println("# Version: 3.0");
@@ -120,34 +121,8 @@ public class SimpleConfigurationService {
     }
     
     private GeneratorConfiguration loadConfigurationFromFile(File file) throws IOException {
-        GeneratorConfiguration config = new GeneratorConfiguration();
-        GeneratorConfiguration.ConfigurationMetadata metadata = new GeneratorConfiguration.ConfigurationMetadata();
-        List<GeneratorConfiguration.GeneratorConfig> generators = new ArrayList<>();
-        
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                if (line.startsWith("#") || line.isEmpty()) {
-                    continue;
-                }
-                
-                if (line.startsWith("template_format=")) {
-                    config.setTemplateFormat(line.substring("template_format=".length()));
-                } else if (line.startsWith("batch_size=")) {
-                    config.setBatchSize(Integer.parseInt(line.substring("batch_size=".length())));
-                } else if (line.startsWith("evaluator_count=")) {
-                    config.setEvaluatorCount(Integer.parseInt(line.substring("evaluator_count=".length())));
-                }
-                // Note: For simplicity, we're not parsing generator configurations in this version
-            }
-        }
-        
-        metadata.setName(getFileNameWithoutExtension(file));
-        metadata.setLastModified(getCurrentTimestamp());
-        config.setMetadata(metadata);
-        config.setGenerators(generators);
-        
+        GeneratorConfiguration config = ConfigurationFileParser.load(file.toPath());
+        config.getMetadata().setLastModified(getCurrentTimestamp());
         return config;
     }
     
@@ -168,12 +143,6 @@ public class SimpleConfigurationService {
         return LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
     }
     
-    private String getFileNameWithoutExtension(File file) {
-        String name = file.getName();
-        int lastDot = name.lastIndexOf('.');
-        return lastDot > 0 ? name.substring(0, lastDot) : name;
-    }
-    
     private void showErrorDialog(Component parent, String title, String message) {
         JOptionPane.showMessageDialog(parent, message, title, JOptionPane.ERROR_MESSAGE);
     }
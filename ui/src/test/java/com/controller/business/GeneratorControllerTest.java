@@ -10,7 +10,10 @@ import static org.junit.jupiter.api.Assertions.*;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import com.controller.generators.GenerationJob;
 
 /**
  * Unit tests for GeneratorController.
@@ -32,8 +35,9 @@ class GeneratorControllerTest {
         testGeneratorConfig.setType("SEQUENTIALNUMBERGENERATOR");
         
         Map<String, String> properties = new HashMap<>();
+        properties.put("input", "0");
         properties.put("length", "5");
-        properties.put("start", "1");
+        properties.put("start", "10000");
         properties.put("step", "1");
         properties.put("padding-length", "0");
         
@@ -150,4 +154,44 @@ class GeneratorControllerTest {
             assertNotNull(results);
         });
     }
+    
+    @Test
+    @DisplayName("Should split large batches over the workers and keep the order")
+    void testMultiWorkerGeneration() {
+        GeneratorController controller = new GeneratorController(3);
+        try {
+            List<String> results = controller.generateNumbers(testTemplate, testConfiguration, 20_000);
+            
+            assertEquals(3, controller.getWorkerCount());
+            assertEquals(20_000, results.size());
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(String.valueOf(10_001 + i), results.get(i));
+            }
+            assertFalse(controller.isGenerating());
+        } finally {
+            controller.shutdown();
+        }
+    }
+    
+    @Test
+    @DisplayName("Should stop a running generation")
+    void testStopGeneration() throws Exception {
+        GeneratorConfiguration.GeneratorConfig evaluator = new GeneratorConfiguration.GeneratorConfig();
+        evaluator.setType("EVALUATION");
+        evaluator.setEvaluator(true);
+        Map<String, String> properties = new HashMap<>();
+        properties.put("input", "0");
+        properties.put("formula", "(A+B+C+D+E) % 2 == 0");
+        evaluator.setProperties(properties);
+        testConfiguration.getGeneratorConfigs().put("evaluator_0", evaluator);
+        
+        GenerationJob job = generatorController.startGeneration(testTemplate, testConfiguration, 40_000);
+        assertTrue(generatorController.isGenerating());
+        generatorController.stopGeneration();
+        
+        assertTrue(job.isCancelled());
+        assertThrows(CancellationException.class, () -> job.getResult().get(1, TimeUnit.SECONDS));
+        assertFalse(generatorController.isGenerating());
+        generatorController.shutdown();
+    }
 }